@@ -206,4 +206,127 @@ public interface AOV3APICallsType
     AOV3Vendor vendor,
     Optional<String> project
   );
+
+  /**
+   * Create a cursor over all pages of release names.
+   *
+   * @param errorReceiver A receiver of errors encountered during the API call
+   * @param pageSize      The page size
+   * @param releaseKind   The target release kind
+   * @param sortOrder     The result sort order
+   * @param vendor        The target vendor
+   * @param versionRange  The range of versions to fetch
+   *
+   * @return A page cursor
+   *
+   * @see #releaseNames
+   */
+
+  default AOV3PageCursorType<String> releaseNamesPages(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    return new AOV3PageCursor<>(page -> this.releaseNames(
+      errorReceiver,
+      page,
+      pageSize,
+      releaseKind,
+      sortOrder,
+      vendor,
+      versionRange
+    ));
+  }
+
+  /**
+   * Create a cursor over all pages of release versions.
+   *
+   * @param errorReceiver A receiver of errors encountered during the API call
+   * @param pageSize      The page size
+   * @param releaseKind   The target release kind
+   * @param sortOrder     The result sort order
+   * @param vendor        The target vendor
+   * @param versionRange  The range of versions to fetch
+   *
+   * @return A page cursor
+   *
+   * @see #releaseVersions
+   */
+
+  default AOV3PageCursorType<AOV3VersionData> releaseVersionsPages(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    return new AOV3PageCursor<>(page -> this.releaseVersions(
+      errorReceiver,
+      page,
+      pageSize,
+      releaseKind,
+      sortOrder,
+      vendor,
+      versionRange
+    ));
+  }
+
+  /**
+   * Create a cursor over all pages of assets for a release.
+   *
+   * @param errorReceiver     A receiver of errors encountered during the API call
+   * @param pageSize          The page size
+   * @param version           The target version
+   * @param releaseKind       The target release kind
+   * @param architecture      The target architecture
+   * @param heapSize          The target heap size
+   * @param imageKind         The target image kind
+   * @param jvmImplementation The target JVM implementation
+   * @param operatingSystem   The target operating system
+   * @param project           The target project
+   * @param sortOrder         The result sort order
+   * @param vendor            The target vendor
+   *
+   * @return A page cursor
+   *
+   * @see #assetsForRelease
+   */
+
+  // CHECKSTYLE:OFF
+  default AOV3PageCursorType<AOV3Release> assetsForReleasePages(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger pageSize,
+    final BigInteger version,
+    final AOV3ReleaseKind releaseKind,
+    final Optional<AOV3Architecture> architecture,
+    final Optional<AOV3HeapSize> heapSize,
+    final Optional<AOV3ImageKind> imageKind,
+    final Optional<AOV3JVMImplementation> jvmImplementation,
+    final Optional<AOV3OperatingSystem> operatingSystem,
+    final Optional<String> project,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor
+  // CHECKSTYLE:ON
+  )
+  {
+    return new AOV3PageCursor<>(page -> this.assetsForRelease(
+      errorReceiver,
+      page,
+      pageSize,
+      version,
+      releaseKind,
+      architecture,
+      heapSize,
+      imageKind,
+      jvmImplementation,
+      operatingSystem,
+      project,
+      sortOrder,
+      vendor
+    ));
+  }
 }
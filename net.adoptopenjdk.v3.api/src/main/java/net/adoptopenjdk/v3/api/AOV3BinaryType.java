@@ -41,7 +41,19 @@ public interface AOV3BinaryType
    * @return The number of times the distribution has been downloaded
    */
 
-  BigInteger downloadCount();
+  long downloadCountAsLong();
+
+  /**
+   * @return The number of times the distribution has been downloaded
+   *
+   * @deprecated Use {@link #downloadCountAsLong()}
+   */
+
+  @Deprecated
+  default BigInteger downloadCount()
+  {
+    return BigInteger.valueOf(this.downloadCountAsLong());
+  }
 
   /**
    * @return The heap size configuration
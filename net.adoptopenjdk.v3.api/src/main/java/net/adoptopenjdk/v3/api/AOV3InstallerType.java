@@ -47,7 +47,19 @@ public interface AOV3InstallerType
    * @return The number of times the package has been downloaded
    */
 
-  BigInteger downloadCount();
+  long downloadCountAsLong();
+
+  /**
+   * @return The number of times the package has been downloaded
+   *
+   * @deprecated Use {@link #downloadCountAsLong()}
+   */
+
+  @Deprecated
+  default BigInteger downloadCount()
+  {
+    return BigInteger.valueOf(this.downloadCountAsLong());
+  }
 
   /**
    * @return The link to the data
@@ -71,5 +83,17 @@ public interface AOV3InstallerType
    * @return The package size
    */
 
-  BigInteger size();
+  long sizeAsLong();
+
+  /**
+   * @return The package size
+   *
+   * @deprecated Use {@link #sizeAsLong()}
+   */
+
+  @Deprecated
+  default BigInteger size()
+  {
+    return BigInteger.valueOf(this.sizeAsLong());
+  }
 }
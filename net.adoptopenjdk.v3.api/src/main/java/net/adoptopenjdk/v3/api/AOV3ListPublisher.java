@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.api;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The default publisher implementation, built on
+ * {@link AOV3RequestType#executeAsync()}. Each subscription executes the
+ * request once, and then publishes the elements of the resulting list as
+ * they are requested.
+ *
+ * @param <T> The type of published elements
+ */
+
+final class AOV3ListPublisher<T> implements Flow.Publisher<T>
+{
+  private final Supplier<CompletableFuture<List<T>>> requests;
+
+  AOV3ListPublisher(
+    final Supplier<CompletableFuture<List<T>>> inRequests)
+  {
+    this.requests = Objects.requireNonNull(inRequests, "requests");
+  }
+
+  @Override
+  public void subscribe(
+    final Flow.Subscriber<? super T> subscriber)
+  {
+    Objects.requireNonNull(subscriber, "subscriber");
+
+    final var subscription = new Subscription<T>(subscriber);
+    subscriber.onSubscribe(subscription);
+    this.requests.get().whenComplete(subscription::received);
+  }
+
+  private static final class Subscription<T> implements Flow.Subscription
+  {
+    private final Flow.Subscriber<? super T> subscriber;
+    private final AtomicLong demand;
+    private final AtomicInteger wip;
+    private volatile List<T> results;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+    private int index;
+    private boolean done;
+
+    Subscription(
+      final Flow.Subscriber<? super T> inSubscriber)
+    {
+      this.subscriber = inSubscriber;
+      this.demand = new AtomicLong();
+      this.wip = new AtomicInteger();
+    }
+
+    void received(
+      final List<T> inResults,
+      final Throwable exception)
+    {
+      if (exception != null) {
+        this.failure =
+          exception instanceof CompletionException
+            && exception.getCause() != null
+            ? exception.getCause()
+            : exception;
+      } else {
+        this.results = inResults;
+      }
+      this.drain();
+    }
+
+    @Override
+    public void request(
+      final long count)
+    {
+      if (count <= 0L) {
+        this.failure = new IllegalArgumentException(
+          String.format("Requested count %d must be positive", count));
+      } else {
+        this.demand.getAndAccumulate(
+          count, (x, y) -> x + y < 0L ? Long.MAX_VALUE : x + y);
+      }
+      this.drain();
+    }
+
+    @Override
+    public void cancel()
+    {
+      this.cancelled = true;
+    }
+
+    /**
+     * Deliver signals to the subscriber. Only one thread delivers signals
+     * at any given time; a thread that calls this method whilst another
+     * thread is delivering signals causes that thread to check for work
+     * again before it returns.
+     */
+
+    private void drain()
+    {
+      if (this.wip.getAndIncrement() != 0) {
+        return;
+      }
+
+      var missed = 1;
+      while (true) {
+        this.deliver();
+        missed = this.wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void deliver()
+    {
+      while (!this.done && !this.cancelled) {
+        final var exception = this.failure;
+        if (exception != null) {
+          this.done = true;
+          this.subscriber.onError(exception);
+          return;
+        }
+
+        final var current = this.results;
+        if (current == null) {
+          return;
+        }
+        if (this.index == current.size()) {
+          this.done = true;
+          this.subscriber.onComplete();
+          return;
+        }
+        if (this.demand.get() == 0L) {
+          return;
+        }
+
+        this.demand.decrementAndGet();
+        final var element = current.get(this.index);
+        this.index += 1;
+        this.subscriber.onNext(element);
+      }
+    }
+  }
+}
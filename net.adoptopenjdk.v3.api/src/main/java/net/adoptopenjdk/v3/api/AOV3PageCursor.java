@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.api;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * The default page cursor implementation, built on
+ * {@link AOV3RequestType#executeAsync()}.
+ *
+ * @param <T> The type of page elements
+ */
+
+final class AOV3PageCursor<T> implements AOV3PageCursorType<T>
+{
+  private final Function<BigInteger, ? extends AOV3RequestType<List<T>>> requests;
+  private BigInteger page;
+  private CompletableFuture<List<T>> next;
+  private boolean done;
+
+  AOV3PageCursor(
+    final Function<BigInteger, ? extends AOV3RequestType<List<T>>> inRequests)
+  {
+    this.requests =
+      Objects.requireNonNull(inRequests, "requests");
+    this.page = BigInteger.ZERO;
+  }
+
+  private static boolean isEndOfPages(
+    final Throwable cause)
+  {
+    return cause instanceof AOV3ExceptionHTTPRequestFailed
+      && ((AOV3ExceptionHTTPRequestFailed) cause).statusCode() == 404;
+  }
+
+  private CompletableFuture<List<T>> fetch(
+    final BigInteger pageNumber)
+  {
+    return this.requests.apply(pageNumber).executeAsync();
+  }
+
+  @Override
+  public synchronized Optional<List<T>> nextPage()
+    throws AOV3Exception, InterruptedException
+  {
+    if (this.done) {
+      return Optional.empty();
+    }
+
+    final var current =
+      this.next != null ? this.next : this.fetch(this.page);
+    this.next = null;
+
+    final List<T> results;
+    try {
+      results = current.get();
+    } catch (final InterruptedException e) {
+      current.cancel(true);
+      throw e;
+    } catch (final ExecutionException e) {
+      this.done = true;
+      final var cause = e.getCause();
+      if (isEndOfPages(cause)) {
+        return Optional.empty();
+      }
+      if (cause instanceof AOV3Exception) {
+        throw (AOV3Exception) cause;
+      }
+      if (cause instanceof InterruptedException) {
+        throw (InterruptedException) cause;
+      }
+      throw new AOV3Exception(cause);
+    }
+
+    if (results.isEmpty()) {
+      this.done = true;
+      return Optional.empty();
+    }
+
+    this.page = this.page.add(BigInteger.ONE);
+    this.next = this.fetch(this.page);
+    return Optional.of(results);
+  }
+
+  @Override
+  public synchronized void close()
+  {
+    this.done = true;
+    if (this.next != null) {
+      this.next.cancel(true);
+      this.next = null;
+    }
+  }
+}
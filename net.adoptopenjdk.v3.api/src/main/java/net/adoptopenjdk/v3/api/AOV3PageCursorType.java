@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.api;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A cursor over the pages of a paged API call. Pages are fetched lazily;
+ * while the caller is consuming page {@code N}, page {@code N + 1} is
+ * fetched in the background. The cursor is exhausted when the server
+ * returns an empty page, or responds with a 404 status code after the
+ * last page.
+ *
+ * @param <T> The type of page elements
+ */
+
+public interface AOV3PageCursorType<T> extends AutoCloseable
+{
+  /**
+   * Fetch the next page.
+   *
+   * @return The next page, or nothing if there are no more pages
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  Optional<List<T>> nextPage()
+    throws AOV3Exception, InterruptedException;
+
+  /**
+   * Close the cursor, cancelling any page fetches that are in progress.
+   */
+
+  @Override
+  void close();
+
+  /**
+   * Return a lazy stream of the remaining pages. Errors encountered whilst
+   * fetching pages are raised as {@link AOV3UncheckedException}. Closing
+   * the stream closes the cursor.
+   *
+   * @return A stream of pages
+   */
+
+  default Stream<List<T>> pages()
+  {
+    final var spliterator =
+      new Spliterators.AbstractSpliterator<List<T>>(
+        Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+      {
+        @Override
+        public boolean tryAdvance(
+          final Consumer<? super List<T>> action)
+        {
+          try {
+            final var page = AOV3PageCursorType.this.nextPage();
+            page.ifPresent(action);
+            return page.isPresent();
+          } catch (final AOV3Exception e) {
+            throw new AOV3UncheckedException(e);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AOV3UncheckedException(new AOV3Exception(e));
+          }
+        }
+      };
+
+    return StreamSupport.stream(spliterator, false)
+      .onClose(this::close);
+  }
+
+  /**
+   * Return a lazy stream of the elements of the remaining pages.
+   *
+   * @return A stream of elements
+   *
+   * @see #pages()
+   */
+
+  default Stream<T> elements()
+  {
+    return this.pages().flatMap(List::stream);
+  }
+}
@@ -43,7 +43,19 @@ public interface AOV3ReleaseType
    * @return The number of times the release has been downloaded
    */
 
-  BigInteger downloadCount();
+  long downloadCountAsLong();
+
+  /**
+   * @return The number of times the release has been downloaded
+   *
+   * @deprecated Use {@link #downloadCountAsLong()}
+   */
+
+  @Deprecated
+  default BigInteger downloadCount()
+  {
+    return BigInteger.valueOf(this.downloadCountAsLong());
+  }
 
   /**
    * @return The release identifier
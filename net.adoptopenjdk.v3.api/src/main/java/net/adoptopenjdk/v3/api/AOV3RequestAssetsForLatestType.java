@@ -17,6 +17,7 @@
 package net.adoptopenjdk.v3.api;
 
 import java.util.List;
+import java.util.concurrent.Flow;
 
 /**
  * Request assets for the latest release.
@@ -27,5 +28,21 @@ import java.util.List;
 public interface AOV3RequestAssetsForLatestType
   extends AOV3RequestType<List<AOV3ListBinaryAssetView>>
 {
+  /**
+   * Create a publisher of assets. Each subscription executes the request,
+   * and assets are published to the subscriber as they are requested.
+   * Failures are delivered to the subscriber as an {@link AOV3Exception}.
+   *
+   * The default implementation publishes the results of
+   * {@link #executeAsync()}; implementations are encouraged to override this
+   * method with an implementation that parses assets as the response
+   * arrives, without blocking threads on I/O.
+   *
+   * @return A publisher of assets
+   */
 
+  default Flow.Publisher<AOV3ListBinaryAssetView> executePublisher()
+  {
+    return new AOV3ListPublisher<>(this::executeAsync);
+  }
 }
@@ -17,6 +17,8 @@
 package net.adoptopenjdk.v3.api;
 
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 
 /**
  * Request assets for a specific release.
@@ -28,5 +30,39 @@ import java.util.List;
 public interface AOV3RequestAssetsForReleaseType
   extends AOV3RequestType<List<AOV3Release>>
 {
+  /**
+   * Execute the request, passing each release to the given receiver as it
+   * is received. Implementations are encouraged to parse releases
+   * incrementally so that the full list of releases is never held in memory.
+   *
+   * @param receiver The release receiver
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
 
+  default void executeStreaming(
+    final Consumer<AOV3Release> receiver)
+    throws AOV3Exception, InterruptedException
+  {
+    this.execute().forEach(receiver);
+  }
+
+  /**
+   * Create a publisher of releases. Each subscription executes the request,
+   * and releases are published to the subscriber as they are requested.
+   * Failures are delivered to the subscriber as an {@link AOV3Exception}.
+   *
+   * The default implementation publishes the results of
+   * {@link #executeAsync()}; implementations are encouraged to override this
+   * method with an implementation that parses releases as the response
+   * arrives, without blocking threads on I/O.
+   *
+   * @return A publisher of releases
+   */
+
+  default Flow.Publisher<AOV3Release> executePublisher()
+  {
+    return new AOV3ListPublisher<>(this::executeAsync);
+  }
 }
@@ -16,6 +16,9 @@
 
 package net.adoptopenjdk.v3.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * An executable request. Requests can be created once and re-executed an
  * arbitrary number of times.
@@ -36,4 +39,30 @@ public interface AOV3RequestType<T>
 
   T execute()
     throws AOV3Exception, InterruptedException;
+
+  /**
+   * Execute the request asynchronously. The returned future is completed
+   * with the received data, or is completed exceptionally with a
+   * {@link CompletionException} whose cause is an {@link AOV3Exception}.
+   *
+   * The default implementation simply calls {@link #execute()} on the
+   * common fork/join pool; implementations are encouraged to override this
+   * method with an implementation that does not block threads on I/O.
+   *
+   * @return A future representing the request in progress
+   */
+
+  default CompletableFuture<T> executeAsync()
+  {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return this.execute();
+      } catch (final AOV3Exception e) {
+        throw new CompletionException(e);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      }
+    });
+  }
 }
@@ -46,5 +46,17 @@ public interface AOV3SourceType
    * @return The source distribution size
    */
 
-  BigInteger size();
+  long sizeAsLong();
+
+  /**
+   * @return The source distribution size
+   *
+   * @deprecated Use {@link #sizeAsLong()}
+   */
+
+  @Deprecated
+  default BigInteger size()
+  {
+    return BigInteger.valueOf(this.sizeAsLong());
+  }
 }
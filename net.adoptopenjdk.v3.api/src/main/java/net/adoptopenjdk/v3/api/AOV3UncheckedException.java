@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.api;
+
+import java.util.Objects;
+
+/**
+ * An unchecked exception that wraps an {@link AOV3Exception}. This is used
+ * in contexts such as streams where checked exceptions cannot be raised.
+ */
+
+public final class AOV3UncheckedException extends RuntimeException
+{
+  /**
+   * Construct an exception.
+   *
+   * @param cause The cause
+   */
+
+  public AOV3UncheckedException(
+    final AOV3Exception cause)
+  {
+    super(Objects.requireNonNull(cause, "cause"));
+  }
+
+  @Override
+  public synchronized AOV3Exception getCause()
+  {
+    return (AOV3Exception) super.getCause();
+  }
+}
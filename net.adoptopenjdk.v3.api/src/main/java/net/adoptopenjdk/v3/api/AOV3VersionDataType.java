@@ -33,21 +33,73 @@ public interface AOV3VersionDataType
    * @return The AdoptOpenJDK build number
    */
 
-  BigInteger adoptBuildNumber();
+  int adoptBuildNumberAsInt();
 
-  BigInteger build();
+  /**
+   * @return The AdoptOpenJDK build number
+   *
+   * @deprecated Use {@link #adoptBuildNumberAsInt()}
+   */
+
+  @Deprecated
+  default BigInteger adoptBuildNumber()
+  {
+    return BigInteger.valueOf((long) this.adoptBuildNumberAsInt());
+  }
+
+  /**
+   * @return The build number
+   */
+
+  int buildAsInt();
+
+  /**
+   * @return The build number
+   *
+   * @deprecated Use {@link #buildAsInt()}
+   */
+
+  @Deprecated
+  default BigInteger build()
+  {
+    return BigInteger.valueOf((long) this.buildAsInt());
+  }
+
+  /**
+   * @return The major version number
+   */
+
+  int majorAsInt();
 
   /**
    * @return The major version number
+   *
+   * @deprecated Use {@link #majorAsInt()}
    */
 
-  BigInteger major();
+  @Deprecated
+  default BigInteger major()
+  {
+    return BigInteger.valueOf((long) this.majorAsInt());
+  }
 
   /**
    * @return The minor version number
    */
 
-  BigInteger minor();
+  int minorAsInt();
+
+  /**
+   * @return The minor version number
+   *
+   * @deprecated Use {@link #minorAsInt()}
+   */
+
+  @Deprecated
+  default BigInteger minor()
+  {
+    return BigInteger.valueOf((long) this.minorAsInt());
+  }
 
   String openJDKVersion();
 
@@ -55,11 +107,64 @@ public interface AOV3VersionDataType
 
   String pre();
 
-  BigInteger security();
+  /**
+   * @return The security version number
+   */
+
+  int securityAsInt();
+
+  /**
+   * @return The security version number
+   *
+   * @deprecated Use {@link #securityAsInt()}
+   */
+
+  @Deprecated
+  default BigInteger security()
+  {
+    return BigInteger.valueOf((long) this.securityAsInt());
+  }
 
   /**
    * @return The semantic version number
    */
 
   String semanticVersion();
+
+  /**
+   * Compare two sets of version data by their major, minor, security,
+   * build, and AdoptOpenJDK build numbers, in that order. The comparison
+   * does not allocate, and so can be used as a {@link java.util.Comparator}
+   * when sorting large numbers of binaries.
+   *
+   * @param x The first version
+   * @param y The second version
+   *
+   * @return The result of comparing {@code x} to {@code y}
+   */
+
+  static int compareNumerically(
+    final AOV3VersionDataType x,
+    final AOV3VersionDataType y)
+  {
+    int c = Integer.compare(x.majorAsInt(), y.majorAsInt());
+    if (c != 0) {
+      return c;
+    }
+    c = Integer.compare(x.minorAsInt(), y.minorAsInt());
+    if (c != 0) {
+      return c;
+    }
+    c = Integer.compare(x.securityAsInt(), y.securityAsInt());
+    if (c != 0) {
+      return c;
+    }
+    c = Integer.compare(x.buildAsInt(), y.buildAsInt());
+    if (c != 0) {
+      return c;
+    }
+    return Integer.compare(
+      x.adoptBuildNumberAsInt(),
+      y.adoptBuildNumberAsInt());
+  }
 }
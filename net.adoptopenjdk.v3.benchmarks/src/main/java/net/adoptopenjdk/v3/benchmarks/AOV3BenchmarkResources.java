@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Functions to load the JSON fixtures used by benchmarks.
+ */
+
+public final class AOV3BenchmarkResources
+{
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private AOV3BenchmarkResources()
+  {
+
+  }
+
+  /**
+   * Load the named fixture.
+   *
+   * @param name The fixture name
+   *
+   * @return The fixture data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static byte[] load(
+    final String name)
+    throws IOException
+  {
+    final var path =
+      String.format("/net/adoptopenjdk/v3/tests/%s", name);
+
+    try (var stream = AOV3BenchmarkResources.class.getResourceAsStream(path)) {
+      if (stream == null) {
+        throw new FileNotFoundException(path);
+      }
+      return stream.readAllBytes();
+    }
+  }
+
+  /**
+   * Load the named fixture, repeating the elements of the array it contains
+   * {@code factor} times. The fixture must either be an array, or an object
+   * containing exactly one array-valued field. The data is written back out
+   * with the same mapper at every factor, including {@code 1}, so that
+   * scales differ only in the number of elements and not in formatting.
+   *
+   * @param name   The fixture name
+   * @param factor The scale factor
+   *
+   * @return The scaled fixture data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static byte[] loadScaled(
+    final String name,
+    final int factor)
+    throws IOException
+  {
+    final var root = MAPPER.readTree(load(name));
+    if (root.isArray()) {
+      return MAPPER.writeValueAsBytes(repeat((ArrayNode) root, factor));
+    }
+
+    if (root.isObject()) {
+      final var object = (ObjectNode) root;
+      final var names = object.fieldNames();
+      while (names.hasNext()) {
+        final var field = names.next();
+        final JsonNode value = object.get(field);
+        if (value.isArray()) {
+          object.set(field, repeat((ArrayNode) value, factor));
+          return MAPPER.writeValueAsBytes(object);
+        }
+      }
+    }
+
+    throw new IOException(
+      String.format("Fixture %s does not contain an array", name));
+  }
+
+  private static ArrayNode repeat(
+    final ArrayNode array,
+    final int factor)
+  {
+    final var result = MAPPER.createArrayNode();
+    for (int index = 0; index < factor; ++index) {
+      result.addAll(array);
+    }
+    return result;
+  }
+}
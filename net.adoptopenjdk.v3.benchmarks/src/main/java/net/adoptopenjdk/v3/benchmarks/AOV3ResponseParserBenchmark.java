@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.benchmarks;
+
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3VersionData;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParserType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsers;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsersType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the response parsers. Each fixture is parsed as-is, and
+ * with its contents repeated 10 and 100 times. Run with {@code -prof gc} to
+ * report allocation rates alongside throughput.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AOV3ResponseParserBenchmark
+{
+  private static final URI SOURCE = URI.create("urn:benchmark");
+
+  // CHECKSTYLE:OFF
+  @Param({"1", "10", "100"})
+  public int scale;
+  // CHECKSTYLE:ON
+
+  private AOV3ResponseParsersType parsers;
+  private byte[] releases8;
+  private byte[] assetsForRelease;
+  private byte[] assetsForLatest;
+  private byte[] releaseNames;
+  private byte[] releaseVersions;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public AOV3ResponseParserBenchmark()
+  {
+
+  }
+
+  private static void ignoreError(
+    final AOV3Error error)
+  {
+
+  }
+
+  /**
+   * Load and scale the fixtures.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.parsers =
+      AOV3ResponseParsers.create();
+    this.releases8 =
+      AOV3BenchmarkResources.loadScaled("releases8.json", this.scale);
+    this.assetsForRelease =
+      AOV3BenchmarkResources.loadScaled("assetsForRelease.json", this.scale);
+    this.assetsForLatest =
+      AOV3BenchmarkResources.loadScaled("assetsForLatest.json", this.scale);
+    this.releaseNames =
+      AOV3BenchmarkResources.loadScaled("releaseNames.json", this.scale);
+    this.releaseVersions =
+      AOV3BenchmarkResources.loadScaled("releaseVersions.json", this.scale);
+  }
+
+  private AOV3ResponseParserType parserFor(
+    final byte[] data)
+  {
+    return this.parsers.createParser(
+      AOV3ResponseParserBenchmark::ignoreError,
+      SOURCE,
+      new ByteArrayInputStream(data)
+    );
+  }
+
+  /**
+   * @return The parsed releases
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  @Benchmark
+  public List<AOV3Release> parseAssetsForReleaseReleases8()
+    throws AOV3ExceptionParseFailed
+  {
+    return this.parserFor(this.releases8).parseAssetsForRelease();
+  }
+
+  /**
+   * @return The parsed releases
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  @Benchmark
+  public List<AOV3Release> parseAssetsForRelease()
+    throws AOV3ExceptionParseFailed
+  {
+    return this.parserFor(this.assetsForRelease).parseAssetsForRelease();
+  }
+
+  /**
+   * @return The parsed assets
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  @Benchmark
+  public List<AOV3ListBinaryAssetView> parseAssetsForLatest()
+    throws AOV3ExceptionParseFailed
+  {
+    return this.parserFor(this.assetsForLatest).parseAssetsForLatest();
+  }
+
+  /**
+   * @return The parsed release names
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  @Benchmark
+  public List<String> parseReleaseNames()
+    throws AOV3ExceptionParseFailed
+  {
+    return this.parserFor(this.releaseNames).parseReleaseNames();
+  }
+
+  /**
+   * @return The parsed release versions
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  @Benchmark
+  public List<AOV3VersionData> parseReleaseVersions()
+    throws AOV3ExceptionParseFailed
+  {
+    return this.parserFor(this.releaseVersions).parseReleaseVersions();
+  }
+}
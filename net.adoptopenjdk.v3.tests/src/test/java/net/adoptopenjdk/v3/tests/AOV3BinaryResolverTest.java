@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.vanilla.AOV3BinaryCombination;
+import net.adoptopenjdk.v3.vanilla.AOV3BinaryResolver;
+import net.adoptopenjdk.v3.vanilla.AOV3Catalogs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class AOV3BinaryResolverTest
+{
+  private AOV3TestFixtures fixtures;
+  private List<AOV3Release> releases;
+  private AOV3ClientType catalog;
+  private AOV3ClientType counted;
+  private ConcurrentHashMap<String, AtomicInteger> calls;
+
+  @BeforeEach
+  public void testSetup()
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    final var available = this.fixtures.availableReleases();
+    this.releases = this.fixtures.releases();
+
+    this.catalog = AOV3Catalogs.create(available, this.releases);
+    this.calls = new ConcurrentHashMap<>();
+
+    /*
+     * Count the API calls made through the catalog.
+     */
+
+    this.counted = (AOV3ClientType) Proxy.newProxyInstance(
+      AOV3ClientType.class.getClassLoader(),
+      new Class<?>[]{AOV3ClientType.class},
+      (proxy, method, args) -> {
+        this.calls.computeIfAbsent(method.getName(), k -> new AtomicInteger())
+          .incrementAndGet();
+        try {
+          return method.invoke(this.catalog, args);
+        } catch (final InvocationTargetException e) {
+          throw e.getCause();
+        }
+      });
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.catalog.close();
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  private int callsOf(
+    final String name)
+  {
+    final var count = this.calls.get(name);
+    return count == null ? 0 : count.get();
+  }
+
+  private Map<AOV3BinaryCombination, URI> expected(
+    final Iterable<AOV3BinaryCombination> combinations)
+    throws Exception
+  {
+    final var results = new LinkedHashMap<AOV3BinaryCombination, URI>();
+    for (final var combination : combinations) {
+      try {
+        results.put(
+          combination,
+          this.catalog.binaryForLatest(
+            this.fixtures::logError,
+            combination.architecture(),
+            combination.version(),
+            combination.heapSize(),
+            combination.imageKind(),
+            combination.jvmImplementation(),
+            combination.operatingSystem(),
+            combination.releaseKind(),
+            combination.vendor(),
+            combination.project()
+          ).execute());
+      } catch (final AOV3ExceptionHTTPRequestFailed e) {
+        Assertions.assertEquals(404, e.statusCode());
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Resolving every combination present in the catalog agrees with
+   * resolving each combination individually, and uses a single assets
+   * request per feature version and JVM implementation.
+   */
+
+  @Test
+  public void testResolveAgreesWithCatalog()
+    throws Exception
+  {
+    final var combinations = new LinkedHashSet<AOV3BinaryCombination>();
+    final var groups = new HashSet<List<Object>>();
+    for (final var release : this.releases) {
+      final var version =
+        BigInteger.valueOf((long) release.versionData().majorAsInt());
+
+      for (final var binary : release.binaries()) {
+        for (final var kind : AOV3ReleaseKind.values()) {
+          combinations.add(AOV3BinaryCombination.of(
+            binary.architecture(),
+            version,
+            binary.heapSize(),
+            binary.imageType(),
+            binary.jvmImplementation(),
+            binary.operatingSystem(),
+            kind,
+            release.vendor(),
+            Optional.of(binary.project())
+          ));
+        }
+        groups.add(List.of(version, binary.jvmImplementation()));
+      }
+    }
+
+    final var expected = this.expected(combinations);
+    final var resolved =
+      AOV3BinaryResolver.create(this.counted, 4)
+        .resolve(this.fixtures::logError, combinations);
+
+    Assertions.assertEquals(expected, resolved);
+    Assertions.assertEquals(
+      new ArrayList<>(expected.keySet()),
+      new ArrayList<>(resolved.keySet()));
+    Assertions.assertEquals(groups.size(), this.callsOf("assetsForLatest"));
+    Assertions.assertTrue(
+      this.callsOf("binaryForLatest") < combinations.size());
+  }
+
+  /**
+   * Combinations for which there is no binary are omitted.
+   */
+
+  @Test
+  public void testResolveMissing()
+    throws Exception
+  {
+    final var combination =
+      AOV3BinaryCombination.of(
+        AOV3Architecture.X64,
+        BigInteger.valueOf(99L),
+        AOV3HeapSize.NORMAL,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3OperatingSystem.LINUX,
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      );
+
+    final var resolved =
+      AOV3BinaryResolver.create(this.counted, 1)
+        .resolve(this.fixtures::logError, List.of(combination, combination));
+
+    Assertions.assertEquals(Map.of(), resolved);
+    Assertions.assertEquals(1, this.callsOf("assetsForLatest"));
+    Assertions.assertEquals(1, this.callsOf("binaryForLatest"));
+  }
+
+  @Test
+  public void testConcurrencyInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3BinaryResolver.create(this.catalog, 0);
+    });
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.vanilla.AOV3CatalogSynchronizer;
+import net.adoptopenjdk.v3.vanilla.AOV3Catalogs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class AOV3CatalogSynchronizerTest
+{
+  private static final BigInteger PAGE_SIZE = BigInteger.valueOf(3L);
+
+  private AOV3TestFixtures fixtures;
+  private AOV3AvailableReleases available;
+  private List<AOV3Release> releases;
+  private AOV3ClientType source;
+  private AtomicInteger assetRequests;
+
+  @BeforeEach
+  public void testSetup()
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    this.assetRequests = new AtomicInteger();
+    this.available = this.fixtures.availableReleases();
+
+    final var byId = new LinkedHashMap<String, AOV3Release>();
+    for (final var release : this.fixtures.releases()) {
+      byId.put(release.id(), release);
+    }
+
+    this.releases = new ArrayList<>(byId.values());
+    this.source = AOV3Catalogs.create(this.available, this.releases);
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.source.close();
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  /**
+   * @return The source catalog, counting the asset requests made on it
+   */
+
+  private AOV3ClientType counted()
+  {
+    return (AOV3ClientType) Proxy.newProxyInstance(
+      AOV3ClientType.class.getClassLoader(),
+      new Class<?>[]{AOV3ClientType.class},
+      (proxy, method, args) -> {
+        if ("assetsForRelease".equals(method.getName())) {
+          this.assetRequests.incrementAndGet();
+        }
+        try {
+          return method.invoke(this.source, args);
+        } catch (final InvocationTargetException e) {
+          throw e.getCause();
+        }
+      });
+  }
+
+  private int groups()
+  {
+    return this.available.availableReleases().size()
+      * AOV3ReleaseKind.values().length;
+  }
+
+  @Test
+  public void testInitialSync()
+    throws Exception
+  {
+    final var synchronizer =
+      AOV3CatalogSynchronizer.create(this.counted(), PAGE_SIZE);
+
+    final var changed = synchronizer.sync(this.fixtures::logError);
+    Assertions.assertEquals(
+      new HashSet<>(this.releases),
+      new HashSet<>(changed));
+    Assertions.assertEquals(
+      new HashSet<>(this.releases),
+      new HashSet<>(synchronizer.releases()));
+    Assertions.assertTrue(this.assetRequests.get() > this.groups());
+
+    Assertions.assertTrue(
+      synchronizer.highWaterMark(
+        BigInteger.valueOf(8L),
+        AOV3ReleaseKind.GENERAL_AVAILABILITY
+      ).isPresent());
+
+    try (var catalog = synchronizer.catalog()) {
+      Assertions.assertEquals(
+        this.source.releaseNames(
+          this.fixtures::logError,
+          BigInteger.ZERO,
+          BigInteger.valueOf(1000L),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).execute(),
+        catalog.releaseNames(
+          this.fixtures::logError,
+          BigInteger.ZERO,
+          BigInteger.valueOf(1000L),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).execute());
+    }
+  }
+
+  /**
+   * A synchronization with no changes requests a single page of each
+   * feature version and release kind.
+   */
+
+  @Test
+  public void testIncrementalUnchanged()
+    throws Exception
+  {
+    final var synchronizer =
+      AOV3CatalogSynchronizer.create(this.counted(), PAGE_SIZE);
+
+    synchronizer.sync(this.fixtures::logError);
+    this.assetRequests.set(0);
+
+    Assertions.assertEquals(
+      List.of(),
+      synchronizer.sync(this.fixtures::logError));
+    Assertions.assertEquals(this.groups(), this.assetRequests.get());
+  }
+
+  /**
+   * A synchronizer created from existing releases fetches nothing new.
+   */
+
+  @Test
+  public void testCreateFrom()
+    throws Exception
+  {
+    final var synchronizer =
+      AOV3CatalogSynchronizer.createFrom(
+        this.counted(), PAGE_SIZE, this.releases);
+
+    Assertions.assertEquals(
+      List.of(),
+      synchronizer.sync(this.fixtures::logError));
+    Assertions.assertEquals(this.groups(), this.assetRequests.get());
+  }
+
+  /**
+   * Only the updated release is fetched and merged.
+   */
+
+  @Test
+  public void testIncrementalChanged()
+    throws Exception
+  {
+    final var synchronizer =
+      AOV3CatalogSynchronizer.createFrom(
+        this.counted(), PAGE_SIZE, this.releases);
+
+    final var newest =
+      this.source.assetsForRelease(
+        this.fixtures::logError,
+        BigInteger.ZERO,
+        BigInteger.ONE,
+        BigInteger.valueOf(8L),
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.of(AOV3SortOrder.DESCENDING),
+        Optional.empty()
+      ).execute().get(0);
+
+    final var mark =
+      synchronizer.highWaterMark(
+        BigInteger.valueOf(8L),
+        AOV3ReleaseKind.GENERAL_AVAILABILITY
+      ).orElseThrow();
+
+    final var updated = newest.withUpdatedAt(mark.plusDays(1L));
+    final var modified = new ArrayList<AOV3Release>();
+    for (final var release : this.releases) {
+      modified.add(release.id().equals(updated.id()) ? updated : release);
+    }
+
+    this.source.close();
+    this.source = AOV3Catalogs.create(this.available, modified);
+
+    Assertions.assertEquals(
+      List.of(updated),
+      synchronizer.sync(this.fixtures::logError));
+    Assertions.assertEquals(
+      Optional.of(updated.updatedAt()),
+      synchronizer.highWaterMark(
+        BigInteger.valueOf(8L),
+        AOV3ReleaseKind.GENERAL_AVAILABILITY));
+    Assertions.assertEquals(
+      new HashSet<>(modified),
+      new HashSet<>(synchronizer.releases()));
+    Assertions.assertEquals(this.groups(), this.assetRequests.get());
+  }
+
+  @Test
+  public void testCatalogBeforeSync()
+  {
+    final var synchronizer =
+      AOV3CatalogSynchronizer.create(this.source, PAGE_SIZE);
+
+    Assertions.assertThrows(IllegalStateException.class, synchronizer::catalog);
+  }
+
+  @Test
+  public void testPageSizeInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3CatalogSynchronizer.create(this.source, BigInteger.ZERO);
+    });
+  }
+}
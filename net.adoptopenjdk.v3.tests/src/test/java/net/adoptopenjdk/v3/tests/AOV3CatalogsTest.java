@@ -0,0 +1,277 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.vanilla.AOV3Catalogs;
+import net.adoptopenjdk.v3.vanilla.AOV3Snapshots;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public final class AOV3CatalogsTest
+{
+  private AOV3TestFixtures fixtures;
+  private AOV3AvailableReleases available;
+  private List<AOV3Release> releases;
+  private AOV3ClientType catalog;
+  private AOV3ClientType snapshot;
+
+  @BeforeEach
+  public void testSetup(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    this.available = this.fixtures.availableReleases();
+    this.releases = this.fixtures.releases();
+
+    this.catalog = AOV3Catalogs.create(this.available, this.releases);
+
+    final var file = directory.resolve("snapshot.bin");
+    AOV3Snapshots.write(file, this.available, this.releases);
+    this.snapshot = AOV3Snapshots.open(file);
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.catalog.close();
+    this.snapshot.close();
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  private static void assertAgree(
+    final AOV3RequestType<?> expected,
+    final AOV3RequestType<?> received)
+    throws Exception
+  {
+    final Object expectedResult;
+    try {
+      expectedResult = expected.execute();
+    } catch (final AOV3ExceptionHTTPRequestFailed e) {
+      final var exception =
+        Assertions.assertThrows(
+          AOV3ExceptionHTTPRequestFailed.class,
+          received::execute);
+      Assertions.assertEquals(e.statusCode(), exception.statusCode());
+      return;
+    }
+    Assertions.assertEquals(expectedResult, received.execute());
+  }
+
+  @Test
+  public void testAvailableReleases()
+    throws Exception
+  {
+    Assertions.assertEquals(
+      this.available,
+      this.catalog.availableReleases(this.fixtures::logError).execute());
+  }
+
+  /**
+   * The catalog and the snapshot client must agree on every query.
+   */
+
+  @Test
+  public void testAgreesWithSnapshot()
+    throws Exception
+  {
+    for (final var order : AOV3SortOrder.values()) {
+      for (final var kind : AOV3ReleaseKind.values()) {
+        assertAgree(
+          this.snapshot.releaseNames(
+            this.fixtures::logError,
+            BigInteger.ZERO,
+            BigInteger.valueOf(1000L),
+            Optional.of(kind),
+            Optional.of(order),
+            Optional.empty(),
+            Optional.empty()),
+          this.catalog.releaseNames(
+            this.fixtures::logError,
+            BigInteger.ZERO,
+            BigInteger.valueOf(1000L),
+            Optional.of(kind),
+            Optional.of(order),
+            Optional.empty(),
+            Optional.empty()));
+      }
+
+      assertAgree(
+        this.snapshot.releaseVersions(
+          this.fixtures::logError,
+          BigInteger.ONE,
+          BigInteger.valueOf(5L),
+          Optional.empty(),
+          Optional.of(order),
+          Optional.empty(),
+          Optional.empty()),
+        this.catalog.releaseVersions(
+          this.fixtures::logError,
+          BigInteger.ONE,
+          BigInteger.valueOf(5L),
+          Optional.empty(),
+          Optional.of(order),
+          Optional.empty(),
+          Optional.empty()));
+
+      for (final var jvm : AOV3JVMImplementation.values()) {
+        assertAgree(
+          this.snapshot.assetsForRelease(
+            this.fixtures::logError,
+            BigInteger.ZERO,
+            BigInteger.valueOf(1000L),
+            BigInteger.valueOf(8L),
+            AOV3ReleaseKind.GENERAL_AVAILABILITY,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(jvm),
+            Optional.of(AOV3OperatingSystem.LINUX),
+            Optional.empty(),
+            Optional.of(order),
+            Optional.empty()),
+          this.catalog.assetsForRelease(
+            this.fixtures::logError,
+            BigInteger.ZERO,
+            BigInteger.valueOf(1000L),
+            BigInteger.valueOf(8L),
+            AOV3ReleaseKind.GENERAL_AVAILABILITY,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(jvm),
+            Optional.of(AOV3OperatingSystem.LINUX),
+            Optional.empty(),
+            Optional.of(order),
+            Optional.empty()));
+      }
+    }
+
+    for (final var jvm : AOV3JVMImplementation.values()) {
+      assertAgree(
+        this.snapshot.assetsForLatest(
+          this.fixtures::logError, BigInteger.valueOf(8L), jvm),
+        this.catalog.assetsForLatest(
+          this.fixtures::logError, BigInteger.valueOf(8L), jvm));
+    }
+  }
+
+  @Test
+  public void testBinaryForLatest()
+    throws Exception
+  {
+    final var link =
+      this.catalog.binaryForLatest(
+        this.fixtures::logError,
+        AOV3Architecture.X64,
+        BigInteger.valueOf(8L),
+        AOV3HeapSize.NORMAL,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3OperatingSystem.LINUX,
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      ).execute();
+
+    Assertions.assertEquals(
+      URI.create(
+        "https://github.com/AdoptOpenJDK/openjdk8-binaries/releases/download/"
+          + "jdk8u242-b08/OpenJDK8U-jdk_x64_linux_hotspot_8u242b08.tar.gz"),
+      link);
+  }
+
+  @Test
+  public void testBinaryForRelease()
+    throws Exception
+  {
+    for (final var release : this.releases) {
+      for (final var binary : release.binaries()) {
+        final var link =
+          this.catalog.binaryForRelease(
+            this.fixtures::logError,
+            release.releaseName(),
+            binary.operatingSystem(),
+            binary.architecture(),
+            binary.imageType(),
+            binary.jvmImplementation(),
+            binary.heapSize(),
+            release.vendor(),
+            Optional.of(binary.project())
+          ).execute();
+
+        Assertions.assertEquals(
+          this.snapshot.binaryForRelease(
+            this.fixtures::logError,
+            release.releaseName(),
+            binary.operatingSystem(),
+            binary.architecture(),
+            binary.imageType(),
+            binary.jvmImplementation(),
+            binary.heapSize(),
+            release.vendor(),
+            Optional.of(binary.project())
+          ).execute(),
+          link);
+      }
+    }
+  }
+
+  @Test
+  public void testBinaryForReleaseNotFound()
+  {
+    final var exception =
+      Assertions.assertThrows(AOV3ExceptionHTTPRequestFailed.class, () -> {
+        this.catalog.binaryForRelease(
+          this.fixtures::logError,
+          "nonexistent",
+          AOV3OperatingSystem.LINUX,
+          AOV3Architecture.X64,
+          AOV3ImageKind.JDK,
+          AOV3JVMImplementation.HOTSPOT,
+          AOV3HeapSize.NORMAL,
+          AOV3Vendor.ADOPT_OPENJDK,
+          Optional.empty()
+        ).execute();
+      });
+    Assertions.assertEquals(404, exception.statusCode());
+  }
+}
@@ -0,0 +1,644 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheType;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCaches;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiters;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestMetricsType;
+import net.adoptopenjdk.v3.vanilla.AOV3RetryPolicy;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3Client;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3Messages;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.gzip;
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.resource;
+
+/**
+ * Publishers and asynchronous requests exercised against a local HTTP
+ * server.
+ */
+
+public final class AOV3ClientsPublisherTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3ClientsPublisherTest.class);
+
+  private HttpServer server;
+  private ExecutorService executor;
+  private ConcurrentHashMap<String, Response> responses;
+  private CopyOnWriteArrayList<String> requestTags;
+  private CopyOnWriteArrayList<AOV3RequestMetricsType> metrics;
+  private CopyOnWriteArrayList<AOV3Error> errors;
+  private byte[] releases;
+
+  private static final class Response
+  {
+    private final int status;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final CountDownLatch gate;
+
+    Response(
+      final int inStatus,
+      final Map<String, String> inHeaders,
+      final byte[] inBody)
+    {
+      this(inStatus, inHeaders, inBody, new CountDownLatch(0));
+    }
+
+    /**
+     * A response whose body is held back after the first chunk until the
+     * given latch is released.
+     */
+
+    Response(
+      final int inStatus,
+      final Map<String, String> inHeaders,
+      final byte[] inBody,
+      final CountDownLatch inGate)
+    {
+      this.status = inStatus;
+      this.headers = inHeaders;
+      this.body = inBody;
+      this.gate = inGate;
+    }
+  }
+
+  /**
+   * A subscriber that requests one element at a time, and optionally
+   * cancels its subscription after a given number of elements.
+   */
+
+  private static final class Collector<T> implements Flow.Subscriber<T>
+  {
+    private final List<T> received;
+    private final CompletableFuture<List<T>> future;
+    private final int cancelAfter;
+    private Flow.Subscription subscription;
+
+    Collector(
+      final int inCancelAfter)
+    {
+      this.received = new ArrayList<>();
+      this.future = new CompletableFuture<>();
+      this.cancelAfter = inCancelAfter;
+    }
+
+    @Override
+    public void onSubscribe(
+      final Flow.Subscription inSubscription)
+    {
+      this.subscription = inSubscription;
+      this.subscription.request(1L);
+    }
+
+    @Override
+    public void onNext(
+      final T item)
+    {
+      this.received.add(item);
+      if (this.received.size() == this.cancelAfter) {
+        this.subscription.cancel();
+        this.future.complete(this.received);
+        return;
+      }
+      this.subscription.request(1L);
+    }
+
+    @Override
+    public void onError(
+      final Throwable exception)
+    {
+      this.future.completeExceptionally(exception);
+    }
+
+    @Override
+    public void onComplete()
+    {
+      this.future.complete(this.received);
+    }
+  }
+
+  private void logError(
+    final AOV3Error error)
+  {
+    LOG.error("error: {}", error);
+    this.errors.add(error);
+  }
+
+  /**
+   * Serve the configured responses. Bodies are written in small chunks so
+   * that the client receives them in several buffers.
+   */
+
+  private void handle(
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try {
+      this.requestTags.add(
+        Optional.ofNullable(
+          exchange.getRequestHeaders().getFirst("If-None-Match"))
+          .orElse(""));
+
+      final var response =
+        this.responses.get(exchange.getRequestURI().getPath());
+      if (response == null) {
+        exchange.sendResponseHeaders(404, -1L);
+        return;
+      }
+
+      final var headers = exchange.getResponseHeaders();
+      response.headers.forEach(headers::add);
+      if (response.body.length == 0) {
+        exchange.sendResponseHeaders(response.status, -1L);
+        return;
+      }
+
+      exchange.sendResponseHeaders(response.status, 0L);
+      try (var output = exchange.getResponseBody()) {
+        for (int offset = 0; offset < response.body.length; offset += 512) {
+          final var length = Math.min(512, response.body.length - offset);
+          output.write(response.body, offset, length);
+          output.flush();
+          awaitGate(response.gate);
+        }
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static void awaitGate(
+    final CountDownLatch gate)
+    throws IOException
+  {
+    try {
+      if (!gate.await(30L, TimeUnit.SECONDS)) {
+        throw new IOException("Timed out waiting for gate");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  @BeforeEach
+  public void testSetup()
+    throws IOException
+  {
+    this.responses = new ConcurrentHashMap<>();
+    this.requestTags = new CopyOnWriteArrayList<>();
+    this.metrics = new CopyOnWriteArrayList<>();
+    this.errors = new CopyOnWriteArrayList<>();
+    this.executor = Executors.newCachedThreadPool();
+
+    try (var stream = resource("releases8.json")) {
+      this.releases = stream.readAllBytes();
+    }
+
+    this.server =
+      HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/", this::handle);
+    this.server.start();
+  }
+
+  @AfterEach
+  public void testTearDown()
+  {
+    this.server.stop(0);
+    this.executor.shutdown();
+  }
+
+  private AOV3Client client(
+    final Optional<AOV3HTTPCacheType> cache)
+  {
+    return this.client(cache, this.executor);
+  }
+
+  private AOV3Client client(
+    final Optional<AOV3HTTPCacheType> cache,
+    final Executor parseExecutor)
+  {
+    return this.client(cache, parseExecutor, Optional.empty());
+  }
+
+  private AOV3Client client(
+    final Optional<AOV3HTTPCacheType> cache,
+    final Executor parseExecutor,
+    final Optional<AOV3RequestLimiterType> limiter)
+  {
+    return new AOV3Client(
+      String.format(
+        "http://localhost:%d/v3", this.server.getAddress().getPort()),
+      HttpClient.newBuilder().executor(this.executor).build(),
+      AOV3Messages.of(AOV3Messages.getResourceBundle()),
+      AOV3ResponseParsers.create(),
+      parseExecutor,
+      cache,
+      AOV3RetryPolicy.none(),
+      limiter,
+      this.metrics::add,
+      List.of()
+    );
+  }
+
+  private static <T> List<T> await(
+    final Flow.Publisher<T> publisher,
+    final int cancelAfter)
+    throws Exception
+  {
+    final var collector = new Collector<T>(cancelAfter);
+    publisher.subscribe(collector);
+    return collector.future.get(30L, TimeUnit.SECONDS);
+  }
+
+  private Flow.Publisher<AOV3Release> releases8(
+    final AOV3Client client)
+  {
+    return this.releases8Request(client).executePublisher();
+  }
+
+  private AOV3RequestAssetsForReleaseType releases8Request(
+    final AOV3Client client)
+  {
+    return client.assetsForRelease(
+      this::logError,
+      BigInteger.ZERO,
+      BigInteger.TEN,
+      BigInteger.valueOf(8L),
+      AOV3ReleaseKind.GENERAL_AVAILABILITY,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty()
+    );
+  }
+
+  private List<AOV3Release> expectedReleases()
+    throws Exception
+  {
+    return AOV3ResponseParsers.create()
+      .createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(this.releases))
+      .parseAssetsForRelease();
+  }
+
+  private void awaitMetrics(
+    final int count)
+    throws InterruptedException
+  {
+    for (int attempt = 0; attempt < 100; ++attempt) {
+      if (this.metrics.size() >= count) {
+        return;
+      }
+      Thread.sleep(50L);
+    }
+    Assertions.fail("Timed out waiting for metrics");
+  }
+
+  @Test
+  public void testPublishIdentity()
+    throws Exception
+  {
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of(), this.releases));
+
+    final var received =
+      await(this.releases8(this.client(Optional.empty())), -1);
+    Assertions.assertEquals(this.expectedReleases(), received);
+    Assertions.assertEquals(List.of(), this.errors);
+
+    this.awaitMetrics(1);
+    final var metric = this.metrics.get(0);
+    Assertions.assertEquals(received.size(), metric.elementCount());
+    Assertions.assertEquals(this.releases.length, metric.bytesReceived());
+    Assertions.assertEquals(Optional.empty(), metric.failure());
+  }
+
+  @Test
+  public void testPublishGzip()
+    throws Exception
+  {
+    final var compressed = gzip(this.releases);
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of("Content-Encoding", "gzip"), compressed));
+
+    final var received =
+      await(this.releases8(this.client(Optional.empty())), -1);
+    Assertions.assertEquals(this.expectedReleases(), received);
+    Assertions.assertEquals(List.of(), this.errors);
+
+    this.awaitMetrics(1);
+    Assertions.assertEquals(
+      compressed.length, this.metrics.get(0).bytesReceived());
+  }
+
+  @Test
+  public void testPublishAssetsForLatest()
+    throws Exception
+  {
+    final byte[] data;
+    try (var stream = resource("assetsForLatest.json")) {
+      data = stream.readAllBytes();
+    }
+    this.responses.put(
+      "/v3/assets/latest/11/hotspot",
+      new Response(200, Map.of("Content-Encoding", "gzip"), gzip(data)));
+
+    final var expected =
+      AOV3ResponseParsers.create()
+        .createParser(
+          this::logError,
+          URI.create("urn:test"),
+          new ByteArrayInputStream(data))
+        .parseAssetsForLatest();
+
+    final var received =
+      await(
+        this.client(Optional.empty())
+          .assetsForLatest(
+            this::logError,
+            BigInteger.valueOf(11L),
+            AOV3JVMImplementation.HOTSPOT)
+          .executePublisher(),
+        -1);
+
+    Assertions.assertEquals(expected, received);
+  }
+
+  @Test
+  public void testPublishNotFound()
+  {
+    final var exception =
+      Assertions.assertThrows(Exception.class, () -> {
+        await(this.releases8(this.client(Optional.empty())), -1);
+      });
+
+    final var cause = exception.getCause();
+    Assertions.assertEquals(
+      AOV3ExceptionHTTPRequestFailed.class, cause.getClass());
+    Assertions.assertEquals(
+      404, ((AOV3ExceptionHTTPRequestFailed) cause).statusCode());
+  }
+
+  @Test
+  public void testPublishTruncated()
+    throws IOException
+  {
+    final var compressed = gzip(this.releases);
+    final var truncated = new byte[compressed.length / 2];
+    System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of("Content-Encoding", "gzip"), truncated));
+
+    final var exception =
+      Assertions.assertThrows(Exception.class, () -> {
+        await(this.releases8(this.client(Optional.empty())), -1);
+      });
+
+    Assertions.assertEquals(
+      AOV3ExceptionParseFailed.class, exception.getCause().getClass());
+  }
+
+  @Test
+  public void testPublishCancel()
+    throws Exception
+  {
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of(), this.releases));
+
+    final var received =
+      await(this.releases8(this.client(Optional.empty())), 2);
+    Assertions.assertEquals(2, received.size());
+
+    this.awaitMetrics(1);
+    Assertions.assertTrue(this.metrics.get(0).failure().isPresent());
+  }
+
+  @Test
+  public void testPublishCached()
+    throws Exception
+  {
+    final var compressed = gzip(this.releases);
+    final var client =
+      this.client(Optional.of(AOV3HTTPCaches.createMemory(8)));
+
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(
+        200,
+        Map.of("Content-Encoding", "gzip", "ETag", "\"x\""),
+        compressed));
+
+    final var expected = this.expectedReleases();
+    Assertions.assertEquals(expected, await(this.releases8(client), -1));
+
+    /*
+     * The response is stored in the cache asynchronously once it has been
+     * published.
+     */
+
+    this.awaitMetrics(1);
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(304, Map.of("ETag", "\"x\""), new byte[0]));
+
+    for (int attempt = 0; attempt < 100; ++attempt) {
+      this.requestTags.clear();
+      final var received = await(this.releases8(client), -1);
+      Assertions.assertEquals(expected, received);
+      if (this.requestTags.contains("\"x\"")) {
+        return;
+      }
+      Thread.sleep(50L);
+    }
+    Assertions.fail("Cached response was never revalidated");
+  }
+
+  /**
+   * A response body that is still being received must not occupy a parse
+   * executor thread.
+   */
+
+  @Test
+  public void testAsyncSlowBodyDoesNotBlockExecutor()
+    throws Exception
+  {
+    final var gate = new CountDownLatch(1);
+    final var available = this.expectedReleases();
+    final byte[] availableData;
+    try (var stream = resource("availableReleases.json")) {
+      availableData = stream.readAllBytes();
+    }
+
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of(), this.releases, gate));
+    this.responses.put(
+      "/v3/info/available_releases",
+      new Response(200, Map.of(), availableData));
+
+    final var parseExecutor = Executors.newSingleThreadExecutor();
+    try {
+      final var client = this.client(Optional.empty(), parseExecutor);
+      final var slow =
+        client.assetsForRelease(
+          this::logError,
+          BigInteger.ZERO,
+          BigInteger.TEN,
+          BigInteger.valueOf(8L),
+          AOV3ReleaseKind.GENERAL_AVAILABILITY,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).executeAsync();
+
+      final var fast =
+        client.availableReleases(this::logError).executeAsync();
+
+      Assertions.assertFalse(
+        fast.get(30L, TimeUnit.SECONDS).availableReleases().isEmpty());
+      Assertions.assertFalse(slow.isDone());
+
+      gate.countDown();
+      Assertions.assertEquals(available, slow.get(30L, TimeUnit.SECONDS));
+    } finally {
+      gate.countDown();
+      parseExecutor.shutdown();
+    }
+  }
+
+  /**
+   * A request holds its limiter permit until its body has been received,
+   * whether the body is read from a stream, received in full before
+   * parsing, or published.
+   */
+
+  @Test
+  public void testLimiterPermitCoversBody()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 4);
+    final var client =
+      this.client(Optional.empty(), this.executor, Optional.of(limiter));
+    final var request = this.releases8Request(client);
+    final var expected = this.expectedReleases();
+
+    Assertions.assertEquals(
+      expected,
+      this.assertPermitCoversBody(limiter, request::execute));
+    Assertions.assertEquals(
+      expected,
+      this.assertPermitCoversBody(
+        limiter, () -> request.executeAsync().get(30L, TimeUnit.SECONDS)));
+    Assertions.assertEquals(
+      expected,
+      this.assertPermitCoversBody(
+        limiter, () -> await(request.executePublisher(), -1)));
+  }
+
+  private <T> T assertPermitCoversBody(
+    final AOV3RequestLimiterType limiter,
+    final Callable<T> request)
+    throws Exception
+  {
+    final var gate = new CountDownLatch(1);
+    this.requestTags.clear();
+    this.responses.put(
+      "/v3/assets/feature_releases/8/ga",
+      new Response(200, Map.of(), this.releases, gate));
+
+    final var future = this.executor.submit(request);
+    try {
+      while (this.requestTags.isEmpty()) {
+        Thread.sleep(10L);
+      }
+
+      /*
+       * The server has sent the headers and the first chunk of the body,
+       * and is holding back the rest.
+       */
+
+      Thread.sleep(500L);
+      Assertions.assertEquals(1, limiter.statistics().inFlight());
+    } finally {
+      gate.countDown();
+    }
+
+    final var result = future.get(30L, TimeUnit.SECONDS);
+    Assertions.assertEquals(0, limiter.statistics().inFlight());
+    return result;
+  }
+}
@@ -14,31 +14,63 @@
 
 package net.adoptopenjdk.v3.tests;
 
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
 import net.adoptopenjdk.v3.api.AOV3ClientProviderType;
 import net.adoptopenjdk.v3.api.AOV3Error;
 import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
 import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
 import net.adoptopenjdk.v3.vanilla.AOV3Clients;
+import net.adoptopenjdk.v3.vanilla.AOV3ContentDecoderType;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheEntry;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCaches;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestKind;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiters;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestMetricsType;
+import net.adoptopenjdk.v3.vanilla.AOV3RetryPolicy;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3Messages;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3MessagesType;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParserType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsers;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsersType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.gzip;
 
 public final class AOV3ClientsTest
 {
@@ -128,6 +160,947 @@ public final class AOV3ClientsTest
     }
   }
 
+  @Test
+  public void testRequestFailureAsync0()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(CompletableFuture.completedFuture(this.response));
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(500));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+
+    try (var client = clients.createClient()) {
+      final var future =
+        client.assetsForRelease(
+          this::logError,
+          BigInteger.ZERO,
+          BigInteger.TEN,
+          BigInteger.valueOf(11L),
+          AOV3ReleaseKind.GENERAL_AVAILABILITY,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).executeAsync();
+
+      final var exception =
+        Assertions.assertThrows(ExecutionException.class, future::get);
+      Assertions.assertEquals(
+        AOV3ExceptionHTTPRequestFailed.class,
+        exception.getCause().getClass()
+      );
+
+      final var cause =
+        (AOV3ExceptionHTTPRequestFailed) exception.getCause();
+
+      Assertions.assertEquals(
+        500,
+        cause.statusCode()
+      );
+      Assertions.assertEquals(
+        "urn:test",
+        cause.uri().toString()
+      );
+    }
+  }
+
+  @Test
+  public void testCacheNotModified()
+    throws Exception
+  {
+    final var cache =
+      AOV3HTTPCaches.createMemory(8);
+    final var clients =
+      new AOV3Clients(
+        this.parsers,
+        this.messages,
+        () -> this.client,
+        ForkJoinPool.commonPool(),
+        Optional.of(cache)
+      );
+
+    final var uri =
+      URI.create("https://api.adoptopenjdk.net/v3/info/available_releases");
+
+    cache.store(
+      uri,
+      AOV3HTTPCacheEntry.of(
+        Optional.of("\"x\""),
+        Optional.empty(),
+        "cached".getBytes(UTF_8)
+      )
+    );
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(304));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(uri);
+    Mockito.when(this.response.body())
+      .thenReturn(InputStream.nullInputStream());
+    Mockito.when(this.parsers.createParser(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()))
+      .thenReturn(this.parser);
+
+    try (var client = clients.createClient()) {
+      client.availableReleases(this::logError).execute();
+    }
+
+    final var requests =
+      ArgumentCaptor.forClass(HttpRequest.class);
+    Mockito.verify(this.client)
+      .send(requests.capture(), Mockito.any());
+    Assertions.assertEquals(
+      Optional.of("\"x\""),
+      requests.getValue().headers().firstValue("If-None-Match")
+    );
+
+    final var streams =
+      ArgumentCaptor.forClass(InputStream.class);
+    Mockito.verify(this.parsers)
+      .createParser(Mockito.any(), Mockito.any(), streams.capture());
+    Assertions.assertEquals(
+      "cached",
+      new String(streams.getValue().readAllBytes(), UTF_8)
+    );
+  }
+
+  @Test
+  public void testRequestHeaders()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(InputStream.nullInputStream());
+    Mockito.when(this.parsers.createParser(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()))
+      .thenReturn(this.parser);
+
+    try (var client = clients.createClient()) {
+      final var request = client.availableReleases(this::logError);
+      request.execute();
+      request.execute();
+    }
+
+    final var requests =
+      ArgumentCaptor.forClass(HttpRequest.class);
+    Mockito.verify(this.client, Mockito.times(2))
+      .send(requests.capture(), Mockito.any());
+
+    for (final var request : requests.getAllValues()) {
+      Assertions.assertEquals(
+        URI.create("https://api.adoptopenjdk.net/v3/info/available_releases"),
+        request.uri()
+      );
+      Assertions.assertEquals("GET", request.method());
+      Assertions.assertEquals(
+        Optional.of("gzip"),
+        request.headers().firstValue("Accept-Encoding")
+      );
+      Assertions.assertTrue(
+        request.headers()
+          .firstValue("User-Agent")
+          .orElseThrow()
+          .startsWith("net.adoptopenjdk.v3.vanilla ")
+      );
+    }
+  }
+
+  @Test
+  public void testRetryTransientFailures()
+    throws Exception
+  {
+    final var retries =
+      AOV3RetryPolicy.builder()
+        .setMaximumAttempts(3)
+        .setInitialDelay(Duration.ZERO)
+        .build();
+
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setParsers(this.parsers)
+        .setMessages(this.messages)
+        .setHttpClientBuilder(httpBuilder)
+        .setRetryPolicy(retries)
+        .build();
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+    final var unavailable =
+      Mockito.mock(HttpResponse.class);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenThrow(new IOException("Connection reset"))
+      .thenReturn(unavailable)
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(unavailable.statusCode()))
+      .thenReturn(Integer.valueOf(503));
+    Mockito.when(unavailable.headers())
+      .thenReturn(headers);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(InputStream.nullInputStream());
+    Mockito.when(this.parsers.createParser(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()))
+      .thenReturn(this.parser);
+
+    try (var client = clients.createClient()) {
+      client.availableReleases(this::logError).execute();
+    }
+
+    Mockito.verify(this.client, Mockito.times(3))
+      .send(Mockito.any(), Mockito.any());
+    Mockito.verify(this.parser, Mockito.times(1))
+      .parseAvailableReleases();
+  }
+
+  @Test
+  public void testRetryExhausted()
+    throws Exception
+  {
+    final var retries =
+      AOV3RetryPolicy.builder()
+        .setMaximumAttempts(2)
+        .setInitialDelay(Duration.ZERO)
+        .build();
+
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setParsers(this.parsers)
+        .setMessages(this.messages)
+        .setHttpClientBuilder(httpBuilder)
+        .setRetryPolicy(retries)
+        .build();
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(CompletableFuture.completedFuture(this.response));
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(503));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+
+    try (var client = clients.createClient()) {
+      final var future =
+        client.availableReleases(this::logError).executeAsync();
+      final var exception =
+        Assertions.assertThrows(ExecutionException.class, future::get);
+      final var cause =
+        (AOV3ExceptionHTTPRequestFailed) exception.getCause();
+      Assertions.assertEquals(503, cause.statusCode());
+    }
+
+    Mockito.verify(this.client, Mockito.times(2))
+      .sendAsync(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testInstrumentation()
+    throws Exception
+  {
+    final var metrics =
+      new CopyOnWriteArrayList<AOV3RequestMetricsType>();
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setHttpClientBuilder(httpBuilder)
+        .setParsers(AOV3ResponseParsers.create())
+        .setRetryPolicy(AOV3RetryPolicy.none())
+        .setInstrumentation(metrics::add)
+        .build();
+
+    final var text = "{\"releases\":[\"a\",\"b\",\"c\"]}";
+    final var compressed = gzip(text.getBytes(UTF_8));
+
+    final var headers =
+      HttpHeaders.of(
+        Map.of("Content-Encoding", List.of("gzip")), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(new ByteArrayInputStream(compressed));
+
+    try (var client = clients.createClient()) {
+      final var names =
+        client.releaseNames(
+          this::logError,
+          BigInteger.ZERO,
+          BigInteger.TEN,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).execute();
+      Assertions.assertEquals(List.of("a", "b", "c"), names);
+    }
+
+    Assertions.assertEquals(1, metrics.size());
+    final var received = metrics.get(0);
+    Assertions.assertEquals(AOV3RequestKind.RELEASE_NAMES, received.kind());
+    Assertions.assertEquals(1, received.attempts());
+    Assertions.assertEquals(OptionalInt.of(200), received.statusCode());
+    Assertions.assertEquals(compressed.length, received.bytesReceived());
+    Assertions.assertEquals(3L, received.elementCount());
+    Assertions.assertEquals(0L, received.errorCount());
+    Assertions.assertEquals(Optional.empty(), received.failure());
+    Assertions.assertTrue(
+      received.totalTime().compareTo(received.parseTime()) >= 0);
+  }
+
+  @Test
+  public void testLimiterPermitReleasedOnSendFailure()
+    throws Exception
+  {
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setHttpClientBuilder(httpBuilder)
+        .setRetryPolicy(AOV3RetryPolicy.none())
+        .setRequestLimiter(AOV3RequestLimiters.create(1000.0, 1000, 1))
+        .build();
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenThrow(new IllegalArgumentException("Bad request"));
+
+    try (var client = clients.createClient()) {
+      for (int index = 0; index < 3; ++index) {
+        final var future =
+          client.availableReleases(this::logError).executeAsync();
+        final var exception =
+          Assertions.assertThrows(
+            ExecutionException.class,
+            () -> future.get(5L, TimeUnit.SECONDS));
+        Assertions.assertEquals(
+          IllegalArgumentException.class, exception.getCause().getClass());
+      }
+    }
+  }
+
+  @Test
+  public void testInstrumentationFailure()
+    throws Exception
+  {
+    final var metrics =
+      new CopyOnWriteArrayList<AOV3RequestMetricsType>();
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setHttpClientBuilder(httpBuilder)
+        .setRetryPolicy(AOV3RetryPolicy.none())
+        .setInstrumentation(metrics::add)
+        .build();
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(CompletableFuture.completedFuture(this.response));
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(404));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+
+    try (var client = clients.createClient()) {
+      final var future =
+        client.availableReleases(this::logError).executeAsync();
+      Assertions.assertThrows(ExecutionException.class, future::get);
+    }
+
+    Assertions.assertEquals(1, metrics.size());
+    final var received = metrics.get(0);
+    Assertions.assertEquals(
+      AOV3RequestKind.AVAILABLE_RELEASES, received.kind());
+    Assertions.assertEquals(OptionalInt.of(404), received.statusCode());
+    Assertions.assertEquals(0L, received.elementCount());
+    Assertions.assertTrue(
+      received.failure().orElseThrow()
+        instanceof AOV3ExceptionHTTPRequestFailed);
+  }
+
+  @Test
+  public void testCoalescedAsync()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+    final var available =
+      AOV3AvailableReleases.builder()
+        .setAvailableReleases(List.of(BigInteger.valueOf(11L)))
+        .setAvailableLTSReleases(List.of(BigInteger.valueOf(11L)))
+        .setMostRecentFeatureRelease(BigInteger.valueOf(11L))
+        .setMostRecentLTSRelease(BigInteger.valueOf(11L))
+        .build();
+
+    final var pending =
+      new CompletableFuture<HttpResponse<Object>>();
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(pending);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(new byte[0]);
+    Mockito.when(this.parsers.createParser(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()))
+      .thenReturn(this.parser);
+    Mockito.when(this.parser.parseAvailableReleases())
+      .thenReturn(available);
+
+    try (var client = clients.createClient()) {
+      final var future0 =
+        client.availableReleases(this::logError).executeAsync();
+      final var future1 =
+        client.availableReleases(this::logError).executeAsync();
+      final var future2 =
+        client.availableReleases(this::logError).executeAsync();
+
+      Mockito.verify(this.client, Mockito.times(1))
+        .sendAsync(Mockito.any(), Mockito.any());
+
+      pending.complete(this.response);
+      Assertions.assertSame(available, future0.get());
+      Assertions.assertSame(available, future1.get());
+      Assertions.assertSame(available, future2.get());
+
+      Mockito.verify(this.parsers, Mockito.times(1))
+        .createParser(Mockito.any(), Mockito.any(), Mockito.any());
+
+      client.availableReleases(this::logError).executeAsync();
+      Mockito.verify(this.client, Mockito.times(2))
+        .sendAsync(Mockito.any(), Mockito.any());
+    }
+  }
+
+  @Test
+  public void testCoalescedResultsImmutable()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(Map.of(), (key, val) -> true);
+    final var pending =
+      new CompletableFuture<HttpResponse<Object>>();
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(pending);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(new byte[0]);
+    Mockito.when(this.parsers.createParser(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()))
+      .thenReturn(this.parser);
+    Mockito.when(this.parser.parseReleaseNames())
+      .thenReturn(new ArrayList<>(List.of("a", "b")));
+
+    try (var client = clients.createClient()) {
+      final var futures = new ArrayList<CompletableFuture<List<String>>>();
+      for (int index = 0; index < 3; ++index) {
+        futures.add(
+          client.releaseNames(
+            this::logError,
+            BigInteger.ZERO,
+            BigInteger.TEN,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty()
+          ).executeAsync());
+      }
+
+      Mockito.verify(this.client, Mockito.times(1))
+        .sendAsync(Mockito.any(), Mockito.any());
+
+      pending.complete(this.response);
+      final var result0 = futures.get(0).get();
+      final var result1 = futures.get(1).get();
+      Assertions.assertThrows(
+        UnsupportedOperationException.class, result0::clear);
+      Assertions.assertThrows(
+        UnsupportedOperationException.class, () -> result1.add("c"));
+      Assertions.assertEquals(List.of("a", "b"), futures.get(2).get());
+    }
+  }
+
+  @Test
+  public void testCoalescedBinaryForLatestAsync()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(
+        Map.of("Location", List.of("https://example.com/jdk.tar.gz")),
+        (key, val) -> true);
+
+    final var pending =
+      new CompletableFuture<HttpResponse<Object>>();
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.sendAsync(Mockito.any(), Mockito.any()))
+      .thenReturn(pending);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(307));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+
+    try (var client = clients.createClient()) {
+      final var futures = new ArrayList<CompletableFuture<URI>>();
+      for (int index = 0; index < 4; ++index) {
+        futures.add(
+          client.binaryForLatest(
+            this::logError,
+            AOV3Architecture.X64,
+            BigInteger.valueOf(11L),
+            AOV3HeapSize.NORMAL,
+            AOV3ImageKind.JDK,
+            AOV3JVMImplementation.HOTSPOT,
+            AOV3OperatingSystem.LINUX,
+            AOV3ReleaseKind.GENERAL_AVAILABILITY,
+            AOV3Vendor.ADOPT_OPENJDK,
+            Optional.empty()
+          ).executeAsync());
+      }
+
+      Mockito.verify(this.client, Mockito.times(1))
+        .sendAsync(Mockito.any(), Mockito.any());
+
+      pending.complete(this.response);
+      for (final var future : futures) {
+        Assertions.assertEquals(
+          "https://example.com/jdk.tar.gz",
+          future.get().toString()
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testBinaryForReleaseEncoded()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    final var headers =
+      HttpHeaders.of(
+        Map.of("Location", List.of("https://example.com/jdk.tar.gz")),
+        (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(307));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+
+    try (var client = clients.createClient()) {
+      client.binaryForRelease(
+        this::logError,
+        "jdk-11.0.6+10/../x?y",
+        AOV3OperatingSystem.LINUX,
+        AOV3Architecture.X64,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3HeapSize.NORMAL,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.of("a b&c")
+      ).execute();
+    }
+
+    final var requests =
+      ArgumentCaptor.forClass(HttpRequest.class);
+    Mockito.verify(this.client)
+      .send(requests.capture(), Mockito.any());
+
+    Assertions.assertEquals(
+      "https://api.adoptopenjdk.net/v3/binary/version/"
+        + "jdk-11.0.6%2B10%2F..%2Fx%3Fy"
+        + "/linux/x64/jdk/hotspot/normal/adoptopenjdk?project=a+b%26c",
+      requests.getValue().uri().toString()
+    );
+  }
+
+  @Test
+  public void testRequestParametersInvalid()
+    throws Exception
+  {
+    final var clients =
+      new AOV3Clients(this.parsers, this.messages, () -> this.client);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+
+    try (var client = clients.createClient()) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        client.releaseNames(
+          this::logError,
+          BigInteger.valueOf(-1L),
+          BigInteger.TEN,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty());
+      });
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        client.releaseVersions(
+          this::logError,
+          BigInteger.ZERO,
+          BigInteger.ZERO,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty());
+      });
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        client.assetsForLatest(
+          this::logError,
+          BigInteger.ZERO,
+          AOV3JVMImplementation.HOTSPOT);
+      });
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        client.binaryForRelease(
+          this::logError,
+          "",
+          AOV3OperatingSystem.LINUX,
+          AOV3Architecture.X64,
+          AOV3ImageKind.JDK,
+          AOV3JVMImplementation.HOTSPOT,
+          AOV3HeapSize.NORMAL,
+          AOV3Vendor.ADOPT_OPENJDK,
+          Optional.empty());
+      });
+    }
+
+    Mockito.verify(this.client, Mockito.never())
+      .sendAsync(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testBuilderSharesClient()
+    throws Exception
+  {
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setParsers(this.parsers)
+        .setMessages(this.messages)
+        .setHttpClientBuilder(httpBuilder)
+        .build();
+
+    Mockito.verify(httpBuilder, Mockito.never()).build();
+
+    try (var client0 = clients.createClient()) {
+      try (var client1 = clients.createClient()) {
+        Mockito.verify(httpBuilder, Mockito.times(1)).build();
+      }
+    }
+
+    Mockito.verify(httpBuilder)
+      .followRedirects(HttpClient.Redirect.NEVER);
+    Mockito.verify(httpBuilder)
+      .version(HttpClient.Version.HTTP_2);
+    Mockito.verify(httpBuilder)
+      .connectTimeout(AOV3Clients.Builder.DEFAULT_CONNECT_TIMEOUT);
+    Mockito.verify(httpBuilder, Mockito.never())
+      .executor(Mockito.any());
+  }
+
+  @Test
+  public void testBuilderVirtualThreads()
+    throws Exception
+  {
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+
+    final var clients =
+      AOV3Clients.builder()
+        .setParsers(this.parsers)
+        .setMessages(this.messages)
+        .setHttpClientBuilder(httpBuilder)
+        .setUseVirtualThreads(true)
+        .build();
+
+    try (var client = clients.createClient()) {
+      Mockito.verify(httpBuilder, Mockito.times(1))
+        .executor(Mockito.any());
+    }
+  }
+
+  @Test
+  public void testBuilderVirtualThreadsExplicitExecutor()
+    throws Exception
+  {
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+
+    final Executor executor = Runnable::run;
+    final var clients =
+      AOV3Clients.builder()
+        .setParsers(this.parsers)
+        .setMessages(this.messages)
+        .setHttpClientBuilder(httpBuilder)
+        .setHttpExecutor(executor)
+        .setUseVirtualThreads(true)
+        .build();
+
+    try (var client = clients.createClient()) {
+      Mockito.verify(httpBuilder, Mockito.times(1))
+        .executor(executor);
+    }
+  }
+
+  @Test
+  public void testContentDecoder()
+    throws Exception
+  {
+    final var httpBuilder =
+      Mockito.mock(HttpClient.Builder.class, Mockito.RETURNS_SELF);
+    Mockito.when(httpBuilder.build())
+      .thenReturn(this.client);
+
+    final var decoded = new ArrayList<String>();
+    final var clients =
+      AOV3Clients.builder()
+        .setHttpClientBuilder(httpBuilder)
+        .setParsers(AOV3ResponseParsers.create())
+        .setRetryPolicy(AOV3RetryPolicy.none())
+        .addContentDecoder(new AOV3ContentDecoderType()
+        {
+          @Override
+          public String encoding()
+          {
+            return "x-test";
+          }
+
+          @Override
+          public InputStream decode(
+            final InputStream stream)
+          {
+            decoded.add(this.encoding());
+            return stream;
+          }
+        })
+        .build();
+
+    final var text = "{\"releases\":[\"a\",\"b\",\"c\"]}";
+    final var compressed = gzip(text.getBytes(UTF_8));
+
+    final var headers =
+      HttpHeaders.of(
+        Map.of("Content-Encoding", List.of("gzip, X-Test")),
+        (key, val) -> true);
+
+    Mockito.when(this.client.followRedirects())
+      .thenReturn(HttpClient.Redirect.NEVER);
+    Mockito.when(this.client.send(Mockito.any(), Mockito.any()))
+      .thenReturn(this.response);
+    Mockito.when(Integer.valueOf(this.response.statusCode()))
+      .thenReturn(Integer.valueOf(200));
+    Mockito.when(this.response.headers())
+      .thenReturn(headers);
+    Mockito.when(this.response.uri())
+      .thenReturn(URI.create("urn:test"));
+    Mockito.when(this.response.body())
+      .thenReturn(new ByteArrayInputStream(compressed));
+
+    try (var client = clients.createClient()) {
+      final var names =
+        client.releaseNames(
+          this::logError,
+          BigInteger.ZERO,
+          BigInteger.TEN,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        ).execute();
+      Assertions.assertEquals(List.of("a", "b", "c"), names);
+    }
+
+    Assertions.assertEquals(List.of("x-test"), decoded);
+
+    final var requests =
+      ArgumentCaptor.forClass(HttpRequest.class);
+    Mockito.verify(this.client, Mockito.times(1))
+      .send(requests.capture(), Mockito.any());
+    Assertions.assertEquals(
+      Optional.of("gzip, x-test"),
+      requests.getValue().headers().firstValue("Accept-Encoding")
+    );
+  }
+
+  @Test
+  public void testBuilderContentDecoderInvalid()
+  {
+    for (final var name : List.of("", "gzip", "X-GZIP", "identity")) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        AOV3Clients.builder()
+          .addContentDecoder(new AOV3ContentDecoderType()
+          {
+            @Override
+            public String encoding()
+            {
+              return name;
+            }
+
+            @Override
+            public InputStream decode(
+              final InputStream stream)
+            {
+              return stream;
+            }
+          });
+      });
+    }
+  }
+
+  @Test
+  public void testBuilderConnectTimeoutInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3Clients.builder()
+        .setConnectTimeout(Duration.ZERO);
+    });
+  }
+
   @Test
   public void testService()
     throws Exception
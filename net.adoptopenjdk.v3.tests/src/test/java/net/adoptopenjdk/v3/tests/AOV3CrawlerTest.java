@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.vanilla.AOV3CrawlPage;
+import net.adoptopenjdk.v3.vanilla.AOV3Crawler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.failure;
+
+public final class AOV3CrawlerTest
+{
+  private static final BigInteger V8 = BigInteger.valueOf(8L);
+  private static final BigInteger V11 = BigInteger.valueOf(11L);
+
+  private AOV3APICallsType calls;
+  private List<AOV3Release> releases;
+  private AtomicInteger running;
+  private AtomicInteger runningMaximum;
+
+  @BeforeEach
+  public void testSetup()
+    throws Exception
+  {
+    this.calls =
+      Mockito.mock(AOV3APICallsType.class);
+    this.running =
+      new AtomicInteger();
+    this.runningMaximum =
+      new AtomicInteger();
+    this.releases =
+      new AOV3TestFixtures().releases("assetsForRelease.json");
+  }
+
+  private void serve(
+    final BiFunction<BigInteger, BigInteger, AOV3RequestAssetsForReleaseType> pages)
+  {
+    Mockito.doAnswer(invocation -> {
+      final BigInteger page = invocation.getArgument(1);
+      final BigInteger version = invocation.getArgument(3);
+      final AOV3RequestAssetsForReleaseType request = pages.apply(version, page);
+      return (AOV3RequestAssetsForReleaseType) () -> {
+        final var now = this.running.incrementAndGet();
+        this.runningMaximum.accumulateAndGet(now, Math::max);
+        try {
+          Thread.sleep(10L);
+          return request.execute();
+        } finally {
+          this.running.decrementAndGet();
+        }
+      };
+    }).when(this.calls).assetsForRelease(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()
+    );
+  }
+
+  private List<AOV3Release> releases(
+    final int... indices)
+  {
+    return Arrays.stream(indices)
+      .mapToObj(this.releases::get)
+      .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testCrawlMergesPages()
+    throws Exception
+  {
+    this.serve((version, page) -> () -> {
+      if (V8.equals(version)) {
+        switch (page.intValue()) {
+          case 0:
+            return this.releases(0, 1);
+          case 1:
+            return this.releases(2, 3);
+          default:
+            return List.of();
+        }
+      }
+      switch (page.intValue()) {
+        case 0:
+          return this.releases(2, 4);
+        case 1:
+          return this.releases(5);
+        default:
+          throw failure(404);
+      }
+    });
+
+    final var crawler =
+      AOV3Crawler.create(this.calls, 3, BigInteger.TWO, AOV3ReleaseKind.GENERAL_AVAILABILITY);
+    final var result =
+      crawler.crawl(error -> {
+      }, List.of(V8, V11));
+
+    Assertions.assertEquals(this.releases(0, 1, 2, 3, 4, 5), result.releases());
+    Assertions.assertTrue(this.runningMaximum.get() <= 3);
+
+    final var received =
+      result.pages()
+        .stream()
+        .filter(page -> page.releases() > 0)
+        .map(page -> page.version() + ":" + page.page())
+        .sorted()
+        .collect(Collectors.toList());
+
+    Assertions.assertEquals(List.of("11:0", "11:1", "8:0", "8:1"), received);
+    for (final AOV3CrawlPage page : result.pages()) {
+      Assertions.assertFalse(page.latency().isNegative());
+    }
+  }
+
+  @Test
+  public void testCrawlStopsAfterShortPage()
+    throws Exception
+  {
+    this.serve((version, page) -> () -> {
+      switch (page.intValue()) {
+        case 0:
+          return this.releases(0, 1);
+        case 1:
+          return this.releases(2);
+        default:
+          throw new AssertionError("Requested page " + page);
+      }
+    });
+
+    final var crawler =
+      AOV3Crawler.create(this.calls, 1, BigInteger.TWO, AOV3ReleaseKind.GENERAL_AVAILABILITY);
+    final var result =
+      crawler.crawl(error -> {
+      }, List.of(V8));
+
+    Assertions.assertEquals(this.releases(0, 1, 2), result.releases());
+    Assertions.assertEquals(2, result.pages().size());
+
+    Mockito.verify(this.calls, Mockito.times(2)).assetsForRelease(
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any(),
+      Mockito.any()
+    );
+  }
+
+  @Test
+  public void testCrawlPropagatesFailures()
+  {
+    this.serve((version, page) -> () -> {
+      if (V11.equals(version) && page.intValue() == 1) {
+        throw failure(500);
+      }
+      if (page.intValue() < 4) {
+        return this.releases(page.intValue());
+      }
+      return List.of();
+    });
+
+    final var crawler =
+      AOV3Crawler.create(this.calls, 2, BigInteger.ONE, AOV3ReleaseKind.GENERAL_AVAILABILITY);
+
+    final var ex =
+      Assertions.assertThrows(
+        AOV3ExceptionHTTPRequestFailed.class,
+        () -> crawler.crawl(error -> {
+        }, List.of(V8, V11)));
+    Assertions.assertEquals(500, ex.statusCode());
+  }
+
+  @Test
+  public void testCrawlRejectsBadConcurrency()
+  {
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> AOV3Crawler.create(this.calls, 0, BigInteger.ONE, AOV3ReleaseKind.GENERAL_AVAILABILITY));
+  }
+}
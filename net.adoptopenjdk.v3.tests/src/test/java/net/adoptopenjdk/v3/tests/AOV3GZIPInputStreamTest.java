@@ -0,0 +1,278 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.vanilla.internal.AOV3GZIPInputStream;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3InflaterPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.gzip;
+
+/**
+ * Tests of the gzip decoder. The stream is a pull adapter over the
+ * non-blocking decoder used for published responses, so every case is
+ * decoded from sources that return data in chunks of several sizes, down
+ * to a single byte, to exercise the decoder with every part of the format
+ * split across pushes.
+ */
+
+public final class AOV3GZIPInputStreamTest
+{
+  private static final int[] CHUNK_SIZES = {1, 13, 8192};
+
+  private static byte[] concat(
+    final byte[]... arrays)
+  {
+    final var bytes = new ByteArrayOutputStream();
+    for (final var array : arrays) {
+      bytes.writeBytes(array);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] decode(
+    final AOV3InflaterPool pool,
+    final byte[] data)
+    throws IOException
+  {
+    byte[] result = null;
+    for (final var chunkSize : CHUNK_SIZES) {
+      final var decoded = decode(pool, data, chunkSize);
+      if (result != null) {
+        Assertions.assertArrayEquals(result, decoded);
+      }
+      result = decoded;
+    }
+    return result;
+  }
+
+  private static byte[] decode(
+    final AOV3InflaterPool pool,
+    final byte[] data,
+    final int chunkSize)
+    throws IOException
+  {
+    final InputStream source =
+      new ByteArrayInputStream(data) {
+        @Override
+        public synchronized int read(
+          final byte[] buffer,
+          final int offset,
+          final int length)
+        {
+          return super.read(buffer, offset, Math.min(length, chunkSize));
+        }
+      };
+
+    try (var stream = new AOV3GZIPInputStream(source, pool)) {
+      return stream.readAllBytes();
+    }
+  }
+
+  private static <T extends Throwable> void assertDecodeFails(
+    final Class<T> expected,
+    final AOV3InflaterPool pool,
+    final byte[] data)
+  {
+    for (final var chunkSize : CHUNK_SIZES) {
+      Assertions.assertThrows(expected, () -> decode(pool, data, chunkSize));
+    }
+  }
+
+  private static byte[] random(
+    final int size,
+    final long seed)
+  {
+    final var rng = new Random(seed);
+    final var data = new byte[size];
+    for (int index = 0; index < size; ++index) {
+      data[index] = (byte) ('a' + rng.nextInt(8));
+    }
+    return data;
+  }
+
+  @Test
+  public void testRoundTrip()
+    throws Exception
+  {
+    final var pool = AOV3InflaterPool.create(2);
+    for (final var size : new int[]{0, 1, 511, 8192, 100_000, 1_000_000}) {
+      final var data = random(size, size);
+      Assertions.assertArrayEquals(data, decode(pool, gzip(data)));
+    }
+    Assertions.assertEquals(1, pool.idle());
+  }
+
+  @Test
+  public void testSingleByteReads()
+    throws Exception
+  {
+    final var data = random(10_000, 23L);
+    final var received = new ByteArrayOutputStream();
+    try (var stream = new AOV3GZIPInputStream(
+      new ByteArrayInputStream(gzip(data)), AOV3InflaterPool.create(1))) {
+      while (true) {
+        final var value = stream.read();
+        if (value == -1) {
+          break;
+        }
+        received.write(value);
+      }
+    }
+    Assertions.assertArrayEquals(data, received.toByteArray());
+  }
+
+  @Test
+  public void testConcatenatedMembers()
+    throws Exception
+  {
+    final var pool = AOV3InflaterPool.create(1);
+    final var data0 = random(50_000, 1L);
+    final var data1 = random(70_000, 2L);
+    Assertions.assertArrayEquals(
+      concat(data0, data1),
+      decode(pool, concat(gzip(data0), gzip(data1))));
+  }
+
+  @Test
+  public void testTrailingGarbageIgnored()
+    throws Exception
+  {
+    final var data = "hello".getBytes(UTF_8);
+    Assertions.assertArrayEquals(
+      data,
+      decode(
+        AOV3InflaterPool.create(1),
+        concat(gzip(data), "garbage".getBytes(UTF_8))));
+  }
+
+  /**
+   * Headers with every optional field are skipped.
+   */
+
+  @Test
+  public void testHeaderOptionalFields()
+    throws Exception
+  {
+    final var data = random(20_000, 3L);
+
+    final var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(data);
+    deflater.finish();
+    final var deflated = new ByteArrayOutputStream();
+    final var buffer = new byte[4096];
+    while (!deflater.finished()) {
+      deflated.write(buffer, 0, deflater.deflate(buffer));
+    }
+    deflater.end();
+
+    final var crc = new CRC32();
+    crc.update(data);
+    final var check = crc.getValue();
+    final var size = data.length;
+
+    final var gzip = new ByteArrayOutputStream();
+    gzip.writeBytes(new byte[]{
+      0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 0xff,
+    });
+    gzip.writeBytes(new byte[]{3, 0, 'x', 'y', 'z'});
+    gzip.writeBytes("name.json\0".getBytes(UTF_8));
+    gzip.writeBytes("a comment\0".getBytes(UTF_8));
+    gzip.writeBytes(new byte[]{0, 0});
+    gzip.writeBytes(deflated.toByteArray());
+    gzip.writeBytes(new byte[]{
+      (byte) check,
+      (byte) (check >>> 8),
+      (byte) (check >>> 16),
+      (byte) (check >>> 24),
+      (byte) size,
+      (byte) (size >>> 8),
+      (byte) (size >>> 16),
+      (byte) (size >>> 24),
+    });
+
+    Assertions.assertArrayEquals(
+      data, decode(AOV3InflaterPool.create(1), gzip.toByteArray()));
+  }
+
+  @Test
+  public void testNotGzip()
+  {
+    final var pool = AOV3InflaterPool.create(1);
+    assertDecodeFails(
+      ZipException.class, pool, "{\"releases\":[]}".getBytes(UTF_8));
+    Assertions.assertEquals(1, pool.idle());
+  }
+
+  @Test
+  public void testCorruptTrailer()
+    throws Exception
+  {
+    final var data = gzip(random(1000, 4L));
+    data[data.length - 8] ^= 0xff;
+
+    assertDecodeFails(ZipException.class, AOV3InflaterPool.create(1), data);
+  }
+
+  @Test
+  public void testTruncated()
+    throws Exception
+  {
+    final var data = gzip(random(100_000, 5L));
+    final var truncated = Arrays.copyOf(data, data.length / 2);
+
+    assertDecodeFails(
+      EOFException.class, AOV3InflaterPool.create(1), truncated);
+  }
+
+  @Test
+  public void testCloseReturnsInflater()
+    throws Exception
+  {
+    final var pool = AOV3InflaterPool.create(1);
+    final var closed = new boolean[1];
+    final InputStream source =
+      new ByteArrayInputStream(gzip(random(100, 6L))) {
+        @Override
+        public void close()
+        {
+          closed[0] = true;
+        }
+      };
+
+    final var stream = new AOV3GZIPInputStream(source, pool);
+    Assertions.assertEquals(0, pool.idle());
+    stream.close();
+    stream.close();
+    Assertions.assertTrue(closed[0]);
+    Assertions.assertEquals(1, pool.idle());
+    Assertions.assertThrows(IOException.class, stream::read);
+  }
+}
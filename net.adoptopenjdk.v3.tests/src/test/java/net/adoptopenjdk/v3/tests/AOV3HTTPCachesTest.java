@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheEntry;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCaches;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class AOV3HTTPCachesTest
+{
+  private static final URI URI_0 =
+    URI.create("https://api.adoptopenjdk.net/v3/info/available_releases");
+  private static final URI URI_1 =
+    URI.create("https://api.adoptopenjdk.net/v3/info/release_names");
+  private static final URI URI_2 =
+    URI.create("https://api.adoptopenjdk.net/v3/info/release_versions");
+
+  private static AOV3HTTPCacheEntry entry(
+    final String tag,
+    final String text)
+  {
+    return AOV3HTTPCacheEntry.of(
+      Optional.of(tag),
+      Optional.of("Wed, 21 Oct 2015 07:28:00 GMT"),
+      text.getBytes(UTF_8)
+    );
+  }
+
+  private static String textOf(
+    final AOV3HTTPCacheEntry entry)
+    throws Exception
+  {
+    try (var stream = entry.open()) {
+      return new String(stream.readAllBytes(), UTF_8);
+    }
+  }
+
+  @Test
+  public void testMemoryStoreFind()
+    throws Exception
+  {
+    final var cache = AOV3HTTPCaches.createMemory(4);
+    Assertions.assertEquals(Optional.empty(), cache.find(URI_0));
+
+    cache.store(URI_0, entry("\"a\"", "A"));
+    final var found = cache.find(URI_0).orElseThrow();
+    Assertions.assertEquals(Optional.of("\"a\""), found.entityTag());
+    Assertions.assertEquals("A", textOf(found));
+  }
+
+  @Test
+  public void testMemoryEvictsLeastRecentlyUsed()
+    throws Exception
+  {
+    final var cache = AOV3HTTPCaches.createMemory(2);
+    cache.store(URI_0, entry("\"a\"", "A"));
+    cache.store(URI_1, entry("\"b\"", "B"));
+    cache.find(URI_0);
+    cache.store(URI_2, entry("\"c\"", "C"));
+
+    Assertions.assertTrue(cache.find(URI_0).isPresent());
+    Assertions.assertTrue(cache.find(URI_1).isEmpty());
+    Assertions.assertTrue(cache.find(URI_2).isPresent());
+  }
+
+  @Test
+  public void testMemoryInvalidSize()
+  {
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> AOV3HTTPCaches.createMemory(0));
+  }
+
+  @Test
+  public void testDirectoryStoreFind(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var cache = AOV3HTTPCaches.createDirectory(directory);
+    Assertions.assertEquals(Optional.empty(), cache.find(URI_0));
+
+    cache.store(URI_0, entry("\"a\"", "A"));
+    cache.store(URI_1, entry("\"b\"", "B"));
+    cache.store(URI_0, entry("\"c\"", "C"));
+
+    final var found0 = cache.find(URI_0).orElseThrow();
+    Assertions.assertEquals(Optional.of("\"c\""), found0.entityTag());
+    Assertions.assertEquals(
+      Optional.of("Wed, 21 Oct 2015 07:28:00 GMT"),
+      found0.lastModified());
+    Assertions.assertEquals("C", textOf(found0));
+
+    final var found1 = cache.find(URI_1).orElseThrow();
+    Assertions.assertEquals("B", textOf(found1));
+
+    try (var files = Files.list(directory)) {
+      Assertions.assertEquals(2L, files.count());
+    }
+  }
+
+  @Test
+  public void testDirectoryPersistent(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    AOV3HTTPCaches.createDirectory(directory)
+      .store(URI_0, entry("\"a\"", "A"));
+
+    final var found =
+      AOV3HTTPCaches.createDirectory(directory)
+        .find(URI_0)
+        .orElseThrow();
+
+    Assertions.assertEquals("A", textOf(found));
+  }
+
+  @Test
+  public void testDirectoryCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var cache = AOV3HTTPCaches.createDirectory(directory);
+    cache.store(URI_0, entry("\"a\"", "A"));
+
+    try (var files = Files.list(directory)) {
+      final var file = files.findFirst().orElseThrow();
+      Files.write(file, new byte[16]);
+    }
+
+    Assertions.assertEquals(Optional.empty(), cache.find(URI_0));
+  }
+}
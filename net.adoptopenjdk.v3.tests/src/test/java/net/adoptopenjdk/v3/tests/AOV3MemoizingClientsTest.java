@@ -0,0 +1,628 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseNamesType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseVersionsType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import net.adoptopenjdk.v3.vanilla.AOV3Catalogs;
+import net.adoptopenjdk.v3.vanilla.AOV3MemoizingClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public final class AOV3MemoizingClientsTest
+{
+  private AOV3TestFixtures fixtures;
+  private CountingClient delegate;
+  private MutableClock clock;
+
+  @BeforeEach
+  public void testSetup()
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    final var available = this.fixtures.availableReleases();
+    final var releases = this.fixtures.releases("releases8.json");
+
+    this.delegate =
+      new CountingClient(AOV3Catalogs.create(available, releases));
+    this.clock =
+      new MutableClock();
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.delegate.close();
+  }
+
+  private AOV3ClientType memoizing(
+    final AOV3MemoizingClients.Builder builder)
+  {
+    return builder.setClock(this.clock)
+      .build()
+      .decorate(this.delegate);
+  }
+
+  private AOV3RequestReleaseNamesType releaseNames(
+    final AOV3ClientType client,
+    final long page,
+    final long pageSize)
+  {
+    return client.releaseNames(
+      this.fixtures::logError,
+      BigInteger.valueOf(page),
+      BigInteger.valueOf(pageSize),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty()
+    );
+  }
+
+  private AOV3RequestAssetsForReleaseType assetsForRelease(
+    final AOV3ClientType client)
+  {
+    return client.assetsForRelease(
+      this.fixtures::logError,
+      BigInteger.ZERO,
+      BigInteger.TEN,
+      BigInteger.valueOf(8L),
+      AOV3ReleaseKind.GENERAL_AVAILABILITY,
+      Optional.of(AOV3Architecture.X64),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.of(AOV3OperatingSystem.LINUX),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty()
+    );
+  }
+
+  @Test
+  public void testMemoized()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var request = client.availableReleases(this.fixtures::logError);
+    final var result0 = request.execute();
+    final var result1 = request.execute();
+    final var result2 =
+      client.availableReleases(this.fixtures::logError).execute();
+
+    Assertions.assertSame(result0, result1);
+    Assertions.assertSame(result0, result2);
+    Assertions.assertEquals(1, this.delegate.calls.get());
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  @Test
+  public void testMemoizedAsync()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var result0 = this.releaseNames(client, 0L, 10L).execute();
+    final var result1 = this.releaseNames(client, 0L, 10L).executeAsync();
+
+    Assertions.assertTrue(result1.isDone());
+    Assertions.assertSame(result0, result1.get());
+    Assertions.assertEquals(1, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testMemoizedImmutable()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var result0 = this.releaseNames(client, 0L, 10L).execute();
+    final var result1 = this.releaseNames(client, 0L, 10L).execute();
+    Assertions.assertEquals(1, this.delegate.calls.get());
+    Assertions.assertFalse(result0.isEmpty());
+
+    Assertions.assertThrows(
+      UnsupportedOperationException.class, result0::clear);
+    Assertions.assertThrows(
+      UnsupportedOperationException.class, () -> result1.add("x"));
+    Assertions.assertEquals(
+      result0, this.releaseNames(client, 0L, 10L).execute());
+  }
+
+  @Test
+  public void testParametersDistinct()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var result0 = this.releaseNames(client, 0L, 2L).execute();
+    final var result1 = this.releaseNames(client, 1L, 2L).execute();
+
+    Assertions.assertNotEquals(result0, result1);
+    Assertions.assertEquals(2, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testExpired()
+    throws Exception
+  {
+    final var client =
+      this.memoizing(
+        AOV3MemoizingClients.builder()
+          .setExpireAfterWrite(Duration.ofMinutes(5L)));
+
+    final var result0 =
+      client.availableReleases(this.fixtures::logError).execute();
+    this.clock.advance(Duration.ofMinutes(4L));
+    final var result1 =
+      client.availableReleases(this.fixtures::logError).execute();
+    Assertions.assertSame(result0, result1);
+    Assertions.assertEquals(1, this.delegate.calls.get());
+
+    this.clock.advance(Duration.ofMinutes(1L));
+    client.availableReleases(this.fixtures::logError).execute();
+    Assertions.assertEquals(2, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testRefreshed()
+    throws Exception
+  {
+    final var client =
+      this.memoizing(
+        AOV3MemoizingClients.builder()
+          .setExpireAfterWrite(Duration.ofMinutes(5L))
+          .setRefreshAfterWrite(Duration.ofMinutes(3L)));
+
+    final var result0 =
+      client.availableReleases(this.fixtures::logError).execute();
+    this.clock.advance(Duration.ofMinutes(4L));
+
+    final var result1 =
+      client.availableReleases(this.fixtures::logError).execute();
+    Assertions.assertSame(result0, result1);
+    Assertions.assertEquals(2, this.delegate.calls.get());
+
+    this.clock.advance(Duration.ofMinutes(2L));
+    client.availableReleases(this.fixtures::logError).execute();
+    Assertions.assertEquals(2, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testMaximumWeight()
+    throws Exception
+  {
+    final var client =
+      this.memoizing(
+        AOV3MemoizingClients.builder()
+          .setMaximumWeight(3L));
+
+    this.releaseNames(client, 0L, 2L).execute();
+    this.releaseNames(client, 1L, 2L).execute();
+    Assertions.assertEquals(2, this.delegate.calls.get());
+
+    this.releaseNames(client, 1L, 2L).execute();
+    Assertions.assertEquals(2, this.delegate.calls.get());
+
+    this.releaseNames(client, 0L, 2L).execute();
+    Assertions.assertEquals(3, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testFailuresNotMemoized()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    for (int index = 1; index <= 2; ++index) {
+      final var exception =
+        Assertions.assertThrows(
+          AOV3ExceptionHTTPRequestFailed.class,
+          () -> this.releaseNames(client, 1000L, 10L).execute());
+      Assertions.assertEquals(404, exception.statusCode());
+      Assertions.assertEquals(index, this.delegate.calls.get());
+    }
+  }
+
+  @Test
+  public void testErrorsReplayed()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+    final var error =
+      AOV3Error.builder()
+        .setSource(URI.create("urn:test"))
+        .setContext("context")
+        .setMessage("message")
+        .build();
+
+    this.delegate.error = Optional.of(error);
+    client.availableReleases(this.fixtures::logError).execute();
+    client.availableReleases(this.fixtures::logError).execute();
+
+    Assertions.assertEquals(1, this.delegate.calls.get());
+    Assertions.assertEquals(List.of(error, error), this.fixtures.errors());
+  }
+
+  @Test
+  public void testStreamingUsesMemoized()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var streamed0 = new ArrayList<AOV3Release>();
+    this.assetsForRelease(client).executeStreaming(streamed0::add);
+    Assertions.assertEquals(1, this.delegate.calls.get());
+
+    final var executed = this.assetsForRelease(client).execute();
+    Assertions.assertEquals(streamed0, executed);
+    Assertions.assertEquals(2, this.delegate.calls.get());
+
+    final var streamed1 = new ArrayList<AOV3Release>();
+    this.assetsForRelease(client).executeStreaming(streamed1::add);
+    Assertions.assertEquals(executed, streamed1);
+    Assertions.assertEquals(2, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testBinaryForLatest()
+    throws Exception
+  {
+    final var client = this.memoizing(AOV3MemoizingClients.builder());
+
+    final var uri0 =
+      client.binaryForLatest(
+        this.fixtures::logError,
+        AOV3Architecture.X64,
+        BigInteger.valueOf(8L),
+        AOV3HeapSize.NORMAL,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3OperatingSystem.LINUX,
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      ).execute();
+
+    final var uri1 =
+      client.binaryForLatest(
+        this.fixtures::logError,
+        AOV3Architecture.X64,
+        BigInteger.valueOf(8L),
+        AOV3HeapSize.NORMAL,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3OperatingSystem.LINUX,
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      ).execute();
+
+    Assertions.assertSame(uri0, uri1);
+    Assertions.assertEquals(1, this.delegate.calls.get());
+  }
+
+  @Test
+  public void testConfigurationInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3MemoizingClients.builder()
+        .setExpireAfterWrite(Duration.ZERO)
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3MemoizingClients.builder()
+        .setExpireAfterWrite(Duration.ofMinutes(1L))
+        .setRefreshAfterWrite(Duration.ofMinutes(1L))
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3MemoizingClients.builder()
+        .setMaximumWeight(0L)
+        .build();
+    });
+  }
+
+  /**
+   * A clock that only moves when told to.
+   */
+
+  private static final class MutableClock extends Clock
+  {
+    private volatile Instant now = Instant.parse("2020-01-01T00:00:00Z");
+
+    void advance(
+      final Duration duration)
+    {
+      this.now = this.now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone()
+    {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(
+      final ZoneId zone)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant()
+    {
+      return this.now;
+    }
+  }
+
+  /**
+   * A client that counts the requests created on another client, and that
+   * optionally reports an error to each request's error receiver. Release
+   * names are returned in mutable lists. Requests
+   * for the available releases are executed asynchronously on the calling
+   * thread, so that background refreshes complete deterministically.
+   */
+
+  private static final class CountingClient implements AOV3ClientType
+  {
+    private final AOV3ClientType delegate;
+    private final AtomicInteger calls;
+    private volatile Optional<AOV3Error> error;
+
+    CountingClient(
+      final AOV3ClientType inDelegate)
+    {
+      this.delegate = inDelegate;
+      this.calls = new AtomicInteger();
+      this.error = Optional.empty();
+    }
+
+    private Consumer<AOV3Error> called(
+      final Consumer<AOV3Error> errorReceiver)
+    {
+      this.calls.incrementAndGet();
+      this.error.ifPresent(errorReceiver);
+      return errorReceiver;
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      this.delegate.close();
+    }
+
+    @Override
+    public AOV3RequestReleasesType availableReleases(
+      final Consumer<AOV3Error> errorReceiver)
+    {
+      final var request =
+        this.delegate.availableReleases(this.called(errorReceiver));
+
+      return new AOV3RequestReleasesType()
+      {
+        @Override
+        public AOV3AvailableReleases execute()
+          throws AOV3Exception, InterruptedException
+        {
+          return request.execute();
+        }
+
+        @Override
+        public CompletableFuture<AOV3AvailableReleases> executeAsync()
+        {
+          try {
+            return CompletableFuture.completedFuture(request.execute());
+          } catch (final AOV3Exception | InterruptedException e) {
+            return CompletableFuture.failedFuture(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public AOV3RequestReleaseNamesType releaseNames(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final Optional<AOV3ReleaseKind> releaseKind,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor,
+      final Optional<AOV3VersionRange> versionRange)
+    {
+      final var request =
+        this.delegate.releaseNames(
+          this.called(errorReceiver),
+          page,
+          pageSize,
+          releaseKind,
+          sortOrder,
+          vendor,
+          versionRange
+        );
+
+      /*
+       * Return mutable lists, as an arbitrary delegate client may.
+       */
+
+      return () -> new ArrayList<>(request.execute());
+    }
+
+    @Override
+    public AOV3RequestReleaseVersionsType releaseVersions(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final Optional<AOV3ReleaseKind> releaseKind,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor,
+      final Optional<AOV3VersionRange> versionRange)
+    {
+      return this.delegate.releaseVersions(
+        this.called(errorReceiver),
+        page,
+        pageSize,
+        releaseKind,
+        sortOrder,
+        vendor,
+        versionRange
+      );
+    }
+
+    // CHECKSTYLE:OFF
+    @Override
+    public AOV3RequestAssetsForReleaseType assetsForRelease(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final BigInteger version,
+      final AOV3ReleaseKind releaseKind,
+      final Optional<AOV3Architecture> architecture,
+      final Optional<AOV3HeapSize> heapSize,
+      final Optional<AOV3ImageKind> imageKind,
+      final Optional<AOV3JVMImplementation> jvmImplementation,
+      final Optional<AOV3OperatingSystem> operatingSystem,
+      final Optional<String> project,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor
+    // CHECKSTYLE:ON
+    )
+    {
+      return this.delegate.assetsForRelease(
+        this.called(errorReceiver),
+        page,
+        pageSize,
+        version,
+        releaseKind,
+        architecture,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        project,
+        sortOrder,
+        vendor
+      );
+    }
+
+    @Override
+    public AOV3RequestAssetsForLatestType assetsForLatest(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger version,
+      final AOV3JVMImplementation jvmImplementation)
+    {
+      return this.delegate.assetsForLatest(
+        this.called(errorReceiver),
+        version,
+        jvmImplementation
+      );
+    }
+
+    @Override
+    public AOV3RequestBinaryForLatestType binaryForLatest(
+      final Consumer<AOV3Error> errorReceiver,
+      final AOV3Architecture architecture,
+      final BigInteger version,
+      final AOV3HeapSize heapSize,
+      final AOV3ImageKind imageKind,
+      final AOV3JVMImplementation jvmImplementation,
+      final AOV3OperatingSystem operatingSystem,
+      final AOV3ReleaseKind releaseKind,
+      final AOV3Vendor vendor,
+      final Optional<String> project)
+    {
+      return this.delegate.binaryForLatest(
+        this.called(errorReceiver),
+        architecture,
+        version,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        releaseKind,
+        vendor,
+        project
+      );
+    }
+
+    @Override
+    public AOV3RequestBinaryForReleaseType binaryForRelease(
+      final Consumer<AOV3Error> errorReceiver,
+      final String releaseName,
+      final AOV3OperatingSystem operatingSystem,
+      final AOV3Architecture architecture,
+      final AOV3ImageKind imageKind,
+      final AOV3JVMImplementation jvmImplementation,
+      final AOV3HeapSize heapSize,
+      final AOV3Vendor vendor,
+      final Optional<String> project)
+    {
+      return this.delegate.binaryForRelease(
+        this.called(errorReceiver),
+        releaseName,
+        operatingSystem,
+        architecture,
+        imageKind,
+        jvmImplementation,
+        heapSize,
+        vendor,
+        project
+      );
+    }
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3PageCursorType;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseNamesType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseVersionsType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3UncheckedException;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static net.adoptopenjdk.v3.tests.AOV3TestFixtures.failure;
+
+public final class AOV3PageCursorsTest
+{
+  private FakeCalls calls;
+  private ArrayList<BigInteger> requested;
+
+  /**
+   * A set of API calls that serves pages of release names from a function,
+   * and supports no other calls.
+   */
+
+  private static final class FakeCalls implements AOV3APICallsType
+  {
+    private final ArrayList<BigInteger> requested;
+    private Function<BigInteger, AOV3RequestReleaseNamesType> pages;
+
+    FakeCalls(
+      final ArrayList<BigInteger> inRequested)
+    {
+      this.requested = inRequested;
+      this.pages = page -> {
+        throw new UnsupportedOperationException();
+      };
+    }
+
+    @Override
+    public AOV3RequestReleasesType availableReleases(
+      final Consumer<AOV3Error> errorReceiver)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AOV3RequestReleaseNamesType releaseNames(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final Optional<AOV3ReleaseKind> releaseKind,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor,
+      final Optional<AOV3VersionRange> versionRange)
+    {
+      synchronized (this.requested) {
+        this.requested.add(page);
+      }
+      return this.pages.apply(page);
+    }
+
+    @Override
+    public AOV3RequestReleaseVersionsType releaseVersions(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final Optional<AOV3ReleaseKind> releaseKind,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor,
+      final Optional<AOV3VersionRange> versionRange)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AOV3RequestAssetsForReleaseType assetsForRelease(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger page,
+      final BigInteger pageSize,
+      final BigInteger version,
+      final AOV3ReleaseKind releaseKind,
+      final Optional<AOV3Architecture> architecture,
+      final Optional<AOV3HeapSize> heapSize,
+      final Optional<AOV3ImageKind> imageKind,
+      final Optional<AOV3JVMImplementation> jvmImplementation,
+      final Optional<AOV3OperatingSystem> operatingSystem,
+      final Optional<String> project,
+      final Optional<AOV3SortOrder> sortOrder,
+      final Optional<AOV3Vendor> vendor)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AOV3RequestAssetsForLatestType assetsForLatest(
+      final Consumer<AOV3Error> errorReceiver,
+      final BigInteger version,
+      final AOV3JVMImplementation jvmImplementation)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AOV3RequestBinaryForLatestType binaryForLatest(
+      final Consumer<AOV3Error> errorReceiver,
+      final AOV3Architecture architecture,
+      final BigInteger version,
+      final AOV3HeapSize heapSize,
+      final AOV3ImageKind imageKind,
+      final AOV3JVMImplementation jvmImplementation,
+      final AOV3OperatingSystem operatingSystem,
+      final AOV3ReleaseKind releaseKind,
+      final AOV3Vendor vendor,
+      final Optional<String> project)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AOV3RequestBinaryForReleaseType binaryForRelease(
+      final Consumer<AOV3Error> errorReceiver,
+      final String releaseName,
+      final AOV3OperatingSystem operatingSystem,
+      final AOV3Architecture architecture,
+      final AOV3ImageKind imageKind,
+      final AOV3JVMImplementation jvmImplementation,
+      final AOV3HeapSize heapSize,
+      final AOV3Vendor vendor,
+      final Optional<String> project)
+    {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @BeforeEach
+  public void testSetup()
+  {
+    this.requested =
+      new ArrayList<>();
+    this.calls =
+      new FakeCalls(this.requested);
+  }
+
+  private void serve(
+    final Function<BigInteger, AOV3RequestReleaseNamesType> pages)
+  {
+    this.calls.pages = pages;
+  }
+
+  private Optional<List<String>> next(
+    final AOV3PageCursorType<String> cursor)
+    throws Exception
+  {
+    return cursor.nextPage();
+  }
+
+  @Test
+  public void testStopsOnEmptyPage()
+    throws Exception
+  {
+    this.serve(page -> () -> {
+      if (page.intValue() < 3) {
+        return List.of("a" + page, "b" + page);
+      }
+      return List.of();
+    });
+
+    try (var cursor = this.calls.releaseNamesPages(
+      error -> {
+      },
+      BigInteger.TWO,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty())) {
+
+      Assertions.assertEquals(
+        List.of("a0", "b0", "a1", "b1", "a2", "b2"),
+        cursor.elements().collect(Collectors.toList())
+      );
+      Assertions.assertEquals(Optional.empty(), this.next(cursor));
+    }
+
+    Assertions.assertEquals(
+      List.of(
+        BigInteger.ZERO,
+        BigInteger.ONE,
+        BigInteger.TWO,
+        BigInteger.valueOf(3L)),
+      this.requested
+    );
+  }
+
+  @Test
+  public void testStopsOnNotFound()
+    throws Exception
+  {
+    this.serve(page -> () -> {
+      if (page.intValue() < 2) {
+        return List.of("a" + page);
+      }
+      throw failure(404);
+    });
+
+    try (var cursor = this.calls.releaseNamesPages(
+      error -> {
+      },
+      BigInteger.ONE,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty())) {
+
+      Assertions.assertEquals(Optional.of(List.of("a0")), this.next(cursor));
+      Assertions.assertEquals(Optional.of(List.of("a1")), this.next(cursor));
+      Assertions.assertEquals(Optional.empty(), this.next(cursor));
+      Assertions.assertEquals(Optional.empty(), this.next(cursor));
+    }
+  }
+
+  @Test
+  public void testPropagatesFailures()
+    throws Exception
+  {
+    this.serve(page -> () -> {
+      if (page.intValue() < 1) {
+        return List.of("a" + page);
+      }
+      throw failure(500);
+    });
+
+    try (var cursor = this.calls.releaseNamesPages(
+      error -> {
+      },
+      BigInteger.ONE,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty())) {
+
+      Assertions.assertEquals(Optional.of(List.of("a0")), this.next(cursor));
+      final var ex =
+        Assertions.assertThrows(
+          AOV3ExceptionHTTPRequestFailed.class,
+          () -> this.next(cursor));
+      Assertions.assertEquals(500, ex.statusCode());
+    }
+  }
+
+  @Test
+  public void testStreamPropagatesFailures()
+  {
+    this.serve(page -> () -> {
+      throw failure(500);
+    });
+
+    final var cursor = this.calls.releaseNamesPages(
+      error -> {
+      },
+      BigInteger.ONE,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty());
+
+    try (var stream = cursor.pages()) {
+      final var ex =
+        Assertions.assertThrows(
+          AOV3UncheckedException.class,
+          () -> stream.collect(Collectors.toList()));
+      Assertions.assertEquals(
+        AOV3ExceptionHTTPRequestFailed.class,
+        ex.getCause().getClass());
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType.PermitType;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class AOV3RequestLimitersTest
+{
+  private static PermitType permit(
+    final CompletableFuture<PermitType> future)
+    throws Exception
+  {
+    return future.get(10L, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testMaximumInFlight()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 2);
+
+    final var future0 = limiter.acquire();
+    final var future1 = limiter.acquire();
+    final var future2 = limiter.acquire();
+
+    Assertions.assertTrue(future0.isDone());
+    Assertions.assertTrue(future1.isDone());
+    Assertions.assertFalse(future2.isDone());
+    Assertions.assertEquals(2, limiter.statistics().inFlight());
+    Assertions.assertEquals(1, limiter.statistics().queued());
+
+    permit(future0).close();
+    permit(future2).close();
+    permit(future1).close();
+
+    Assertions.assertEquals(0, limiter.statistics().inFlight());
+    Assertions.assertEquals(3L, limiter.statistics().acquired());
+  }
+
+  @Test
+  public void testFairOrder()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 1);
+
+    final var future0 = limiter.acquire();
+    final var future1 = limiter.acquire();
+    final var future2 = limiter.acquire();
+
+    Assertions.assertTrue(future0.isDone());
+    Assertions.assertFalse(future1.isDone());
+    Assertions.assertFalse(future2.isDone());
+
+    permit(future0).close();
+    Assertions.assertTrue(future1.isDone());
+    Assertions.assertFalse(future2.isDone());
+
+    permit(future1).close();
+    Assertions.assertTrue(future2.isDone());
+    permit(future2).close();
+  }
+
+  @Test
+  public void testRate()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(20.0, 2, 100);
+
+    final var time0 = System.nanoTime();
+    for (int index = 0; index < 6; ++index) {
+      permit(limiter.acquire()).close();
+    }
+    final var elapsed = Duration.ofNanos(System.nanoTime() - time0);
+
+    Assertions.assertTrue(
+      elapsed.compareTo(Duration.ofMillis(150L)) >= 0,
+      String.format("Elapsed time %s must be at least 150ms", elapsed));
+    Assertions.assertTrue(
+      limiter.statistics().queuedTimeTotal().compareTo(
+        Duration.ofMillis(150L)) >= 0);
+  }
+
+  @Test
+  public void testCancelled()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 1);
+
+    final var future0 = limiter.acquire();
+    final var future1 = limiter.acquire();
+    final var future2 = limiter.acquire();
+
+    future1.cancel(false);
+    permit(future0).close();
+
+    Assertions.assertTrue(future2.isDone());
+    Assertions.assertEquals(1, limiter.statistics().inFlight());
+    Assertions.assertEquals(0, limiter.statistics().queued());
+    permit(future2).close();
+  }
+
+  @Test
+  public void testQueuedTime()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 1);
+
+    final var permit0 = permit(limiter.acquire());
+    final var future1 = limiter.acquire();
+    Thread.sleep(50L);
+    permit0.close();
+    permit(future1).close();
+
+    final var statistics = limiter.statistics();
+    Assertions.assertEquals(2L, statistics.acquired());
+    Assertions.assertTrue(
+      statistics.queuedTimeMaximum().compareTo(Duration.ofMillis(50L)) >= 0);
+    Assertions.assertEquals(
+      statistics.queuedTimeTotal().dividedBy(2L),
+      statistics.queuedTimeMean());
+  }
+
+  @Test
+  public void testReleaseTwice()
+    throws Exception
+  {
+    final var limiter = AOV3RequestLimiters.create(1000.0, 1000, 1);
+
+    final var permit0 = permit(limiter.acquire());
+    permit0.close();
+    permit0.close();
+
+    Assertions.assertEquals(0, limiter.statistics().inFlight());
+
+    final var future1 = limiter.acquire();
+    final var future2 = limiter.acquire();
+    Assertions.assertTrue(future1.isDone());
+    Assertions.assertFalse(future2.isDone());
+    permit(future1).close();
+    permit(future2).close();
+  }
+
+  @Test
+  public void testInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RequestLimiters.create(0.0, 1, 1);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RequestLimiters.create(Double.NaN, 1, 1);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RequestLimiters.create(1.0, 0, 1);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RequestLimiters.create(1.0, 1, 0);
+    });
+  }
+}
@@ -14,9 +14,13 @@
 
 package net.adoptopenjdk.v3.tests;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import net.adoptopenjdk.v3.api.AOV3Error;
 import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
 import net.adoptopenjdk.v3.api.AOV3Installer;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3VersionDataType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseFeederType;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsers;
 import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsersType;
 import org.apache.commons.io.input.BrokenInputStream;
@@ -28,6 +32,7 @@ import org.junit.jupiter.api.TestFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,9 +41,12 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public final class AOV3ResponseParsersTest
 {
   private static final Logger LOG =
@@ -166,6 +174,102 @@ public final class AOV3ResponseParsersTest
     Assertions.assertEquals(0, this.errors.size());
   }
 
+  @Test
+  public void testReleaseVersionsSorted()
+    throws Exception
+  {
+    final var stream = resource("releaseVersions.json");
+    final var parser =
+      this.parsers.createParser(this::logError, URI.create("urn:test"), stream);
+    final var versions = new ArrayList<>(parser.parseReleaseVersions());
+    versions.sort(AOV3VersionDataType::compareNumerically);
+
+    for (int index = 1; index < versions.size(); ++index) {
+      final var x = versions.get(index - 1);
+      final var y = versions.get(index);
+      Assertions.assertTrue(x.majorAsInt() <= y.majorAsInt());
+      final var sameMajor = x.majorAsInt() == y.majorAsInt();
+      if (sameMajor && x.minorAsInt() == y.minorAsInt()) {
+        Assertions.assertTrue(x.securityAsInt() <= y.securityAsInt());
+      }
+    }
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
+  @Test
+  public void testReleaseVersionsNumericCoercion()
+    throws Exception
+  {
+    final var text =
+      "{\"versions\":["
+        + "{\"adopt_build_number\":\"2\",\"build\":9.5,\"major\":11,"
+        + "\"minor\":0,\"security\":\" 3 \",\"semver\":\"11.0.3\"},"
+        + "{\"major\":11,\"security\":\"\"}"
+        + "]}";
+
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(text.getBytes(UTF_8)));
+
+    final var versions = parser.parseReleaseVersions();
+    Assertions.assertEquals(1, versions.size());
+
+    final var version = versions.get(0);
+    Assertions.assertEquals(2, version.adoptBuildNumberAsInt());
+    Assertions.assertEquals(9, version.buildAsInt());
+    Assertions.assertEquals(11, version.majorAsInt());
+    Assertions.assertEquals(0, version.minorAsInt());
+    Assertions.assertEquals(3, version.securityAsInt());
+
+    Assertions.assertEquals(1, this.errors.size());
+    Assertions.assertEquals("security", this.errors.get(0).message());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testReleaseVersionsDeprecatedAccessors()
+    throws Exception
+  {
+    final var text =
+      "{\"versions\":["
+        + "{\"adopt_build_number\":2,\"build\":9,\"major\":11,"
+        + "\"minor\":0,\"security\":3,\"semver\":\"11.0.3\"}"
+        + "]}";
+
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(text.getBytes(UTF_8)));
+
+    final var version = parser.parseReleaseVersions().get(0);
+    Assertions.assertEquals(BigInteger.TWO, version.adoptBuildNumber());
+    Assertions.assertEquals(BigInteger.valueOf(9L), version.build());
+    Assertions.assertEquals(BigInteger.valueOf(11L), version.major());
+    Assertions.assertEquals(BigInteger.ZERO, version.minor());
+    Assertions.assertEquals(BigInteger.valueOf(3L), version.security());
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
+  @Test
+  public void testReleaseVersionsOutOfRange()
+  {
+    final var text = "{\"versions\":[{\"major\":4294967296}]}";
+
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(text.getBytes(UTF_8)));
+
+    Assertions.assertThrows(
+      AOV3ExceptionParseFailed.class,
+      parser::parseReleaseVersions
+    );
+  }
+
   @Test
   public void testReleaseVersionsIOError()
   {
@@ -186,6 +290,34 @@ public final class AOV3ResponseParsersTest
     Assertions.assertEquals(IOException.class, ex.getCause().getClass());
   }
 
+  @Test
+  public void testReleaseNamesNull()
+    throws Exception
+  {
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream("{\"releases\":null}".getBytes(UTF_8)));
+
+    Assertions.assertEquals(List.of(), parser.parseReleaseNames());
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
+  @Test
+  public void testReleaseVersionsNull()
+    throws Exception
+  {
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream("{\"versions\":null}".getBytes(UTF_8)));
+
+    Assertions.assertEquals(List.of(), parser.parseReleaseVersions());
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
   @Test
   public void testAssetsForRelease()
     throws Exception
@@ -208,6 +340,294 @@ public final class AOV3ResponseParsersTest
     Assertions.assertEquals(0, this.errors.size());
   }
 
+  @Test
+  public void testAssetsForReleaseStreaming()
+    throws Exception
+  {
+    final var expected =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        resource("releases8.json")
+      ).parseAssetsForRelease();
+
+    final var received = new ArrayList<AOV3Release>();
+    this.parsers.createParser(
+      this::logError,
+      URI.create("urn:test"),
+      resource("releases8.json")
+    ).parseAssetsForReleaseStreaming(received::add);
+
+    Assertions.assertEquals(expected, received);
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
+  @Test
+  public void testAssetsForReleaseStreamingBad1()
+    throws Exception
+  {
+    final var received = new ArrayList<AOV3Release>();
+    this.parsers.createParser(
+      this::logError,
+      URI.create("urn:test"),
+      resource("assetsForReleaseBad1.json")
+    ).parseAssetsForReleaseStreaming(received::add);
+
+    Assertions.assertEquals(1, this.errors.size());
+  }
+
+  /**
+   * Create an array of releases large enough to be converted in several
+   * batches, with invalid releases spread throughout.
+   */
+
+  private static byte[] largeReleaseArray()
+    throws IOException
+  {
+    final var mapper = new ObjectMapper();
+    final var good = new ArrayList<String>();
+    try (var stream = resource("releases8.json")) {
+      mapper.readTree(stream).elements()
+        .forEachRemaining(node -> good.add(node.toString()));
+    }
+    final var bad = new ArrayList<String>();
+    try (var stream = resource("assetsForReleaseBad1.json")) {
+      mapper.readTree(stream).elements()
+        .forEachRemaining(node -> bad.add(node.toString()));
+    }
+
+    final var elements = new ArrayList<String>();
+    for (int index = 0; index < 300; ++index) {
+      if (index % 37 == 0) {
+        elements.add(bad.get(0));
+      } else {
+        elements.add(good.get(index % good.size()));
+      }
+    }
+    return ("[" + String.join(",", elements) + "]").getBytes(UTF_8);
+  }
+
+  private static List<String> describe(
+    final List<AOV3Error> errors)
+  {
+    final var results = new ArrayList<String>();
+    for (final var error : errors) {
+      results.add(error.context() + ": " + error.message());
+    }
+    return results;
+  }
+
+  @Test
+  public void testAssetsForReleaseParallel()
+    throws Exception
+  {
+    final var data = largeReleaseArray();
+    final var expected =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(data)
+      ).parseAssetsForRelease();
+
+    final var expectedErrors = describe(this.errors);
+    this.errors.clear();
+
+    final var pool = new ForkJoinPool(4);
+    try {
+      final var received =
+        AOV3ResponseParsers.createParallel(pool)
+          .createParser(
+            this::logError,
+            URI.create("urn:test"),
+            new ByteArrayInputStream(data)
+          ).parseAssetsForRelease();
+
+      Assertions.assertEquals(expected, received);
+      Assertions.assertEquals(expectedErrors, describe(this.errors));
+      Assertions.assertEquals(9, this.errors.size());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testAssetsForLatestParallel()
+    throws Exception
+  {
+    final var expected =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        resource("assetsForLatest.json")
+      ).parseAssetsForLatest();
+
+    final var pool = new ForkJoinPool(4);
+    try {
+      final var received =
+        AOV3ResponseParsers.createParallel(pool)
+          .createParser(
+            this::logError,
+            URI.create("urn:test"),
+            resource("assetsForLatest.json")
+          ).parseAssetsForLatest();
+
+      Assertions.assertEquals(expected, received);
+      Assertions.assertEquals(0, this.errors.size());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testAssetsForReleaseParallelNotArray()
+  {
+    final var pool = new ForkJoinPool(1);
+    try {
+      final var parser =
+        AOV3ResponseParsers.createParallel(pool)
+          .createParser(
+            this::logError,
+            URI.create("urn:test"),
+            new ByteArrayInputStream("[{}, 23".getBytes(UTF_8)));
+
+      Assertions.assertThrows(
+        AOV3ExceptionParseFailed.class,
+        parser::parseAssetsForRelease
+      );
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testAssetsForReleaseStreamingNotArray()
+  {
+    final var parser =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream("{}".getBytes(UTF_8)));
+
+    Assertions.assertThrows(
+      AOV3ExceptionParseFailed.class,
+      () -> parser.parseAssetsForReleaseStreaming(release -> {
+      })
+    );
+  }
+
+  private static <T> List<T> feed(
+    final AOV3ResponseFeederType<T> feeder,
+    final byte[] data,
+    final int chunkSize)
+    throws AOV3ExceptionParseFailed
+  {
+    final var received = new ArrayList<T>();
+    for (int offset = 0; offset < data.length; offset += chunkSize) {
+      final var length = Math.min(chunkSize, data.length - offset);
+      feeder.feed(data, offset, length, received::add);
+    }
+    feeder.finish(received::add);
+    return received;
+  }
+
+  /**
+   * The non-blocking parser must agree with the blocking parser regardless
+   * of how the data is split into chunks.
+   */
+
+  @Test
+  public void testAssetsForReleaseFeeder()
+    throws Exception
+  {
+    final var data = largeReleaseArray();
+    final var expected =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        new ByteArrayInputStream(data)
+      ).parseAssetsForRelease();
+
+    final var expectedErrors = describe(this.errors);
+    Assertions.assertEquals(9, expectedErrors.size());
+
+    for (final var chunkSize : List.of(1, 7, 100, 8192, data.length)) {
+      this.errors.clear();
+      final var received =
+        feed(
+          this.parsers.createReleasesFeeder(
+            this::logError, URI.create("urn:test")),
+          data,
+          chunkSize.intValue());
+
+      Assertions.assertEquals(expected, received);
+      Assertions.assertEquals(expectedErrors, describe(this.errors));
+    }
+  }
+
+  @Test
+  public void testAssetsForLatestFeeder()
+    throws Exception
+  {
+    final var expected =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        resource("assetsForLatest.json")
+      ).parseAssetsForLatest();
+
+    final byte[] data;
+    try (var stream = resource("assetsForLatest.json")) {
+      data = stream.readAllBytes();
+    }
+
+    final var received =
+      feed(
+        this.parsers.createAssetViewsFeeder(
+          this::logError, URI.create("urn:test")),
+        data,
+        13);
+
+    Assertions.assertEquals(expected, received);
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
+  @Test
+  public void testAssetsForReleaseFeederNotArray()
+  {
+    final var feeder =
+      this.parsers.createReleasesFeeder(this::logError, URI.create("urn:test"));
+
+    Assertions.assertThrows(
+      AOV3ExceptionParseFailed.class,
+      () -> feed(feeder, "{}".getBytes(UTF_8), 1)
+    );
+  }
+
+  @Test
+  public void testAssetsForReleaseFeederTruncated()
+  {
+    final var feeder =
+      this.parsers.createReleasesFeeder(this::logError, URI.create("urn:test"));
+
+    Assertions.assertThrows(
+      AOV3ExceptionParseFailed.class,
+      () -> feed(feeder, "[{}, {".getBytes(UTF_8), 2)
+    );
+  }
+
+  @Test
+  public void testAssetsForReleaseFeederTrailingData()
+    throws Exception
+  {
+    final var feeder =
+      this.parsers.createReleasesFeeder(this::logError, URI.create("urn:test"));
+
+    Assertions.assertEquals(
+      List.of(),
+      feed(feeder, "[] ]]garbage".getBytes(UTF_8), 3)
+    );
+  }
+
   @Test
   public void testAssetsForReleaseIOError()
   {
@@ -306,6 +726,33 @@ public final class AOV3ResponseParsersTest
     Assertions.assertEquals(0, this.errors.size());
   }
 
+  @Test
+  public void testAssetsForReleasesSharedStrings()
+    throws Exception
+  {
+    final var releases0 =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        resource("releases8.json"))
+        .parseAssetsForRelease();
+    final var releases1 =
+      this.parsers.createParser(
+        this::logError,
+        URI.create("urn:test"),
+        resource("releases8.json"))
+        .parseAssetsForRelease();
+
+    final var project =
+      releases0.get(0).binaries().get(0).project();
+    for (final var release : releases1) {
+      for (final var binary : release.binaries()) {
+        Assertions.assertSame(project, binary.project());
+      }
+    }
+    Assertions.assertEquals(0, this.errors.size());
+  }
+
   private void testAssetsForReleaseFuzzOnce(
     final Integer index)
     throws Exception
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.vanilla.AOV3RetryPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public final class AOV3RetryPolicyTest
+{
+  private static final HttpHeaders NO_HEADERS =
+    HttpHeaders.of(Map.of(), (key, val) -> true);
+
+  private static HttpHeaders retryAfter(
+    final String value)
+  {
+    return HttpHeaders.of(
+      Map.of("Retry-After", List.of(value)),
+      (key, val) -> true);
+  }
+
+  @Test
+  public void testNone()
+  {
+    final var policy = AOV3RetryPolicy.none();
+
+    Assertions.assertEquals(1, policy.maximumAttempts());
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterStatus(1, 503, NO_HEADERS));
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterIOFailure(1));
+  }
+
+  @Test
+  public void testBackoff()
+  {
+    final var policy =
+      AOV3RetryPolicy.builder()
+        .setMaximumAttempts(10)
+        .setInitialDelay(Duration.ofMillis(100L))
+        .setMaximumDelay(Duration.ofMillis(1000L))
+        .build();
+
+    for (int attempts = 1; attempts < 10; ++attempts) {
+      final var limit =
+        Math.min(1000L, 100L << (attempts - 1));
+
+      for (int index = 0; index < 100; ++index) {
+        final var delay =
+          policy.delayAfterStatus(attempts, 503, NO_HEADERS)
+            .orElseThrow()
+            .toMillis();
+
+        Assertions.assertTrue(delay >= 0L);
+        Assertions.assertTrue(
+          delay <= limit,
+          String.format("Delay %d must be <= %d", delay, limit));
+      }
+    }
+
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterStatus(10, 503, NO_HEADERS));
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterIOFailure(10));
+  }
+
+  @Test
+  public void testStatusesNotRetried()
+  {
+    final var policy = AOV3RetryPolicy.builder().build();
+
+    for (final var status : List.of(200, 304, 307, 400, 404, 500)) {
+      Assertions.assertEquals(
+        Optional.empty(),
+        policy.delayAfterStatus(1, status.intValue(), NO_HEADERS));
+    }
+    for (final var status : AOV3RetryPolicy.DEFAULT_RETRY_STATUSES) {
+      Assertions.assertTrue(
+        policy.delayAfterStatus(1, status.intValue(), NO_HEADERS)
+          .isPresent());
+    }
+  }
+
+  @Test
+  public void testStatusesConfigured()
+  {
+    final var policy =
+      AOV3RetryPolicy.builder()
+        .setRetryStatuses(Set.of(Integer.valueOf(500)))
+        .build();
+
+    Assertions.assertTrue(
+      policy.delayAfterStatus(1, 500, NO_HEADERS).isPresent());
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterStatus(1, 503, NO_HEADERS));
+  }
+
+  @Test
+  public void testIOFailuresNotRetried()
+  {
+    final var policy =
+      AOV3RetryPolicy.builder()
+        .setRetryIOFailures(false)
+        .build();
+
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterIOFailure(1));
+  }
+
+  @Test
+  public void testRetryAfterSeconds()
+  {
+    final var policy = AOV3RetryPolicy.builder().build();
+
+    Assertions.assertEquals(
+      Optional.of(Duration.ofSeconds(7L)),
+      policy.delayAfterStatus(1, 429, retryAfter("7")));
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterStatus(1, 429, retryAfter("120")));
+  }
+
+  @Test
+  public void testRetryAfterDate()
+  {
+    final var clock =
+      Clock.fixed(Instant.parse("2020-03-01T12:00:00Z"), ZoneOffset.UTC);
+    final var policy =
+      AOV3RetryPolicy.builder()
+        .setClock(clock)
+        .build();
+
+    Assertions.assertEquals(
+      Optional.of(Duration.ofSeconds(10L)),
+      policy.delayAfterStatus(
+        1, 503, retryAfter("Sun, 1 Mar 2020 12:00:10 GMT")));
+    Assertions.assertEquals(
+      Optional.of(Duration.ZERO),
+      policy.delayAfterStatus(
+        1, 503, retryAfter("Sun, 1 Mar 2020 11:00:00 GMT")));
+    Assertions.assertEquals(
+      Optional.empty(),
+      policy.delayAfterStatus(
+        1, 503, retryAfter("Mon, 2 Mar 2020 12:00:00 GMT")));
+  }
+
+  @Test
+  public void testRetryAfterInvalid()
+  {
+    final var policy =
+      AOV3RetryPolicy.builder()
+        .setMaximumDelay(Duration.ofSeconds(1L))
+        .build();
+
+    final var delay =
+      policy.delayAfterStatus(1, 503, retryAfter("soon"));
+    Assertions.assertTrue(delay.isPresent());
+    Assertions.assertTrue(delay.get().compareTo(Duration.ofSeconds(1L)) <= 0);
+  }
+
+  @Test
+  public void testConfigurationInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RetryPolicy.builder()
+        .setMaximumAttempts(0)
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RetryPolicy.builder()
+        .setInitialDelay(Duration.ofSeconds(-1L))
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      AOV3RetryPolicy.builder()
+        .setInitialDelay(Duration.ofSeconds(2L))
+        .setMaximumDelay(Duration.ofSeconds(1L))
+        .build();
+    });
+  }
+}
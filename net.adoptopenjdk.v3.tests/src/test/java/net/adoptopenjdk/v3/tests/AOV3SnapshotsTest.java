@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionBound;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import net.adoptopenjdk.v3.vanilla.AOV3Snapshots;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public final class AOV3SnapshotsTest
+{
+  /*
+   * Header offsets from the (internal) snapshot format.
+   */
+
+  private static final int HEADER_FILE_SIZE = 12;
+  private static final int HEADER_ENUMS = 28;
+  private static final int HEADER_AVAILABLE = 32;
+  private static final int HEADER_SIZE = 52;
+
+  private AOV3TestFixtures fixtures;
+  private AOV3AvailableReleases available;
+  private List<AOV3Release> releases;
+  private Path file;
+  private AOV3ClientType client;
+
+  @BeforeEach
+  public void testSetup(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    this.available = this.fixtures.availableReleases();
+    this.releases = this.fixtures.releases();
+
+    this.file = directory.resolve("snapshot.bin");
+    AOV3Snapshots.write(this.file, this.available, this.releases);
+    this.client = AOV3Snapshots.open(this.file);
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.client.close();
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  private List<String> releaseNames(
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3VersionRange> versionRange)
+    throws Exception
+  {
+    return this.client.releaseNames(
+      this.fixtures::logError,
+      page,
+      pageSize,
+      Optional.empty(),
+      sortOrder,
+      Optional.empty(),
+      versionRange
+    ).execute();
+  }
+
+  @Test
+  public void testAvailableReleases()
+    throws Exception
+  {
+    Assertions.assertEquals(
+      this.available,
+      this.client.availableReleases(this.fixtures::logError).execute());
+  }
+
+  @Test
+  public void testAssetsForReleaseRoundTrip()
+    throws Exception
+  {
+    final var byId = new HashMap<String, AOV3Release>();
+    for (final var release : this.releases) {
+      byId.put(release.id(), release);
+    }
+
+    final var results =
+      this.client.assetsForRelease(
+        this.fixtures::logError,
+        BigInteger.ZERO,
+        BigInteger.valueOf(100L),
+        BigInteger.valueOf(8L),
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty()
+      ).execute();
+
+    Assertions.assertFalse(results.isEmpty());
+    for (final var result : results) {
+      final var original = byId.get(result.id());
+      final var expected =
+        AOV3Release.builder()
+          .from(original)
+          .setBinaries(
+            original.binaries()
+              .stream()
+              .filter(binary -> "jdk".equals(binary.project()))
+              .collect(Collectors.toList()))
+          .build();
+      Assertions.assertEquals(expected, result);
+    }
+  }
+
+  @Test
+  public void testReleaseNamesPaging()
+    throws Exception
+  {
+    final var all =
+      this.releaseNames(
+        BigInteger.ZERO,
+        BigInteger.valueOf(1000L),
+        Optional.empty(),
+        Optional.empty());
+    Assertions.assertEquals(this.releases.size(), all.size());
+
+    final var paged = new ArrayList<String>();
+    try (var cursor = this.client.releaseNamesPages(
+      this.fixtures::logError,
+      BigInteger.valueOf(7L),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty())) {
+      while (true) {
+        final var page = cursor.nextPage();
+        if (page.isEmpty()) {
+          break;
+        }
+        paged.addAll(page.get());
+      }
+    }
+    Assertions.assertEquals(all, paged);
+
+    final var ascending =
+      this.releaseNames(
+        BigInteger.ZERO,
+        BigInteger.valueOf(1000L),
+        Optional.of(AOV3SortOrder.ASCENDING),
+        Optional.empty());
+    final var reversed = new ArrayList<>(ascending);
+    Collections.reverse(reversed);
+    Assertions.assertEquals(all, reversed);
+  }
+
+  @Test
+  public void testReleaseNamesVersionRange()
+    throws Exception
+  {
+    final var range =
+      AOV3VersionRange.of(
+        AOV3VersionBound.of(Optional.of("8.0.222"), false),
+        AOV3VersionBound.of(Optional.of("8.0.242"), true)
+      );
+
+    final var names =
+      this.releaseNames(
+        BigInteger.ZERO,
+        BigInteger.valueOf(1000L),
+        Optional.empty(),
+        Optional.of(range));
+
+    Assertions.assertEquals(
+      List.of(
+        "jdk8u232-b09.1_openj9-0.17.0",
+        "jdk8u232-b09",
+        "jdk8u232-b09_openj9-0.17.0",
+        "OpenJDK 8u232 GA Release",
+        "jdk8u222-b10_openj9-0.15.1",
+        "jdk8u222-b10",
+        "OpenJDK 8u222 GA Release"
+      ),
+      names);
+  }
+
+  @Test
+  public void testReleaseNamesPastEnd()
+  {
+    final var exception =
+      Assertions.assertThrows(AOV3ExceptionHTTPRequestFailed.class, () -> {
+        this.releaseNames(
+          BigInteger.valueOf(100L),
+          BigInteger.TEN,
+          Optional.empty(),
+          Optional.empty());
+      });
+    Assertions.assertEquals(404, exception.statusCode());
+  }
+
+  @Test
+  public void testBinaryForRelease()
+    throws Exception
+  {
+    final var release = this.releases.get(0);
+    final var binary = release.binaries().get(0);
+
+    final var link =
+      this.client.binaryForRelease(
+        this.fixtures::logError,
+        release.releaseName(),
+        binary.operatingSystem(),
+        binary.architecture(),
+        binary.imageType(),
+        binary.jvmImplementation(),
+        binary.heapSize(),
+        release.vendor(),
+        Optional.of(binary.project())
+      ).execute();
+
+    Assertions.assertEquals(binary.package_().link(), link);
+  }
+
+  @Test
+  public void testBinaryForLatest()
+    throws Exception
+  {
+    final var link =
+      this.client.binaryForLatest(
+        this.fixtures::logError,
+        AOV3Architecture.X64,
+        BigInteger.valueOf(8L),
+        AOV3HeapSize.NORMAL,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3OperatingSystem.LINUX,
+        AOV3ReleaseKind.GENERAL_AVAILABILITY,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      ).execute();
+
+    Assertions.assertTrue(
+      link.toString().contains("8u242"),
+      link.toString());
+  }
+
+  @Test
+  public void testBinaryForLatestNotFound()
+  {
+    final var exception =
+      Assertions.assertThrows(AOV3ExceptionHTTPRequestFailed.class, () -> {
+        this.client.binaryForLatest(
+          this.fixtures::logError,
+          AOV3Architecture.X64,
+          BigInteger.valueOf(15L),
+          AOV3HeapSize.NORMAL,
+          AOV3ImageKind.JDK,
+          AOV3JVMImplementation.HOTSPOT,
+          AOV3OperatingSystem.LINUX,
+          AOV3ReleaseKind.GENERAL_AVAILABILITY,
+          AOV3Vendor.ADOPT_OPENJDK,
+          Optional.empty()
+        ).execute();
+      });
+    Assertions.assertEquals(404, exception.statusCode());
+  }
+
+  @Test
+  public void testOpenCorrupt(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var garbage = directory.resolve("garbage.bin");
+    Files.write(garbage, new byte[128]);
+    Assertions.assertThrows(IOException.class, () -> {
+      AOV3Snapshots.open(garbage);
+    });
+
+    final var extended = directory.resolve("extended.bin");
+    Files.copy(this.file, extended);
+    Files.write(extended, new byte[1], StandardOpenOption.APPEND);
+    Assertions.assertThrows(IOException.class, () -> {
+      AOV3Snapshots.open(extended);
+    });
+  }
+
+  /**
+   * Truncated files whose header claims the new size must still be
+   * rejected with an IOException, including when the enum and available
+   * release sections run off the end of the file.
+   */
+
+  @Test
+  public void testOpenTruncated(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var original = ByteBuffer.wrap(Files.readAllBytes(this.file));
+    final var size = original.capacity();
+
+    for (int length = HEADER_SIZE; length < size; length += 97) {
+      final var data = ByteBuffer.allocate(length);
+      data.put(original.duplicate().limit(length));
+      data.putInt(HEADER_FILE_SIZE, length);
+      this.assertOpenFails(directory, data);
+    }
+
+    final var enums = ByteBuffer.allocate(size).put(original.duplicate());
+    enums.putInt(size - Integer.BYTES, original.getInt(HEADER_SIZE));
+    enums.putInt(HEADER_ENUMS, size - Integer.BYTES);
+    this.assertOpenFails(directory, enums);
+
+    final var available = ByteBuffer.allocate(size).put(original.duplicate());
+    available.putInt(HEADER_AVAILABLE, size - Integer.BYTES);
+    this.assertOpenFails(directory, available);
+  }
+
+  private void assertOpenFails(
+    final Path directory,
+    final ByteBuffer data)
+    throws IOException
+  {
+    final var corrupt = directory.resolve("corrupt.bin");
+    Files.write(corrupt, data.array());
+    Assertions.assertThrows(IOException.class, () -> {
+      AOV3Snapshots.open(corrupt);
+    });
+  }
+}
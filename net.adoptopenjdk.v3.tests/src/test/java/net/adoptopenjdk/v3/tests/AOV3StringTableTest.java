@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.vanilla.internal.AOV3StringTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class AOV3StringTableTest
+{
+  @Test
+  public void testCanonicalizeSame()
+  {
+    final var table = AOV3StringTable.create();
+    final var chars = "__project__".toCharArray();
+
+    final var first = table.canonicalize(chars, 2, 7);
+    final var second = table.canonicalize("project".toCharArray(), 0, 7);
+    Assertions.assertEquals("project", first);
+    Assertions.assertSame(first, second);
+  }
+
+  @Test
+  public void testCanonicalizeCollisions()
+  {
+    final var table = AOV3StringTable.create(1);
+
+    final var a0 = table.canonicalize("a".toCharArray(), 0, 1);
+    final var b0 = table.canonicalize("b".toCharArray(), 0, 1);
+    final var b1 = table.canonicalize("b".toCharArray(), 0, 1);
+    final var a1 = table.canonicalize("a".toCharArray(), 0, 1);
+
+    Assertions.assertEquals("a", a0);
+    Assertions.assertEquals("a", a1);
+    Assertions.assertEquals("b", b0);
+    Assertions.assertSame(b0, b1);
+  }
+
+  @Test
+  public void testCanonicalizeEmpty()
+  {
+    final var table = AOV3StringTable.create();
+    Assertions.assertEquals("", table.canonicalize(new char[0], 0, 0));
+  }
+
+  @Test
+  public void testSizeInvalid()
+  {
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> AOV3StringTable.create(0));
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> AOV3StringTable.create((1 << 30) + 1));
+  }
+}
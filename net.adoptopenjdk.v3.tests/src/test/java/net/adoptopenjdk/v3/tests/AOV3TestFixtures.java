@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsers;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsersType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Release data parsed from the test resources, a collector for the errors
+ * reported while using it, and helpers shared by the tests.
+ */
+
+final class AOV3TestFixtures
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3TestFixtures.class);
+
+  private final AOV3ResponseParsersType parsers;
+  private final ArrayList<AOV3Error> errors;
+
+  AOV3TestFixtures()
+  {
+    this.parsers = AOV3ResponseParsers.create();
+    this.errors = new ArrayList<>();
+  }
+
+  static InputStream resource(final String name)
+    throws IOException
+  {
+    final var path =
+      String.format("/net/adoptopenjdk/v3/tests/%s", name);
+    final var url =
+      AOV3TestFixtures.class.getResource(path);
+    if (url == null) {
+      throw new FileNotFoundException(path);
+    }
+    return url.openStream();
+  }
+
+  /**
+   * @param data The data
+   *
+   * @return The data compressed in gzip format
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static byte[] gzip(
+    final byte[] data)
+    throws IOException
+  {
+    final var bytes = new ByteArrayOutputStream();
+    try (var output = new GZIPOutputStream(bytes)) {
+      output.write(data);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @param statusCode The status code
+   *
+   * @return An exception for a request that failed with the given status
+   */
+
+  static AOV3ExceptionHTTPRequestFailed failure(
+    final int statusCode)
+  {
+    return new AOV3ExceptionHTTPRequestFailed(
+      statusCode,
+      URI.create("urn:test"),
+      "Failed",
+      Map.of()
+    );
+  }
+
+  /**
+   * Record an error. Safe to call from multiple threads.
+   *
+   * @param error The error
+   */
+
+  void logError(
+    final AOV3Error error)
+  {
+    LOG.error("error: {}", error);
+    synchronized (this.errors) {
+      this.errors.add(error);
+    }
+  }
+
+  /**
+   * @return A copy of the errors recorded so far
+   */
+
+  List<AOV3Error> errors()
+  {
+    synchronized (this.errors) {
+      return List.copyOf(this.errors);
+    }
+  }
+
+  /**
+   * @return The contents of availableReleases.json
+   *
+   * @throws IOException              On I/O errors
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  AOV3AvailableReleases availableReleases()
+    throws IOException, AOV3ExceptionParseFailed
+  {
+    try (var stream = resource("availableReleases.json")) {
+      return this.parsers.createParser(
+        this::logError, URI.create("urn:test"), stream)
+        .parseAvailableReleases();
+    }
+  }
+
+  /**
+   * @param names The names of release resources
+   *
+   * @return The releases parsed from each resource, in order
+   *
+   * @throws IOException              On I/O errors
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  List<AOV3Release> releases(
+    final String... names)
+    throws IOException, AOV3ExceptionParseFailed
+  {
+    final var releases = new ArrayList<AOV3Release>();
+    for (final var name : names) {
+      try (var stream = resource(name)) {
+        releases.addAll(
+          this.parsers.createParser(
+            this::logError, URI.create("urn:test"), stream)
+            .parseAssetsForRelease());
+      }
+    }
+    return releases;
+  }
+
+  /**
+   * @return The releases in releases8.json and assetsForRelease.json
+   *
+   * @throws IOException              On I/O errors
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  List<AOV3Release> releases()
+    throws IOException, AOV3ExceptionParseFailed
+  {
+    return this.releases("releases8.json", "assetsForRelease.json");
+  }
+}
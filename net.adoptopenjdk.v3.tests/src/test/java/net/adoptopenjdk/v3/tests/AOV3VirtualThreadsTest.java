@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.tests;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3RequestType;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.vanilla.AOV3Catalogs;
+import net.adoptopenjdk.v3.vanilla.AOV3VirtualThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public final class AOV3VirtualThreadsTest
+{
+  private AOV3TestFixtures fixtures;
+  private List<AOV3Release> releases;
+  private AOV3ClientType catalog;
+
+  @BeforeEach
+  public void testSetup()
+    throws Exception
+  {
+    this.fixtures = new AOV3TestFixtures();
+    final var available = this.fixtures.availableReleases();
+    this.releases = this.fixtures.releases("releases8.json");
+
+    this.catalog = AOV3Catalogs.create(available, this.releases);
+  }
+
+  @AfterEach
+  public void testTearDown()
+    throws IOException
+  {
+    this.catalog.close();
+    Assertions.assertEquals(List.of(), this.fixtures.errors());
+  }
+
+  /**
+   * Executing a batch of requests yields the same results, in the same
+   * order, as executing each request in turn.
+   */
+
+  @Test
+  public void testExecuteAll()
+    throws Exception
+  {
+    final var requests = new ArrayList<AOV3RequestType<URI>>();
+    for (final var release : this.releases) {
+      for (final var binary : release.binaries()) {
+        requests.add(
+          this.catalog.binaryForRelease(
+            this.fixtures::logError,
+            release.releaseName(),
+            binary.operatingSystem(),
+            binary.architecture(),
+            binary.imageType(),
+            binary.jvmImplementation(),
+            binary.heapSize(),
+            release.vendor(),
+            Optional.of(binary.project())
+          ));
+      }
+    }
+
+    final var expected = new ArrayList<URI>();
+    for (final var request : requests) {
+      expected.add(request.execute());
+    }
+
+    Assertions.assertFalse(expected.isEmpty());
+    Assertions.assertEquals(
+      expected,
+      AOV3VirtualThreads.executeAll(requests));
+  }
+
+  /**
+   * A failing request fails the batch.
+   */
+
+  @Test
+  public void testExecuteAllFailure()
+  {
+    final var requests = List.of(
+      this.catalog.availableReleases(this.fixtures::logError),
+      this.catalog.binaryForRelease(
+        this.fixtures::logError,
+        "nonexistent",
+        AOV3OperatingSystem.LINUX,
+        AOV3Architecture.X64,
+        AOV3ImageKind.JDK,
+        AOV3JVMImplementation.HOTSPOT,
+        AOV3HeapSize.NORMAL,
+        AOV3Vendor.ADOPT_OPENJDK,
+        Optional.empty()
+      ));
+
+    final var exception =
+      Assertions.assertThrows(
+        AOV3ExceptionHTTPRequestFailed.class,
+        () -> AOV3VirtualThreads.executeAll(requests));
+    Assertions.assertEquals(404, exception.statusCode());
+  }
+
+  @Test
+  public void testExecuteAllEmpty()
+    throws Exception
+  {
+    Assertions.assertEquals(
+      List.of(),
+      AOV3VirtualThreads.executeAll(List.<AOV3RequestType<URI>>of()));
+  }
+
+  @Test
+  public void testPerTaskExecutor()
+    throws Exception
+  {
+    final var executor = AOV3VirtualThreads.newPerTaskExecutor();
+    try {
+      final var future =
+        executor.submit(() -> {
+          return Boolean.valueOf(Thread.currentThread().isDaemon());
+        });
+      Assertions.assertTrue(future.get().booleanValue());
+    } finally {
+      executor.shutdown();
+      Assertions.assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+  }
+}
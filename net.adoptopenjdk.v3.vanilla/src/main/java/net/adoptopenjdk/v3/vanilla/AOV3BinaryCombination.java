@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A combination of the parameters of a {@code binaryForLatest} API call.
+ *
+ * @see net.adoptopenjdk.v3.api.AOV3APICallsType#binaryForLatest
+ */
+
+public final class AOV3BinaryCombination
+{
+  private final AOV3Architecture architecture;
+  private final BigInteger version;
+  private final AOV3HeapSize heapSize;
+  private final AOV3ImageKind imageKind;
+  private final AOV3JVMImplementation jvmImplementation;
+  private final AOV3OperatingSystem operatingSystem;
+  private final AOV3ReleaseKind releaseKind;
+  private final AOV3Vendor vendor;
+  private final Optional<String> project;
+
+  // CHECKSTYLE:OFF
+  private AOV3BinaryCombination(
+    final AOV3Architecture inArchitecture,
+    final BigInteger inVersion,
+    final AOV3HeapSize inHeapSize,
+    final AOV3ImageKind inImageKind,
+    final AOV3JVMImplementation inJvmImplementation,
+    final AOV3OperatingSystem inOperatingSystem,
+    final AOV3ReleaseKind inReleaseKind,
+    final AOV3Vendor inVendor,
+    final Optional<String> inProject)
+  // CHECKSTYLE:ON
+  {
+    this.architecture =
+      Objects.requireNonNull(inArchitecture, "architecture");
+    this.version =
+      Objects.requireNonNull(inVersion, "version");
+    this.heapSize =
+      Objects.requireNonNull(inHeapSize, "heapSize");
+    this.imageKind =
+      Objects.requireNonNull(inImageKind, "imageKind");
+    this.jvmImplementation =
+      Objects.requireNonNull(inJvmImplementation, "jvmImplementation");
+    this.operatingSystem =
+      Objects.requireNonNull(inOperatingSystem, "operatingSystem");
+    this.releaseKind =
+      Objects.requireNonNull(inReleaseKind, "releaseKind");
+    this.vendor =
+      Objects.requireNonNull(inVendor, "vendor");
+    this.project =
+      Objects.requireNonNull(inProject, "project");
+  }
+
+  /**
+   * Create a combination. The parameters are given in the same order as
+   * those of {@code binaryForLatest}.
+   *
+   * @param architecture      The architecture
+   * @param version           The feature version
+   * @param heapSize          The heap size
+   * @param imageKind         The image kind
+   * @param jvmImplementation The JVM implementation
+   * @param operatingSystem   The operating system
+   * @param releaseKind       The release kind
+   * @param vendor            The vendor
+   * @param project           The project
+   *
+   * @return A combination
+   */
+
+  // CHECKSTYLE:OFF
+  public static AOV3BinaryCombination of(
+    final AOV3Architecture architecture,
+    final BigInteger version,
+    final AOV3HeapSize heapSize,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3ReleaseKind releaseKind,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  // CHECKSTYLE:ON
+  {
+    return new AOV3BinaryCombination(
+      architecture,
+      version,
+      heapSize,
+      imageKind,
+      jvmImplementation,
+      operatingSystem,
+      releaseKind,
+      vendor,
+      project
+    );
+  }
+
+  /**
+   * @return The architecture
+   */
+
+  public AOV3Architecture architecture()
+  {
+    return this.architecture;
+  }
+
+  /**
+   * @return The feature version
+   */
+
+  public BigInteger version()
+  {
+    return this.version;
+  }
+
+  /**
+   * @return The heap size
+   */
+
+  public AOV3HeapSize heapSize()
+  {
+    return this.heapSize;
+  }
+
+  /**
+   * @return The image kind
+   */
+
+  public AOV3ImageKind imageKind()
+  {
+    return this.imageKind;
+  }
+
+  /**
+   * @return The JVM implementation
+   */
+
+  public AOV3JVMImplementation jvmImplementation()
+  {
+    return this.jvmImplementation;
+  }
+
+  /**
+   * @return The operating system
+   */
+
+  public AOV3OperatingSystem operatingSystem()
+  {
+    return this.operatingSystem;
+  }
+
+  /**
+   * @return The release kind
+   */
+
+  public AOV3ReleaseKind releaseKind()
+  {
+    return this.releaseKind;
+  }
+
+  /**
+   * @return The vendor
+   */
+
+  public AOV3Vendor vendor()
+  {
+    return this.vendor;
+  }
+
+  /**
+   * @return The project
+   */
+
+  public Optional<String> project()
+  {
+    return this.project;
+  }
+
+  @Override
+  public boolean equals(
+    final Object other)
+  {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || !Objects.equals(this.getClass(), other.getClass())) {
+      return false;
+    }
+    final var that = (AOV3BinaryCombination) other;
+    return this.architecture == that.architecture
+      && this.version.equals(that.version)
+      && this.heapSize == that.heapSize
+      && this.imageKind == that.imageKind
+      && this.jvmImplementation == that.jvmImplementation
+      && this.operatingSystem == that.operatingSystem
+      && this.releaseKind == that.releaseKind
+      && this.vendor == that.vendor
+      && this.project.equals(that.project);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(
+      this.architecture,
+      this.version,
+      this.heapSize,
+      this.imageKind,
+      this.jvmImplementation,
+      this.operatingSystem,
+      this.releaseKind,
+      this.vendor,
+      this.project
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[AOV3BinaryCombination %s %s %s %s %s %s %s %s %s]",
+      this.architecture,
+      this.version,
+      this.heapSize,
+      this.imageKind,
+      this.jvmImplementation,
+      this.operatingSystem,
+      this.releaseKind,
+      this.vendor,
+      this.project.orElse("")
+    );
+  }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3BinaryType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3RequestType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static net.adoptopenjdk.v3.api.AOV3ReleaseKind.GENERAL_AVAILABILITY;
+import static net.adoptopenjdk.v3.api.AOV3Vendor.ADOPT_OPENJDK;
+
+/**
+ * A resolver that resolves many {@code binaryForLatest} combinations at
+ * once, issuing requests concurrently.
+ *
+ * Combinations that can be answered by the list of the latest assets of a
+ * feature version (general availability releases from AdoptOpenJDK) are
+ * grouped by feature version and JVM implementation, and each group is
+ * resolved with a single {@code assetsForLatest} request. The remaining
+ * combinations, and any combinations that did not appear in the latest
+ * assets, are resolved with one {@code binaryForLatest} request each.
+ *
+ * At most {@code concurrency} requests are in flight at any given time.
+ * Requests are executed with {@link AOV3RequestType#executeAsync()}, so the
+ * given error receiver may be called from multiple threads. Requests are
+ * made through the given API, and so make use of any caching or memoization
+ * configured on the client.
+ */
+
+public final class AOV3BinaryResolver
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3BinaryResolver.class);
+
+  private static final String DEFAULT_PROJECT = "jdk";
+
+  private final AOV3APICallsType calls;
+  private final int concurrency;
+
+  private AOV3BinaryResolver(
+    final AOV3APICallsType inCalls,
+    final int inConcurrency)
+  {
+    this.calls =
+      Objects.requireNonNull(inCalls, "calls");
+
+    if (inConcurrency < 1) {
+      throw new IllegalArgumentException(
+        String.format("Concurrency %d must be positive", inConcurrency));
+    }
+    this.concurrency = inConcurrency;
+  }
+
+  /**
+   * Create a resolver.
+   *
+   * @param calls       The API on which requests are made
+   * @param concurrency The maximum number of requests in flight
+   *
+   * @return A resolver
+   */
+
+  public static AOV3BinaryResolver create(
+    final AOV3APICallsType calls,
+    final int concurrency)
+  {
+    return new AOV3BinaryResolver(calls, concurrency);
+  }
+
+  private static AOV3Exception failureOf(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    if (cause instanceof AOV3Exception) {
+      return (AOV3Exception) cause;
+    }
+    return new AOV3Exception(cause);
+  }
+
+  private static boolean isNotFound(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    return cause instanceof AOV3ExceptionHTTPRequestFailed
+      && ((AOV3ExceptionHTTPRequestFailed) cause).statusCode() == 404;
+  }
+
+  private static boolean isListedInLatest(
+    final AOV3BinaryCombination combination)
+  {
+    return combination.releaseKind() == GENERAL_AVAILABILITY
+      && combination.vendor() == ADOPT_OPENJDK;
+  }
+
+  private static Optional<URI> linkOf(
+    final List<AOV3ListBinaryAssetView> assets,
+    final AOV3BinaryCombination combination)
+  {
+    final var project = combination.project().orElse(DEFAULT_PROJECT);
+    for (final var asset : assets) {
+      final var binary = asset.binary();
+      if (isPlatformOf(binary, combination)
+        && binary.heapSize() == combination.heapSize()
+        && binary.project().equals(project)) {
+        return Optional.of(binary.package_().link());
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static boolean isPlatformOf(
+    final AOV3BinaryType binary,
+    final AOV3BinaryCombination combination)
+  {
+    return binary.operatingSystem() == combination.operatingSystem()
+      && binary.architecture() == combination.architecture()
+      && binary.imageType() == combination.imageKind();
+  }
+
+  /**
+   * Resolve the links to the binaries described by each of the given
+   * combinations. Combinations for which the server has no binary (and
+   * would respond with a 404 status code) are absent from the returned map.
+   *
+   * @param errorReceiver A receiver of errors encountered during API calls
+   * @param combinations  The combinations
+   *
+   * @return The link to the binary of each combination, in the order given
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  public Map<AOV3BinaryCombination, URI> resolve(
+    final Consumer<AOV3Error> errorReceiver,
+    final Collection<AOV3BinaryCombination> combinations)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(combinations, "combinations");
+
+    final var distinct = new LinkedHashSet<AOV3BinaryCombination>();
+    for (final var combination : combinations) {
+      distinct.add(Objects.requireNonNull(combination, "combination"));
+    }
+
+    final var groups =
+      new LinkedHashMap<AssetsKey, List<AOV3BinaryCombination>>();
+    final var remaining = new ArrayList<AOV3BinaryCombination>();
+    for (final var combination : distinct) {
+      if (isListedInLatest(combination)) {
+        groups.computeIfAbsent(
+          new AssetsKey(
+            combination.version(),
+            combination.jvmImplementation()),
+          key -> new ArrayList<>()
+        ).add(combination);
+      } else {
+        remaining.add(combination);
+      }
+    }
+
+    final var links = new HashMap<AOV3BinaryCombination, URI>(distinct.size());
+
+    final var keys = new ArrayList<>(groups.keySet());
+    final var assets =
+      this.executeAll(keys, key -> this.calls.assetsForLatest(
+        errorReceiver,
+        key.version,
+        key.jvmImplementation
+      ));
+
+    for (int index = 0; index < keys.size(); ++index) {
+      final var received = assets.get(index);
+      for (final var combination : groups.get(keys.get(index))) {
+        final var link =
+          received.flatMap(views -> linkOf(views, combination));
+        if (link.isPresent()) {
+          links.put(combination, link.get());
+        } else {
+          remaining.add(combination);
+        }
+      }
+    }
+
+    final var redirects =
+      this.executeAll(remaining, combination -> this.calls.binaryForLatest(
+        errorReceiver,
+        combination.architecture(),
+        combination.version(),
+        combination.heapSize(),
+        combination.imageKind(),
+        combination.jvmImplementation(),
+        combination.operatingSystem(),
+        combination.releaseKind(),
+        combination.vendor(),
+        combination.project()
+      ));
+
+    for (int index = 0; index < remaining.size(); ++index) {
+      final var combination = remaining.get(index);
+      redirects.get(index).ifPresent(link -> links.put(combination, link));
+    }
+
+    final var results =
+      new LinkedHashMap<AOV3BinaryCombination, URI>(links.size());
+    for (final var combination : distinct) {
+      final var link = links.get(combination);
+      if (link != null) {
+        results.put(combination, link);
+      }
+    }
+
+    LOG.debug(
+      "resolved {} of {} combinations ({} assets requests, {} binary requests)",
+      Integer.valueOf(results.size()),
+      Integer.valueOf(distinct.size()),
+      Integer.valueOf(keys.size()),
+      Integer.valueOf(remaining.size()));
+
+    return Collections.unmodifiableMap(results);
+  }
+
+  /**
+   * Execute the request created for each of the given items, with at most
+   * {@code concurrency} requests in flight. Requests that fail with a 404
+   * status code yield an empty result.
+   */
+
+  private <K, T> List<Optional<T>> executeAll(
+    final List<K> items,
+    final Function<K, AOV3RequestType<T>> requests)
+    throws AOV3Exception, InterruptedException
+  {
+    final var results = new ArrayList<Optional<T>>(items.size());
+    for (int index = 0; index < items.size(); ++index) {
+      results.add(Optional.empty());
+    }
+
+    final BlockingQueue<Completion<T>> completions =
+      new LinkedBlockingQueue<>();
+    final var futures = new ArrayList<CompletableFuture<?>>(items.size());
+
+    int running = 0;
+    int next = 0;
+
+    try {
+      while (true) {
+        while (running < this.concurrency && next < items.size()) {
+          final var index = next;
+          futures.add(
+            requests.apply(items.get(index))
+              .executeAsync()
+              .whenComplete((value, failure) -> {
+                completions.add(new Completion<>(index, value, failure));
+              }));
+          ++next;
+          ++running;
+        }
+
+        if (running == 0) {
+          break;
+        }
+
+        final var completion = completions.take();
+        --running;
+
+        if (completion.failure != null) {
+          if (isNotFound(completion.failure)) {
+            continue;
+          }
+          throw failureOf(completion.failure);
+        }
+        results.set(completion.index, Optional.of(completion.value));
+      }
+    } finally {
+      for (final var future : futures) {
+        future.cancel(true);
+      }
+    }
+    return results;
+  }
+
+  private static final class AssetsKey
+  {
+    private final BigInteger version;
+    private final AOV3JVMImplementation jvmImplementation;
+
+    AssetsKey(
+      final BigInteger inVersion,
+      final AOV3JVMImplementation inJvmImplementation)
+    {
+      this.version = inVersion;
+      this.jvmImplementation = inJvmImplementation;
+    }
+
+    @Override
+    public boolean equals(
+      final Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || !Objects.equals(this.getClass(), o.getClass())) {
+        return false;
+      }
+      final var other = (AssetsKey) o;
+      return this.version.equals(other.version)
+        && this.jvmImplementation == other.jvmImplementation;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(this.version, this.jvmImplementation);
+    }
+  }
+
+  private static final class Completion<T>
+  {
+    private final int index;
+    private final T value;
+    private final Throwable failure;
+
+    Completion(
+      final int inIndex,
+      final T inValue,
+      final Throwable inFailure)
+    {
+      this.index = inIndex;
+      this.value = inValue;
+      this.failure = inFailure;
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static net.adoptopenjdk.v3.api.AOV3SortOrder.DESCENDING;
+
+/**
+ * A synchronizer that keeps a local set of releases up to date with the
+ * server, fetching only the releases that have changed since the previous
+ * synchronization.
+ *
+ * The synchronizer keeps a high-water mark for each feature version and
+ * release kind: the most recent update time (of a release, or of any of its
+ * binaries) that has been seen. Releases are requested newest first, and
+ * paging stops at the first page that contains a release that has not been
+ * updated since the mark. The cost of a synchronization is therefore
+ * proportional to the number of changed releases rather than to the size
+ * of the catalog.
+ *
+ * Changes to releases older than the most recent unchanged release, and
+ * releases removed from the server, are not detected. A synchronizer
+ * created with no releases performs a full synchronization.
+ *
+ * Synchronizers are thread-safe, but synchronizations are serialized.
+ */
+
+public final class AOV3CatalogSynchronizer
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3CatalogSynchronizer.class);
+
+  private final AOV3APICallsType calls;
+  private final BigInteger pageSize;
+  private final LinkedHashMap<String, AOV3Release> releases;
+  private final EnumMap<AOV3ReleaseKind, Map<BigInteger, OffsetDateTime>> marks;
+  private AOV3AvailableReleases available;
+
+  private AOV3CatalogSynchronizer(
+    final AOV3APICallsType inCalls,
+    final BigInteger inPageSize)
+  {
+    this.calls =
+      Objects.requireNonNull(inCalls, "calls");
+    this.pageSize =
+      Objects.requireNonNull(inPageSize, "pageSize");
+
+    if (inPageSize.signum() <= 0) {
+      throw new IllegalArgumentException(
+        String.format("Page size %s must be positive", inPageSize));
+    }
+
+    this.releases = new LinkedHashMap<>();
+    this.marks = new EnumMap<>(AOV3ReleaseKind.class);
+    for (final var kind : AOV3ReleaseKind.values()) {
+      this.marks.put(kind, new HashMap<>());
+    }
+  }
+
+  /**
+   * Create a synchronizer with no releases. The first synchronization
+   * fetches every release.
+   *
+   * @param calls    The API on which requests are made
+   * @param pageSize The page size
+   *
+   * @return A synchronizer
+   */
+
+  public static AOV3CatalogSynchronizer create(
+    final AOV3APICallsType calls,
+    final BigInteger pageSize)
+  {
+    return new AOV3CatalogSynchronizer(calls, pageSize);
+  }
+
+  /**
+   * Create a synchronizer that starts from the given releases, such as the
+   * releases of a previously captured snapshot. The high-water marks are
+   * computed from the releases.
+   *
+   * @param calls    The API on which requests are made
+   * @param pageSize The page size
+   * @param releases The releases
+   *
+   * @return A synchronizer
+   */
+
+  public static AOV3CatalogSynchronizer createFrom(
+    final AOV3APICallsType calls,
+    final BigInteger pageSize,
+    final Collection<? extends AOV3ReleaseType> releases)
+  {
+    Objects.requireNonNull(releases, "releases");
+
+    final var synchronizer = new AOV3CatalogSynchronizer(calls, pageSize);
+    for (final var release : releases) {
+      synchronizer.merge(
+        BigInteger.valueOf((long) release.versionData().majorAsInt()),
+        AOV3Release.copyOf(release));
+    }
+    return synchronizer;
+  }
+
+  private static OffsetDateTime updatedAtOf(
+    final AOV3ReleaseType release)
+  {
+    var time = release.updatedAt();
+    for (final var binary : release.binaries()) {
+      if (binary.updatedAt().isAfter(time)) {
+        time = binary.updatedAt();
+      }
+    }
+    return time;
+  }
+
+  private void merge(
+    final BigInteger version,
+    final AOV3Release release)
+  {
+    this.releases.put(release.id(), release);
+    this.marks.get(release.releaseType())
+      .merge(version, updatedAtOf(release), (x, y) -> x.isAfter(y) ? x : y);
+  }
+
+  /**
+   * @param version     The feature version
+   * @param releaseKind The release kind
+   *
+   * @return The high-water mark for the given feature version and kind
+   */
+
+  public synchronized Optional<OffsetDateTime> highWaterMark(
+    final BigInteger version,
+    final AOV3ReleaseKind releaseKind)
+  {
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    return Optional.ofNullable(this.marks.get(releaseKind).get(version));
+  }
+
+  /**
+   * @return The releases synchronized so far
+   */
+
+  public synchronized List<AOV3Release> releases()
+  {
+    return List.copyOf(this.releases.values());
+  }
+
+  /**
+   * Create a catalog from the releases synchronized so far.
+   *
+   * @return A client that answers API calls from the catalog
+   *
+   * @throws IllegalStateException If no synchronization has completed
+   * @see AOV3Catalogs#create
+   */
+
+  public synchronized AOV3ClientType catalog()
+  {
+    if (this.available == null) {
+      throw new IllegalStateException(
+        "No synchronization has been completed");
+    }
+    return AOV3Catalogs.create(this.available, this.releases.values());
+  }
+
+  /**
+   * Fetch the releases of every available feature version, of every
+   * release kind, that have changed since the previous synchronization.
+   *
+   * @param errorReceiver A receiver of errors encountered during API calls
+   *
+   * @return The releases that were added or updated
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  public synchronized List<AOV3Release> sync(
+    final Consumer<AOV3Error> errorReceiver)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+
+    final var availableNow =
+      this.calls.availableReleases(errorReceiver)
+        .execute();
+
+    final var changed = new ArrayList<AOV3Release>();
+    int requests = 1;
+    for (final var version : availableNow.availableReleases()) {
+      for (final var kind : AOV3ReleaseKind.values()) {
+        requests += this.syncVersion(errorReceiver, version, kind, changed);
+      }
+    }
+
+    this.available = availableNow;
+
+    LOG.debug(
+      "synchronized {} changed releases in {} requests",
+      Integer.valueOf(changed.size()),
+      Integer.valueOf(requests));
+
+    return List.copyOf(changed);
+  }
+
+  private int syncVersion(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger version,
+    final AOV3ReleaseKind kind,
+    final List<AOV3Release> changed)
+    throws AOV3Exception, InterruptedException
+  {
+    final var mark = this.marks.get(kind).get(version);
+    final var updated = new LinkedHashMap<String, AOV3Release>();
+
+    int requests = 0;
+    var page = BigInteger.ZERO;
+    while (true) {
+      final List<AOV3Release> received;
+      try {
+        ++requests;
+        received = this.calls.assetsForRelease(
+          errorReceiver,
+          page,
+          this.pageSize,
+          version,
+          kind,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.of(DESCENDING),
+          Optional.empty()
+        ).execute();
+      } catch (final AOV3ExceptionHTTPRequestFailed e) {
+        if (e.statusCode() == 404) {
+          break;
+        }
+        throw e;
+      }
+
+      if (received.isEmpty()) {
+        break;
+      }
+
+      /*
+       * Releases are received newest first, so every release on the pages
+       * after an unchanged release is assumed to be unchanged too.
+       */
+
+      boolean reachedMark = false;
+      for (final var release : received) {
+        if (mark != null && !updatedAtOf(release).isAfter(mark)) {
+          reachedMark = true;
+        } else {
+          updated.put(release.id(), release);
+        }
+      }
+      if (reachedMark) {
+        break;
+      }
+      page = page.add(BigInteger.ONE);
+    }
+
+    /*
+     * The mark is only advanced once every changed release of the version
+     * has been received, so that a failed synchronization is retried from
+     * the previous mark.
+     */
+
+    for (final var release : updated.values()) {
+      this.merge(version, release);
+    }
+    changed.addAll(updated.values());
+    return requests;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleasesType;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3Catalog;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3Messages;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Functions to create in-memory release catalogs.
+ *
+ * A catalog loads a set of releases once and indexes their binaries, and
+ * then answers API calls locally without making HTTP requests. Catalogs
+ * are immutable and may be queried from any number of threads.
+ */
+
+public final class AOV3Catalogs
+{
+  private AOV3Catalogs()
+  {
+
+  }
+
+  /**
+   * Create a catalog from the given releases.
+   *
+   * @param available The available releases
+   * @param releases  The releases
+   *
+   * @return A client that answers API calls from the catalog
+   */
+
+  public static AOV3ClientType create(
+    final AOV3AvailableReleasesType available,
+    final Collection<? extends AOV3ReleaseType> releases)
+  {
+    return AOV3Catalog.create(
+      AOV3Messages.of(AOV3Messages.getResourceBundle()),
+      available,
+      releases
+    );
+  }
+
+  /**
+   * Fetch every release of every available feature version, of every
+   * release kind, and create a catalog from the results.
+   *
+   * @param calls         The API on which requests are made
+   * @param errorReceiver A receiver of errors encountered during API calls
+   * @param concurrency   The maximum number of requests in flight
+   * @param pageSize      The page size
+   *
+   * @return A client that answers API calls from the catalog
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   * @see AOV3Crawler
+   */
+
+  public static AOV3ClientType fetch(
+    final AOV3APICallsType calls,
+    final Consumer<AOV3Error> errorReceiver,
+    final int concurrency,
+    final BigInteger pageSize)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(calls, "calls");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(pageSize, "pageSize");
+
+    final var available =
+      calls.availableReleases(errorReceiver)
+        .execute();
+
+    return create(
+      available,
+      AOV3Crawler.crawlAllKinds(
+        calls,
+        errorReceiver,
+        concurrency,
+        pageSize,
+        available.availableReleases())
+    );
+  }
+}
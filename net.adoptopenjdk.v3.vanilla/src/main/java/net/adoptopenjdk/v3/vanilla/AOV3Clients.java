@@ -26,11 +26,22 @@ import net.adoptopenjdk.v3.vanilla.internal.AOV3ResponseParsersType;
 import org.osgi.service.component.annotations.Component;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
  * The default provider of v3 clients.
+ *
+ * Providers created with {@link #builder()} or the no-argument constructor
+ * share a single {@link HttpClient} between all of the clients they create,
+ * so that connections (and, with HTTP/2, the streams multiplexed over a
+ * single connection) are reused between API calls.
  */
 
 @Component(service = AOV3ClientProviderType.class)
@@ -39,19 +50,55 @@ public final class AOV3Clients implements AOV3ClientProviderType
   private final Supplier<HttpClient> clients;
   private final AOV3ResponseParsersType parsers;
   private final AOV3MessagesType messages;
+  private final Executor parseExecutor;
+  private final Optional<AOV3HTTPCacheType> cache;
+  private final AOV3RetryPolicy retries;
+  private final Optional<AOV3RequestLimiterType> limiter;
+  private final AOV3InstrumentationType instrumentation;
+  private final List<AOV3ContentDecoderType> decoders;
 
   /**
    * Construct a client provider.
    *
-   * @param inParsers  The parser provider
-   * @param inMessages The message provider
-   * @param inClients  The HTTP client supplier
+   * @param inParsers       The parser provider
+   * @param inMessages      The message provider
+   * @param inClients       The HTTP client supplier
+   * @param inParseExecutor The executor used to parse asynchronous responses
+   * @param inCache         The HTTP response cache, if any
    */
 
   public AOV3Clients(
     final AOV3ResponseParsersType inParsers,
     final AOV3MessagesType inMessages,
-    final Supplier<HttpClient> inClients)
+    final Supplier<HttpClient> inClients,
+    final Executor inParseExecutor,
+    final Optional<AOV3HTTPCacheType> inCache)
+  {
+    this(
+      inParsers,
+      inMessages,
+      inClients,
+      inParseExecutor,
+      inCache,
+      AOV3RetryPolicy.none(),
+      Optional.empty(),
+      AOV3Instrumentations.none(),
+      List.of()
+    );
+  }
+
+  // CHECKSTYLE:OFF
+  private AOV3Clients(
+    final AOV3ResponseParsersType inParsers,
+    final AOV3MessagesType inMessages,
+    final Supplier<HttpClient> inClients,
+    final Executor inParseExecutor,
+    final Optional<AOV3HTTPCacheType> inCache,
+    final AOV3RetryPolicy inRetries,
+    final Optional<AOV3RequestLimiterType> inLimiter,
+    final AOV3InstrumentationType inInstrumentation,
+    final List<AOV3ContentDecoderType> inDecoders)
+  // CHECKSTYLE:ON
   {
     this.parsers =
       Objects.requireNonNull(inParsers, "parsers");
@@ -59,26 +106,100 @@ public final class AOV3Clients implements AOV3ClientProviderType
       Objects.requireNonNull(inMessages, "messages");
     this.clients =
       Objects.requireNonNull(inClients, "client");
+    this.parseExecutor =
+      Objects.requireNonNull(inParseExecutor, "parseExecutor");
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
+    this.retries =
+      Objects.requireNonNull(inRetries, "retries");
+    this.limiter =
+      Objects.requireNonNull(inLimiter, "limiter");
+    this.instrumentation =
+      Objects.requireNonNull(inInstrumentation, "instrumentation");
+    this.decoders =
+      List.copyOf(Objects.requireNonNull(inDecoders, "decoders"));
   }
 
   /**
-   * Construct a client provider.
+   * Construct a client provider that does not cache responses.
+   *
+   * @param inParsers       The parser provider
+   * @param inMessages      The message provider
+   * @param inClients       The HTTP client supplier
+   * @param inParseExecutor The executor used to parse asynchronous responses
+   */
+
+  public AOV3Clients(
+    final AOV3ResponseParsersType inParsers,
+    final AOV3MessagesType inMessages,
+    final Supplier<HttpClient> inClients,
+    final Executor inParseExecutor)
+  {
+    this(inParsers, inMessages, inClients, inParseExecutor, Optional.empty());
+  }
+
+  /**
+   * Construct a client provider. Asynchronous responses are parsed on the
+   * common fork/join pool.
+   *
+   * @param inParsers  The parser provider
+   * @param inMessages The message provider
+   * @param inClients  The HTTP client supplier
+   */
+
+  public AOV3Clients(
+    final AOV3ResponseParsersType inParsers,
+    final AOV3MessagesType inMessages,
+    final Supplier<HttpClient> inClients)
+  {
+    this(inParsers, inMessages, inClients, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Construct a client provider with the default configuration.
+   *
+   * @see #builder()
    */
 
   public AOV3Clients()
+  {
+    this(builder());
+  }
+
+  private AOV3Clients(
+    final Builder builder)
   {
     this(
-      AOV3ResponseParsers.create(),
-      AOV3Messages.of(AOV3Messages.getResourceBundle()),
-      AOV3Clients::newHttpClient
+      builder.parsers.orElseGet(builder::createParsers),
+      builder.messages.orElseGet(AOV3Clients::defaultMessages),
+      new SharedHttpClient(builder.configureHttpClient()::build),
+      builder.parseExecutor,
+      builder.cache,
+      builder.retries,
+      builder.limiter,
+      builder.instrumentation,
+      builder.decoders
     );
   }
 
-  private static HttpClient newHttpClient()
+  private static AOV3MessagesType defaultMessages()
+  {
+    return AOV3Messages.of(AOV3Messages.getResourceBundle());
+  }
+
+  /**
+   * Create a builder for configuring a client provider. Unless configured
+   * otherwise, clients request HTTP/2, time out connection attempts after
+   * {@link Builder#DEFAULT_CONNECT_TIMEOUT}, parse asynchronous responses on
+   * the common fork/join pool, do not cache responses, do not retry failed
+   * requests, and do not record request metrics.
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder()
   {
-    return HttpClient.newBuilder()
-      .followRedirects(HttpClient.Redirect.NEVER)
-      .build();
+    return new Builder();
   }
 
   @Override
@@ -88,7 +209,391 @@ public final class AOV3Clients implements AOV3ClientProviderType
       "https://api.adoptopenjdk.net/v3",
       this.clients.get(),
       this.messages,
-      this.parsers
+      this.parsers,
+      this.parseExecutor,
+      this.cache,
+      this.retries,
+      this.limiter,
+      this.instrumentation,
+      this.decoders
     );
   }
+
+  /**
+   * A supplier that creates an HTTP client on first use and returns the
+   * same client thereafter.
+   */
+
+  private static final class SharedHttpClient implements Supplier<HttpClient>
+  {
+    private final Supplier<HttpClient> creator;
+    private volatile HttpClient client;
+
+    SharedHttpClient(
+      final Supplier<HttpClient> inCreator)
+    {
+      this.creator = Objects.requireNonNull(inCreator, "creator");
+    }
+
+    @Override
+    public HttpClient get()
+    {
+      var result = this.client;
+      if (result == null) {
+        synchronized (this) {
+          result = this.client;
+          if (result == null) {
+            result = Objects.requireNonNull(this.creator.get(), "client");
+            this.client = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * A mutable builder for client providers.
+   */
+
+  public static final class Builder
+  {
+    /**
+     * The default timeout for establishing connections.
+     */
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT =
+      Duration.ofSeconds(30L);
+
+    private Optional<AOV3ResponseParsersType> parsers;
+    private Optional<AOV3MessagesType> messages;
+    private HttpClient.Builder httpClientBuilder;
+    private HttpClient.Version httpVersion;
+    private Duration connectTimeout;
+    private Optional<Executor> httpExecutor;
+    private boolean virtualThreads;
+    private Executor parseExecutor;
+    private Optional<ForkJoinPool> conversionPool;
+    private Optional<AOV3HTTPCacheType> cache;
+    private AOV3RetryPolicy retries;
+    private Optional<AOV3RequestLimiterType> limiter;
+    private AOV3InstrumentationType instrumentation;
+    private final ArrayList<AOV3ContentDecoderType> decoders;
+
+    private Builder()
+    {
+      this.parsers = Optional.empty();
+      this.messages = Optional.empty();
+      this.httpClientBuilder = null;
+      this.httpVersion = HttpClient.Version.HTTP_2;
+      this.connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+      this.httpExecutor = Optional.empty();
+      this.virtualThreads = false;
+      this.parseExecutor = ForkJoinPool.commonPool();
+      this.conversionPool = Optional.empty();
+      this.cache = Optional.empty();
+      this.retries = AOV3RetryPolicy.none();
+      this.limiter = Optional.empty();
+      this.instrumentation = AOV3Instrumentations.none();
+      this.decoders = new ArrayList<>();
+    }
+
+    /**
+     * Set the parser provider.
+     *
+     * @param inParsers The parser provider
+     *
+     * @return this
+     */
+
+    public Builder setParsers(
+      final AOV3ResponseParsersType inParsers)
+    {
+      this.parsers = Optional.of(
+        Objects.requireNonNull(inParsers, "parsers"));
+      return this;
+    }
+
+    /**
+     * Set the message provider.
+     *
+     * @param inMessages The message provider
+     *
+     * @return this
+     */
+
+    public Builder setMessages(
+      final AOV3MessagesType inMessages)
+    {
+      this.messages = Optional.of(
+        Objects.requireNonNull(inMessages, "messages"));
+      return this;
+    }
+
+    /**
+     * Set the builder used to create the shared HTTP client. This can be
+     * used to configure aspects of the client such as proxies, TLS, or
+     * authentication. The other HTTP settings on this builder, and a
+     * redirect policy of {@link HttpClient.Redirect#NEVER}, are applied to
+     * the given builder before the client is created.
+     *
+     * @param inBuilder The HTTP client builder
+     *
+     * @return this
+     */
+
+    public Builder setHttpClientBuilder(
+      final HttpClient.Builder inBuilder)
+    {
+      this.httpClientBuilder =
+        Objects.requireNonNull(inBuilder, "builder");
+      return this;
+    }
+
+    /**
+     * Set the preferred HTTP version. HTTP/2 allows concurrent requests to
+     * be multiplexed over a single connection; the client falls back to
+     * HTTP/1.1 if the server does not support HTTP/2.
+     *
+     * @param inVersion The HTTP version
+     *
+     * @return this
+     */
+
+    public Builder setHttpVersion(
+      final HttpClient.Version inVersion)
+    {
+      this.httpVersion =
+        Objects.requireNonNull(inVersion, "version");
+      return this;
+    }
+
+    /**
+     * Set the timeout for establishing connections.
+     *
+     * @param inTimeout The timeout
+     *
+     * @return this
+     */
+
+    public Builder setConnectTimeout(
+      final Duration inTimeout)
+    {
+      Objects.requireNonNull(inTimeout, "timeout");
+      if (inTimeout.isNegative() || inTimeout.isZero()) {
+        throw new IllegalArgumentException(
+          String.format("Connect timeout %s must be positive", inTimeout));
+      }
+      this.connectTimeout = inTimeout;
+      return this;
+    }
+
+    /**
+     * Set the executor used by the HTTP client for asynchronous and
+     * dependent tasks. If no executor is set, the HTTP client creates its
+     * own.
+     *
+     * @param inExecutor The executor
+     *
+     * @return this
+     */
+
+    public Builder setHttpExecutor(
+      final Executor inExecutor)
+    {
+      this.httpExecutor = Optional.of(
+        Objects.requireNonNull(inExecutor, "executor"));
+      return this;
+    }
+
+    /**
+     * Set whether the HTTP client executes its asynchronous and dependent
+     * tasks on a new virtual thread per task, when the current runtime
+     * supports virtual threads. This setting is ignored if an executor is
+     * set with {@link #setHttpExecutor(Executor)}.
+     *
+     * @param inVirtualThreads {@code true} if virtual threads should be used
+     *
+     * @return this
+     *
+     * @see AOV3VirtualThreads#newPerTaskExecutor()
+     */
+
+    public Builder setUseVirtualThreads(
+      final boolean inVirtualThreads)
+    {
+      this.virtualThreads = inVirtualThreads;
+      return this;
+    }
+
+    /**
+     * Set the executor used to parse asynchronous responses.
+     *
+     * @param inExecutor The executor
+     *
+     * @return this
+     */
+
+    public Builder setParseExecutor(
+      final Executor inExecutor)
+    {
+      this.parseExecutor =
+        Objects.requireNonNull(inExecutor, "executor");
+      return this;
+    }
+
+    /**
+     * Set the pool used to convert the elements of large arrays of releases
+     * and assets in parallel. Conversion is sequential unless a pool is set.
+     * Elements are still delivered, and errors are still reported, in the
+     * order in which they appear in each response. This setting is ignored
+     * if a parser provider is set with
+     * {@link #setParsers(AOV3ResponseParsersType)}.
+     *
+     * @param inPool The pool
+     *
+     * @return this
+     */
+
+    public Builder setConversionPool(
+      final ForkJoinPool inPool)
+    {
+      this.conversionPool = Optional.of(
+        Objects.requireNonNull(inPool, "pool"));
+      return this;
+    }
+
+    /**
+     * Set the HTTP response cache.
+     *
+     * @param inCache The cache
+     *
+     * @return this
+     */
+
+    public Builder setCache(
+      final AOV3HTTPCacheType inCache)
+    {
+      this.cache = Optional.of(
+        Objects.requireNonNull(inCache, "cache"));
+      return this;
+    }
+
+    /**
+     * Set the policy used to retry failed requests.
+     *
+     * @param inRetries The retry policy
+     *
+     * @return this
+     *
+     * @see AOV3RetryPolicy#none()
+     */
+
+    public Builder setRetryPolicy(
+      final AOV3RetryPolicy inRetries)
+    {
+      this.retries =
+        Objects.requireNonNull(inRetries, "retries");
+      return this;
+    }
+
+    /**
+     * Set the limiter applied to the requests made by all of the clients
+     * created by the provider.
+     *
+     * @param inLimiter The request limiter
+     *
+     * @return this
+     *
+     * @see AOV3RequestLimiters
+     */
+
+    public Builder setRequestLimiter(
+      final AOV3RequestLimiterType inLimiter)
+    {
+      this.limiter = Optional.of(
+        Objects.requireNonNull(inLimiter, "limiter"));
+      return this;
+    }
+
+    /**
+     * Set the instrumentation that receives the metrics of the requests
+     * made by all of the clients created by the provider.
+     *
+     * @param inInstrumentation The instrumentation
+     *
+     * @return this
+     *
+     * @see AOV3Instrumentations#none()
+     */
+
+    public Builder setInstrumentation(
+      final AOV3InstrumentationType inInstrumentation)
+    {
+      this.instrumentation =
+        Objects.requireNonNull(inInstrumentation, "instrumentation");
+      return this;
+    }
+
+    /**
+     * Add a decoder for a content encoding other than {@code gzip}. The
+     * encoding is advertised to the server in the {@code Accept-Encoding}
+     * header of every request.
+     *
+     * @param inDecoder The decoder
+     *
+     * @return this
+     */
+
+    public Builder addContentDecoder(
+      final AOV3ContentDecoderType inDecoder)
+    {
+      Objects.requireNonNull(inDecoder, "decoder");
+
+      final var encoding = inDecoder.encoding().trim();
+      if (encoding.isEmpty()
+        || "gzip".equalsIgnoreCase(encoding)
+        || "x-gzip".equalsIgnoreCase(encoding)
+        || "identity".equalsIgnoreCase(encoding)) {
+        throw new IllegalArgumentException(
+          String.format("Content encoding '%s' cannot be replaced", encoding));
+      }
+      this.decoders.add(inDecoder);
+      return this;
+    }
+
+    private AOV3ResponseParsersType createParsers()
+    {
+      return this.conversionPool
+        .map(AOV3ResponseParsers::createParallel)
+        .orElseGet(AOV3ResponseParsers::create);
+    }
+
+    private HttpClient.Builder configureHttpClient()
+    {
+      final var builder =
+        Objects.requireNonNullElseGet(
+          this.httpClientBuilder, HttpClient::newBuilder);
+
+      builder.followRedirects(HttpClient.Redirect.NEVER)
+        .version(this.httpVersion)
+        .connectTimeout(this.connectTimeout);
+
+      if (this.httpExecutor.isPresent()) {
+        builder.executor(this.httpExecutor.get());
+      } else if (this.virtualThreads) {
+        builder.executor(AOV3VirtualThreads.newPerTaskExecutor());
+      }
+      return builder;
+    }
+
+    /**
+     * @return A client provider based on the current configuration
+     */
+
+    public AOV3Clients build()
+    {
+      return new AOV3Clients(this);
+    }
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A decoder for an HTTP {@code Content-Encoding}.
+ *
+ * Clients always accept {@code gzip}, and decode it with inflaters taken
+ * from a shared pool. Decoders for other encodings, such as {@code br} or
+ * {@code zstd}, can be registered with
+ * {@link AOV3Clients.Builder#addContentDecoder(AOV3ContentDecoderType)};
+ * the encodings of registered decoders are advertised to the server in the
+ * {@code Accept-Encoding} header of every request.
+ */
+
+public interface AOV3ContentDecoderType
+{
+  /**
+   * @return The name of the content encoding, such as {@code br}
+   */
+
+  String encoding();
+
+  /**
+   * Decode the given stream. Closing the returned stream must close the
+   * given stream.
+   *
+   * @param stream The encoded stream
+   *
+   * @return The decoded stream
+   *
+   * @throws IOException On I/O errors
+   */
+
+  InputStream decode(InputStream stream)
+    throws IOException;
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The outcome of a single page request made during a crawl.
+ */
+
+public final class AOV3CrawlPage
+{
+  private final BigInteger version;
+  private final BigInteger page;
+  private final int releases;
+  private final Duration latency;
+
+  private AOV3CrawlPage(
+    final BigInteger inVersion,
+    final BigInteger inPage,
+    final int inReleases,
+    final Duration inLatency)
+  {
+    this.version =
+      Objects.requireNonNull(inVersion, "version");
+    this.page =
+      Objects.requireNonNull(inPage, "page");
+    this.releases = inReleases;
+    this.latency =
+      Objects.requireNonNull(inLatency, "latency");
+  }
+
+  /**
+   * Create a page record.
+   *
+   * @param version  The feature version
+   * @param page     The page number
+   * @param releases The number of releases on the page
+   * @param latency  The time taken to fetch and parse the page
+   *
+   * @return A page record
+   */
+
+  public static AOV3CrawlPage of(
+    final BigInteger version,
+    final BigInteger page,
+    final int releases,
+    final Duration latency)
+  {
+    return new AOV3CrawlPage(version, page, releases, latency);
+  }
+
+  /**
+   * @return The feature version
+   */
+
+  public BigInteger version()
+  {
+    return this.version;
+  }
+
+  /**
+   * @return The page number
+   */
+
+  public BigInteger page()
+  {
+    return this.page;
+  }
+
+  /**
+   * @return The number of releases on the page
+   */
+
+  public int releases()
+  {
+    return this.releases;
+  }
+
+  /**
+   * @return The time taken to fetch and parse the page
+   */
+
+  public Duration latency()
+  {
+    return this.latency;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[AOV3CrawlPage %s %s %d %s]",
+      this.version,
+      this.page,
+      Integer.valueOf(this.releases),
+      this.latency
+    );
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3Release;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of a crawl: the merged set of releases, and statistics for
+ * each of the page requests that produced it.
+ */
+
+public final class AOV3CrawlResult
+{
+  private final List<AOV3Release> releases;
+  private final List<AOV3CrawlPage> pages;
+  private final Duration elapsed;
+
+  private AOV3CrawlResult(
+    final List<AOV3Release> inReleases,
+    final List<AOV3CrawlPage> inPages,
+    final Duration inElapsed)
+  {
+    this.releases =
+      List.copyOf(Objects.requireNonNull(inReleases, "releases"));
+    this.pages =
+      List.copyOf(Objects.requireNonNull(inPages, "pages"));
+    this.elapsed =
+      Objects.requireNonNull(inElapsed, "elapsed");
+  }
+
+  /**
+   * Create a crawl result.
+   *
+   * @param releases The releases
+   * @param pages    The page requests
+   * @param elapsed  The total elapsed time
+   *
+   * @return A crawl result
+   */
+
+  public static AOV3CrawlResult of(
+    final List<AOV3Release> releases,
+    final List<AOV3CrawlPage> pages,
+    final Duration elapsed)
+  {
+    return new AOV3CrawlResult(releases, pages, elapsed);
+  }
+
+  /**
+   * @return The releases, deduplicated by identifier, in version and page order
+   */
+
+  public List<AOV3Release> releases()
+  {
+    return this.releases;
+  }
+
+  /**
+   * @return The successful page requests, in order of completion
+   */
+
+  public List<AOV3CrawlPage> pages()
+  {
+    return this.pages;
+  }
+
+  /**
+   * @return The total elapsed time of the crawl
+   */
+
+  public Duration elapsed()
+  {
+    return this.elapsed;
+  }
+
+  /**
+   * @return The average number of page requests completed per second
+   */
+
+  public double requestsPerSecond()
+  {
+    return perSecond(this.pages.size(), this.elapsed);
+  }
+
+  /**
+   * @return The average number of releases received per second
+   */
+
+  public double releasesPerSecond()
+  {
+    return perSecond(this.releases.size(), this.elapsed);
+  }
+
+  /**
+   * @return The maximum latency of any page request
+   */
+
+  public Duration maximumLatency()
+  {
+    return this.pages.stream()
+      .map(AOV3CrawlPage::latency)
+      .max(Duration::compareTo)
+      .orElse(Duration.ZERO);
+  }
+
+  /**
+   * @return The mean latency of all page requests
+   */
+
+  public Duration meanLatency()
+  {
+    if (this.pages.isEmpty()) {
+      return Duration.ZERO;
+    }
+
+    final var total =
+      this.pages.stream()
+        .map(AOV3CrawlPage::latency)
+        .reduce(Duration.ZERO, Duration::plus);
+
+    return total.dividedBy(this.pages.size());
+  }
+
+  private static double perSecond(
+    final int count,
+    final Duration time)
+  {
+    final var nanos = time.toNanos();
+    if (nanos <= 0L) {
+      return 0.0;
+    }
+    return (double) count / ((double) nanos / 1_000_000_000.0);
+  }
+}
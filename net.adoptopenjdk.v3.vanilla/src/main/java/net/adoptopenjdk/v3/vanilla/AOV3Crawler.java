@@ -0,0 +1,432 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * A crawler that fetches the assets of every page of a set of feature
+ * releases, issuing requests concurrently.
+ *
+ * At most {@code concurrency} page requests are in flight at any given time.
+ * Slots are handed out to versions in round-robin order, and each version
+ * keeps requesting successive pages until the server returns a page with
+ * fewer than {@code pageSize} releases, returns an empty page, or responds
+ * with a 404 status code. A version may therefore receive a
+ * small number of speculative requests past its last page; the results of
+ * these requests are discarded.
+ *
+ * Requests are executed with {@link net.adoptopenjdk.v3.api.AOV3RequestType#executeAsync()},
+ * so the given error receiver may be called from multiple threads.
+ */
+
+public final class AOV3Crawler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(AOV3Crawler.class);
+
+  private final AOV3APICallsType calls;
+  private final int concurrency;
+  private final BigInteger pageSize;
+  private final AOV3ReleaseKind releaseKind;
+
+  private AOV3Crawler(
+    final AOV3APICallsType inCalls,
+    final int inConcurrency,
+    final BigInteger inPageSize,
+    final AOV3ReleaseKind inReleaseKind)
+  {
+    this.calls =
+      Objects.requireNonNull(inCalls, "calls");
+    this.pageSize =
+      Objects.requireNonNull(inPageSize, "pageSize");
+    this.releaseKind =
+      Objects.requireNonNull(inReleaseKind, "releaseKind");
+
+    if (inConcurrency < 1) {
+      throw new IllegalArgumentException(
+        String.format("Concurrency %d must be positive", inConcurrency));
+    }
+    if (inPageSize.signum() <= 0) {
+      throw new IllegalArgumentException(
+        String.format("Page size %s must be positive", inPageSize));
+    }
+    this.concurrency = inConcurrency;
+  }
+
+  /**
+   * Create a crawler.
+   *
+   * @param calls       The API on which requests are made
+   * @param concurrency The maximum number of requests in flight
+   * @param pageSize    The page size
+   * @param releaseKind The target release kind
+   *
+   * @return A crawler
+   */
+
+  public static AOV3Crawler create(
+    final AOV3APICallsType calls,
+    final int concurrency,
+    final BigInteger pageSize,
+    final AOV3ReleaseKind releaseKind)
+  {
+    return new AOV3Crawler(calls, concurrency, pageSize, releaseKind);
+  }
+
+  /**
+   * Crawl every release kind of each of the given feature versions, merging
+   * the results and removing duplicate releases.
+   *
+   * @param calls         The API on which requests are made
+   * @param errorReceiver A receiver of errors encountered during API calls
+   * @param concurrency   The maximum number of requests in flight
+   * @param pageSize      The page size
+   * @param versions      The feature versions
+   *
+   * @return The releases
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  static List<AOV3Release> crawlAllKinds(
+    final AOV3APICallsType calls,
+    final Consumer<AOV3Error> errorReceiver,
+    final int concurrency,
+    final BigInteger pageSize,
+    final List<BigInteger> versions)
+    throws AOV3Exception, InterruptedException
+  {
+    final var releases = new LinkedHashMap<String, AOV3Release>();
+    for (final var kind : AOV3ReleaseKind.values()) {
+      final var result =
+        create(calls, concurrency, pageSize, kind)
+          .crawl(errorReceiver, versions);
+      for (final var release : result.releases()) {
+        releases.putIfAbsent(release.id(), release);
+      }
+    }
+    return List.copyOf(releases.values());
+  }
+
+  private static AOV3Exception failureOf(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    if (cause instanceof AOV3Exception) {
+      return (AOV3Exception) cause;
+    }
+    return new AOV3Exception(cause);
+  }
+
+  private static boolean isEndOfPages(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    return cause instanceof AOV3ExceptionHTTPRequestFailed
+      && ((AOV3ExceptionHTTPRequestFailed) cause).statusCode() == 404;
+  }
+
+  /**
+   * Crawl all pages of every release listed by the server as being
+   * available.
+   *
+   * @param errorReceiver A receiver of errors encountered during API calls
+   *
+   * @return The crawl result
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  public AOV3CrawlResult crawl(
+    final Consumer<AOV3Error> errorReceiver)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+
+    final var available =
+      this.calls.availableReleases(errorReceiver)
+        .execute();
+
+    return this.crawl(errorReceiver, available.availableReleases());
+  }
+
+  /**
+   * Crawl all pages of each of the given feature versions.
+   *
+   * @param errorReceiver A receiver of errors encountered during API calls
+   * @param versions      The feature versions
+   *
+   * @return The crawl result
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  public AOV3CrawlResult crawl(
+    final Consumer<AOV3Error> errorReceiver,
+    final List<BigInteger> versions)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(versions, "versions");
+
+    final var states = new ArrayList<VersionState>(versions.size());
+    for (final var version : versions) {
+      states.add(new VersionState(Objects.requireNonNull(version, "version")));
+    }
+
+    final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+    final var futures = new ArrayList<CompletableFuture<?>>();
+    final var pages = new ArrayList<AOV3CrawlPage>();
+    final var timeStart = System.nanoTime();
+
+    int running = 0;
+    int next = 0;
+
+    try {
+      while (true) {
+        while (running < this.concurrency) {
+          final var index = nextOpen(states, next);
+          if (index < 0) {
+            break;
+          }
+          next = (index + 1) % states.size();
+          futures.add(this.start(errorReceiver, states.get(index), completions));
+          ++running;
+        }
+
+        if (running == 0) {
+          break;
+        }
+
+        final var completion = completions.take();
+        --running;
+        this.receive(completion, pages);
+      }
+    } finally {
+      for (final var future : futures) {
+        future.cancel(true);
+      }
+    }
+
+    final var result =
+      AOV3CrawlResult.of(
+        merge(states),
+        pages,
+        Duration.ofNanos(System.nanoTime() - timeStart)
+      );
+
+    LOG.debug(
+      "crawled {} releases in {} requests ({})",
+      Integer.valueOf(result.releases().size()),
+      Integer.valueOf(pages.size()),
+      result.elapsed());
+
+    return result;
+  }
+
+  private void receive(
+    final Completion completion,
+    final List<AOV3CrawlPage> pages)
+    throws AOV3Exception
+  {
+    final var state = completion.state;
+    if (completion.failure != null) {
+      if (isEndOfPages(completion.failure)) {
+        state.close(completion.page);
+        return;
+      }
+      throw failureOf(completion.failure);
+    }
+
+    final var releases = completion.releases;
+    pages.add(AOV3CrawlPage.of(
+      state.version,
+      completion.page,
+      releases.size(),
+      Duration.ofNanos(completion.latency)
+    ));
+
+    if (releases.isEmpty()) {
+      state.close(completion.page);
+      return;
+    }
+
+    if (state.includes(completion.page)) {
+      state.pages.put(completion.page, releases);
+    }
+
+    /*
+     * A page that is not full is the last page, so there is no need to
+     * request the (empty) page that follows it.
+     */
+
+    if (BigInteger.valueOf(releases.size()).compareTo(this.pageSize) < 0) {
+      state.close(completion.page.add(BigInteger.ONE));
+    }
+  }
+
+  private static List<AOV3Release> merge(
+    final List<VersionState> states)
+  {
+    final var merged = new LinkedHashMap<String, AOV3Release>();
+    for (final var state : states) {
+      for (final var releases : state.pages.values()) {
+        for (final var release : releases) {
+          merged.putIfAbsent(release.id(), release);
+        }
+      }
+    }
+    return new ArrayList<>(merged.values());
+  }
+
+  private static int nextOpen(
+    final List<VersionState> states,
+    final int start)
+  {
+    final var count = states.size();
+    for (int offset = 0; offset < count; ++offset) {
+      final var index = (start + offset) % count;
+      if (states.get(index).hasMorePages()) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private CompletableFuture<?> start(
+    final Consumer<AOV3Error> errorReceiver,
+    final VersionState state,
+    final BlockingQueue<Completion> completions)
+  {
+    final var page = state.nextPage;
+    state.nextPage = page.add(BigInteger.ONE);
+
+    final var timeStart = System.nanoTime();
+    return this.calls.assetsForRelease(
+      errorReceiver,
+      page,
+      this.pageSize,
+      state.version,
+      this.releaseKind,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty()
+    ).executeAsync().whenComplete((releases, failure) -> {
+      completions.add(new Completion(
+        state,
+        page,
+        releases,
+        failure,
+        System.nanoTime() - timeStart
+      ));
+    });
+  }
+
+  private static final class VersionState
+  {
+    private final BigInteger version;
+    private final TreeMap<BigInteger, List<AOV3Release>> pages;
+    private BigInteger nextPage;
+    private BigInteger endPage;
+
+    VersionState(
+      final BigInteger inVersion)
+    {
+      this.version = inVersion;
+      this.pages = new TreeMap<>();
+      this.nextPage = BigInteger.ZERO;
+    }
+
+    boolean hasMorePages()
+    {
+      return this.endPage == null;
+    }
+
+    boolean includes(
+      final BigInteger page)
+    {
+      return this.endPage == null || page.compareTo(this.endPage) < 0;
+    }
+
+    void close(
+      final BigInteger page)
+    {
+      this.endPage = this.endPage == null ? page : this.endPage.min(page);
+      this.pages.tailMap(this.endPage, true).clear();
+    }
+  }
+
+  private static final class Completion
+  {
+    private final VersionState state;
+    private final BigInteger page;
+    private final List<AOV3Release> releases;
+    private final Throwable failure;
+    private final long latency;
+
+    Completion(
+      final VersionState inState,
+      final BigInteger inPage,
+      final List<AOV3Release> inReleases,
+      final Throwable inFailure,
+      final long inLatency)
+    {
+      this.state = inState;
+      this.page = inPage;
+      this.releases = inReleases;
+      this.failure = inFailure;
+      this.latency = inLatency;
+    }
+  }
+}
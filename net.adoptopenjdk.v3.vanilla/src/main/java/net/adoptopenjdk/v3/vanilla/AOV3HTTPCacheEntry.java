@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A cached HTTP response body, along with the validators required to
+ * perform a conditional request for the same resource.
+ */
+
+public final class AOV3HTTPCacheEntry
+{
+  private final Optional<String> entityTag;
+  private final Optional<String> lastModified;
+  private final byte[] data;
+
+  private AOV3HTTPCacheEntry(
+    final Optional<String> inEntityTag,
+    final Optional<String> inLastModified,
+    final byte[] inData)
+  {
+    this.entityTag =
+      Objects.requireNonNull(inEntityTag, "entityTag");
+    this.lastModified =
+      Objects.requireNonNull(inLastModified, "lastModified");
+    this.data =
+      Objects.requireNonNull(inData, "data");
+  }
+
+  /**
+   * Create a cache entry. The given data array is not copied, and must not
+   * be modified after the entry is created.
+   *
+   * @param entityTag    The value of the {@code ETag} header, if any
+   * @param lastModified The value of the {@code Last-Modified} header, if any
+   * @param data         The decoded response body
+   *
+   * @return A cache entry
+   */
+
+  public static AOV3HTTPCacheEntry of(
+    final Optional<String> entityTag,
+    final Optional<String> lastModified,
+    final byte[] data)
+  {
+    return new AOV3HTTPCacheEntry(entityTag, lastModified, data);
+  }
+
+  /**
+   * @return The value of the {@code ETag} header, if any
+   */
+
+  public Optional<String> entityTag()
+  {
+    return this.entityTag;
+  }
+
+  /**
+   * @return The value of the {@code Last-Modified} header, if any
+   */
+
+  public Optional<String> lastModified()
+  {
+    return this.lastModified;
+  }
+
+  /**
+   * @return The size of the response body in octets
+   */
+
+  public int size()
+  {
+    return this.data.length;
+  }
+
+  /**
+   * @return A stream that reads the response body without copying it
+   */
+
+  public InputStream open()
+  {
+    return new ByteArrayInputStream(this.data);
+  }
+
+  /**
+   * @return A copy of the response body
+   */
+
+  public byte[] data()
+  {
+    return this.data.clone();
+  }
+}
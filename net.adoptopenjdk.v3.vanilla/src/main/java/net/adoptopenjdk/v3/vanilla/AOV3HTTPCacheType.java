@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * A cache of HTTP response bodies. Cached bodies are revalidated against the
+ * server using the {@code ETag} and {@code Last-Modified} headers returned
+ * with the original response, and are reused when the server indicates that
+ * they have not been modified.
+ *
+ * Implementations are required to be safe for use from multiple threads.
+ *
+ * @see AOV3HTTPCaches
+ */
+
+public interface AOV3HTTPCacheType
+{
+  /**
+   * Find a cached response for the given URI.
+   *
+   * @param uri The request URI
+   *
+   * @return The cached response, if any
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<AOV3HTTPCacheEntry> find(URI uri)
+    throws IOException;
+
+  /**
+   * Store a response for the given URI, replacing any existing response.
+   *
+   * @param uri   The request URI
+   * @param entry The response
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void store(
+    URI uri,
+    AOV3HTTPCacheEntry entry)
+    throws IOException;
+}
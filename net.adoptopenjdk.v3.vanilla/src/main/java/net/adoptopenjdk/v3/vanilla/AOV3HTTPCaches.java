@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.vanilla.internal.AOV3HTTPCacheDirectory;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3HTTPCacheMemory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Functions to create HTTP response caches.
+ */
+
+public final class AOV3HTTPCaches
+{
+  private AOV3HTTPCaches()
+  {
+
+  }
+
+  /**
+   * Create an in-memory cache that holds at most {@code maximumEntries}
+   * responses, evicting the least recently used responses first.
+   *
+   * @param maximumEntries The maximum number of cached responses
+   *
+   * @return A cache
+   */
+
+  public static AOV3HTTPCacheType createMemory(
+    final int maximumEntries)
+  {
+    return AOV3HTTPCacheMemory.create(maximumEntries);
+  }
+
+  /**
+   * Create a cache that stores responses as files in the given directory.
+   * The directory is created if it does not already exist.
+   *
+   * @param directory The cache directory
+   *
+   * @return A cache
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static AOV3HTTPCacheType createDirectory(
+    final Path directory)
+    throws IOException
+  {
+    return AOV3HTTPCacheDirectory.create(directory);
+  }
+}
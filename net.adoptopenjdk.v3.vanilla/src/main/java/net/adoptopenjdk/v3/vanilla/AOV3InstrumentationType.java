@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+/**
+ * A receiver of request metrics. An instrumentation is notified once for
+ * each API request made by a client, after the request has completed or
+ * failed. Metrics are not recorded for API calls that were coalesced with
+ * an identical concurrent call, or that were served without sending an
+ * HTTP request.
+ *
+ * Implementations are required to be safe for use from multiple threads,
+ * and are expected to return quickly: they are notified on the thread
+ * that completed the request. A typical implementation records the
+ * metrics in a metrics registry, grouped by {@link AOV3RequestKind}.
+ *
+ * @see AOV3Instrumentations
+ */
+
+public interface AOV3InstrumentationType
+{
+  /**
+   * An instrumentation that is not enabled is never notified, and clients
+   * do not measure their requests at all.
+   *
+   * @return {@code true} if the instrumentation should be notified
+   */
+
+  default boolean isEnabled()
+  {
+    return true;
+  }
+
+  /**
+   * A request has completed.
+   *
+   * @param metrics The request's metrics
+   */
+
+  void onRequestCompleted(AOV3RequestMetricsType metrics);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+/**
+ * Functions to create instrumentations.
+ */
+
+public final class AOV3Instrumentations
+{
+  private static final AOV3InstrumentationType NONE = new None();
+
+  private AOV3Instrumentations()
+  {
+
+  }
+
+  /**
+   * @return An instrumentation that records nothing
+   */
+
+  public static AOV3InstrumentationType none()
+  {
+    return NONE;
+  }
+
+  private static final class None implements AOV3InstrumentationType
+  {
+    None()
+    {
+
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+      return false;
+    }
+
+    @Override
+    public void onRequestCompleted(
+      final AOV3RequestMetricsType metrics)
+    {
+
+    }
+  }
+}
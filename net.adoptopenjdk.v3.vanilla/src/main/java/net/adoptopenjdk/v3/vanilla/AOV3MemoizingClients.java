@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3MemoizingClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A decorator that memoizes the results of API calls.
+ *
+ * A decorated client keeps the parsed results of the requests executed
+ * through it, keyed by the name and parameters of each API call. Executing
+ * an identical request again (including re-executing the same request
+ * object) returns the memoized result without making an HTTP request.
+ * Results expire after a configurable duration, can be refreshed in the
+ * background before they expire, and are evicted in least recently used
+ * order when their total weight exceeds a configurable maximum.
+ */
+
+public final class AOV3MemoizingClients
+{
+  private final Clock clock;
+  private final Duration expireAfterWrite;
+  private final Optional<Duration> refreshAfterWrite;
+  private final long maximumWeight;
+
+  private AOV3MemoizingClients(
+    final Builder builder)
+  {
+    this.clock = builder.clock;
+    this.expireAfterWrite = builder.expireAfterWrite;
+    this.refreshAfterWrite = builder.refreshAfterWrite;
+    this.maximumWeight = builder.maximumWeight;
+  }
+
+  /**
+   * Create a builder for configuring memoizing clients. Unless configured
+   * otherwise, results expire after {@link Builder#DEFAULT_EXPIRE_AFTER},
+   * are not refreshed in the background, and are evicted when their total
+   * weight exceeds {@link Builder#DEFAULT_MAXIMUM_WEIGHT}.
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * Decorate the given client. Closing the returned client closes the
+   * given client.
+   *
+   * @param client The client that executes API calls
+   *
+   * @return A client that memoizes the results of API calls
+   */
+
+  public AOV3ClientType decorate(
+    final AOV3ClientType client)
+  {
+    return AOV3MemoizingClient.create(
+      client,
+      this.clock,
+      this.expireAfterWrite,
+      this.refreshAfterWrite,
+      this.maximumWeight
+    );
+  }
+
+  /**
+   * A mutable builder for memoizing clients.
+   */
+
+  public static final class Builder
+  {
+    /**
+     * The default duration after which results expire.
+     */
+
+    public static final Duration DEFAULT_EXPIRE_AFTER =
+      Duration.ofMinutes(10L);
+
+    /**
+     * The default maximum total weight of memoized results.
+     */
+
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 10_000L;
+
+    private Clock clock;
+    private Duration expireAfterWrite;
+    private Optional<Duration> refreshAfterWrite;
+    private long maximumWeight;
+
+    private Builder()
+    {
+      this.clock = Clock.systemUTC();
+      this.expireAfterWrite = DEFAULT_EXPIRE_AFTER;
+      this.refreshAfterWrite = Optional.empty();
+      this.maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+    }
+
+    /**
+     * Set the clock used to determine the age of results.
+     *
+     * @param inClock The clock
+     *
+     * @return this
+     */
+
+    public Builder setClock(
+      final Clock inClock)
+    {
+      this.clock =
+        Objects.requireNonNull(inClock, "clock");
+      return this;
+    }
+
+    /**
+     * Set the duration after which a result expires. An expired result is
+     * never returned; the next identical request is executed on the
+     * decorated client.
+     *
+     * @param inDuration The duration
+     *
+     * @return this
+     */
+
+    public Builder setExpireAfterWrite(
+      final Duration inDuration)
+    {
+      this.expireAfterWrite =
+        Objects.requireNonNull(inDuration, "duration");
+      return this;
+    }
+
+    /**
+     * Set the duration after which a result is refreshed. A request that
+     * finds a result older than this duration receives the result, and an
+     * identical request is executed asynchronously on the decorated client
+     * to replace it. The duration must be less than the expiry duration.
+     *
+     * @param inDuration The duration
+     *
+     * @return this
+     */
+
+    public Builder setRefreshAfterWrite(
+      final Duration inDuration)
+    {
+      this.refreshAfterWrite = Optional.of(
+        Objects.requireNonNull(inDuration, "duration"));
+      return this;
+    }
+
+    /**
+     * Set the maximum total weight of memoized results. A collection of
+     * results (such as a list of releases) weighs the number of elements in
+     * the collection, and any other result weighs {@code 1}.
+     *
+     * @param inWeight The maximum weight
+     *
+     * @return this
+     */
+
+    public Builder setMaximumWeight(
+      final long inWeight)
+    {
+      this.maximumWeight = inWeight;
+      return this;
+    }
+
+    /**
+     * @return A memoizing client decorator based on the current
+     * configuration
+     *
+     * @throws IllegalArgumentException If the configuration is invalid
+     */
+
+    public AOV3MemoizingClients build()
+    {
+      if (this.expireAfterWrite.isNegative()
+        || this.expireAfterWrite.isZero()) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Expiry duration %s must be positive", this.expireAfterWrite));
+      }
+
+      this.refreshAfterWrite.ifPresent(refresh -> {
+        if (refresh.isNegative()
+          || refresh.isZero()
+          || refresh.compareTo(this.expireAfterWrite) >= 0) {
+          throw new IllegalArgumentException(
+            String.format(
+              "Refresh duration %s must be positive and less than %s",
+              refresh,
+              this.expireAfterWrite));
+        }
+      });
+
+      if (this.maximumWeight <= 0L) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Maximum weight %d must be positive",
+            Long.valueOf(this.maximumWeight)));
+      }
+
+      return new AOV3MemoizingClients(this);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+/**
+ * The kinds of API request made by clients, used to group the metrics
+ * recorded for each request.
+ */
+
+public enum AOV3RequestKind
+{
+  /**
+   * A request for the available releases.
+   */
+
+  AVAILABLE_RELEASES,
+
+  /**
+   * A request for a page of release names.
+   */
+
+  RELEASE_NAMES,
+
+  /**
+   * A request for a page of release versions.
+   */
+
+  RELEASE_VERSIONS,
+
+  /**
+   * A request for a page of the assets of a feature release.
+   */
+
+  ASSETS_FOR_RELEASE,
+
+  /**
+   * A request for the latest assets of a feature release.
+   */
+
+  ASSETS_FOR_LATEST,
+
+  /**
+   * A request for the location of the latest binary of a feature release.
+   */
+
+  BINARY_FOR_LATEST,
+
+  /**
+   * A request for the location of the binary of a named release.
+   */
+
+  BINARY_FOR_RELEASE
+}
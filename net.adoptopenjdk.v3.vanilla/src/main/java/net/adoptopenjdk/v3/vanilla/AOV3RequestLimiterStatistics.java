@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A snapshot of the statistics of a request limiter. The time spent queued
+ * by each request can be compared with the rate of {@code 429} responses
+ * to tune the limiter's throughput.
+ */
+
+public final class AOV3RequestLimiterStatistics
+{
+  private final long acquired;
+  private final int queued;
+  private final int inFlight;
+  private final Duration queuedTimeTotal;
+  private final Duration queuedTimeMaximum;
+
+  private AOV3RequestLimiterStatistics(
+    final long inAcquired,
+    final int inQueued,
+    final int inInFlight,
+    final Duration inQueuedTimeTotal,
+    final Duration inQueuedTimeMaximum)
+  {
+    this.acquired = inAcquired;
+    this.queued = inQueued;
+    this.inFlight = inInFlight;
+    this.queuedTimeTotal =
+      Objects.requireNonNull(inQueuedTimeTotal, "queuedTimeTotal");
+    this.queuedTimeMaximum =
+      Objects.requireNonNull(inQueuedTimeMaximum, "queuedTimeMaximum");
+  }
+
+  /**
+   * Create a statistics snapshot.
+   *
+   * @param acquired          The number of permits acquired
+   * @param queued            The number of requests waiting for permits
+   * @param inFlight          The number of permits currently held
+   * @param queuedTimeTotal   The total time spent waiting for permits
+   * @param queuedTimeMaximum The longest time spent waiting for a permit
+   *
+   * @return A statistics snapshot
+   */
+
+  public static AOV3RequestLimiterStatistics of(
+    final long acquired,
+    final int queued,
+    final int inFlight,
+    final Duration queuedTimeTotal,
+    final Duration queuedTimeMaximum)
+  {
+    return new AOV3RequestLimiterStatistics(
+      acquired,
+      queued,
+      inFlight,
+      queuedTimeTotal,
+      queuedTimeMaximum
+    );
+  }
+
+  /**
+   * @return The number of permits acquired
+   */
+
+  public long acquired()
+  {
+    return this.acquired;
+  }
+
+  /**
+   * @return The number of requests waiting for permits
+   */
+
+  public int queued()
+  {
+    return this.queued;
+  }
+
+  /**
+   * @return The number of permits currently held
+   */
+
+  public int inFlight()
+  {
+    return this.inFlight;
+  }
+
+  /**
+   * @return The total time spent waiting for the permits acquired
+   */
+
+  public Duration queuedTimeTotal()
+  {
+    return this.queuedTimeTotal;
+  }
+
+  /**
+   * @return The longest time spent waiting for a permit
+   */
+
+  public Duration queuedTimeMaximum()
+  {
+    return this.queuedTimeMaximum;
+  }
+
+  /**
+   * @return The mean time spent waiting for the permits acquired
+   */
+
+  public Duration queuedTimeMean()
+  {
+    if (this.acquired == 0L) {
+      return Duration.ZERO;
+    }
+    return this.queuedTimeTotal.dividedBy(this.acquired);
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[AOV3RequestLimiterStatistics acquired=%d queued=%d inFlight=%d "
+        + "queuedTimeTotal=%s queuedTimeMaximum=%s]",
+      Long.valueOf(this.acquired),
+      Integer.valueOf(this.queued),
+      Integer.valueOf(this.inFlight),
+      this.queuedTimeTotal,
+      this.queuedTimeMaximum
+    );
+  }
+}
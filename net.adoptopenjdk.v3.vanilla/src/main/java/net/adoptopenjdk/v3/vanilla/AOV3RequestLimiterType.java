@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A limiter of the HTTP requests made by clients. Before each HTTP request
+ * is sent (including each retry of a failed request), a client acquires a
+ * permit from the limiter, and releases the permit when the response has
+ * been received.
+ *
+ * Implementations are required to be safe for use from multiple threads.
+ *
+ * @see AOV3RequestLimiters
+ */
+
+public interface AOV3RequestLimiterType
+{
+  /**
+   * Acquire a permit to send a request. The returned future is completed
+   * when the request may be sent; callers must not block waiting for it
+   * unless they are prepared to wait. A caller that is no longer interested
+   * in a permit may cancel the returned future; if the future has already
+   * been completed, the caller must release the permit instead.
+   *
+   * @return A future permit
+   */
+
+  CompletableFuture<PermitType> acquire();
+
+  /**
+   * @return A snapshot of the limiter's statistics
+   */
+
+  AOV3RequestLimiterStatistics statistics();
+
+  /**
+   * A permit to send a single request.
+   */
+
+  interface PermitType extends AutoCloseable
+  {
+    /**
+     * Release the permit. Releasing a permit more than once has no effect.
+     */
+
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.vanilla.internal.AOV3RequestLimiter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Functions to create request limiters.
+ */
+
+public final class AOV3RequestLimiters
+{
+  private AOV3RequestLimiters()
+  {
+
+  }
+
+  /**
+   * Create a limiter that allows at most {@code requestsPerSecond} requests
+   * to be sent per second on average, at most {@code burst} requests to be
+   * sent at once, and at most {@code maximumInFlight} requests to be in
+   * flight at any one time. Requests are granted permits in the order in
+   * which they ask for them. Permits that are delayed by the rate limit are
+   * granted on the common fork/join pool.
+   *
+   * @param requestsPerSecond The sustained request rate
+   * @param burst             The maximum burst size
+   * @param maximumInFlight   The maximum number of requests in flight
+   *
+   * @return A request limiter
+   */
+
+  public static AOV3RequestLimiterType create(
+    final double requestsPerSecond,
+    final int burst,
+    final int maximumInFlight)
+  {
+    return create(
+      requestsPerSecond,
+      burst,
+      maximumInFlight,
+      ForkJoinPool.commonPool()
+    );
+  }
+
+  /**
+   * Create a limiter that allows at most {@code requestsPerSecond} requests
+   * to be sent per second on average, at most {@code burst} requests to be
+   * sent at once, and at most {@code maximumInFlight} requests to be in
+   * flight at any one time. Requests are granted permits in the order in
+   * which they ask for them.
+   *
+   * @param requestsPerSecond The sustained request rate
+   * @param burst             The maximum burst size
+   * @param maximumInFlight   The maximum number of requests in flight
+   * @param executor          The executor used to grant permits that are
+   *                          delayed by the rate limit
+   *
+   * @return A request limiter
+   */
+
+  public static AOV3RequestLimiterType create(
+    final double requestsPerSecond,
+    final int burst,
+    final int maximumInFlight,
+    final Executor executor)
+  {
+    return AOV3RequestLimiter.create(
+      requestsPerSecond,
+      burst,
+      maximumInFlight,
+      executor
+    );
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * The metrics recorded for a single completed API request.
+ *
+ * The time spent in each phase of the request is measured separately. The
+ * JDK HTTP client does not report name resolution, connection and the
+ * arrival of the first byte of the response as separate events, and so
+ * the time taken for all three is reported by {@link #timeToHeaders()}.
+ * The time spent reading the response body is divided between the time
+ * spent waiting for data from the network ({@link #transferTime()}), the
+ * time spent decompressing it ({@link #inflateTime()}), and the time spent
+ * parsing it ({@link #parseTime()}).
+ */
+
+public interface AOV3RequestMetricsType
+{
+  /**
+   * @return The kind of request
+   */
+
+  AOV3RequestKind kind();
+
+  /**
+   * @return The URI of the request
+   */
+
+  URI uri();
+
+  /**
+   * @return The number of HTTP requests sent, including retries
+   */
+
+  int attempts();
+
+  /**
+   * @return The status code of the final response, if one was received
+   */
+
+  OptionalInt statusCode();
+
+  /**
+   * @return The time between sending the final HTTP request and receiving
+   * the response headers
+   */
+
+  Duration timeToHeaders();
+
+  /**
+   * @return The time spent reading the response body from the network
+   */
+
+  Duration transferTime();
+
+  /**
+   * @return The time spent decompressing the response body
+   */
+
+  Duration inflateTime();
+
+  /**
+   * @return The time spent parsing the response body, excluding the time
+   * spent reading and decompressing it
+   */
+
+  Duration parseTime();
+
+  /**
+   * @return The total time taken by the request, including the time spent
+   * waiting for retries and request limiters
+   */
+
+  Duration totalTime();
+
+  /**
+   * @return The number of (possibly compressed) response body bytes received
+   */
+
+  long bytesReceived();
+
+  /**
+   * @return The number of elements parsed from the response
+   */
+
+  long elementCount();
+
+  /**
+   * @return The number of errors delivered to the request's error receiver
+   */
+
+  long errorCount();
+
+  /**
+   * @return The exception that caused the request to fail, if it failed
+   */
+
+  Optional<Throwable> failure();
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A policy that determines whether, and after what delay, a failed HTTP
+ * request is retried.
+ *
+ * Only failures that are likely to be transient are retried: I/O errors
+ * (such as connection resets), and responses with one of a configurable set
+ * of status codes ({@code 429}, {@code 502}, {@code 503} and {@code 504} by
+ * default). All of the requests made by the API are {@code GET} requests,
+ * and so are safe to repeat.
+ *
+ * The delay before each retry grows exponentially with the number of
+ * attempts made so far, up to a maximum delay, and a random delay between
+ * zero and the computed delay is used so that clients that failed at the
+ * same time do not retry at the same time. If a response includes a
+ * {@code Retry-After} header, the delay specified by the server is used
+ * instead; if that delay exceeds the maximum delay, the request is not
+ * retried.
+ */
+
+public final class AOV3RetryPolicy
+{
+  /**
+   * The default maximum number of attempts.
+   */
+
+  public static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+
+  /**
+   * The default delay before the first retry.
+   */
+
+  public static final Duration DEFAULT_INITIAL_DELAY =
+    Duration.ofMillis(500L);
+
+  /**
+   * The default maximum delay before a retry.
+   */
+
+  public static final Duration DEFAULT_MAXIMUM_DELAY =
+    Duration.ofSeconds(30L);
+
+  /**
+   * The status codes that are retried by default.
+   */
+
+  public static final Set<Integer> DEFAULT_RETRY_STATUSES =
+    Set.of(
+      Integer.valueOf(429),
+      Integer.valueOf(502),
+      Integer.valueOf(503),
+      Integer.valueOf(504)
+    );
+
+  private static final AOV3RetryPolicy NONE =
+    builder().setMaximumAttempts(1).build();
+
+  private final int maximumAttempts;
+  private final Duration initialDelay;
+  private final Duration maximumDelay;
+  private final Set<Integer> retryStatuses;
+  private final boolean retryIOFailures;
+  private final Clock clock;
+
+  private AOV3RetryPolicy(
+    final Builder builder)
+  {
+    this.maximumAttempts = builder.maximumAttempts;
+    this.initialDelay = builder.initialDelay;
+    this.maximumDelay = builder.maximumDelay;
+    this.retryStatuses = builder.retryStatuses;
+    this.retryIOFailures = builder.retryIOFailures;
+    this.clock = builder.clock;
+  }
+
+  /**
+   * @return A policy that never retries requests
+   */
+
+  public static AOV3RetryPolicy none()
+  {
+    return NONE;
+  }
+
+  /**
+   * Create a builder for retry policies. Unless configured otherwise,
+   * requests are attempted at most {@link #DEFAULT_MAXIMUM_ATTEMPTS} times,
+   * the delays before retries start at {@link #DEFAULT_INITIAL_DELAY} and do
+   * not exceed {@link #DEFAULT_MAXIMUM_DELAY}, and I/O errors and the
+   * {@link #DEFAULT_RETRY_STATUSES} are retried.
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * @return The maximum number of attempts made for each request
+   */
+
+  public int maximumAttempts()
+  {
+    return this.maximumAttempts;
+  }
+
+  /**
+   * Determine the delay before retrying a request that failed with an I/O
+   * error.
+   *
+   * @param attempts The number of attempts made so far
+   *
+   * @return The delay before the next attempt, or nothing if the request
+   * should not be retried
+   */
+
+  public Optional<Duration> delayAfterIOFailure(
+    final int attempts)
+  {
+    if (!this.retryIOFailures || attempts >= this.maximumAttempts) {
+      return Optional.empty();
+    }
+    return Optional.of(this.backoff(attempts));
+  }
+
+  /**
+   * Determine the delay before retrying a request that received a response
+   * with the given status code.
+   *
+   * @param attempts The number of attempts made so far
+   * @param status   The response status code
+   * @param headers  The response headers
+   *
+   * @return The delay before the next attempt, or nothing if the request
+   * should not be retried
+   */
+
+  public Optional<Duration> delayAfterStatus(
+    final int attempts,
+    final int status,
+    final HttpHeaders headers)
+  {
+    Objects.requireNonNull(headers, "headers");
+
+    if (attempts >= this.maximumAttempts) {
+      return Optional.empty();
+    }
+    if (!this.retryStatuses.contains(Integer.valueOf(status))) {
+      return Optional.empty();
+    }
+
+    final var retryAfter =
+      headers.firstValue("Retry-After").flatMap(this::parseRetryAfter);
+    if (retryAfter.isPresent()) {
+      final var delay = retryAfter.get();
+      if (delay.compareTo(this.maximumDelay) > 0) {
+        return Optional.empty();
+      }
+      return retryAfter;
+    }
+    return Optional.of(this.backoff(attempts));
+  }
+
+  /**
+   * Parse the value of a {@code Retry-After} header, which may be either a
+   * number of seconds, or an HTTP date.
+   */
+
+  private Optional<Duration> parseRetryAfter(
+    final String value)
+  {
+    final var text = value.trim();
+    try {
+      final var seconds = Long.parseLong(text);
+      return Optional.of(Duration.ofSeconds(Math.max(0L, seconds)));
+    } catch (final NumberFormatException e) {
+      // Not a number of seconds
+    }
+
+    try {
+      final var time =
+        ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME);
+      final var delay =
+        Duration.between(this.clock.instant(), time.toInstant());
+      return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+    } catch (final DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  private Duration backoff(
+    final int attempts)
+  {
+    final var shift = Math.min(Math.max(0, attempts - 1), 30);
+    final var initial = this.initialDelay.toMillis();
+    final var maximum = this.maximumDelay.toMillis();
+    final var limit =
+      initial > (maximum >> shift) ? maximum : initial << shift;
+    final var delay =
+      ThreadLocalRandom.current().nextLong(Math.max(1L, limit) + 1L);
+    return Duration.ofMillis(Math.min(delay, maximum));
+  }
+
+  /**
+   * A mutable builder for retry policies.
+   */
+
+  public static final class Builder
+  {
+    private int maximumAttempts;
+    private Duration initialDelay;
+    private Duration maximumDelay;
+    private Set<Integer> retryStatuses;
+    private boolean retryIOFailures;
+    private Clock clock;
+
+    private Builder()
+    {
+      this.maximumAttempts = DEFAULT_MAXIMUM_ATTEMPTS;
+      this.initialDelay = DEFAULT_INITIAL_DELAY;
+      this.maximumDelay = DEFAULT_MAXIMUM_DELAY;
+      this.retryStatuses = DEFAULT_RETRY_STATUSES;
+      this.retryIOFailures = true;
+      this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Set the maximum number of attempts made for each request, including
+     * the first attempt. A value of {@code 1} disables retries.
+     *
+     * @param inAttempts The maximum number of attempts
+     *
+     * @return this
+     */
+
+    public Builder setMaximumAttempts(
+      final int inAttempts)
+    {
+      this.maximumAttempts = inAttempts;
+      return this;
+    }
+
+    /**
+     * Set the delay before the first retry. The delay doubles with each
+     * subsequent retry.
+     *
+     * @param inDelay The delay
+     *
+     * @return this
+     */
+
+    public Builder setInitialDelay(
+      final Duration inDelay)
+    {
+      this.initialDelay =
+        Objects.requireNonNull(inDelay, "delay");
+      return this;
+    }
+
+    /**
+     * Set the maximum delay before a retry. This also limits the delays
+     * requested by servers with {@code Retry-After} headers.
+     *
+     * @param inDelay The delay
+     *
+     * @return this
+     */
+
+    public Builder setMaximumDelay(
+      final Duration inDelay)
+    {
+      this.maximumDelay =
+        Objects.requireNonNull(inDelay, "delay");
+      return this;
+    }
+
+    /**
+     * Set the response status codes that are retried.
+     *
+     * @param inStatuses The status codes
+     *
+     * @return this
+     */
+
+    public Builder setRetryStatuses(
+      final Set<Integer> inStatuses)
+    {
+      this.retryStatuses =
+        Set.copyOf(Objects.requireNonNull(inStatuses, "statuses"));
+      return this;
+    }
+
+    /**
+     * Set whether requests that fail with I/O errors are retried.
+     *
+     * @param inRetry {@code true} if I/O errors should be retried
+     *
+     * @return this
+     */
+
+    public Builder setRetryIOFailures(
+      final boolean inRetry)
+    {
+      this.retryIOFailures = inRetry;
+      return this;
+    }
+
+    /**
+     * Set the clock used to interpret {@code Retry-After} dates.
+     *
+     * @param inClock The clock
+     *
+     * @return this
+     */
+
+    public Builder setClock(
+      final Clock inClock)
+    {
+      this.clock =
+        Objects.requireNonNull(inClock, "clock");
+      return this;
+    }
+
+    /**
+     * @return A retry policy based on the current configuration
+     *
+     * @throws IllegalArgumentException If the configuration is invalid
+     */
+
+    public AOV3RetryPolicy build()
+    {
+      if (this.maximumAttempts < 1) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Maximum attempts %d must be positive",
+            Integer.valueOf(this.maximumAttempts)));
+      }
+      if (this.initialDelay.isNegative()) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Initial delay %s must be non-negative", this.initialDelay));
+      }
+      if (this.maximumDelay.compareTo(this.initialDelay) < 0) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Maximum delay %s must not be less than the initial delay %s",
+            this.maximumDelay,
+            this.initialDelay));
+      }
+      return new AOV3RetryPolicy(this);
+    }
+  }
+}
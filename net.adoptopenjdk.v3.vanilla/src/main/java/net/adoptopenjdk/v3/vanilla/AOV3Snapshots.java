@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3APICallsType;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleasesType;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3Messages;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotClient;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotWriter;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Functions to capture the release catalog into a snapshot file, and to
+ * answer API calls from a snapshot file without network access.
+ *
+ * A snapshot file is memory-mapped when opened. Queries filter the records
+ * of the file in place and only decode the releases that they return, so
+ * opening even a large snapshot is cheap.
+ */
+
+public final class AOV3Snapshots
+{
+  private AOV3Snapshots()
+  {
+
+  }
+
+  /**
+   * Write a snapshot file containing the given releases. The file is
+   * replaced atomically.
+   *
+   * @param file      The output file
+   * @param available The available releases
+   * @param releases  The releases
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void write(
+    final Path file,
+    final AOV3AvailableReleasesType available,
+    final Collection<? extends AOV3ReleaseType> releases)
+    throws IOException
+  {
+    AOV3SnapshotWriter.write(file, available, releases);
+  }
+
+  /**
+   * Fetch every release of every available feature version, of every
+   * release kind, and write the results to a snapshot file.
+   *
+   * @param calls         The API on which requests are made
+   * @param errorReceiver A receiver of errors encountered during API calls
+   * @param concurrency   The maximum number of requests in flight
+   * @param pageSize      The page size
+   * @param file          The output file
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   * @throws IOException          On I/O errors
+   * @see AOV3Crawler
+   */
+
+  public static void capture(
+    final AOV3APICallsType calls,
+    final Consumer<AOV3Error> errorReceiver,
+    final int concurrency,
+    final BigInteger pageSize,
+    final Path file)
+    throws AOV3Exception, InterruptedException, IOException
+  {
+    Objects.requireNonNull(calls, "calls");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(file, "file");
+
+    final var available =
+      calls.availableReleases(errorReceiver)
+        .execute();
+
+    final var releases =
+      AOV3Crawler.crawlAllKinds(
+        calls,
+        errorReceiver,
+        concurrency,
+        pageSize,
+        available.availableReleases());
+
+    write(file, available, releases);
+  }
+
+  /**
+   * Open a client that answers API calls from the given snapshot file.
+   *
+   * @param file The snapshot file
+   *
+   * @return A client
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid snapshot
+   */
+
+  public static AOV3ClientType open(
+    final Path file)
+    throws IOException
+  {
+    return AOV3SnapshotClient.open(
+      file,
+      AOV3Messages.of(AOV3Messages.getResourceBundle())
+    );
+  }
+}
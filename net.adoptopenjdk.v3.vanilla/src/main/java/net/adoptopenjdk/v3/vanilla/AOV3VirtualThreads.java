@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla;
+
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3RequestType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Functions to execute blocking requests on virtual threads.
+ *
+ * Virtual threads are available from Java 21 onwards. This library targets
+ * earlier Java versions, and so the virtual thread executor is located at
+ * run-time; on runtimes that do not support virtual threads, the functions
+ * here fall back to implementations that do not require a thread per
+ * request.
+ */
+
+public final class AOV3VirtualThreads
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3VirtualThreads.class);
+
+  private static final MethodHandle NEW_VIRTUAL_THREAD_EXECUTOR =
+    findVirtualThreadExecutor();
+
+  private AOV3VirtualThreads()
+  {
+
+  }
+
+  private static MethodHandle findVirtualThreadExecutor()
+  {
+    try {
+      final var handle =
+        MethodHandles.publicLookup()
+          .findStatic(
+            Executors.class,
+            "newVirtualThreadPerTaskExecutor",
+            MethodType.methodType(ExecutorService.class));
+
+      /*
+       * Virtual threads are a preview feature on some runtimes, in which
+       * case the method exists but fails unless previews are enabled.
+       */
+
+      final var executor = (ExecutorService) handle.invokeExact();
+      executor.shutdown();
+      return handle;
+    } catch (final Throwable e) {
+      LOG.debug("virtual threads are unavailable: {}", e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * @return {@code true} if the current runtime supports virtual threads
+   */
+
+  public static boolean isAvailable()
+  {
+    return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+  }
+
+  /**
+   * Create an executor that starts a new thread for each task. If the
+   * current runtime supports virtual threads, each task is executed on a
+   * new virtual thread. Otherwise, tasks are executed on a cached pool of
+   * daemon platform threads, in the same manner as the default executor of
+   * the JDK HTTP client.
+   *
+   * @return A new executor
+   *
+   * @see #isAvailable()
+   */
+
+  public static ExecutorService newPerTaskExecutor()
+  {
+    if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+      try {
+        return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invokeExact();
+      } catch (final Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    final var ids = new AtomicLong();
+    return Executors.newCachedThreadPool(runnable -> {
+      final var thread = new Thread(runnable);
+      thread.setName(
+        String.format(
+          "net.adoptopenjdk.v3.vanilla.request[%d]",
+          Long.valueOf(ids.incrementAndGet())));
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static AOV3Exception failureOf(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    if (cause instanceof AOV3Exception) {
+      return (AOV3Exception) cause;
+    }
+    return new AOV3Exception(cause);
+  }
+
+  /**
+   * Execute all of the given requests concurrently, waiting for all of them
+   * to complete. If the current runtime supports virtual threads, each
+   * request is executed with {@link AOV3RequestType#execute()} on its own
+   * virtual thread. Otherwise, each request is executed with
+   * {@link AOV3RequestType#executeAsync()}. If any request fails, the
+   * requests that have not yet completed are cancelled.
+   *
+   * @param requests The requests
+   * @param <T>      The type of returned values
+   *
+   * @return The result of each request, in the order given
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the thread hosting the operation was interrupted
+   */
+
+  public static <T> List<T> executeAll(
+    final List<? extends AOV3RequestType<? extends T>> requests)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(requests, "requests");
+
+    final var futures = new ArrayList<Future<? extends T>>(requests.size());
+    final var executor =
+      NEW_VIRTUAL_THREAD_EXECUTOR != null ? newPerTaskExecutor() : null;
+
+    try {
+      for (final var request : requests) {
+        Objects.requireNonNull(request, "request");
+        if (executor != null) {
+          futures.add(executor.submit(request::execute));
+        } else {
+          futures.add(request.executeAsync());
+        }
+      }
+
+      final var results = new ArrayList<T>(futures.size());
+      for (final var future : futures) {
+        try {
+          results.add(future.get());
+        } catch (final ExecutionException e) {
+          throw failureOf(e.getCause());
+        }
+      }
+      return results;
+    } finally {
+      for (final var future : futures) {
+        future.cancel(true);
+      }
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+  }
+}
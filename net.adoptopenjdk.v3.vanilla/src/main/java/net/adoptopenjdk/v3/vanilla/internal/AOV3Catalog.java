@@ -0,0 +1,626 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleasesType;
+import net.adoptopenjdk.v3.api.AOV3Binary;
+import net.adoptopenjdk.v3.api.AOV3BinaryType;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseNamesType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseVersionsType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionData;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3LocalQueries.VersionRangeFilter;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+import static net.adoptopenjdk.v3.api.AOV3ReleaseKind.GENERAL_AVAILABILITY;
+
+/**
+ * A client that answers API calls from a set of releases held in memory.
+ *
+ * Releases are sorted once when the catalog is created. Binaries are
+ * indexed by feature version, platform, JVM implementation, heap size and
+ * vendor, releases are indexed by feature version and by name, and so
+ * lookups of single binaries do not scan the catalog.
+ */
+
+public final class AOV3Catalog implements AOV3ClientType
+{
+  private static final URI SOURCE =
+    URI.create("urn:net.adoptopenjdk.v3:catalog");
+
+  private final AOV3MessagesType messages;
+  private final AOV3AvailableReleases available;
+  private final List<AOV3Release> releases;
+  private final Map<Integer, List<Integer>> releasesByVersion;
+  private final Map<String, List<Integer>> releasesByName;
+  private final Map<BinaryKey, List<BinaryEntry>> binaries;
+
+  private AOV3Catalog(
+    final AOV3MessagesType inMessages,
+    final AOV3AvailableReleases inAvailable,
+    final List<AOV3Release> inReleases)
+  {
+    this.messages =
+      Objects.requireNonNull(inMessages, "messages");
+    this.available =
+      Objects.requireNonNull(inAvailable, "available");
+    this.releases =
+      Objects.requireNonNull(inReleases, "releases");
+
+    this.releasesByVersion = new HashMap<>();
+    this.releasesByName = new HashMap<>();
+    this.binaries = new HashMap<>();
+
+    for (int index = 0; index < this.releases.size(); ++index) {
+      final var release = this.releases.get(index);
+      final var major = release.versionData().majorAsInt();
+      final var position = Integer.valueOf(index);
+
+      this.releasesByVersion
+        .computeIfAbsent(Integer.valueOf(major), k -> new ArrayList<>())
+        .add(position);
+      this.releasesByName
+        .computeIfAbsent(release.releaseName(), k -> new ArrayList<>())
+        .add(position);
+
+      for (final var binary : release.binaries()) {
+        this.binaries
+          .computeIfAbsent(
+            BinaryKey.of(major, release.vendor(), binary),
+            k -> new ArrayList<>())
+          .add(new BinaryEntry(index, binary));
+      }
+    }
+  }
+
+  /**
+   * Create a catalog from the given releases.
+   *
+   * @param messages  A message provider
+   * @param available The available releases
+   * @param releases  The releases
+   *
+   * @return A catalog
+   */
+
+  public static AOV3Catalog create(
+    final AOV3MessagesType messages,
+    final AOV3AvailableReleasesType available,
+    final Collection<? extends AOV3ReleaseType> releases)
+  {
+    Objects.requireNonNull(available, "available");
+    Objects.requireNonNull(releases, "releases");
+
+    final var sorted = new ArrayList<AOV3Release>(releases.size());
+    for (final var release : releases) {
+      sorted.add(AOV3Release.copyOf(release));
+    }
+    sorted.sort(AOV3LocalQueries.RELEASE_ORDER);
+
+    return new AOV3Catalog(
+      messages,
+      AOV3AvailableReleases.copyOf(available),
+      List.copyOf(sorted)
+    );
+  }
+
+  private static boolean projectMatches(
+    final AOV3BinaryType binary,
+    final Optional<String> project)
+  {
+    return binary.project()
+      .equals(project.orElse(AOV3LocalQueries.DEFAULT_PROJECT));
+  }
+
+  private static boolean isPlatform(
+    final AOV3BinaryType binary,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3Architecture architecture,
+    final AOV3ImageKind imageKind)
+  {
+    return binary.operatingSystem() == operatingSystem
+      && binary.architecture() == architecture
+      && binary.imageType() == imageKind;
+  }
+
+  private static boolean isRuntime(
+    final AOV3BinaryType binary,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3HeapSize heapSize,
+    final Optional<String> project)
+  {
+    return binary.jvmImplementation() == jvmImplementation
+      && binary.heapSize() == heapSize
+      && projectMatches(binary, project);
+  }
+
+  private static <T> boolean matches(
+    final Optional<T> expected,
+    final T value)
+  {
+    return expected.isEmpty() || expected.get() == value;
+  }
+
+  @Override
+  public void close()
+  {
+
+  }
+
+  private AOV3ExceptionHTTPRequestFailed failed(
+    final int statusCode)
+  {
+    return new AOV3ExceptionHTTPRequestFailed(
+      statusCode,
+      SOURCE,
+      this.messages.requestFailed(statusCode, SOURCE),
+      Map.of()
+    );
+  }
+
+  private Predicate<AOV3Release> releaseFilter(
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    final var range = VersionRangeFilter.of(versionRange);
+    return release -> {
+      final var version = release.versionData();
+      return matches(releaseKind, release.releaseType())
+        && matches(vendor, release.vendor())
+        && range.matches(
+        version.majorAsInt(),
+        version.minorAsInt(),
+        version.securityAsInt(),
+        version.buildAsInt());
+    };
+  }
+
+  private <T> List<T> page(
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3SortOrder> sortOrder,
+    final List<Integer> positions,
+    final IntFunction<T> selector)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
+    return AOV3LocalQueries.page(
+      page,
+      pageSize,
+      sortOrder,
+      positions.size(),
+      position -> selector.apply(positions.get(position).intValue()),
+      this::failed
+    );
+  }
+
+  private List<Integer> releasesOfVersion(
+    final BigInteger version)
+  {
+    return this.releasesByVersion.getOrDefault(
+      Integer.valueOf(AOV3LocalQueries.versionOrNone(version)),
+      List.of()
+    );
+  }
+
+  private <T> List<T> pageAll(
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3SortOrder> sortOrder,
+    final IntFunction<T> selector)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
+    return AOV3LocalQueries.page(
+      page,
+      pageSize,
+      sortOrder,
+      this.releases.size(),
+      selector,
+      this::failed
+    );
+  }
+
+  @Override
+  public AOV3RequestReleasesType availableReleases(
+    final Consumer<AOV3Error> errorReceiver)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    return () -> this.available;
+  }
+
+  @Override
+  public AOV3RequestReleaseNamesType releaseNames(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+
+    final var filter = this.releaseFilter(releaseKind, vendor, versionRange);
+    return () -> this.pageAll(page, pageSize, sortOrder, index -> {
+      final var release = this.releases.get(index);
+      return filter.test(release) ? release.releaseName() : null;
+    });
+  }
+
+  @Override
+  public AOV3RequestReleaseVersionsType releaseVersions(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+
+    final var filter = this.releaseFilter(releaseKind, vendor, versionRange);
+    return () -> {
+      final var seen = new HashSet<String>();
+      return this.pageAll(page, pageSize, sortOrder, index -> {
+        final var release = this.releases.get(index);
+        if (!filter.test(release)) {
+          return null;
+        }
+        final var version = release.versionData();
+        if (!seen.add(version.semanticVersion())) {
+          return null;
+        }
+        return AOV3VersionData.copyOf(version);
+      });
+    };
+  }
+
+  // CHECKSTYLE:OFF
+  @Override
+  public AOV3RequestAssetsForReleaseType assetsForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final BigInteger version,
+    final AOV3ReleaseKind releaseKind,
+    final Optional<AOV3Architecture> architecture,
+    final Optional<AOV3HeapSize> heapSize,
+    final Optional<AOV3ImageKind> imageKind,
+    final Optional<AOV3JVMImplementation> jvmImplementation,
+    final Optional<AOV3OperatingSystem> operatingSystem,
+    final Optional<String> project,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor
+  // CHECKSTYLE:ON
+  )
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+
+    final Predicate<AOV3BinaryType> platformFilter = binary ->
+      matches(architecture, binary.architecture())
+        && matches(imageKind, binary.imageType())
+        && matches(operatingSystem, binary.operatingSystem());
+    final Predicate<AOV3BinaryType> runtimeFilter = binary ->
+      matches(heapSize, binary.heapSize())
+        && matches(jvmImplementation, binary.jvmImplementation())
+        && projectMatches(binary, project);
+    final var binaryFilter = platformFilter.and(runtimeFilter);
+
+    final var releaseFilter =
+      this.releaseFilter(Optional.of(releaseKind), vendor, Optional.empty());
+
+    return () -> {
+      final var positions = this.releasesOfVersion(version);
+      return this.page(page, pageSize, sortOrder, positions, index -> {
+        final var release = this.releases.get(index);
+        if (!releaseFilter.test(release)) {
+          return null;
+        }
+
+        final var selected = new ArrayList<AOV3BinaryType>();
+        for (final var binary : release.binaries()) {
+          if (binaryFilter.test(binary)) {
+            selected.add(binary);
+          }
+        }
+        if (selected.isEmpty()) {
+          return null;
+        }
+        if (selected.size() == release.binaries().size()) {
+          return release;
+        }
+        return AOV3Release.builder()
+          .from(release)
+          .setBinaries(selected)
+          .build();
+      });
+    };
+  }
+
+  @Override
+  public AOV3RequestAssetsForLatestType assetsForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger version,
+    final AOV3JVMImplementation jvmImplementation)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(jvmImplementation, "jvmImplementation");
+
+    return () -> {
+      final var positions = this.releasesOfVersion(version);
+
+      /*
+       * Visit releases from newest to oldest, keeping the first binary seen
+       * for each platform and project.
+       */
+
+      final var seen = new HashSet<List<Object>>();
+      final var results = new ArrayList<AOV3ListBinaryAssetView>();
+      for (int index = positions.size() - 1; index >= 0; --index) {
+        final var release = this.releases.get(positions.get(index).intValue());
+        if (release.releaseType() != GENERAL_AVAILABILITY) {
+          continue;
+        }
+
+        for (final var binary : release.binaries()) {
+          if (binary.jvmImplementation() != jvmImplementation) {
+            continue;
+          }
+          final var platform = List.<Object>of(
+            binary.operatingSystem(),
+            binary.architecture(),
+            binary.imageType(),
+            binary.heapSize(),
+            binary.project()
+          );
+          if (seen.add(platform)) {
+            results.add(
+              AOV3ListBinaryAssetView.builder()
+                .setBinary(AOV3Binary.copyOf(binary))
+                .setReleaseName(release.releaseName())
+                .build());
+          }
+        }
+      }
+      return AOV3LocalQueries.nonEmpty(results, this::failed);
+    };
+  }
+
+  @Override
+  public AOV3RequestBinaryForLatestType binaryForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final AOV3Architecture architecture,
+    final BigInteger version,
+    final AOV3HeapSize heapSize,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3ReleaseKind releaseKind,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(project, "project");
+
+    final var key = new BinaryKey(
+      AOV3LocalQueries.versionOrNone(version),
+      architecture,
+      heapSize,
+      imageKind,
+      jvmImplementation,
+      operatingSystem,
+      vendor
+    );
+
+    return () -> {
+      final var entries = this.binaries.getOrDefault(key, List.of());
+      for (int index = entries.size() - 1; index >= 0; --index) {
+        final var entry = entries.get(index);
+        final var release = this.releases.get(entry.release);
+        if (release.releaseType() == releaseKind
+          && projectMatches(entry.binary, project)) {
+          return entry.binary.package_().link();
+        }
+      }
+      throw this.failed(404);
+    };
+  }
+
+  @Override
+  public AOV3RequestBinaryForReleaseType binaryForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final String releaseName,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3Architecture architecture,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3HeapSize heapSize,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(releaseName, "releaseName");
+    Objects.requireNonNull(project, "project");
+
+    return () -> {
+      final var positions =
+        this.releasesByName.getOrDefault(releaseName, List.of());
+
+      for (int index = positions.size() - 1; index >= 0; --index) {
+        final var release = this.releases.get(positions.get(index).intValue());
+        if (release.vendor() != vendor) {
+          continue;
+        }
+        for (final var binary : release.binaries()) {
+          if (isPlatform(binary, operatingSystem, architecture, imageKind)
+            && isRuntime(binary, jvmImplementation, heapSize, project)) {
+            return binary.package_().link();
+          }
+        }
+      }
+      throw this.failed(404);
+    };
+  }
+
+  private static final class BinaryEntry
+  {
+    private final int release;
+    private final AOV3BinaryType binary;
+
+    BinaryEntry(
+      final int inRelease,
+      final AOV3BinaryType inBinary)
+    {
+      this.release = inRelease;
+      this.binary = Objects.requireNonNull(inBinary, "binary");
+    }
+  }
+
+  private static final class BinaryKey
+  {
+    private final int version;
+    private final AOV3Architecture architecture;
+    private final AOV3HeapSize heapSize;
+    private final AOV3ImageKind imageKind;
+    private final AOV3JVMImplementation jvmImplementation;
+    private final AOV3OperatingSystem operatingSystem;
+    private final AOV3Vendor vendor;
+
+    // CHECKSTYLE:OFF
+    BinaryKey(
+      final int inVersion,
+      final AOV3Architecture inArchitecture,
+      final AOV3HeapSize inHeapSize,
+      final AOV3ImageKind inImageKind,
+      final AOV3JVMImplementation inJvmImplementation,
+      final AOV3OperatingSystem inOperatingSystem,
+      final AOV3Vendor inVendor)
+    // CHECKSTYLE:ON
+    {
+      this.version = inVersion;
+      this.architecture =
+        Objects.requireNonNull(inArchitecture, "architecture");
+      this.heapSize =
+        Objects.requireNonNull(inHeapSize, "heapSize");
+      this.imageKind =
+        Objects.requireNonNull(inImageKind, "imageKind");
+      this.jvmImplementation =
+        Objects.requireNonNull(inJvmImplementation, "jvmImplementation");
+      this.operatingSystem =
+        Objects.requireNonNull(inOperatingSystem, "operatingSystem");
+      this.vendor =
+        Objects.requireNonNull(inVendor, "vendor");
+    }
+
+    static BinaryKey of(
+      final int version,
+      final AOV3Vendor vendor,
+      final AOV3BinaryType binary)
+    {
+      return new BinaryKey(
+        version,
+        binary.architecture(),
+        binary.heapSize(),
+        binary.imageType(),
+        binary.jvmImplementation(),
+        binary.operatingSystem(),
+        vendor
+      );
+    }
+
+    @Override
+    public boolean equals(
+      final Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || !Objects.equals(this.getClass(), o.getClass())) {
+        return false;
+      }
+      final var other = (BinaryKey) o;
+      return this.version == other.version
+        && this.architecture == other.architecture
+        && this.heapSize == other.heapSize
+        && this.imageKind == other.imageKind
+        && this.jvmImplementation == other.jvmImplementation
+        && this.operatingSystem == other.operatingSystem
+        && this.vendor == other.vendor;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(
+        Integer.valueOf(this.version),
+        this.architecture,
+        this.heapSize,
+        this.imageKind,
+        this.jvmImplementation,
+        this.operatingSystem,
+        this.vendor
+      );
+    }
+  }
+}
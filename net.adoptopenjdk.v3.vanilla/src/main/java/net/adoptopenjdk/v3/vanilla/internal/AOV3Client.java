@@ -37,9 +37,19 @@ import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
 import net.adoptopenjdk.v3.api.AOV3SortOrder;
 import net.adoptopenjdk.v3.api.AOV3Vendor;
 import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import net.adoptopenjdk.v3.vanilla.AOV3ContentDecoderType;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheEntry;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheType;
+import net.adoptopenjdk.v3.vanilla.AOV3InstrumentationType;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestKind;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType.PermitType;
+import net.adoptopenjdk.v3.vanilla.AOV3RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
@@ -48,24 +58,67 @@ import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.zip.GZIPInputStream;
+import java.util.function.Function;
+
+/**
+ * An HTTP client for the v3 API. Identical requests (requests for the same
+ * URI) that are made concurrently are coalesced: one HTTP request is sent,
+ * and all of the callers receive the single parsed result along with any
+ * errors encountered during parsing. Streaming requests are never
+ * coalesced.
+ *
+ * If the client is instrumented, the metrics of each HTTP request are
+ * delivered to the instrumentation when the request completes.
+ */
 
 public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
 {
   private static final Logger LOG = LoggerFactory.getLogger(AOV3Client.class);
+  private static final PermitType NO_PERMIT = () -> { };
+  private static final String USER_AGENT = userAgentHeader();
+
   private final String baseURI;
   private final HttpClient client;
   private final AOV3ResponseParsersType parsers;
   private final AOV3MessagesType messages;
+  private final Executor parseExecutor;
+  private final Optional<AOV3HTTPCacheType> cache;
+  private final AOV3RetryPolicy retries;
+  private final Optional<AOV3RequestLimiterType> limiter;
+  private final AOV3InstrumentationType instrumentation;
+  private final Map<String, AOV3ContentDecoderType> decoders;
+  private final HttpRequest.Builder requestPrototype;
+  private final HttpRequest.Builder publishingPrototype;
+  private final AOV3SingleFlight<Parsed> parses;
+  private final AOV3SingleFlight<URI> locations;
 
   public AOV3Client(
     final String inBaseURI,
     final HttpClient inClient,
     final AOV3MessagesType inMessages,
-    final AOV3ResponseParsersType inParsers)
+    final AOV3ResponseParsersType inParsers,
+    final Executor inParseExecutor,
+    final Optional<AOV3HTTPCacheType> inCache,
+    final AOV3RetryPolicy inRetries,
+    final Optional<AOV3RequestLimiterType> inLimiter,
+    final AOV3InstrumentationType inInstrumentation,
+    final List<AOV3ContentDecoderType> inDecoders)
   {
     this.baseURI =
       Objects.requireNonNull(inBaseURI, "baseURI");
@@ -75,7 +128,56 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
       Objects.requireNonNull(inMessages, "messages");
     this.parsers =
       Objects.requireNonNull(inParsers, "parsers");
+    this.parseExecutor =
+      Objects.requireNonNull(inParseExecutor, "parseExecutor");
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
+    this.retries =
+      Objects.requireNonNull(inRetries, "retries");
+    this.limiter =
+      Objects.requireNonNull(inLimiter, "limiter");
+    this.instrumentation =
+      Objects.requireNonNull(inInstrumentation, "instrumentation");
+
+    this.decoders = new LinkedHashMap<>(inDecoders.size());
+    for (final var decoder : inDecoders) {
+      this.decoders.put(
+        decoder.encoding().trim().toLowerCase(Locale.ROOT), decoder);
+    }
+
+    /*
+     * The prototype of every request sent by the client. Each request is
+     * created from a copy of the prototype, so the common headers are only
+     * validated once.
+     */
+
+    final var encodings = new StringBuilder(32);
+    encodings.append("gzip");
+    for (final var encoding : this.decoders.keySet()) {
+      encodings.append(", ");
+      encodings.append(encoding);
+    }
 
+    this.requestPrototype =
+      HttpRequest.newBuilder()
+        .header("Accept-Encoding", encodings.toString())
+        .header("User-Agent", USER_AGENT)
+        .GET();
+
+    /*
+     * Responses to requests made by publishers are decoded without
+     * blocking, and registered decoders operate on blocking streams, so
+     * those requests only accept gzip.
+     */
+
+    this.publishingPrototype =
+      HttpRequest.newBuilder()
+        .header("Accept-Encoding", "gzip")
+        .header("User-Agent", USER_AGENT)
+        .GET();
+
+    this.parses = new AOV3SingleFlight<>();
+    this.locations = new AOV3SingleFlight<>();
     checkClientNoRedirects(this.messages, inClient);
   }
 
@@ -99,24 +201,25 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
     final HttpResponse<?> response)
   {
     if (LOG.isDebugEnabled()) {
-      final var headers = response.headers().map();
-      for (final var entry : headers.entrySet()) {
-        for (final var value : entry.getValue()) {
-          LOG.debug("← {}: {}", entry.getKey(), value);
-        }
-      }
+      logHeaders("←", response.headers());
     }
   }
 
   private static void logRequestHeaders(
-    final HttpHeaders request)
+    final HttpRequest request)
   {
     if (LOG.isDebugEnabled()) {
-      final var headers = request.map();
-      for (final var entry : headers.entrySet()) {
-        for (final var value : entry.getValue()) {
-          LOG.debug("→ {}: {}", entry.getKey(), value);
-        }
+      logHeaders("→", request.headers());
+    }
+  }
+
+  private static void logHeaders(
+    final String direction,
+    final HttpHeaders headers)
+  {
+    for (final var entry : headers.map().entrySet()) {
+      for (final var value : entry.getValue()) {
+        LOG.debug("{} {}: {}", direction, entry.getKey(), value);
       }
     }
   }
@@ -131,19 +234,120 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
     return String.format("net.adoptopenjdk.v3.vanilla %s", packageInfo);
   }
 
-  private static InputStream streamOf(
-    final HttpResponse<InputStream> response)
+  /**
+   * Decode the response body according to its content encodings. The
+   * encodings are listed in the order in which they were applied, and so
+   * are removed in reverse order.
+   */
+
+  private InputStream streamOf(
+    final HttpResponse<?> response,
+    final InputStream received,
+    final AOV3RequestMeasurement measurement)
     throws IOException
   {
-    final var encoding =
+    final var encodings =
       response.headers()
         .firstValue("Content-Encoding")
-        .orElse("");
+        .orElse("")
+        .split(",");
+
+    final var body = measurement.received(received);
+    var stream = body;
+    try {
+      for (int index = encodings.length - 1; index >= 0; --index) {
+        stream = this.decode(encodings[index], stream);
+      }
+    } catch (final IOException e) {
+      stream.close();
+      throw e;
+    }
+    return stream == body ? body : measurement.decoded(stream);
+  }
+
+  private InputStream decode(
+    final String encoding,
+    final InputStream stream)
+    throws IOException
+  {
+    final var name = encoding.trim().toLowerCase(Locale.ROOT);
+    switch (name) {
+      case "":
+      case "identity":
+        return stream;
+      case "gzip":
+      case "x-gzip":
+        return new AOV3GZIPInputStream(stream, AOV3InflaterPool.shared());
+      default: {
+        final var decoder = this.decoders.get(name);
+        if (decoder == null) {
+          throw new IOException(
+            String.format("Unsupported content encoding: %s", encoding));
+        }
+        return decoder.decode(stream);
+      }
+    }
+  }
+
+  private HttpRequest createRequest(
+    final URI sourceURI)
+  {
+    return this.createRequest(sourceURI, Optional.empty());
+  }
+
+  private HttpRequest createRequest(
+    final URI sourceURI,
+    final Optional<AOV3HTTPCacheEntry> cached)
+  {
+    return this.createRequest(this.requestPrototype, sourceURI, cached);
+  }
+
+  private HttpRequest createRequest(
+    final HttpRequest.Builder prototype,
+    final URI sourceURI,
+    final Optional<AOV3HTTPCacheEntry> cached)
+  {
+    final var builder = prototype.copy().uri(sourceURI);
+
+    if (cached.isPresent()) {
+      final var entry = cached.get();
+      final var entityTag = entry.entityTag();
+      if (entityTag.isPresent()) {
+        builder.header("If-None-Match", entityTag.get());
+      }
+      final var lastModified = entry.lastModified();
+      if (lastModified.isPresent()) {
+        builder.header("If-Modified-Since", lastModified.get());
+      }
+    }
+
+    final var request = builder.build();
+    logRequestHeaders(request);
+    return request;
+  }
 
-    if (encoding.contains("gzip")) {
-      return new GZIPInputStream(response.body());
+  /**
+   * Translate the given exception raised by an asynchronous HTTP request
+   * into an exception that can be thrown from a completion stage.
+   */
+
+  private static CompletionException asyncFailure(
+    final URI sourceURI,
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    if (cause instanceof IOException) {
+      return new CompletionException(
+        new AOV3ExceptionHTTPRequestIOFailed(sourceURI, cause));
+    }
+    if (exception instanceof CompletionException) {
+      return (CompletionException) exception;
     }
-    return response.body();
+    return new CompletionException(exception);
   }
 
   @Override
@@ -315,45 +519,530 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
     Objects.requireNonNull(errorReceiver, "errorReceiver");
     Objects.requireNonNull(sourceURI, "sourceURI");
 
+    return this.parserForURI(
+      errorReceiver, sourceURI, AOV3RequestMeasurement.disabled());
+  }
+
+  private AOV3ResponseParserType parserForURI(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3RequestMeasurement measurement)
+    throws AOV3Exception, InterruptedException
+  {
     try {
-      final var response = this.send(sourceURI);
+      final var cached = this.cached(sourceURI);
+      final var response = this.send(sourceURI, cached, measurement);
       return this.parsers.createParser(
         errorReceiver,
         response.uri(),
-        streamOf(response)
+        this.bodyOf(sourceURI, response, response.body(), cached, measurement)
       );
     } catch (final IOException e) {
       throw new AOV3ExceptionHTTPRequestIOFailed(sourceURI, e);
     }
   }
 
+  private Optional<AOV3HTTPCacheEntry> cached(
+    final URI sourceURI)
+  {
+    if (this.cache.isEmpty()) {
+      return Optional.empty();
+    }
+
+    try {
+      return this.cache.get().find(sourceURI);
+    } catch (final Exception e) {
+      LOG.warn("{}: failed to read cached response: ", sourceURI, e);
+      return Optional.empty();
+    }
+  }
+
+  private CompletableFuture<Optional<AOV3HTTPCacheEntry>> cachedAsync(
+    final URI sourceURI)
+  {
+    if (this.cache.isEmpty()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return CompletableFuture.supplyAsync(
+      () -> this.cached(sourceURI),
+      this.parseExecutor
+    );
+  }
+
+  /**
+   * Determine the response body that should be parsed. If the server
+   * indicated that a cached response is still valid, the cached response
+   * is used. Otherwise, if the server provided validators for the response,
+   * the response is read in full and cached.
+   */
+
+  private InputStream bodyOf(
+    final URI sourceURI,
+    final HttpResponse<?> response,
+    final InputStream received,
+    final Optional<AOV3HTTPCacheEntry> cached,
+    final AOV3RequestMeasurement measurement)
+    throws IOException
+  {
+    if (response.statusCode() == 304 && cached.isPresent()) {
+      LOG.debug("{}: not modified, using cached response", sourceURI);
+      received.close();
+      return cached.get().open();
+    }
+
+    final var stream = this.streamOf(response, received, measurement);
+    if (this.cache.isEmpty()) {
+      return stream;
+    }
+
+    final var headers = response.headers();
+    final var entityTag = headers.firstValue("ETag");
+    final var lastModified = headers.firstValue("Last-Modified");
+    if (entityTag.isEmpty() && lastModified.isEmpty()) {
+      return stream;
+    }
+
+    final byte[] data;
+    try (stream) {
+      data = stream.readAllBytes();
+    }
+
+    final var entry = AOV3HTTPCacheEntry.of(entityTag, lastModified, data);
+    this.store(sourceURI, entry);
+    return entry.open();
+  }
+
+  @Override
+  public CompletableFuture<AOV3ResponseParserType> parserForURIAsync(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(sourceURI, "sourceURI");
+
+    return this.parserForURIAsync(
+      errorReceiver, sourceURI, AOV3RequestMeasurement.disabled());
+  }
+
+  private CompletableFuture<AOV3ResponseParserType> parserForURIAsync(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3RequestMeasurement measurement)
+  {
+    LOG.info("GET {}", sourceURI);
+
+    /*
+     * The body is received in full by the HTTP client before the response
+     * is handed to the parse executor, so that parsing never blocks an
+     * executor thread waiting for data from the network.
+     */
+
+    final HttpResponse.BodyHandler<byte[]> handler = info -> {
+      final var timeHeaders = measurement.headersReceived();
+      return HttpResponse.BodySubscribers.mapping(
+        HttpResponse.BodySubscribers.ofByteArray(),
+        data -> {
+          measurement.bodyReceived(timeHeaders);
+          return data;
+        });
+    };
+
+    return this.cachedAsync(sourceURI).thenCompose(cached -> {
+      return this.sendRetryingAsync(
+        this.createRequest(sourceURI, cached),
+        permit -> releasing(handler, permit),
+        1,
+        measurement)
+        .handleAsync((response, exception) -> {
+          if (exception != null) {
+            throw asyncFailure(sourceURI, exception);
+          }
+
+          try {
+            this.checkResponse(response);
+            return this.parsers.createParser(
+              errorReceiver,
+              response.uri(),
+              this.bodyOf(
+                sourceURI,
+                response,
+                new ByteArrayInputStream(response.body()),
+                cached,
+                measurement)
+            );
+          } catch (final AOV3ExceptionHTTPRequestFailed e) {
+            throw new CompletionException(e);
+          } catch (final IOException e) {
+            throw new CompletionException(
+              new AOV3ExceptionHTTPRequestIOFailed(sourceURI, e));
+          }
+        }, this.parseExecutor);
+    });
+  }
+
+  @Override
+  public <T> T parse(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseParserFunctionType<T> function)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(function, "function");
+
+    final var parsed = this.parses.run(sourceURI, () -> {
+      final var errors = new ArrayList<AOV3Error>();
+      final var measurement = this.measure(kind, sourceURI);
+      try {
+        final var parser =
+          this.parserForURI(
+            measurement.errorReceiver(errors::add), sourceURI, measurement);
+        final var value = measurement.parse(parser, function);
+        this.record(measurement, null);
+        return new Parsed(value, errors);
+      } catch (final Exception e) {
+        this.record(measurement, e);
+        throw e;
+      }
+    });
+    return parsed.deliver(errorReceiver);
+  }
+
+  @Override
+  public <T> void parseStreaming(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseStreamingParserFunctionType<T> function,
+    final Consumer<T> receiver)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(function, "function");
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var measurement = this.measure(kind, sourceURI);
+    try {
+      final var parser =
+        this.parserForURI(
+          measurement.errorReceiver(errorReceiver), sourceURI, measurement);
+      measurement.parseStreaming(parser, function, receiver);
+      this.record(measurement, null);
+    } catch (final Exception e) {
+      this.record(measurement, e);
+      throw e;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> parseAsync(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseParserFunctionType<T> function)
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(function, "function");
+
+    return this.parses.runAsync(sourceURI, () -> {
+      final var errors = new ArrayList<AOV3Error>();
+      final var measurement = this.measure(kind, sourceURI);
+      return this.parserForURIAsync(
+        measurement.errorReceiver(errors::add), sourceURI, measurement)
+        .thenApply(parser -> {
+          try {
+            return new Parsed(measurement.parse(parser, function), errors);
+          } catch (final AOV3Exception e) {
+            throw new CompletionException(e);
+          }
+        })
+        .whenComplete((parsed, exception) -> {
+          this.record(measurement, exception);
+        });
+    }).thenApply(parsed -> parsed.<T>deliver(errorReceiver));
+  }
+
+  @Override
+  public <T> Flow.Publisher<T> publish(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseFeederFunctionType<T> function)
+  {
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(sourceURI, "sourceURI");
+    Objects.requireNonNull(function, "function");
+
+    return subscriber -> {
+      Objects.requireNonNull(subscriber, "subscriber");
+
+      final var measurement = this.measure(kind, sourceURI);
+      final var feeder =
+        function.create(
+          this.parsers, measurement.errorReceiver(errorReceiver), sourceURI);
+
+      this.sendPublishing(sourceURI, measurement, feeder, subscriber);
+    };
+  }
+
+  /**
+   * Send a request whose response body is parsed by the given parser and
+   * published to the given subscriber. Only the bodies of successful
+   * responses are parsed; other responses cause the subscription to fail,
+   * unless the server indicated that a cached response is still valid, in
+   * which case the cached response is parsed instead.
+   */
+
+  private <T> void sendPublishing(
+    final URI sourceURI,
+    final AOV3RequestMeasurement measurement,
+    final AOV3ResponseFeederType<T> feeder,
+    final Flow.Subscriber<? super T> subscriber)
+  {
+    final var received = new AtomicReference<HttpHeaders>();
+    final var body =
+      new AOV3ResponseSubscriber<T>(
+        subscriber,
+        feeder,
+        measurement,
+        (data, exception) -> {
+          this.record(measurement, exception);
+          if (data != null) {
+            this.storeAsync(sourceURI, received.get(), data);
+          }
+        });
+
+    subscriber.onSubscribe(body);
+
+    LOG.info("GET {}", sourceURI);
+
+    /*
+     * The permit for a successful response is held by the subscriber until
+     * the body has been published in full, or the subscription has ended.
+     */
+
+    final Function<PermitType, HttpResponse.BodyHandler<Void>> handler =
+      permit -> info -> {
+        final var status = info.statusCode();
+        if (status < 200 || status >= 300) {
+          return releasing(HttpResponse.BodyHandlers.discarding(), permit)
+            .apply(info);
+        }
+
+        final var headers = info.headers();
+        received.set(headers);
+        return body.attach(headers, this.isCacheable(headers), permit);
+      };
+
+    this.cachedAsync(sourceURI).thenCompose(cached -> {
+      return this.sendRetryingAsync(
+        this.createRequest(this.publishingPrototype, sourceURI, cached),
+        handler,
+        1,
+        measurement)
+        .thenAccept(response -> {
+          this.published(sourceURI, body, cached, response);
+        });
+    }).whenComplete((ignored, exception) -> {
+      if (exception != null) {
+        body.fail(asyncFailure(sourceURI, exception).getCause());
+      }
+    });
+  }
+
+  private boolean isCacheable(
+    final HttpHeaders headers)
+  {
+    if (this.cache.isEmpty()) {
+      return false;
+    }
+    return headers.firstValue("ETag").isPresent()
+      || headers.firstValue("Last-Modified").isPresent();
+  }
+
+  /**
+   * Handle a response whose body was (or was not) published. A successful
+   * response has already been attached to the subscriber.
+   */
+
+  private <T> void published(
+    final URI sourceURI,
+    final AOV3ResponseSubscriber<T> body,
+    final Optional<AOV3HTTPCacheEntry> cached,
+    final HttpResponse<Void> response)
+  {
+    logReceivedHeaders(response);
+
+    final var status = response.statusCode();
+    if (status >= 200 && status < 300) {
+      return;
+    }
+    if (status == 304 && cached.isPresent()) {
+      LOG.debug("{}: not modified, using cached response", sourceURI);
+      body.attachCached(cached.get().data());
+      return;
+    }
+    body.fail(new AOV3ExceptionHTTPRequestFailed(
+      status,
+      response.uri(),
+      this.messages.requestFailed(status, response.uri()),
+      response.headers().map()
+    ));
+  }
+
+  private void storeAsync(
+    final URI sourceURI,
+    final HttpHeaders headers,
+    final byte[] data)
+  {
+    final var entry =
+      AOV3HTTPCacheEntry.of(
+        headers.firstValue("ETag"),
+        headers.firstValue("Last-Modified"),
+        data);
+
+    this.parseExecutor.execute(() -> this.store(sourceURI, entry));
+  }
+
+  private void store(
+    final URI sourceURI,
+    final AOV3HTTPCacheEntry entry)
+  {
+    try {
+      this.cache.orElseThrow().store(sourceURI, entry);
+    } catch (final Exception e) {
+      LOG.warn("{}: failed to store cached response: ", sourceURI, e);
+    }
+  }
+
   public URI uriFor(
-    final String uri)
+    final AOV3RequestKind kind,
+    final URI uri)
+    throws AOV3Exception, InterruptedException
+  {
+    return this.locations.run(uri, () -> this.sendForLocation(kind, uri));
+  }
+
+  public CompletableFuture<URI> uriForAsync(
+    final AOV3RequestKind kind,
+    final URI uri)
+  {
+    return this.locations.runAsync(
+      uri, () -> this.sendForLocationAsync(kind, uri));
+  }
+
+  private URI sendForLocation(
+    final AOV3RequestKind kind,
+    final URI sourceURI)
     throws
     InterruptedException,
     AOV3ExceptionHTTPRequestIOFailed,
     AOV3ExceptionHTTPRequestFailed
   {
-    LOG.info("GET {}", uri);
+    LOG.info("GET {}", sourceURI);
 
-    final var sourceURI = URI.create(uri);
-    final var request =
-      HttpRequest.newBuilder(sourceURI)
-        .header("Accept-Encoding", "gzip")
-        .header("User-Agent", userAgentHeader())
-        .GET()
-        .build();
+    final var request = this.createRequest(sourceURI);
+    final var measurement = this.measure(kind, sourceURI);
+
+    try {
+      final HttpResponse<Void> response;
+      try {
+        response =
+          this.sendRetrying(
+            request,
+            permit -> releasing(HttpResponse.BodyHandlers.discarding(), permit),
+            measurement);
+      } catch (final IOException e) {
+        throw new AOV3ExceptionHTTPRequestIOFailed(sourceURI, e);
+      }
+
+      final var location = this.locationOf(response);
+      measurement.located();
+      this.record(measurement, null);
+      return location;
+    } catch (final Exception e) {
+      this.record(measurement, e);
+      throw e;
+    }
+  }
+
+  private CompletableFuture<URI> sendForLocationAsync(
+    final AOV3RequestKind kind,
+    final URI sourceURI)
+  {
+    LOG.info("GET {}", sourceURI);
+
+    final var request = this.createRequest(sourceURI);
+    final var measurement = this.measure(kind, sourceURI);
+
+    return this.sendRetryingAsync(
+      request,
+      permit -> releasing(HttpResponse.BodyHandlers.discarding(), permit),
+      1,
+      measurement)
+      .handle((response, exception) -> {
+        if (exception != null) {
+          throw asyncFailure(sourceURI, exception);
+        }
+        try {
+          final var location = this.locationOf(response);
+          measurement.located();
+          return location;
+        } catch (final AOV3ExceptionHTTPRequestFailed e) {
+          throw new CompletionException(e);
+        }
+      })
+      .whenComplete((location, exception) -> {
+        this.record(measurement, exception);
+      });
+  }
+
+  private AOV3RequestMeasurement measure(
+    final AOV3RequestKind kind,
+    final URI sourceURI)
+  {
+    if (this.instrumentation.isEnabled()) {
+      return AOV3RequestMeasurement.start(kind, sourceURI);
+    }
+    return AOV3RequestMeasurement.disabled();
+  }
+
+  /**
+   * Deliver the metrics of a completed request to the instrumentation.
+   * Failures of the instrumentation are logged rather than allowed to
+   * affect the request.
+   */
+
+  private void record(
+    final AOV3RequestMeasurement measurement,
+    final Throwable exception)
+  {
+    if (!measurement.isEnabled()) {
+      return;
+    }
 
-    logRequestHeaders(request.headers());
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
 
-    final HttpResponse<Void> response;
+    measurement.completed(Optional.ofNullable(cause));
     try {
-      response =
-        this.client.send(request, HttpResponse.BodyHandlers.discarding());
-    } catch (final IOException e) {
-      throw new AOV3ExceptionHTTPRequestIOFailed(sourceURI, e);
+      this.instrumentation.onRequestCompleted(measurement);
+    } catch (final Exception e) {
+      LOG.warn("{}: instrumentation failed: ", measurement.uri(), e);
     }
+  }
 
+  private URI locationOf(
+    final HttpResponse<Void> response)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
     logReceivedHeaders(response);
 
     if (response.statusCode() == 307) {
@@ -378,7 +1067,9 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
   }
 
   private HttpResponse<InputStream> send(
-    final URI sourceURI)
+    final URI sourceURI,
+    final Optional<AOV3HTTPCacheEntry> cached,
+    final AOV3RequestMeasurement measurement)
     throws
     InterruptedException,
     AOV3ExceptionHTTPRequestFailed,
@@ -386,23 +1077,235 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
   {
     LOG.info("GET {}", sourceURI);
 
-    final var request =
-      HttpRequest.newBuilder(sourceURI)
-        .header("Accept-Encoding", "gzip")
-        .header("User-Agent", userAgentHeader())
-        .GET()
-        .build();
-
-    logRequestHeaders(request.headers());
+    final var request = this.createRequest(sourceURI, cached);
 
     final HttpResponse<InputStream> response;
     try {
       response =
-        this.client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        this.sendRetrying(
+          request,
+          permit -> info -> HttpResponse.BodySubscribers.mapping(
+            HttpResponse.BodySubscribers.ofInputStream(),
+            stream -> new AOV3PermitInputStream(stream, permit)),
+          measurement);
     } catch (final IOException e) {
       throw new AOV3ExceptionHTTPRequestIOFailed(sourceURI, e);
     }
 
+    return this.checkResponse(response);
+  }
+
+  /**
+   * Send the given request, retrying it according to the retry policy.
+   * The final response is returned regardless of its status; the final
+   * I/O error, if any, is raised.
+   *
+   * Each attempt holds a permit from the request limiter. The body handler
+   * created for an attempt is responsible for releasing the permit once
+   * the body has been received, consumed, or abandoned; the permit is
+   * released here only if the attempt fails.
+   */
+
+  private <T> HttpResponse<T> sendRetrying(
+    final HttpRequest request,
+    final Function<PermitType, HttpResponse.BodyHandler<T>> handlers,
+    final AOV3RequestMeasurement measurement)
+    throws IOException, InterruptedException
+  {
+    var attempts = 1;
+    while (true) {
+      final HttpResponse<T> response;
+      final var permit = this.acquirePermit();
+      try {
+        final var timeSent = measurement.requestSending();
+        try {
+          response = this.client.send(request, handlers.apply(permit));
+        } finally {
+          measurement.requestCompleted(timeSent);
+        }
+        measurement.responseReceived(response.statusCode());
+      } catch (final InterruptedException | RuntimeException e) {
+        permit.close();
+        throw e;
+      } catch (final IOException e) {
+        permit.close();
+        final var delay = this.retries.delayAfterIOFailure(attempts);
+        if (delay.isEmpty()) {
+          throw e;
+        }
+        logRetry(request, e.toString(), delay.get());
+        Thread.sleep(delay.get().toMillis());
+        ++attempts;
+        continue;
+      }
+
+      final var delay =
+        this.retries.delayAfterStatus(
+          attempts, response.statusCode(), response.headers());
+      if (delay.isEmpty()) {
+        return response;
+      }
+
+      discard(response);
+      logRetry(request, "status " + response.statusCode(), delay.get());
+      Thread.sleep(delay.get().toMillis());
+      ++attempts;
+    }
+  }
+
+  /**
+   * Asynchronously send the given request, retrying it according to the
+   * retry policy. Retries are scheduled after the required delay rather
+   * than blocking a thread. Permits are handled as in
+   * {@link #sendRetrying(HttpRequest, Function, AOV3RequestMeasurement)}.
+   */
+
+  private <T> CompletableFuture<HttpResponse<T>> sendRetryingAsync(
+    final HttpRequest request,
+    final Function<PermitType, HttpResponse.BodyHandler<T>> handlers,
+    final int attempts,
+    final AOV3RequestMeasurement measurement)
+  {
+    return this.acquirePermitAsync()
+      .thenCompose(permit -> {
+        final var timeSent = measurement.requestSending();
+        final CompletableFuture<HttpResponse<T>> sent;
+        try {
+          sent = this.client.sendAsync(request, handlers.apply(permit));
+        } catch (final RuntimeException e) {
+          permit.close();
+          measurement.requestCompleted(timeSent);
+          throw e;
+        }
+        return sent
+          .whenComplete((response, exception) -> {
+            if (exception != null) {
+              permit.close();
+            }
+            measurement.requestCompleted(timeSent);
+            if (response != null) {
+              measurement.responseReceived(response.statusCode());
+            }
+          });
+      })
+      .handle((response, exception) -> {
+        final Optional<Duration> delay;
+        if (exception != null) {
+          final var cause =
+            exception instanceof CompletionException
+              && exception.getCause() != null
+              ? exception.getCause()
+              : exception;
+
+          delay = cause instanceof IOException
+            ? this.retries.delayAfterIOFailure(attempts)
+            : Optional.empty();
+          if (delay.isEmpty()) {
+            return CompletableFuture.<HttpResponse<T>>failedFuture(exception);
+          }
+          logRetry(request, cause.toString(), delay.get());
+        } else {
+          delay = this.retries.delayAfterStatus(
+            attempts, response.statusCode(), response.headers());
+          if (delay.isEmpty()) {
+            return CompletableFuture.completedFuture(response);
+          }
+          discard(response);
+          logRetry(request, "status " + response.statusCode(), delay.get());
+        }
+
+        final var delayed =
+          CompletableFuture.delayedExecutor(
+            delay.get().toMillis(),
+            TimeUnit.MILLISECONDS,
+            this.parseExecutor);
+
+        return CompletableFuture.runAsync(() -> { }, delayed)
+          .thenCompose(ignored -> {
+            return this.sendRetryingAsync(
+              request, handlers, attempts + 1, measurement);
+          });
+      })
+      .thenCompose(Function.identity());
+  }
+
+  /**
+   * Wait for a permit from the request limiter, if there is one.
+   */
+
+  private PermitType acquirePermit()
+    throws InterruptedException
+  {
+    if (this.limiter.isEmpty()) {
+      return NO_PERMIT;
+    }
+
+    final var future = this.limiter.get().acquire();
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      if (!future.cancel(false)) {
+        future.join().close();
+      }
+      throw e;
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private CompletableFuture<PermitType> acquirePermitAsync()
+  {
+    return this.limiter
+      .map(AOV3RequestLimiterType::acquire)
+      .orElseGet(() -> CompletableFuture.completedFuture(NO_PERMIT));
+  }
+
+  /**
+   * @return A handler whose body subscribers release the given permit once
+   * the body has been received in full
+   */
+
+  private static <T> HttpResponse.BodyHandler<T> releasing(
+    final HttpResponse.BodyHandler<T> handler,
+    final PermitType permit)
+  {
+    return info -> HttpResponse.BodySubscribers.mapping(
+      handler.apply(info),
+      body -> {
+        permit.close();
+        return body;
+      });
+  }
+
+  private static void logRetry(
+    final HttpRequest request,
+    final String reason,
+    final Duration delay)
+  {
+    LOG.warn(
+      "{}: request failed ({}), retrying in {}ms",
+      request.uri(),
+      reason,
+      Long.valueOf(delay.toMillis()));
+  }
+
+  private static void discard(
+    final HttpResponse<?> response)
+  {
+    final var body = response.body();
+    if (body instanceof Closeable) {
+      try {
+        ((Closeable) body).close();
+      } catch (final IOException e) {
+        LOG.debug("{}: failed to close response: ", response.uri(), e);
+      }
+    }
+  }
+
+  private <T> HttpResponse<T> checkResponse(
+    final HttpResponse<T> response)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
     logReceivedHeaders(response);
     if (response.statusCode() >= 400) {
       throw new AOV3ExceptionHTTPRequestFailed(
@@ -421,4 +1324,46 @@ public final class AOV3Client implements AOV3ClientType, AOV3ClientInternalType
   {
     return this.baseURI;
   }
+
+  /**
+   * A parsed value shared between coalesced requests, along with the errors
+   * that were encountered whilst parsing it.
+   */
+
+  private static final class Parsed
+  {
+    private final Object value;
+    private final List<AOV3Error> errors;
+
+    Parsed(
+      final Object inValue,
+      final List<AOV3Error> inErrors)
+    {
+      this.value = freeze(inValue);
+      this.errors = List.copyOf(inErrors);
+    }
+
+    /**
+     * A parsed value is shared by every caller of a coalesced request, so
+     * lists are delivered as immutable lists, as they are by the memoizing
+     * client.
+     */
+
+    private static Object freeze(
+      final Object value)
+    {
+      if (value instanceof List) {
+        return List.copyOf((List<?>) value);
+      }
+      return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T deliver(
+      final Consumer<AOV3Error> errorReceiver)
+    {
+      this.errors.forEach(errorReceiver);
+      return (T) this.value;
+    }
+  }
 }
@@ -18,24 +18,133 @@ package net.adoptopenjdk.v3.vanilla.internal;
 
 import net.adoptopenjdk.v3.api.AOV3Error;
 import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestKind;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 public interface AOV3ClientInternalType
 {
-  default AOV3ResponseParserType parserFor(
+  AOV3ResponseParserType parserForURI(
+    Consumer<AOV3Error> errorReceiver,
+    URI sourceURI)
+    throws AOV3Exception, InterruptedException;
+
+  /**
+   * Fetch the given URI and parse the response.
+   *
+   * @param kind          The kind of request
+   * @param errorReceiver The error receiver
+   * @param sourceURI     The source URI
+   * @param function      The parse function
+   * @param <T>           The type of returned values
+   *
+   * @return A parsed value
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the calling thread is interrupted
+   */
+
+  default <T> T parse(
+    final AOV3RequestKind kind,
     final Consumer<AOV3Error> errorReceiver,
-    final String sourceURI)
+    final URI sourceURI,
+    final AOV3ResponseParserFunctionType<T> function)
     throws AOV3Exception, InterruptedException
   {
-    return this.parserForURI(errorReceiver, URI.create(sourceURI));
+    return function.parse(this.parserForURI(errorReceiver, sourceURI));
   }
 
-  AOV3ResponseParserType parserForURI(
+  /**
+   * Fetch the given URI and parse the response, delivering each parsed
+   * value to the given receiver as it is parsed.
+   *
+   * @param kind          The kind of request
+   * @param errorReceiver The error receiver
+   * @param sourceURI     The source URI
+   * @param function      The parse function
+   * @param receiver      The receiver of parsed values
+   * @param <T>           The type of parsed values
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the calling thread is interrupted
+   */
+
+  default <T> void parseStreaming(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseStreamingParserFunctionType<T> function,
+    final Consumer<T> receiver)
+    throws AOV3Exception, InterruptedException
+  {
+    function.parse(this.parserForURI(errorReceiver, sourceURI), receiver);
+  }
+
+  /**
+   * Asynchronously fetch the given URI and create a parser for the response.
+   * The returned future is completed on the client's parsing executor.
+   *
+   * @param errorReceiver The error receiver
+   * @param sourceURI     The source URI
+   *
+   * @return A future parser
+   */
+
+  CompletableFuture<AOV3ResponseParserType> parserForURIAsync(
     Consumer<AOV3Error> errorReceiver,
-    URI sourceURI)
-    throws AOV3Exception, InterruptedException;
+    URI sourceURI);
+
+  /**
+   * Asynchronously fetch the given URI and parse the response.
+   *
+   * @param kind          The kind of request
+   * @param errorReceiver The error receiver
+   * @param sourceURI     The source URI
+   * @param function      The parse function
+   * @param <T>           The type of returned values
+   *
+   * @return A future parsed value
+   */
+
+  default <T> CompletableFuture<T> parseAsync(
+    final AOV3RequestKind kind,
+    final Consumer<AOV3Error> errorReceiver,
+    final URI sourceURI,
+    final AOV3ResponseParserFunctionType<T> function)
+  {
+    return this.parserForURIAsync(errorReceiver, sourceURI)
+      .thenApply(parser -> {
+        try {
+          return function.parse(parser);
+        } catch (final AOV3Exception e) {
+          throw new CompletionException(e);
+        }
+      });
+  }
+
+  /**
+   * Create a publisher that fetches the given URI and parses the response
+   * without blocking. Each subscription sends a new request, and each
+   * element is published as soon as it has been received and parsed.
+   *
+   * @param kind          The kind of request
+   * @param errorReceiver The error receiver
+   * @param sourceURI     The source URI
+   * @param function      The function that creates a non-blocking parser
+   * @param <T>           The type of published elements
+   *
+   * @return A publisher of parsed elements
+   */
+
+  <T> Flow.Publisher<T> publish(
+    AOV3RequestKind kind,
+    Consumer<AOV3Error> errorReceiver,
+    URI sourceURI,
+    AOV3ResponseFeederFunctionType<T> function);
 
   String baseURI();
 }
@@ -61,23 +61,8 @@ final class AOV3Deserializers extends SimpleDeserializers
     return Set.of(
       "java.lang.String",
       "java.math.BigInteger",
-      "java.net.URI",
-      "java.util.List<java.lang.String>",
       "java.util.List<java.math.BigInteger>",
-      "java.util.List<net.adoptopenjdk.v3.vanilla.internal.AOV3AST$AOV3BinaryJSON>",
-      "java.util.List<net.adoptopenjdk.v3.vanilla.internal.AOV3AST$AOV3ListBinaryAssetViewJSON>",
-      "java.util.List<net.adoptopenjdk.v3.vanilla.internal.AOV3AST$AOV3ReleaseJSON>",
-      "java.util.List<net.adoptopenjdk.v3.vanilla.internal.AOV3AST$AOV3ReleaseVersionJSON>",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3AvailableReleasesJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3BinaryJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3InstallerJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ListBinaryAssetViewJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3PackageJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseNamesJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseVersionJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseVersionsJSON",
-      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3SourceJSON"
+      "net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3AvailableReleasesJSON"
     );
   }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.adoptopenjdk.v3.api.AOV3HasNameTextType;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A table that resolves enum constants directly from a parser's character
+ * buffer by comparing against each constant's name text. The enumerations
+ * in the API are small enough that a linear scan is faster than hashing.
+ *
+ * @param <E> The type of enum constants
+ */
+
+final class AOV3EnumTable<E extends Enum<E> & AOV3HasNameTextType>
+{
+  private final E[] values;
+  private final char[][] names;
+  private final Function<String, E> parse;
+
+  private AOV3EnumTable(
+    final E[] inValues,
+    final Function<String, E> inParse)
+  {
+    this.values =
+      Objects.requireNonNull(inValues, "values");
+    this.parse =
+      Objects.requireNonNull(inParse, "parse");
+    this.names = new char[inValues.length][];
+    for (int index = 0; index < inValues.length; ++index) {
+      this.names[index] = inValues[index].nameText().toCharArray();
+    }
+  }
+
+  /**
+   * Create a table.
+   *
+   * @param type  The enum type
+   * @param parse The function that parses a constant from its name text
+   * @param <E>   The type of enum constants
+   *
+   * @return A table of all of the constants of {@code type}
+   */
+
+  static <E extends Enum<E> & AOV3HasNameTextType> AOV3EnumTable<E> create(
+    final Class<E> type,
+    final Function<String, E> parse)
+  {
+    return new AOV3EnumTable<>(type.getEnumConstants(), parse);
+  }
+
+  /**
+   * Look up the constant named by the parser's current string token.
+   *
+   * @param parser The parser
+   *
+   * @return The named constant, or {@code null} if the current token is not
+   * a string or does not name a constant
+   *
+   * @throws IOException On I/O errors
+   */
+
+  E lookup(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() != JsonToken.VALUE_STRING) {
+      return null;
+    }
+
+    final var chars = parser.getTextCharacters();
+    final var offset = parser.getTextOffset();
+    final var length = parser.getTextLength();
+    for (int index = 0; index < this.names.length; ++index) {
+      if (matches(this.names[index], chars, offset, length)) {
+        return this.values[index];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Resolve a constant that may have failed to match during decoding. If
+   * {@code value} is {@code null}, the raw text is parsed so that missing
+   * and unrecognized values raise the same exceptions as they would from
+   * the enum's own parse method.
+   *
+   * @param value The value found by {@link #lookup(JsonParser)}
+   * @param text  The raw text of the value, if it was not found
+   * @param field The name of the field, for error messages
+   *
+   * @return The resolved constant
+   */
+
+  E resolve(
+    final E value,
+    final String text,
+    final String field)
+  {
+    if (value != null) {
+      return value;
+    }
+    return this.parse.apply(Objects.requireNonNull(text, field));
+  }
+
+  private static boolean matches(
+    final char[] name,
+    final char[] chars,
+    final int offset,
+    final int length)
+  {
+    if (name.length != length) {
+      return false;
+    }
+    for (int index = 0; index < length; ++index) {
+      if (name[index] != chars[offset + index]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.ZipException;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * A non-blocking gzip decoder using an inflater taken from a pool. The
+ * inflater is returned to the pool when the decoder is closed.
+ *
+ * Compressed data is pushed into the decoder as it arrives, and
+ * decompressed data is pushed to a receiver as soon as it is available.
+ * The checksum and size recorded in the trailer of each member are
+ * verified, concatenated members are decoded in turn, and any data
+ * following the last member that is not a gzip header is ignored.
+ *
+ * This is the only gzip decoder in the client: {@link AOV3GZIPInputStream}
+ * reads from a stream by pushing data into a decoder of this type.
+ */
+
+final class AOV3GZIPFeeder implements AutoCloseable
+{
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private final AOV3InflaterPool pool;
+  private final CRC32 crc;
+  private final ByteBuffer trailer;
+  private AOV3InflaterPool.Entry entry;
+  private State state;
+  private int flags;
+  private int count;
+  private int value;
+  private int produced;
+  private boolean member;
+
+  AOV3GZIPFeeder(
+    final AOV3InflaterPool inPool)
+  {
+    this.pool = Objects.requireNonNull(inPool, "pool");
+    this.crc = new CRC32();
+    this.trailer = ByteBuffer.allocate(8).order(LITTLE_ENDIAN);
+    this.entry = this.pool.acquire();
+    this.state = State.MAGIC0;
+  }
+
+  /**
+   * A receiver of decompressed data.
+   *
+   * @param <E> The type of exceptions raised by the receiver
+   */
+
+  @FunctionalInterface
+  interface ReceiverType<E extends Exception>
+  {
+    /**
+     * Receive decompressed data. The contents of the array are only valid
+     * until data is next pushed into the decoder.
+     *
+     * @param data   The data
+     * @param offset The offset of the first byte in {@code data}
+     * @param length The number of bytes
+     *
+     * @throws E On errors
+     */
+
+    void receive(
+      byte[] data,
+      int offset,
+      int length)
+      throws E;
+  }
+
+  private enum State
+  {
+    MAGIC0,
+    MAGIC1,
+    METHOD,
+    FLAGS,
+    FIXED,
+    EXTRA_LENGTH,
+    EXTRA,
+    NAME,
+    COMMENT,
+    HEADER_CRC,
+    BODY,
+    TRAILER,
+    DONE
+  }
+
+  /**
+   * Push compressed data into the decoder. The data is consumed in full
+   * before this method returns.
+   *
+   * @param data     The data
+   * @param offset   The offset of the first byte in {@code data}
+   * @param length   The number of bytes
+   * @param receiver The receiver of decompressed data
+   * @param <E>      The type of exceptions raised by the receiver
+   *
+   * @throws IOException If the data is not valid gzip data
+   * @throws E           If the receiver raises an exception
+   */
+
+  <E extends Exception> void feed(
+    final byte[] data,
+    final int offset,
+    final int length,
+    final ReceiverType<E> receiver)
+    throws IOException, E
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+
+    final var limit = offset + length;
+    var position = offset;
+    do {
+      position += this.decode(data, position, limit - position, receiver);
+    } while (position < limit || this.produced > 0);
+  }
+
+  /**
+   * Push compressed data into the decoder, stopping as soon as a single
+   * block of decompressed data has been passed to the receiver. The
+   * decoder may hold back decompressed data even when all of the given
+   * data has been consumed, so a caller that has no more data to push
+   * should call this method with an empty range until no block is
+   * produced.
+   *
+   * @param data     The data
+   * @param offset   The offset of the first byte in {@code data}
+   * @param length   The number of bytes
+   * @param receiver The receiver of decompressed data
+   * @param <E>      The type of exceptions raised by the receiver
+   *
+   * @return The number of bytes consumed
+   *
+   * @throws IOException If the data is not valid gzip data
+   * @throws E           If the receiver raises an exception
+   */
+
+  <E extends Exception> int decode(
+    final byte[] data,
+    final int offset,
+    final int length,
+    final ReceiverType<E> receiver)
+    throws IOException, E
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+    Objects.requireNonNull(receiver, "receiver");
+    this.ensureOpen();
+
+    this.produced = 0;
+    final var limit = offset + length;
+    var position = offset;
+    while (true) {
+      switch (this.state) {
+        case DONE:
+          return length;
+        case BODY:
+          position = this.inflate(data, position, limit, receiver);
+          if (this.state == State.BODY) {
+            return position - offset;
+          }
+          break;
+        default:
+          if (position == limit) {
+            return length;
+          }
+          this.header(data[position] & 0xff);
+          ++position;
+          break;
+      }
+    }
+  }
+
+  /**
+   * Indicate that no more data will be pushed into the decoder.
+   *
+   * @throws IOException If the data ended before the end of a member
+   */
+
+  void finish()
+    throws IOException
+  {
+    this.ensureOpen();
+
+    if (this.state == State.DONE || this.member && this.isHeader()) {
+      return;
+    }
+    if (this.state == State.BODY) {
+      throw new EOFException("Unexpected end of ZLIB input stream");
+    }
+    throw new EOFException("Unexpected end of gzip data");
+  }
+
+  private boolean isHeader()
+  {
+    return this.state != State.BODY && this.state != State.TRAILER;
+  }
+
+  private void ensureOpen()
+    throws IOException
+  {
+    if (this.entry == null) {
+      throw new IOException("Decoder closed");
+    }
+  }
+
+  /**
+   * Inflate at most one block of data.
+   *
+   * @return The position of the first byte that was not consumed
+   */
+
+  private <E extends Exception> int inflate(
+    final byte[] data,
+    final int position,
+    final int limit,
+    final ReceiverType<E> receiver)
+    throws IOException, E
+  {
+    final var inflater = this.entry.inflater();
+    final var output = this.entry.buffer();
+    inflater.setInput(data, position, limit - position);
+
+    try {
+      this.produced = inflater.inflate(output, 0, output.length);
+    } catch (final DataFormatException e) {
+      throw new ZipException(
+        Objects.requireNonNullElse(e.getMessage(), "Invalid ZLIB data"));
+    }
+
+    if (this.produced > 0) {
+      this.crc.update(output, 0, this.produced);
+      receiver.receive(output, 0, this.produced);
+      return limit - inflater.getRemaining();
+    }
+
+    if (inflater.finished()) {
+      this.state = State.TRAILER;
+      this.count = 0;
+
+      /*
+       * Any input that the inflater did not consume belongs to the
+       * trailer.
+       */
+
+      return limit - inflater.getRemaining();
+    }
+    if (inflater.needsDictionary()) {
+      throw new ZipException("ZLIB dictionary missing");
+    }
+    return limit;
+  }
+
+  private void header(
+    final int octet)
+    throws IOException
+  {
+    switch (this.state) {
+      case MAGIC0:
+      case MAGIC1:
+      case METHOD:
+      case FLAGS:
+        this.signature(octet);
+        return;
+      case FIXED:
+      case EXTRA_LENGTH:
+      case EXTRA:
+      case NAME:
+      case COMMENT:
+      case HEADER_CRC:
+        this.field(octet);
+        return;
+      case TRAILER:
+        this.trailerOctet(octet);
+        return;
+      case BODY:
+      case DONE:
+        break;
+    }
+    throw new IllegalStateException(
+      String.format("Unexpected state: %s", this.state));
+  }
+
+  private void signature(
+    final int octet)
+    throws ZipException
+  {
+    switch (this.state) {
+      case MAGIC0: {
+        if (octet != 0x1f) {
+          this.reject("Not in GZIP format");
+          return;
+        }
+        this.state = State.MAGIC1;
+        return;
+      }
+      case MAGIC1: {
+        if (octet != 0x8b) {
+          this.reject("Not in GZIP format");
+          return;
+        }
+        this.state = State.METHOD;
+        return;
+      }
+      case METHOD: {
+        if (octet != 8) {
+          this.reject("Unsupported compression method");
+          return;
+        }
+        this.state = State.FLAGS;
+        return;
+      }
+      case FLAGS: {
+        this.flags = octet;
+
+        /*
+         * Skip the modification time, the extra flags, and the OS.
+         */
+
+        this.state = State.FIXED;
+        this.count = 6;
+        return;
+      }
+      default:
+        throw new IllegalStateException(
+          String.format("Unexpected state: %s", this.state));
+    }
+  }
+
+  private void field(
+    final int octet)
+  {
+    switch (this.state) {
+      case FIXED: {
+        if (--this.count == 0) {
+          this.startField(State.EXTRA_LENGTH);
+        }
+        return;
+      }
+      case EXTRA_LENGTH: {
+        this.value |= octet << (8 * this.count);
+        if (++this.count == 2) {
+          if (this.value == 0) {
+            this.startField(State.NAME);
+          } else {
+            this.state = State.EXTRA;
+            this.count = this.value;
+          }
+        }
+        return;
+      }
+      case EXTRA: {
+        if (--this.count == 0) {
+          this.startField(State.NAME);
+        }
+        return;
+      }
+      case NAME: {
+        if (octet == 0) {
+          this.startField(State.COMMENT);
+        }
+        return;
+      }
+      case COMMENT: {
+        if (octet == 0) {
+          this.startField(State.HEADER_CRC);
+        }
+        return;
+      }
+      case HEADER_CRC: {
+        if (--this.count == 0) {
+          this.startBody();
+        }
+        return;
+      }
+      default:
+        throw new IllegalStateException(
+          String.format("Unexpected state: %s", this.state));
+    }
+  }
+
+  private void trailerOctet(
+    final int octet)
+    throws ZipException
+  {
+    this.trailer.put(this.count, (byte) octet);
+    if (++this.count == this.trailer.capacity()) {
+      this.checkTrailer();
+      this.member = true;
+      this.state = State.MAGIC0;
+    }
+  }
+
+  /**
+   * Reject an invalid header. An invalid header following a complete member
+   * is treated as the end of the data.
+   */
+
+  private void reject(
+    final String message)
+    throws ZipException
+  {
+    if (this.member) {
+      this.state = State.DONE;
+      return;
+    }
+    throw new ZipException(message);
+  }
+
+  /**
+   * Start reading the first optional header field, at or after the given
+   * field, that is present in the header.
+   */
+
+  private void startField(
+    final State field)
+  {
+    switch (field) {
+      case EXTRA_LENGTH: {
+        if ((this.flags & FEXTRA) == FEXTRA) {
+          this.state = State.EXTRA_LENGTH;
+          this.count = 0;
+          this.value = 0;
+          return;
+        }
+        this.startField(State.NAME);
+        return;
+      }
+      case NAME: {
+        if ((this.flags & FNAME) == FNAME) {
+          this.state = State.NAME;
+          return;
+        }
+        this.startField(State.COMMENT);
+        return;
+      }
+      case COMMENT: {
+        if ((this.flags & FCOMMENT) == FCOMMENT) {
+          this.state = State.COMMENT;
+          return;
+        }
+        this.startField(State.HEADER_CRC);
+        return;
+      }
+      case HEADER_CRC: {
+        if ((this.flags & FHCRC) == FHCRC) {
+          this.state = State.HEADER_CRC;
+          this.count = 2;
+          return;
+        }
+        this.startBody();
+        return;
+      }
+      default:
+        throw new IllegalStateException(
+          String.format("Unexpected state: %s", this.state));
+    }
+  }
+
+  private void startBody()
+  {
+    this.crc.reset();
+    this.entry.inflater().reset();
+    this.state = State.BODY;
+  }
+
+  private long trailerInt(
+    final int offset)
+  {
+    return Integer.toUnsignedLong(this.trailer.getInt(offset));
+  }
+
+  private void checkTrailer()
+    throws ZipException
+  {
+    final var inflater = this.entry.inflater();
+    if (this.trailerInt(0) != this.crc.getValue()
+      || this.trailerInt(4) != (inflater.getBytesWritten() & 0xffffffffL)) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    final var current = this.entry;
+    if (current != null) {
+      this.entry = null;
+      this.pool.release(current);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * A stream that decompresses gzip data using an inflater taken from a pool.
+ * The inflater is returned to the pool when the stream is closed.
+ *
+ * The stream reads compressed data from its source and pushes it into an
+ * {@link AOV3GZIPFeeder}, which does all of the decoding. Like
+ * {@link java.util.zip.GZIPInputStream}, the header is read when the stream
+ * is created, the checksum and size recorded in the trailer of each member
+ * are verified, concatenated members are decoded in turn, and any data
+ * following the last member that is not a gzip header is ignored.
+ */
+
+public final class AOV3GZIPInputStream extends InputStream
+{
+  private static final int INPUT_SIZE = 8192;
+
+  private final InputStream source;
+  private final AOV3GZIPFeeder decoder;
+  private final byte[] input;
+  private final byte[] single;
+  private int inputPosition;
+  private int inputLimit;
+  private byte[] block;
+  private int blockPosition;
+  private int blockLimit;
+  private boolean eof;
+  private boolean closed;
+
+  /**
+   * Create a stream, reading the gzip header from the given source.
+   *
+   * @param inSource The compressed data
+   * @param inPool   The pool from which an inflater is taken
+   *
+   * @throws IOException On I/O errors, or if the data is not in gzip format
+   */
+
+  public AOV3GZIPInputStream(
+    final InputStream inSource,
+    final AOV3InflaterPool inPool)
+    throws IOException
+  {
+    this.source = Objects.requireNonNull(inSource, "source");
+    this.decoder = new AOV3GZIPFeeder(Objects.requireNonNull(inPool, "pool"));
+    this.input = new byte[INPUT_SIZE];
+    this.single = new byte[1];
+
+    try {
+      this.fill();
+    } catch (final IOException e) {
+      this.close();
+      throw e;
+    }
+  }
+
+  private void receive(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    this.block = data;
+    this.blockPosition = offset;
+    this.blockLimit = offset + length;
+  }
+
+  /**
+   * Decode data until a block of decompressed data is available, or the
+   * end of the compressed data has been reached.
+   */
+
+  private void fill()
+    throws IOException
+  {
+    while (this.blockPosition == this.blockLimit && !this.eof) {
+      this.inputPosition +=
+        this.decoder.decode(
+          this.input,
+          this.inputPosition,
+          this.inputLimit - this.inputPosition,
+          this::receive);
+
+      if (this.blockPosition < this.blockLimit
+        || this.inputPosition < this.inputLimit) {
+        continue;
+      }
+
+      final var count = this.source.read(this.input, 0, this.input.length);
+      if (count <= 0) {
+        this.decoder.finish();
+        this.eof = true;
+        return;
+      }
+      this.inputPosition = 0;
+      this.inputLimit = count;
+    }
+  }
+
+  private void ensureOpen()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  @Override
+  public int read()
+    throws IOException
+  {
+    final var count = this.read(this.single, 0, 1);
+    return count == -1 ? -1 : this.single[0] & 0xff;
+  }
+
+  @Override
+  public int read(
+    final byte[] output,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    this.ensureOpen();
+    Objects.checkFromIndexSize(offset, length, output.length);
+
+    if (length == 0) {
+      return 0;
+    }
+
+    this.fill();
+    if (this.blockPosition == this.blockLimit) {
+      return -1;
+    }
+
+    final var count = Math.min(length, this.blockLimit - this.blockPosition);
+    System.arraycopy(this.block, this.blockPosition, output, offset, count);
+    this.blockPosition += count;
+    return count;
+  }
+
+  @Override
+  public int available()
+    throws IOException
+  {
+    this.ensureOpen();
+    return this.blockLimit - this.blockPosition;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.closed = true;
+      this.decoder.close();
+      this.source.close();
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheEntry;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A response cache that stores one file per URI in a directory.
+ */
+
+public final class AOV3HTTPCacheDirectory implements AOV3HTTPCacheType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3HTTPCacheDirectory.class);
+
+  private static final int MAGIC = 0x414f5633;
+  private static final int VERSION = 1;
+
+  private final Path directory;
+
+  private AOV3HTTPCacheDirectory(
+    final Path inDirectory)
+  {
+    this.directory =
+      Objects.requireNonNull(inDirectory, "directory");
+  }
+
+  /**
+   * Create a directory cache.
+   *
+   * @param directory The cache directory
+   *
+   * @return A cache
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static AOV3HTTPCacheType create(
+    final Path directory)
+    throws IOException
+  {
+    final var absolute = directory.toAbsolutePath();
+    Files.createDirectories(absolute);
+    return new AOV3HTTPCacheDirectory(absolute);
+  }
+
+  private static String hashOf(
+    final URI uri)
+  {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      final var hash = digest.digest(uri.toString().getBytes(UTF_8));
+      final var text = new StringBuilder(hash.length * 2);
+      for (final var b : hash) {
+        text.append(String.format("%02x", Integer.valueOf(b & 0xff)));
+      }
+      return text.toString();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Optional<String> readOptional(
+    final DataInputStream input)
+    throws IOException
+  {
+    if (input.readBoolean()) {
+      return Optional.of(input.readUTF());
+    }
+    return Optional.empty();
+  }
+
+  private static void writeOptional(
+    final DataOutputStream output,
+    final Optional<String> value)
+    throws IOException
+  {
+    output.writeBoolean(value.isPresent());
+    if (value.isPresent()) {
+      output.writeUTF(value.get());
+    }
+  }
+
+  private Path fileFor(
+    final URI uri)
+  {
+    return this.directory.resolve(hashOf(uri) + ".cache");
+  }
+
+  @Override
+  public Optional<AOV3HTTPCacheEntry> find(
+    final URI uri)
+    throws IOException
+  {
+    Objects.requireNonNull(uri, "uri");
+
+    final var file = this.fileFor(uri);
+    try (var input = new DataInputStream(
+      new BufferedInputStream(Files.newInputStream(file)))) {
+
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        LOG.warn("{}: ignoring unrecognized cache file", file);
+        return Optional.empty();
+      }
+
+      final var storedURI = input.readUTF();
+      if (!Objects.equals(storedURI, uri.toString())) {
+        return Optional.empty();
+      }
+
+      final var entityTag = readOptional(input);
+      final var lastModified = readOptional(input);
+      final var size = input.readInt();
+      final var data = new byte[size];
+      input.readFully(data);
+      return Optional.of(AOV3HTTPCacheEntry.of(entityTag, lastModified, data));
+    } catch (final NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void store(
+    final URI uri,
+    final AOV3HTTPCacheEntry entry)
+    throws IOException
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(entry, "entry");
+
+    final var file = this.fileFor(uri);
+    final var fileTmp =
+      Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+
+    try {
+      try (var output = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(fileTmp)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeUTF(uri.toString());
+        writeOptional(output, entry.entityTag());
+        writeOptional(output, entry.lastModified());
+        output.writeInt(entry.size());
+        try (var data = entry.open()) {
+          data.transferTo(output);
+        }
+      }
+      Files.move(fileTmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(fileTmp);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheEntry;
+import net.adoptopenjdk.v3.vanilla.AOV3HTTPCacheType;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An in-memory LRU response cache.
+ */
+
+public final class AOV3HTTPCacheMemory implements AOV3HTTPCacheType
+{
+  private final LinkedHashMap<URI, AOV3HTTPCacheEntry> entries;
+
+  private AOV3HTTPCacheMemory(
+    final int maximumEntries)
+  {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(
+        final Map.Entry<URI, AOV3HTTPCacheEntry> eldest)
+      {
+        return this.size() > maximumEntries;
+      }
+    };
+  }
+
+  /**
+   * Create an in-memory cache.
+   *
+   * @param maximumEntries The maximum number of cached responses
+   *
+   * @return A cache
+   */
+
+  public static AOV3HTTPCacheType create(
+    final int maximumEntries)
+  {
+    if (maximumEntries <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum entries %d must be positive",
+          Integer.valueOf(maximumEntries)));
+    }
+    return new AOV3HTTPCacheMemory(maximumEntries);
+  }
+
+  @Override
+  public Optional<AOV3HTTPCacheEntry> find(
+    final URI uri)
+  {
+    Objects.requireNonNull(uri, "uri");
+
+    synchronized (this.entries) {
+      return Optional.ofNullable(this.entries.get(uri));
+    }
+  }
+
+  @Override
+  public void store(
+    final URI uri,
+    final AOV3HTTPCacheEntry entry)
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(entry, "entry");
+
+    synchronized (this.entries) {
+      this.entries.put(uri, entry);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded pool of inflaters, and the input buffers used to feed them.
+ *
+ * Each {@link Inflater} holds native memory that is only released when the
+ * inflater is ended (or, eventually, garbage collected). Reusing inflaters
+ * between responses avoids allocating and releasing this memory for every
+ * request. Inflaters returned to a full pool are ended immediately.
+ */
+
+public final class AOV3InflaterPool
+{
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final AOV3InflaterPool SHARED =
+    new AOV3InflaterPool(
+      Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+  private final ArrayBlockingQueue<Entry> entries;
+
+  private AOV3InflaterPool(
+    final int capacity)
+  {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        String.format("Capacity %d must be positive", capacity));
+    }
+    this.entries = new ArrayBlockingQueue<>(capacity);
+  }
+
+  /**
+   * @param capacity The maximum number of idle inflaters
+   *
+   * @return A new pool
+   */
+
+  public static AOV3InflaterPool create(
+    final int capacity)
+  {
+    return new AOV3InflaterPool(capacity);
+  }
+
+  /**
+   * @return The pool shared by all clients
+   */
+
+  public static AOV3InflaterPool shared()
+  {
+    return SHARED;
+  }
+
+  /**
+   * @return The number of idle inflaters in the pool
+   */
+
+  public int idle()
+  {
+    return this.entries.size();
+  }
+
+  /**
+   * Take an inflater from the pool, creating a new one if the pool is
+   * empty. The inflater expects raw deflate data without a zlib wrapper.
+   *
+   * @return An inflater and its input buffer
+   */
+
+  Entry acquire()
+  {
+    final var entry = this.entries.poll();
+    if (entry != null) {
+      return entry;
+    }
+    return new Entry(new Inflater(true), new byte[BUFFER_SIZE]);
+  }
+
+  /**
+   * Return an inflater to the pool.
+   *
+   * @param entry The inflater and its input buffer
+   */
+
+  void release(
+    final Entry entry)
+  {
+    entry.inflater.reset();
+    if (!this.entries.offer(entry)) {
+      entry.inflater.end();
+    }
+  }
+
+  static final class Entry
+  {
+    private final Inflater inflater;
+    private final byte[] buffer;
+
+    Entry(
+      final Inflater inInflater,
+      final byte[] inBuffer)
+    {
+      this.inflater = inInflater;
+      this.buffer = inBuffer;
+    }
+
+    Inflater inflater()
+    {
+      return this.inflater;
+    }
+
+    byte[] buffer()
+    {
+      return this.buffer;
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3VersionBound;
+import net.adoptopenjdk.v3.api.AOV3VersionDataType;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import static net.adoptopenjdk.v3.api.AOV3SortOrder.DESCENDING;
+
+/**
+ * Functions shared by the clients that answer API calls locally rather than
+ * over HTTP. The behaviour mirrors that of the API server: results are
+ * sorted in descending order by default, the default project is
+ * {@code jdk}, and queries that select nothing fail with a 404 status.
+ */
+
+final class AOV3LocalQueries
+{
+  /**
+   * The project used when a query does not specify one.
+   */
+
+  static final String DEFAULT_PROJECT = "jdk";
+
+  /**
+   * The order in which releases are stored: ascending by version, and then
+   * by release time.
+   */
+
+  static final Comparator<AOV3ReleaseType> RELEASE_ORDER =
+    Comparator.<AOV3ReleaseType, AOV3VersionDataType>comparing(
+      AOV3ReleaseType::versionData,
+      AOV3VersionDataType::compareNumerically)
+      .thenComparing(AOV3ReleaseType::timestamp)
+      .thenComparing(AOV3ReleaseType::id);
+
+  private AOV3LocalQueries()
+  {
+
+  }
+
+  /**
+   * @param version A feature version
+   *
+   * @return The version as an {@code int}, or a value that matches no
+   * release if the version is out of range
+   */
+
+  static int versionOrNone(
+    final BigInteger version)
+  {
+    if (version.bitLength() >= Integer.SIZE) {
+      return Integer.MIN_VALUE;
+    }
+    return version.intValue();
+  }
+
+  /**
+   * Select a page of results by visiting {@code count} elements, stored in
+   * ascending order, in the requested order. The selector returns
+   * {@code null} for elements that are not part of the result.
+   *
+   * @param page      The page number
+   * @param pageSize  The page size
+   * @param sortOrder The sort order
+   * @param count     The number of elements
+   * @param selector  The selector
+   * @param failures  A function that produces failures for status codes
+   * @param <T>       The type of results
+   *
+   * @return The page
+   *
+   * @throws AOV3ExceptionHTTPRequestFailed If the page is empty or invalid
+   */
+
+  static <T> List<T> page(
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3SortOrder> sortOrder,
+    final int count,
+    final IntFunction<T> selector,
+    final IntFunction<AOV3ExceptionHTTPRequestFailed> failures)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
+    if (page.signum() < 0 || pageSize.signum() <= 0) {
+      throw failures.apply(400);
+    }
+
+    final var skipExact = page.multiply(pageSize);
+    if (skipExact.bitLength() >= Integer.SIZE) {
+      throw failures.apply(404);
+    }
+
+    int skip = skipExact.intValue();
+    final int size;
+    if (pageSize.bitLength() >= Integer.SIZE) {
+      size = Integer.MAX_VALUE;
+    } else {
+      size = pageSize.intValue();
+    }
+
+    final var descending = sortOrder.orElse(DESCENDING) == DESCENDING;
+    final var results = new ArrayList<T>();
+    for (int index = 0; index < count && results.size() < size; ++index) {
+      final var selected =
+        selector.apply(descending ? count - 1 - index : index);
+      if (selected == null) {
+        continue;
+      }
+      if (skip > 0) {
+        --skip;
+        continue;
+      }
+      results.add(selected);
+    }
+    return nonEmpty(results, failures);
+  }
+
+  /**
+   * @param results  The results
+   * @param failures A function that produces failures for status codes
+   * @param <T>      The type of results
+   *
+   * @return {@code results}
+   *
+   * @throws AOV3ExceptionHTTPRequestFailed If the results are empty
+   */
+
+  static <T> List<T> nonEmpty(
+    final List<T> results,
+    final IntFunction<AOV3ExceptionHTTPRequestFailed> failures)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
+    if (results.isEmpty()) {
+      throw failures.apply(404);
+    }
+    return results;
+  }
+
+  /**
+   * A filter over numeric versions derived from an optional version range.
+   *
+   * Bounds such as {@code 11.0.2+9} are compared component-wise against the
+   * major, minor, security and build numbers of each release; missing
+   * components are zero. This approximates the range semantics of the API
+   * server, which compares complete version strings.
+   */
+
+  static final class VersionRangeFilter
+  {
+    private final AOV3VersionRange range;
+    private final int[] lower;
+    private final int[] upper;
+
+    private VersionRangeFilter(
+      final AOV3VersionRange inRange)
+    {
+      this.range = inRange;
+      this.lower = inRange == null ? null : boundOf(inRange.lower());
+      this.upper = inRange == null ? null : boundOf(inRange.upper());
+    }
+
+    static VersionRangeFilter of(
+      final Optional<AOV3VersionRange> range)
+    {
+      return new VersionRangeFilter(range.orElse(null));
+    }
+
+    private static int[] boundOf(
+      final AOV3VersionBound bound)
+    {
+      final var name = bound.name();
+      if (name.isEmpty()) {
+        return null;
+      }
+
+      final var components = new int[4];
+      int count = 0;
+      for (final var part : name.get().split("[^0-9]+")) {
+        if (part.isEmpty() || count == components.length) {
+          continue;
+        }
+        try {
+          components[count] = Integer.parseInt(part);
+        } catch (final NumberFormatException e) {
+          components[count] = Integer.MAX_VALUE;
+        }
+        ++count;
+      }
+      return components;
+    }
+
+    private static int compare(
+      final int[] bound,
+      final int major,
+      final int minor,
+      final int security,
+      final int build)
+    {
+      int c = Integer.compare(major, bound[0]);
+      if (c != 0) {
+        return c;
+      }
+      c = Integer.compare(minor, bound[1]);
+      if (c != 0) {
+        return c;
+      }
+      c = Integer.compare(security, bound[2]);
+      if (c != 0) {
+        return c;
+      }
+      return Integer.compare(build, bound[3]);
+    }
+
+    boolean matches(
+      final int major,
+      final int minor,
+      final int security,
+      final int build)
+    {
+      if (this.lower != null) {
+        final var c = compare(this.lower, major, minor, security, build);
+        if (this.range.lower().isExclusive() ? c <= 0 : c < 0) {
+          return false;
+        }
+      }
+      if (this.upper != null) {
+        final var c = compare(this.upper, major, minor, security, build);
+        return this.range.upper().isExclusive() ? c < 0 : c <= 0;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,746 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseNamesType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseVersionsType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
+import net.adoptopenjdk.v3.api.AOV3RequestType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionData;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * A client that memoizes the results of the API calls made through another
+ * client. Results are keyed by the name and parameters of the API call, and
+ * so executing an identical request returns the already-parsed (immutable)
+ * result without I/O or parsing.
+ *
+ * A result expires a fixed duration after it was loaded. If a refresh
+ * interval is configured, a result that is older than the interval but has
+ * not yet expired is returned as usual, and is reloaded in the background.
+ * Each result has a weight (the number of elements for collections, and
+ * {@code 1} otherwise), and the least recently used results are evicted
+ * when the total weight exceeds the configured maximum. Failed calls are
+ * not memoized.
+ */
+
+public final class AOV3MemoizingClient implements AOV3ClientType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3MemoizingClient.class);
+
+  private final AOV3ClientType delegate;
+  private final Clock clock;
+  private final long expireMillis;
+  private final long refreshMillis;
+  private final long maximumWeight;
+  private final LinkedHashMap<List<Object>, Entry> entries;
+  private long weight;
+
+  private AOV3MemoizingClient(
+    final AOV3ClientType inDelegate,
+    final Clock inClock,
+    final Duration inExpireAfterWrite,
+    final Optional<Duration> inRefreshAfterWrite,
+    final long inMaximumWeight)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.expireMillis =
+      inExpireAfterWrite.toMillis();
+    this.refreshMillis =
+      inRefreshAfterWrite.map(Duration::toMillis).orElse(Long.MAX_VALUE);
+    this.maximumWeight =
+      inMaximumWeight;
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Create a memoizing client.
+   *
+   * @param delegate          The client that executes API calls
+   * @param clock             The clock used to determine the age of results
+   * @param expireAfterWrite  The duration after which results expire
+   * @param refreshAfterWrite The duration after which results are reloaded
+   *                          in the background, if any
+   * @param maximumWeight     The maximum total weight of memoized results
+   *
+   * @return A memoizing client
+   *
+   * @see net.adoptopenjdk.v3.vanilla.AOV3MemoizingClients
+   */
+
+  public static AOV3ClientType create(
+    final AOV3ClientType delegate,
+    final Clock clock,
+    final Duration expireAfterWrite,
+    final Optional<Duration> refreshAfterWrite,
+    final long maximumWeight)
+  {
+    Objects.requireNonNull(expireAfterWrite, "expireAfterWrite");
+    Objects.requireNonNull(refreshAfterWrite, "refreshAfterWrite");
+
+    return new AOV3MemoizingClient(
+      delegate,
+      clock,
+      expireAfterWrite,
+      refreshAfterWrite,
+      maximumWeight
+    );
+  }
+
+  private static int weigh(
+    final Object value)
+  {
+    if (value instanceof Collection) {
+      return Math.max(1, ((Collection<?>) value).size());
+    }
+    return 1;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.weight = 0L;
+    }
+    this.delegate.close();
+  }
+
+  /**
+   * Find an unexpired result for the given key, starting a background
+   * reload of the result if it is due to be refreshed.
+   */
+
+  private <T> Entry find(
+    final List<Object> key,
+    final RequestsType<? extends AOV3RequestType<T>> requests)
+  {
+    final var now = this.clock.millis();
+    final Entry entry;
+    final boolean refresh;
+
+    synchronized (this.entries) {
+      final var existing = this.entries.get(key);
+      if (existing == null) {
+        return null;
+      }
+
+      final var age = now - existing.loadedAt;
+      if (age >= this.expireMillis) {
+        this.remove(key, existing);
+        return null;
+      }
+
+      refresh = age >= this.refreshMillis && !existing.refreshing;
+      if (refresh) {
+        existing.refreshing = true;
+      }
+      entry = existing;
+    }
+
+    if (refresh) {
+      this.refresh(key, entry, requests);
+    }
+    return entry;
+  }
+
+  private <T> void refresh(
+    final List<Object> key,
+    final Entry entry,
+    final RequestsType<? extends AOV3RequestType<T>> requests)
+  {
+    LOG.debug("refreshing {}", key);
+
+    final var errors = new ArrayList<AOV3Error>();
+    final CompletableFuture<T> future;
+    try {
+      future = requests.create(errors::add).executeAsync();
+    } catch (final Exception e) {
+      this.refreshFailed(key, entry, e);
+      return;
+    }
+
+    future.whenComplete((value, exception) -> {
+      if (exception != null) {
+        this.refreshFailed(key, entry, exception);
+      } else {
+        this.store(key, value, errors);
+      }
+    });
+  }
+
+  private void refreshFailed(
+    final List<Object> key,
+    final Entry entry,
+    final Throwable exception)
+  {
+    LOG.warn("failed to refresh {}: ", key, exception);
+    synchronized (this.entries) {
+      entry.refreshing = false;
+    }
+  }
+
+  private Entry store(
+    final List<Object> key,
+    final Object value,
+    final List<AOV3Error> errors)
+  {
+    final var entry =
+      new Entry(value, errors, this.clock.millis(), weigh(value));
+
+    synchronized (this.entries) {
+      final var existing = this.entries.remove(key);
+      if (existing != null) {
+        this.weight -= existing.weight;
+      }
+      if (entry.weight > this.maximumWeight) {
+        return entry;
+      }
+
+      this.entries.put(key, entry);
+      this.weight += entry.weight;
+
+      final var iterator = this.entries.values().iterator();
+      while (this.weight > this.maximumWeight && iterator.hasNext()) {
+        this.weight -= iterator.next().weight;
+        iterator.remove();
+      }
+    }
+    return entry;
+  }
+
+  private void remove(
+    final List<Object> key,
+    final Entry entry)
+  {
+    if (this.entries.remove(key, entry)) {
+      this.weight -= entry.weight;
+    }
+  }
+
+  @Override
+  public AOV3RequestReleasesType availableReleases(
+    final Consumer<AOV3Error> errorReceiver)
+  {
+    return new Releases(
+      List.of("availableReleases"),
+      errorReceiver,
+      this.delegate::availableReleases
+    );
+  }
+
+  @Override
+  public AOV3RequestReleaseNamesType releaseNames(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    return new ReleaseNames(
+      List.of(
+        "releaseNames",
+        page,
+        pageSize,
+        releaseKind,
+        sortOrder,
+        vendor,
+        versionRange),
+      errorReceiver,
+      errors -> this.delegate.releaseNames(
+        errors,
+        page,
+        pageSize,
+        releaseKind,
+        sortOrder,
+        vendor,
+        versionRange)
+    );
+  }
+
+  @Override
+  public AOV3RequestReleaseVersionsType releaseVersions(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    return new ReleaseVersions(
+      List.of(
+        "releaseVersions",
+        page,
+        pageSize,
+        releaseKind,
+        sortOrder,
+        vendor,
+        versionRange),
+      errorReceiver,
+      errors -> this.delegate.releaseVersions(
+        errors,
+        page,
+        pageSize,
+        releaseKind,
+        sortOrder,
+        vendor,
+        versionRange)
+    );
+  }
+
+  // CHECKSTYLE:OFF
+  @Override
+  public AOV3RequestAssetsForReleaseType assetsForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final BigInteger version,
+    final AOV3ReleaseKind releaseKind,
+    final Optional<AOV3Architecture> architecture,
+    final Optional<AOV3HeapSize> heapSize,
+    final Optional<AOV3ImageKind> imageKind,
+    final Optional<AOV3JVMImplementation> jvmImplementation,
+    final Optional<AOV3OperatingSystem> operatingSystem,
+    final Optional<String> project,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor
+  // CHECKSTYLE:ON
+  )
+  {
+    return new AssetsForRelease(
+      List.of(
+        "assetsForRelease",
+        page,
+        pageSize,
+        version,
+        releaseKind,
+        architecture,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        project,
+        sortOrder,
+        vendor),
+      errorReceiver,
+      errors -> this.delegate.assetsForRelease(
+        errors,
+        page,
+        pageSize,
+        version,
+        releaseKind,
+        architecture,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        project,
+        sortOrder,
+        vendor)
+    );
+  }
+
+  @Override
+  public AOV3RequestAssetsForLatestType assetsForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger version,
+    final AOV3JVMImplementation jvmImplementation)
+  {
+    return new AssetsForLatest(
+      List.of("assetsForLatest", version, jvmImplementation),
+      errorReceiver,
+      errors -> this.delegate.assetsForLatest(
+        errors,
+        version,
+        jvmImplementation)
+    );
+  }
+
+  @Override
+  public AOV3RequestBinaryForLatestType binaryForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final AOV3Architecture architecture,
+    final BigInteger version,
+    final AOV3HeapSize heapSize,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3ReleaseKind releaseKind,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    return new BinaryForLatest(
+      List.of(
+        "binaryForLatest",
+        architecture,
+        version,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        releaseKind,
+        vendor,
+        project),
+      errorReceiver,
+      errors -> this.delegate.binaryForLatest(
+        errors,
+        architecture,
+        version,
+        heapSize,
+        imageKind,
+        jvmImplementation,
+        operatingSystem,
+        releaseKind,
+        vendor,
+        project)
+    );
+  }
+
+  @Override
+  public AOV3RequestBinaryForReleaseType binaryForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final String releaseName,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3Architecture architecture,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3HeapSize heapSize,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    return new BinaryForRelease(
+      List.of(
+        "binaryForRelease",
+        releaseName,
+        operatingSystem,
+        architecture,
+        imageKind,
+        jvmImplementation,
+        heapSize,
+        vendor,
+        project),
+      errorReceiver,
+      errors -> this.delegate.binaryForRelease(
+        errors,
+        releaseName,
+        operatingSystem,
+        architecture,
+        imageKind,
+        jvmImplementation,
+        heapSize,
+        vendor,
+        project)
+    );
+  }
+
+  /**
+   * A memoized result, along with the errors that were encountered whilst
+   * loading it.
+   */
+
+  private static final class Entry
+  {
+    private final Object value;
+    private final List<AOV3Error> errors;
+    private final long loadedAt;
+    private final int weight;
+    private boolean refreshing;
+
+    Entry(
+      final Object inValue,
+      final List<AOV3Error> inErrors,
+      final long inLoadedAt,
+      final int inWeight)
+    {
+      this.value = freeze(Objects.requireNonNull(inValue, "value"));
+      this.errors = List.copyOf(inErrors);
+      this.loadedAt = inLoadedAt;
+      this.weight = inWeight;
+    }
+
+    /**
+     * A memoized value is returned to every caller, so lists are stored as
+     * immutable lists. Lists from the HTTP client are already immutable,
+     * and are stored without being copied.
+     */
+
+    private static Object freeze(
+      final Object value)
+    {
+      if (value instanceof List) {
+        return List.copyOf((List<?>) value);
+      }
+      return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T deliver(
+      final Consumer<AOV3Error> errorReceiver)
+    {
+      this.errors.forEach(errorReceiver);
+      return (T) this.value;
+    }
+  }
+
+  /**
+   * A function that creates requests on the delegate client.
+   *
+   * @param <R> The type of requests
+   */
+
+  @FunctionalInterface
+  private interface RequestsType<R>
+  {
+    R create(Consumer<AOV3Error> errorReceiver);
+  }
+
+  /**
+   * A request that consults the memoized results before executing an
+   * identical request on the delegate client.
+   *
+   * @param <T> The type of returned values
+   */
+
+  private class MemoizedRequest<T> implements AOV3RequestType<T>
+  {
+    private final List<Object> key;
+    private final Consumer<AOV3Error> errorReceiver;
+    private final RequestsType<? extends AOV3RequestType<T>> requests;
+
+    MemoizedRequest(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<? extends AOV3RequestType<T>> inRequests)
+    {
+      this.key =
+        Objects.requireNonNull(inKey, "key");
+      this.errorReceiver =
+        Objects.requireNonNull(inErrorReceiver, "errorReceiver");
+      this.requests =
+        Objects.requireNonNull(inRequests, "requests");
+    }
+
+    final Entry memoized()
+    {
+      return AOV3MemoizingClient.this.find(this.key, this.requests);
+    }
+
+    @Override
+    public final T execute()
+      throws AOV3Exception, InterruptedException
+    {
+      final var entry = this.memoized();
+      if (entry != null) {
+        return entry.deliver(this.errorReceiver);
+      }
+
+      final var errors = new ArrayList<AOV3Error>();
+      final var value = this.requests.create(errors::add).execute();
+      return AOV3MemoizingClient.this.store(this.key, value, errors)
+        .deliver(this.errorReceiver);
+    }
+
+    @Override
+    public final CompletableFuture<T> executeAsync()
+    {
+      final var entry = this.memoized();
+      if (entry != null) {
+        return CompletableFuture.completedFuture(
+          entry.deliver(this.errorReceiver));
+      }
+
+      final var errors = new ArrayList<AOV3Error>();
+      return this.requests.create(errors::add)
+        .executeAsync()
+        .thenApply(value -> {
+          return AOV3MemoizingClient.this.store(this.key, value, errors)
+            .<T>deliver(this.errorReceiver);
+        });
+    }
+  }
+
+  private final class Releases
+    extends MemoizedRequest<AOV3AvailableReleases>
+    implements AOV3RequestReleasesType
+  {
+    Releases(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestReleasesType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+
+  private final class ReleaseNames
+    extends MemoizedRequest<List<String>>
+    implements AOV3RequestReleaseNamesType
+  {
+    ReleaseNames(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestReleaseNamesType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+
+  private final class ReleaseVersions
+    extends MemoizedRequest<List<AOV3VersionData>>
+    implements AOV3RequestReleaseVersionsType
+  {
+    ReleaseVersions(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestReleaseVersionsType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+
+  private final class AssetsForRelease
+    extends MemoizedRequest<List<AOV3Release>>
+    implements AOV3RequestAssetsForReleaseType
+  {
+    private final Consumer<AOV3Error> errorReceiver;
+    private final RequestsType<AOV3RequestAssetsForReleaseType> streams;
+
+    AssetsForRelease(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestAssetsForReleaseType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+      this.errorReceiver = inErrorReceiver;
+      this.streams = inRequests;
+    }
+
+    /**
+     * Streaming requests are served from memoized results when possible,
+     * but their results are not themselves memoized, as the point of
+     * streaming is to avoid holding the full list of releases in memory.
+     */
+
+    @Override
+    public void executeStreaming(
+      final Consumer<AOV3Release> receiver)
+      throws AOV3Exception, InterruptedException
+    {
+      Objects.requireNonNull(receiver, "receiver");
+
+      final var entry = this.memoized();
+      if (entry != null) {
+        entry.<List<AOV3Release>>deliver(this.errorReceiver)
+          .forEach(receiver);
+        return;
+      }
+      this.streams.create(this.errorReceiver).executeStreaming(receiver);
+    }
+
+    @Override
+    public Flow.Publisher<AOV3Release> executePublisher()
+    {
+      if (this.memoized() != null) {
+        return AOV3RequestAssetsForReleaseType.super.executePublisher();
+      }
+      return this.streams.create(this.errorReceiver).executePublisher();
+    }
+  }
+
+  private final class AssetsForLatest
+    extends MemoizedRequest<List<AOV3ListBinaryAssetView>>
+    implements AOV3RequestAssetsForLatestType
+  {
+    AssetsForLatest(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestAssetsForLatestType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+
+  private final class BinaryForLatest
+    extends MemoizedRequest<URI>
+    implements AOV3RequestBinaryForLatestType
+  {
+    BinaryForLatest(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestBinaryForLatestType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+
+  private final class BinaryForRelease
+    extends MemoizedRequest<URI>
+    implements AOV3RequestBinaryForReleaseType
+  {
+    BinaryForRelease(
+      final List<Object> inKey,
+      final Consumer<AOV3Error> inErrorReceiver,
+      final RequestsType<AOV3RequestBinaryForReleaseType> inRequests)
+    {
+      super(inKey, inErrorReceiver, inRequests);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A stream that counts the bytes read from an underlying stream, and the
+ * time spent waiting for the underlying stream to return them.
+ */
+
+final class AOV3MeteredInputStream extends FilterInputStream
+{
+  private long bytes;
+  private long nanos;
+
+  AOV3MeteredInputStream(
+    final InputStream inStream)
+  {
+    super(inStream);
+  }
+
+  /**
+   * @return The number of bytes read so far
+   */
+
+  long bytes()
+  {
+    return this.bytes;
+  }
+
+  /**
+   * @return The time spent reading so far, in nanoseconds
+   */
+
+  long nanos()
+  {
+    return this.nanos;
+  }
+
+  @Override
+  public int read()
+    throws IOException
+  {
+    final var timeThen = System.nanoTime();
+    try {
+      final var result = super.read();
+      if (result != -1) {
+        ++this.bytes;
+      }
+      return result;
+    } finally {
+      this.nanos += System.nanoTime() - timeThen;
+    }
+  }
+
+  @Override
+  public int read(
+    final byte[] buffer,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    final var timeThen = System.nanoTime();
+    try {
+      final var result = super.read(buffer, offset, length);
+      if (result > 0) {
+        this.bytes += result;
+      }
+      return result;
+    } finally {
+      this.nanos += System.nanoTime() - timeThen;
+    }
+  }
+
+  @Override
+  public long skip(
+    final long count)
+    throws IOException
+  {
+    final var timeThen = System.nanoTime();
+    try {
+      final var result = super.skip(count);
+      this.bytes += result;
+      return result;
+    } finally {
+      this.nanos += System.nanoTime() - timeThen;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType.PermitType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * A response body stream that holds a request limiter permit until the
+ * body has been read to the end or the stream has been closed, so that a
+ * request counts as in flight for as long as its body is being received.
+ */
+
+final class AOV3PermitInputStream extends FilterInputStream
+{
+  private final PermitType permit;
+
+  AOV3PermitInputStream(
+    final InputStream inStream,
+    final PermitType inPermit)
+  {
+    super(Objects.requireNonNull(inStream, "stream"));
+    this.permit = Objects.requireNonNull(inPermit, "permit");
+  }
+
+  @Override
+  public int read()
+    throws IOException
+  {
+    final var result = super.read();
+    if (result == -1) {
+      this.permit.close();
+    }
+    return result;
+  }
+
+  @Override
+  public int read(
+    final byte[] buffer,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    final var result = super.read(buffer, offset, length);
+    if (result == -1) {
+      this.permit.close();
+    }
+    return result;
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      super.close();
+    } finally {
+      this.permit.close();
+    }
+  }
+}
@@ -23,10 +23,15 @@ import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
 import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
 
 import java.math.BigInteger;
+import java.net.URI;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.ASSETS_FOR_LATEST;
+
 public final class AOV3RequestAssetsForLatest
   implements AOV3RequestAssetsForLatestType
 {
@@ -34,6 +39,7 @@ public final class AOV3RequestAssetsForLatest
   private final AOV3JVMImplementation jvmImplementation;
   private final BigInteger version;
   private final Consumer<AOV3Error> errorReceiver;
+  private final URI uri;
 
   AOV3RequestAssetsForLatest(
     final AOV3ClientInternalType inClient,
@@ -46,14 +52,14 @@ public final class AOV3RequestAssetsForLatest
     this.errorReceiver =
       Objects.requireNonNull(inErrorReceiver, "errorReceiver");
     this.version =
-      Objects.requireNonNull(inVersion, "version");
+      AOV3RequestParameters.checkVersion(inVersion);
     this.jvmImplementation =
       Objects.requireNonNull(inJvmImplementation, "jvmImplementation");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public List<AOV3ListBinaryAssetView> execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
@@ -62,7 +68,40 @@ public final class AOV3RequestAssetsForLatest
     uriBuilder.append("/");
     uriBuilder.append(this.jvmImplementation.nameText());
 
-    return this.client.parserFor(this.errorReceiver, uriBuilder.toString())
-      .parseAssetsForLatest();
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public List<AOV3ListBinaryAssetView> execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.parse(
+      ASSETS_FOR_LATEST,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAssetsForLatest
+    );
+  }
+
+  @Override
+  public CompletableFuture<List<AOV3ListBinaryAssetView>> executeAsync()
+  {
+    return this.client.parseAsync(
+      ASSETS_FOR_LATEST,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAssetsForLatest
+    );
+  }
+
+  @Override
+  public Flow.Publisher<AOV3ListBinaryAssetView> executePublisher()
+  {
+    return this.client.publish(
+      ASSETS_FOR_LATEST,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParsersType::createAssetViewsFeeder
+    );
   }
 }
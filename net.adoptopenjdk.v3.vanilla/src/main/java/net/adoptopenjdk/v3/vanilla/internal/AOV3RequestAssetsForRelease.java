@@ -30,11 +30,16 @@ import net.adoptopenjdk.v3.api.AOV3SortOrder;
 import net.adoptopenjdk.v3.api.AOV3Vendor;
 
 import java.math.BigInteger;
+import java.net.URI;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.ASSETS_FOR_RELEASE;
+
 final class AOV3RequestAssetsForRelease
   implements AOV3RequestAssetsForReleaseType
 {
@@ -52,6 +57,7 @@ final class AOV3RequestAssetsForRelease
   private final Optional<String> project;
   private final Optional<AOV3SortOrder> sortOrder;
   private final Optional<AOV3Vendor> vendor;
+  private final URI uri;
 
   // CHECKSTYLE:OFF
   AOV3RequestAssetsForRelease(
@@ -77,11 +83,11 @@ final class AOV3RequestAssetsForRelease
     this.errorReceiver =
       Objects.requireNonNull(inErrorReceiver, "errorReceiver");
     this.page =
-      Objects.requireNonNull(inPage, "page");
+      AOV3RequestParameters.checkPage(inPage);
     this.pageSize =
-      Objects.requireNonNull(inPageSize, "pageSize");
+      AOV3RequestParameters.checkPageSize(inPageSize);
     this.version =
-      Objects.requireNonNull(inVersion, "version");
+      AOV3RequestParameters.checkVersion(inVersion);
     this.releaseKind =
       Objects.requireNonNull(inReleaseKind, "releaseKind");
     this.architecture =
@@ -100,11 +106,11 @@ final class AOV3RequestAssetsForRelease
       Objects.requireNonNull(inSortOrder, "sortOrder");
     this.vendor =
       Objects.requireNonNull(inVendor, "vendor");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public List<AOV3Release> execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
@@ -140,7 +146,7 @@ final class AOV3RequestAssetsForRelease
     });
     this.project.ifPresent(kind -> {
       uriBuilder.append("&project=");
-      uriBuilder.append(kind);
+      uriBuilder.append(AOV3RequestParameters.encodeQueryValue(kind));
     });
     this.sortOrder.ifPresent(kind -> {
       uriBuilder.append("&sort_order=");
@@ -151,7 +157,56 @@ final class AOV3RequestAssetsForRelease
       uriBuilder.append(kind.nameText());
     });
 
-    return this.client.parserFor(this.errorReceiver, uriBuilder.toString())
-      .parseAssetsForRelease();
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public List<AOV3Release> execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.parse(
+      ASSETS_FOR_RELEASE,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAssetsForRelease
+    );
+  }
+
+  @Override
+  public void executeStreaming(
+    final Consumer<AOV3Release> receiver)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    this.client.parseStreaming(
+      ASSETS_FOR_RELEASE,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAssetsForReleaseStreaming,
+      receiver
+    );
+  }
+
+  @Override
+  public CompletableFuture<List<AOV3Release>> executeAsync()
+  {
+    return this.client.parseAsync(
+      ASSETS_FOR_RELEASE,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAssetsForRelease
+    );
+  }
+
+  @Override
+  public Flow.Publisher<AOV3Release> executePublisher()
+  {
+    return this.client.publish(
+      ASSETS_FOR_RELEASE,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParsersType::createReleasesFeeder
+    );
   }
 }
@@ -30,6 +30,9 @@ import java.math.BigInteger;
 import java.net.URI;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.BINARY_FOR_LATEST;
 
 final class AOV3RequestBinaryForLatest implements AOV3RequestBinaryForLatestType
 {
@@ -43,6 +46,7 @@ final class AOV3RequestBinaryForLatest implements AOV3RequestBinaryForLatestType
   private final AOV3ReleaseKind releaseKind;
   private final AOV3Vendor vendor;
   private final Optional<String> project;
+  private final URI uri;
 
   AOV3RequestBinaryForLatest(
     final AOV3Client inClient,
@@ -61,7 +65,7 @@ final class AOV3RequestBinaryForLatest implements AOV3RequestBinaryForLatestType
     this.architecture =
       Objects.requireNonNull(inArchitecture, "inArchitecture");
     this.version =
-      Objects.requireNonNull(inVersion, "inVersion");
+      AOV3RequestParameters.checkVersion(inVersion);
     this.heapSize =
       Objects.requireNonNull(inHeapSize, "inHeapSize");
     this.imageKind =
@@ -76,11 +80,11 @@ final class AOV3RequestBinaryForLatest implements AOV3RequestBinaryForLatestType
       Objects.requireNonNull(inVendor, "inVendor");
     this.project =
       Objects.requireNonNull(inProject, "inProject");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public URI execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
@@ -103,9 +107,22 @@ final class AOV3RequestBinaryForLatest implements AOV3RequestBinaryForLatestType
 
     this.project.ifPresent(name -> {
       uriBuilder.append("?project=");
-      uriBuilder.append(name);
+      uriBuilder.append(AOV3RequestParameters.encodeQueryValue(name));
     });
 
-    return this.client.uriFor(uriBuilder.toString());
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public URI execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.uriFor(BINARY_FOR_LATEST, this.uri);
+  }
+
+  @Override
+  public CompletableFuture<URI> executeAsync()
+  {
+    return this.client.uriForAsync(BINARY_FOR_LATEST, this.uri);
   }
 }
@@ -28,6 +28,9 @@ import net.adoptopenjdk.v3.api.AOV3Vendor;
 import java.net.URI;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.BINARY_FOR_RELEASE;
 
 final class AOV3RequestBinaryForRelease
   implements AOV3RequestBinaryForReleaseType
@@ -41,6 +44,7 @@ final class AOV3RequestBinaryForRelease
   private final AOV3Vendor vendor;
   private final Optional<String> project;
   private final String releaseName;
+  private final URI uri;
 
   AOV3RequestBinaryForRelease(
     final AOV3Client inClient,
@@ -70,17 +74,18 @@ final class AOV3RequestBinaryForRelease
     this.project =
       Objects.requireNonNull(inProject, "inProject");
     this.releaseName =
-      Objects.requireNonNull(inReleaseName, "releaseName");
+      AOV3RequestParameters.checkNonEmpty("releaseName", inReleaseName);
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public URI execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
     uriBuilder.append("/binary/version/");
-    uriBuilder.append(this.releaseName);
+    uriBuilder.append(
+      AOV3RequestParameters.encodePathSegment(this.releaseName));
     uriBuilder.append("/");
     uriBuilder.append(this.operatingSystem.nameText());
     uriBuilder.append("/");
@@ -96,9 +101,22 @@ final class AOV3RequestBinaryForRelease
 
     this.project.ifPresent(name -> {
       uriBuilder.append("?project=");
-      uriBuilder.append(name);
+      uriBuilder.append(AOV3RequestParameters.encodeQueryValue(name));
     });
 
-    return this.client.uriFor(uriBuilder.toString());
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public URI execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.uriFor(BINARY_FOR_RELEASE, this.uri);
+  }
+
+  @Override
+  public CompletableFuture<URI> executeAsync()
+  {
+    return this.client.uriForAsync(BINARY_FOR_RELEASE, this.uri);
   }
 }
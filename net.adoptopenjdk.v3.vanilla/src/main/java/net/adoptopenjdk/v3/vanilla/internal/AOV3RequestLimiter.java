@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterStatistics;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request limiter that combines a token bucket (limiting the rate at
+ * which requests are sent) with a limit on the number of requests in
+ * flight. Requests are granted permits strictly in the order in which they
+ * asked for them. Waiting for a permit never blocks a thread: when the
+ * bucket is empty, the queue is drained again after the time required for
+ * the next token to become available.
+ */
+
+public final class AOV3RequestLimiter implements AOV3RequestLimiterType
+{
+  private final double tokensPerNano;
+  private final double burst;
+  private final int maximumInFlight;
+  private final Executor executor;
+  private final Object lock;
+  private final ArrayDeque<Waiter> waiters;
+  private double tokens;
+  private long refilled;
+  private int inFlight;
+  private boolean drainScheduled;
+  private long acquired;
+  private long queuedNanosTotal;
+  private long queuedNanosMaximum;
+
+  private AOV3RequestLimiter(
+    final double inRequestsPerSecond,
+    final int inBurst,
+    final int inMaximumInFlight,
+    final Executor inExecutor)
+  {
+    this.tokensPerNano = inRequestsPerSecond / 1_000_000_000.0;
+    this.burst = inBurst;
+    this.maximumInFlight = inMaximumInFlight;
+    this.executor = Objects.requireNonNull(inExecutor, "executor");
+    this.lock = new Object();
+    this.waiters = new ArrayDeque<>();
+    this.tokens = inBurst;
+    this.refilled = System.nanoTime();
+  }
+
+  /**
+   * Create a request limiter.
+   *
+   * @param requestsPerSecond The sustained rate at which requests may be
+   *                          sent
+   * @param burst             The number of requests that may be sent at
+   *                          once after a period of inactivity
+   * @param maximumInFlight   The maximum number of requests in flight
+   * @param executor          The executor used to grant permits that are
+   *                          delayed by the rate limit
+   *
+   * @return A request limiter
+   */
+
+  public static AOV3RequestLimiterType create(
+    final double requestsPerSecond,
+    final int burst,
+    final int maximumInFlight,
+    final Executor executor)
+  {
+    if (!(requestsPerSecond > 0.0) || Double.isNaN(requestsPerSecond)) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Request rate %f must be positive",
+          Double.valueOf(requestsPerSecond)));
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Burst size %d must be positive",
+          Integer.valueOf(burst)));
+    }
+    if (maximumInFlight < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Maximum requests in flight %d must be positive",
+          Integer.valueOf(maximumInFlight)));
+    }
+    return new AOV3RequestLimiter(
+      requestsPerSecond,
+      burst,
+      maximumInFlight,
+      executor
+    );
+  }
+
+  @Override
+  public CompletableFuture<PermitType> acquire()
+  {
+    final var waiter = new Waiter(System.nanoTime());
+    synchronized (this.lock) {
+      this.waiters.add(waiter);
+    }
+    this.drain();
+    return waiter.future;
+  }
+
+  @Override
+  public AOV3RequestLimiterStatistics statistics()
+  {
+    synchronized (this.lock) {
+      return AOV3RequestLimiterStatistics.of(
+        this.acquired,
+        this.waiters.size(),
+        this.inFlight,
+        Duration.ofNanos(this.queuedNanosTotal),
+        Duration.ofNanos(this.queuedNanosMaximum)
+      );
+    }
+  }
+
+  /**
+   * Grant permits to as many waiters as the limits allow. Futures are
+   * completed outside of the lock, as completing a future runs the
+   * actions that depend on it.
+   */
+
+  private void drain()
+  {
+    final var granted = new ArrayList<Waiter>();
+    final long delay;
+
+    synchronized (this.lock) {
+      final var now = System.nanoTime();
+      this.refill(now);
+
+      while (!this.waiters.isEmpty()) {
+        final var waiter = this.waiters.peek();
+        if (waiter.future.isDone()) {
+          this.waiters.remove();
+          continue;
+        }
+        if (this.inFlight >= this.maximumInFlight || this.tokens < 1.0) {
+          break;
+        }
+
+        this.waiters.remove();
+        this.tokens -= 1.0;
+        this.inFlight += 1;
+        this.acquired += 1L;
+
+        final var queued = now - waiter.enqueued;
+        this.queuedNanosTotal += queued;
+        this.queuedNanosMaximum = Math.max(this.queuedNanosMaximum, queued);
+        granted.add(waiter);
+      }
+
+      if (!this.waiters.isEmpty()
+        && this.inFlight < this.maximumInFlight
+        && !this.drainScheduled) {
+        this.drainScheduled = true;
+        delay = (long) Math.ceil((1.0 - this.tokens) / this.tokensPerNano);
+      } else {
+        delay = -1L;
+      }
+    }
+
+    if (delay >= 0L) {
+      final var delayed =
+        CompletableFuture.delayedExecutor(
+          Math.max(1L, delay), TimeUnit.NANOSECONDS, this.executor);
+
+      delayed.execute(() -> {
+        synchronized (this.lock) {
+          this.drainScheduled = false;
+        }
+        this.drain();
+      });
+    }
+
+    for (final var waiter : granted) {
+      if (!waiter.future.complete(new Permit())) {
+        this.release();
+      }
+    }
+  }
+
+  private void refill(
+    final long now)
+  {
+    final var elapsed = now - this.refilled;
+    this.refilled = now;
+    this.tokens =
+      Math.min(this.burst, this.tokens + (elapsed * this.tokensPerNano));
+  }
+
+  private void release()
+  {
+    synchronized (this.lock) {
+      this.inFlight -= 1;
+    }
+    this.drain();
+  }
+
+  private static final class Waiter
+  {
+    private final long enqueued;
+    private final CompletableFuture<PermitType> future;
+
+    Waiter(
+      final long inEnqueued)
+    {
+      this.enqueued = inEnqueued;
+      this.future = new CompletableFuture<>();
+    }
+  }
+
+  private final class Permit implements PermitType
+  {
+    private final AtomicBoolean released;
+
+    Permit()
+    {
+      this.released = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void close()
+    {
+      if (this.released.compareAndSet(false, true)) {
+        AOV3RequestLimiter.this.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestKind;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestMetricsType;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * The metrics of a single request, accumulated as the request progresses.
+ *
+ * A measurement is updated by one thread at a time as the request passes
+ * through each of its stages. A disabled measurement ignores all updates,
+ * and a single disabled instance is shared between all requests made by
+ * clients that are not instrumented.
+ */
+
+final class AOV3RequestMeasurement implements AOV3RequestMetricsType
+{
+  private static final AOV3RequestMeasurement DISABLED =
+    new AOV3RequestMeasurement(
+      AOV3RequestKind.AVAILABLE_RELEASES,
+      URI.create("urn:disabled"),
+      false);
+
+  private final AOV3RequestKind kind;
+  private final URI uri;
+  private final boolean enabled;
+  private final long timeStarted;
+  private int attempts;
+  private int statusCode;
+  private long requestNanos;
+  private long bufferedNanos;
+  private AOV3MeteredInputStream received;
+  private AOV3MeteredInputStream decoded;
+  private long decodedBase;
+  private long chunkBytes;
+  private long inflateNanos;
+  private long parseNanos;
+  private long totalNanos;
+  private long elements;
+  private long errors;
+  private Throwable failure;
+
+  private AOV3RequestMeasurement(
+    final AOV3RequestKind inKind,
+    final URI inURI,
+    final boolean inEnabled)
+  {
+    this.kind = Objects.requireNonNull(inKind, "kind");
+    this.uri = Objects.requireNonNull(inURI, "uri");
+    this.enabled = inEnabled;
+    this.timeStarted = System.nanoTime();
+    this.statusCode = -1;
+  }
+
+  /**
+   * Start measuring a request.
+   *
+   * @param kind The kind of request
+   * @param uri  The request URI
+   *
+   * @return A new measurement
+   */
+
+  static AOV3RequestMeasurement start(
+    final AOV3RequestKind kind,
+    final URI uri)
+  {
+    return new AOV3RequestMeasurement(kind, uri, true);
+  }
+
+  /**
+   * @return A measurement that ignores all updates
+   */
+
+  static AOV3RequestMeasurement disabled()
+  {
+    return DISABLED;
+  }
+
+  private static long countOf(
+    final Object value)
+  {
+    if (value == null) {
+      return 0L;
+    }
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).size();
+    }
+    return 1L;
+  }
+
+  /**
+   * @return {@code true} if this measurement records updates
+   */
+
+  boolean isEnabled()
+  {
+    return this.enabled;
+  }
+
+  /**
+   * An HTTP request is about to be sent.
+   *
+   * @return The time the request was sent
+   */
+
+  long requestSending()
+  {
+    if (this.enabled) {
+      this.bufferedNanos = 0L;
+      return System.nanoTime();
+    }
+    return 0L;
+  }
+
+  /**
+   * The headers of the most recently sent HTTP request have been received,
+   * and the body will be received in full before the request completes.
+   *
+   * @return The time the headers were received
+   */
+
+  long headersReceived()
+  {
+    return this.enabled ? System.nanoTime() : 0L;
+  }
+
+  /**
+   * The body of the most recently sent HTTP request has been received in
+   * full.
+   *
+   * @param timeHeaders The time the headers were received
+   */
+
+  void bodyReceived(
+    final long timeHeaders)
+  {
+    if (this.enabled) {
+      this.bufferedNanos = System.nanoTime() - timeHeaders;
+    }
+  }
+
+  /**
+   * An HTTP request sent at {@code timeSent} has completed, successfully
+   * or otherwise.
+   *
+   * @param timeSent The time the request was sent
+   */
+
+  void requestCompleted(
+    final long timeSent)
+  {
+    if (this.enabled) {
+      ++this.attempts;
+      this.requestNanos = System.nanoTime() - timeSent;
+      this.statusCode = -1;
+    }
+  }
+
+  /**
+   * The most recently sent HTTP request received a response.
+   *
+   * @param status The response status code
+   */
+
+  void responseReceived(
+    final int status)
+  {
+    if (this.enabled) {
+      this.statusCode = status;
+    }
+  }
+
+  /**
+   * Measure the given response body as it is received from the network.
+   *
+   * @param stream The response body
+   *
+   * @return The response body
+   */
+
+  InputStream received(
+    final InputStream stream)
+  {
+    if (this.enabled) {
+      this.received = new AOV3MeteredInputStream(stream);
+      return this.received;
+    }
+    return stream;
+  }
+
+  /**
+   * Measure the given response body as it is decompressed.
+   *
+   * @param stream The decompressed response body
+   *
+   * @return The decompressed response body
+   */
+
+  InputStream decoded(
+    final InputStream stream)
+  {
+    if (this.enabled) {
+      this.decodedBase = this.received == null ? 0L : this.received.nanos();
+      this.decoded = new AOV3MeteredInputStream(stream);
+      return this.decoded;
+    }
+    return stream;
+  }
+
+  /**
+   * Count the errors delivered to the given receiver.
+   *
+   * @param receiver The error receiver
+   *
+   * @return A counting error receiver
+   */
+
+  Consumer<AOV3Error> errorReceiver(
+    final Consumer<AOV3Error> receiver)
+  {
+    if (this.enabled) {
+      return error -> {
+        ++this.errors;
+        receiver.accept(error);
+      };
+    }
+    return receiver;
+  }
+
+  /**
+   * Parse a value, measuring the time spent parsing and counting the
+   * parsed elements.
+   *
+   * @param parser   The parser
+   * @param function The parse function
+   * @param <T>      The type of returned values
+   *
+   * @return The parsed value
+   *
+   * @throws AOV3Exception On errors
+   */
+
+  <T> T parse(
+    final AOV3ResponseParserType parser,
+    final AOV3ResponseParserFunctionType<T> function)
+    throws AOV3Exception
+  {
+    if (!this.enabled) {
+      return function.parse(parser);
+    }
+
+    final var readThen = this.readNanos();
+    final var timeThen = System.nanoTime();
+    try {
+      final var value = function.parse(parser);
+      this.elements = countOf(value);
+      return value;
+    } finally {
+      this.parsed(timeThen, readThen);
+    }
+  }
+
+  /**
+   * Parse a sequence of values, measuring the time spent parsing and
+   * counting the parsed elements.
+   *
+   * @param parser   The parser
+   * @param function The parse function
+   * @param receiver The receiver of parsed values
+   * @param <T>      The type of parsed values
+   *
+   * @throws AOV3Exception On errors
+   */
+
+  <T> void parseStreaming(
+    final AOV3ResponseParserType parser,
+    final AOV3ResponseStreamingParserFunctionType<T> function,
+    final Consumer<T> receiver)
+    throws AOV3Exception
+  {
+    if (!this.enabled) {
+      function.parse(parser, receiver);
+      return;
+    }
+
+    final var readThen = this.readNanos();
+    final var timeThen = System.nanoTime();
+    try {
+      function.parse(parser, value -> {
+        ++this.elements;
+        receiver.accept(value);
+      });
+    } finally {
+      this.parsed(timeThen, readThen);
+    }
+  }
+
+  private void parsed(
+    final long timeThen,
+    final long readThen)
+  {
+    final var elapsed = System.nanoTime() - timeThen;
+    final var reading = this.readNanos() - readThen;
+    this.parseNanos += Math.max(0L, elapsed - reading);
+  }
+
+  /**
+   * A buffer of the response body has been received from the network and
+   * passed to a non-blocking parser.
+   *
+   * @param bytes       The size of the buffer
+   * @param inflateTime The time spent decompressing the buffer, in
+   *                    nanoseconds
+   * @param parseTime   The time spent parsing the buffer, in nanoseconds
+   * @param count       The number of elements parsed from the buffer
+   */
+
+  void chunkParsed(
+    final int bytes,
+    final long inflateTime,
+    final long parseTime,
+    final int count)
+  {
+    if (this.enabled) {
+      this.chunkBytes += bytes;
+      this.inflateNanos += inflateTime;
+      this.parseNanos += parseTime;
+      this.elements += count;
+    }
+  }
+
+  /**
+   * The request has produced a single element without parsing a response
+   * body.
+   */
+
+  void located()
+  {
+    if (this.enabled) {
+      this.elements = 1L;
+    }
+  }
+
+  /**
+   * The request has completed.
+   *
+   * @param exception The exception that caused the request to fail, if any
+   */
+
+  void completed(
+    final Optional<Throwable> exception)
+  {
+    if (this.enabled) {
+      this.totalNanos = System.nanoTime() - this.timeStarted;
+      this.failure = exception.orElse(null);
+    }
+  }
+
+  private long readNanos()
+  {
+    if (this.decoded != null) {
+      return this.decoded.nanos();
+    }
+    if (this.received != null) {
+      return this.received.nanos();
+    }
+    return 0L;
+  }
+
+  @Override
+  public AOV3RequestKind kind()
+  {
+    return this.kind;
+  }
+
+  @Override
+  public URI uri()
+  {
+    return this.uri;
+  }
+
+  @Override
+  public int attempts()
+  {
+    return this.attempts;
+  }
+
+  @Override
+  public OptionalInt statusCode()
+  {
+    return this.statusCode < 0
+      ? OptionalInt.empty()
+      : OptionalInt.of(this.statusCode);
+  }
+
+  @Override
+  public Duration timeToHeaders()
+  {
+    return Duration.ofNanos(
+      Math.max(0L, this.requestNanos - this.bufferedNanos));
+  }
+
+  @Override
+  public Duration transferTime()
+  {
+    return Duration.ofNanos(
+      this.bufferedNanos
+        + (this.received == null ? 0L : this.received.nanos()));
+  }
+
+  @Override
+  public Duration inflateTime()
+  {
+    if (this.decoded == null) {
+      return Duration.ofNanos(this.inflateNanos);
+    }
+    final var transfer = this.received.nanos() - this.decodedBase;
+    return Duration.ofNanos(
+      this.inflateNanos + Math.max(0L, this.decoded.nanos() - transfer));
+  }
+
+  @Override
+  public Duration parseTime()
+  {
+    return Duration.ofNanos(this.parseNanos);
+  }
+
+  @Override
+  public Duration totalTime()
+  {
+    return Duration.ofNanos(this.totalNanos);
+  }
+
+  @Override
+  public long bytesReceived()
+  {
+    final var streamed = this.received == null ? 0L : this.received.bytes();
+    return streamed + this.chunkBytes;
+  }
+
+  @Override
+  public long elementCount()
+  {
+    return this.elements;
+  }
+
+  @Override
+  public long errorCount()
+  {
+    return this.errors;
+  }
+
+  @Override
+  public Optional<Throwable> failure()
+  {
+    return Optional.ofNullable(this.failure);
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[AOV3RequestMeasurement %s %s attempts=%d status=%d headers=%s "
+        + "transfer=%s inflate=%s parse=%s total=%s bytes=%d elements=%d "
+        + "errors=%d]",
+      this.kind,
+      this.uri,
+      Integer.valueOf(this.attempts),
+      Integer.valueOf(this.statusCode),
+      this.timeToHeaders(),
+      this.transferTime(),
+      this.inflateTime(),
+      this.parseTime(),
+      this.totalTime(),
+      Long.valueOf(this.bytesReceived()),
+      Long.valueOf(this.elements),
+      Long.valueOf(this.errors)
+    );
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import java.math.BigInteger;
+import java.net.URLEncoder;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to validate and encode the parameters of requests.
+ */
+
+final class AOV3RequestParameters
+{
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+  private static final String UNRESERVED =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~";
+
+  private AOV3RequestParameters()
+  {
+
+  }
+
+  /**
+   * Check that a page number is not negative.
+   *
+   * @param page The page number
+   *
+   * @return {@code page}
+   */
+
+  static BigInteger checkPage(
+    final BigInteger page)
+  {
+    Objects.requireNonNull(page, "page");
+    if (page.signum() < 0) {
+      throw new IllegalArgumentException(
+        String.format("Page %s must be non-negative", page));
+    }
+    return page;
+  }
+
+  /**
+   * Check that a page size is positive.
+   *
+   * @param pageSize The page size
+   *
+   * @return {@code pageSize}
+   */
+
+  static BigInteger checkPageSize(
+    final BigInteger pageSize)
+  {
+    Objects.requireNonNull(pageSize, "pageSize");
+    if (pageSize.signum() <= 0) {
+      throw new IllegalArgumentException(
+        String.format("Page size %s must be positive", pageSize));
+    }
+    return pageSize;
+  }
+
+  /**
+   * Check that a feature version is positive.
+   *
+   * @param version The feature version
+   *
+   * @return {@code version}
+   */
+
+  static BigInteger checkVersion(
+    final BigInteger version)
+  {
+    Objects.requireNonNull(version, "version");
+    if (version.signum() <= 0) {
+      throw new IllegalArgumentException(
+        String.format("Version %s must be positive", version));
+    }
+    return version;
+  }
+
+  /**
+   * Check that a text parameter is not empty.
+   *
+   * @param name  The parameter name
+   * @param value The parameter value
+   *
+   * @return {@code value}
+   */
+
+  static String checkNonEmpty(
+    final String name,
+    final String value)
+  {
+    Objects.requireNonNull(value, name);
+    if (value.isEmpty()) {
+      throw new IllegalArgumentException(
+        String.format("The %s must not be empty", name));
+    }
+    return value;
+  }
+
+  /**
+   * Encode a query parameter value.
+   *
+   * @param value The value
+   *
+   * @return The encoded value
+   */
+
+  static String encodeQueryValue(
+    final String value)
+  {
+    return URLEncoder.encode(value, UTF_8);
+  }
+
+  /**
+   * Encode a single path segment. All characters other than the unreserved
+   * characters of RFC 3986 are percent-encoded, so the encoded segment
+   * cannot introduce additional path segments, a query, or a fragment.
+   *
+   * @param value The path segment
+   *
+   * @return The encoded path segment
+   */
+
+  static String encodePathSegment(
+    final String value)
+  {
+    final var bytes = value.getBytes(UTF_8);
+    final var text = new StringBuilder(bytes.length + 8);
+    for (final var b : bytes) {
+      final var c = b & 0xff;
+      if (isUnreserved(c)) {
+        text.append((char) c);
+      } else {
+        text.append('%');
+        text.append(HEX[c >>> 4]);
+        text.append(HEX[c & 0xf]);
+      }
+    }
+    return text.toString();
+  }
+
+  private static boolean isUnreserved(
+    final int c)
+  {
+    return UNRESERVED.indexOf(c) >= 0;
+  }
+}
@@ -25,13 +25,14 @@ import net.adoptopenjdk.v3.api.AOV3Vendor;
 import net.adoptopenjdk.v3.api.AOV3VersionRange;
 
 import java.math.BigInteger;
-import java.net.URLEncoder;
+import java.net.URI;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.RELEASE_NAMES;
 
 final class AOV3RequestReleaseNames implements AOV3RequestReleaseNamesType
 {
@@ -43,6 +44,7 @@ final class AOV3RequestReleaseNames implements AOV3RequestReleaseNamesType
   private final Optional<AOV3SortOrder> sortOrder;
   private final Optional<AOV3Vendor> vendor;
   private final Optional<AOV3VersionRange> versionRange;
+  private final URI uri;
 
   AOV3RequestReleaseNames(
     final AOV3ClientInternalType inClient,
@@ -59,9 +61,9 @@ final class AOV3RequestReleaseNames implements AOV3RequestReleaseNamesType
     this.errorReceiver =
       Objects.requireNonNull(inErrorReceiver, "errorReceiver");
     this.page =
-      Objects.requireNonNull(inPage, "page");
+      AOV3RequestParameters.checkPage(inPage);
     this.pageSize =
-      Objects.requireNonNull(inPageSize, "pageSize");
+      AOV3RequestParameters.checkPageSize(inPageSize);
     this.releaseKind =
       Objects.requireNonNull(inReleaseKind, "releaseKind");
     this.sortOrder =
@@ -70,11 +72,11 @@ final class AOV3RequestReleaseNames implements AOV3RequestReleaseNamesType
       Objects.requireNonNull(inVendor, "vendor");
     this.versionRange =
       Objects.requireNonNull(inVersionRange, "versionRange");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public List<String> execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
@@ -98,10 +100,33 @@ final class AOV3RequestReleaseNames implements AOV3RequestReleaseNamesType
     });
     this.versionRange.ifPresent(version -> {
       uriBuilder.append("&version=");
-      uriBuilder.append(URLEncoder.encode(version.toText(), UTF_8));
+      uriBuilder.append(
+        AOV3RequestParameters.encodeQueryValue(version.toText()));
     });
 
-    return this.client.parserFor(this.errorReceiver, uriBuilder.toString())
-      .parseReleaseNames();
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public List<String> execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.parse(
+      RELEASE_NAMES,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseReleaseNames
+    );
+  }
+
+  @Override
+  public CompletableFuture<List<String>> executeAsync()
+  {
+    return this.client.parseAsync(
+      RELEASE_NAMES,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseReleaseNames
+    );
   }
 }
@@ -26,13 +26,14 @@ import net.adoptopenjdk.v3.api.AOV3VersionData;
 import net.adoptopenjdk.v3.api.AOV3VersionRange;
 
 import java.math.BigInteger;
-import java.net.URLEncoder;
+import java.net.URI;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.RELEASE_VERSIONS;
 
 final class AOV3RequestReleaseVersions implements AOV3RequestReleaseVersionsType
 {
@@ -44,6 +45,7 @@ final class AOV3RequestReleaseVersions implements AOV3RequestReleaseVersionsType
   private final Optional<AOV3SortOrder> sortOrder;
   private final Optional<AOV3Vendor> vendor;
   private final Optional<AOV3VersionRange> versionRange;
+  private final URI uri;
 
   AOV3RequestReleaseVersions(
     final AOV3ClientInternalType inClient,
@@ -60,9 +62,9 @@ final class AOV3RequestReleaseVersions implements AOV3RequestReleaseVersionsType
     this.errorReceiver =
       Objects.requireNonNull(inErrorReceiver, "errorReceiver");
     this.page =
-      Objects.requireNonNull(inPage, "page");
+      AOV3RequestParameters.checkPage(inPage);
     this.pageSize =
-      Objects.requireNonNull(inPageSize, "pageSize");
+      AOV3RequestParameters.checkPageSize(inPageSize);
     this.releaseKind =
       Objects.requireNonNull(inReleaseKind, "releaseKind");
     this.sortOrder =
@@ -71,11 +73,11 @@ final class AOV3RequestReleaseVersions implements AOV3RequestReleaseVersionsType
       Objects.requireNonNull(inVendor, "vendor");
     this.versionRange =
       Objects.requireNonNull(inVersionRange, "versionRange");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public List<AOV3VersionData> execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
@@ -99,10 +101,33 @@ final class AOV3RequestReleaseVersions implements AOV3RequestReleaseVersionsType
     });
     this.versionRange.ifPresent(version -> {
       uriBuilder.append("&version=");
-      uriBuilder.append(URLEncoder.encode(version.toText(), UTF_8));
+      uriBuilder.append(
+        AOV3RequestParameters.encodeQueryValue(version.toText()));
     });
 
-    return this.client.parserFor(this.errorReceiver, uriBuilder.toString())
-      .parseReleaseVersions();
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public List<AOV3VersionData> execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.parse(
+      RELEASE_VERSIONS,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseReleaseVersions
+    );
+  }
+
+  @Override
+  public CompletableFuture<List<AOV3VersionData>> executeAsync()
+  {
+    return this.client.parseAsync(
+      RELEASE_VERSIONS,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseReleaseVersions
+    );
   }
 }
@@ -21,13 +21,18 @@ import net.adoptopenjdk.v3.api.AOV3Error;
 import net.adoptopenjdk.v3.api.AOV3Exception;
 import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
 
+import java.net.URI;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
+import static net.adoptopenjdk.v3.vanilla.AOV3RequestKind.AVAILABLE_RELEASES;
+
 final class AOV3RequestReleases implements AOV3RequestReleasesType
 {
   private final AOV3ClientInternalType client;
   private final Consumer<AOV3Error> errorReceiver;
+  private final URI uri;
 
   AOV3RequestReleases(
     final Consumer<AOV3Error> inErrorReceiver,
@@ -37,17 +42,39 @@ final class AOV3RequestReleases implements AOV3RequestReleasesType
       Objects.requireNonNull(inErrorReceiver, "inErrorReceiver");
     this.client =
       Objects.requireNonNull(inClient, "client");
+
+    this.uri = this.buildURI();
   }
 
-  @Override
-  public AOV3AvailableReleases execute()
-    throws AOV3Exception, InterruptedException
+  private URI buildURI()
   {
     final var uriBuilder = new StringBuilder(128);
     uriBuilder.append(this.client.baseURI());
     uriBuilder.append("/info/available_releases");
 
-    return this.client.parserFor(this.errorReceiver, uriBuilder.toString())
-      .parseAvailableReleases();
+    return URI.create(uriBuilder.toString());
+  }
+
+  @Override
+  public AOV3AvailableReleases execute()
+    throws AOV3Exception, InterruptedException
+  {
+    return this.client.parse(
+      AVAILABLE_RELEASES,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAvailableReleases
+    );
+  }
+
+  @Override
+  public CompletableFuture<AOV3AvailableReleases> executeAsync()
+  {
+    return this.client.parseAsync(
+      AVAILABLE_RELEASES,
+      this.errorReceiver,
+      this.uri,
+      AOV3ResponseParserType::parseAvailableReleases
+    );
   }
 }
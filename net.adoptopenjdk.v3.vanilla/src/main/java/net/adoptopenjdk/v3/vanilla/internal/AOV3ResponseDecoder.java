@@ -0,0 +1,986 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3Binary;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3Installer;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Package;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Source;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A decoder that builds API values directly from a stream of JSON tokens,
+ * without an intermediate AST.
+ *
+ * Values are coerced in the same manner as Jackson's data binding: missing
+ * fields take the same defaults as the original AST types, scalars are
+ * accepted where strings are expected, and values of the wrong shape cause
+ * an {@link IOException} that fails the entire parse. Each object is always
+ * read to completion before any semantic checks are made, so that an
+ * invalid release or binary can be reported and skipped without losing the
+ * position in the stream.
+ */
+
+final class AOV3ResponseDecoder
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AOV3ResponseDecoder.class);
+
+  private static final AOV3EnumTable<AOV3Architecture> ARCHITECTURES =
+    AOV3EnumTable.create(AOV3Architecture.class, AOV3Architecture::of);
+  private static final AOV3EnumTable<AOV3HeapSize> HEAP_SIZES =
+    AOV3EnumTable.create(AOV3HeapSize.class, AOV3HeapSize::of);
+  private static final AOV3EnumTable<AOV3ImageKind> IMAGE_KINDS =
+    AOV3EnumTable.create(AOV3ImageKind.class, AOV3ImageKind::of);
+  private static final AOV3EnumTable<AOV3JVMImplementation> JVM_IMPLS =
+    AOV3EnumTable.create(
+      AOV3JVMImplementation.class, AOV3JVMImplementation::of);
+  private static final AOV3EnumTable<AOV3OperatingSystem> OPERATING_SYSTEMS =
+    AOV3EnumTable.create(AOV3OperatingSystem.class, AOV3OperatingSystem::of);
+  private static final AOV3EnumTable<AOV3ReleaseKind> RELEASE_KINDS =
+    AOV3EnumTable.create(AOV3ReleaseKind.class, AOV3ReleaseKind::of);
+  private static final AOV3EnumTable<AOV3Vendor> VENDORS =
+    AOV3EnumTable.create(AOV3Vendor.class, AOV3Vendor::of);
+
+  /**
+   * The value used to represent a missing integer. The value itself is
+   * rejected as out of range if it appears in a response.
+   */
+
+  private static final long ABSENT = Long.MIN_VALUE;
+
+  private final Consumer<AOV3Error> errorReceiver;
+  private final URI source;
+  private final AOV3StringTable strings;
+
+  AOV3ResponseDecoder(
+    final Consumer<AOV3Error> inErrorReceiver,
+    final URI inSource,
+    final AOV3StringTable inStrings)
+  {
+    this.errorReceiver =
+      Objects.requireNonNull(inErrorReceiver, "errorReceiver");
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.strings =
+      Objects.requireNonNull(inStrings, "strings");
+  }
+
+  private static MismatchedInputException mismatch(
+    final JsonParser parser,
+    final Class<?> type)
+  {
+    return MismatchedInputException.from(
+      parser,
+      type,
+      String.format(
+        "Cannot deserialize a value of type %s from %s",
+        type.getCanonicalName(),
+        parser.currentToken())
+    );
+  }
+
+  static void expect(
+    final JsonParser parser,
+    final JsonToken expected,
+    final Class<?> type)
+    throws MismatchedInputException
+  {
+    if (parser.currentToken() != expected) {
+      throw mismatch(parser, type);
+    }
+  }
+
+  static String readString(
+    final JsonParser parser)
+    throws IOException
+  {
+    switch (parser.currentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING:
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return parser.getText();
+      default:
+        throw mismatch(parser, String.class);
+    }
+  }
+
+  /**
+   * Read an integer, returning {@link #ABSENT} if the value is null or an
+   * empty string. Values are coerced in the same way as Jackson coerces
+   * values for primitive fields: floating point values are truncated, and
+   * strings are parsed.
+   */
+
+  static long readLong(
+    final JsonParser parser)
+    throws IOException
+  {
+    switch (parser.currentToken()) {
+      case VALUE_NULL:
+        return ABSENT;
+      case VALUE_NUMBER_INT: {
+        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+          throw outOfRange(parser, parser.getText(), long.class);
+        }
+        return checkLong(parser, parser.getLongValue());
+      }
+      case VALUE_NUMBER_FLOAT: {
+        final var value = parser.getDecimalValue().toBigInteger();
+        if (value.bitLength() >= Long.SIZE) {
+          throw outOfRange(parser, parser.getText(), long.class);
+        }
+        return checkLong(parser, value.longValue());
+      }
+      case VALUE_STRING: {
+        final var text = parser.getText().trim();
+        if (text.isEmpty()) {
+          return ABSENT;
+        }
+        try {
+          return checkLong(parser, Long.parseLong(text));
+        } catch (final NumberFormatException e) {
+          throw InvalidFormatException.from(
+            parser, "Not a valid integer", text, long.class);
+        }
+      }
+      default:
+        throw mismatch(parser, long.class);
+    }
+  }
+
+  /**
+   * Read an integer that must fit into an {@code int}, returning
+   * {@link #ABSENT} if the value is null or an empty string.
+   */
+
+  static long readInt(
+    final JsonParser parser)
+    throws IOException
+  {
+    final var value = readLong(parser);
+    if (value != ABSENT
+      && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+      throw outOfRange(parser, Long.toString(value), int.class);
+    }
+    return value;
+  }
+
+  private static long checkLong(
+    final JsonParser parser,
+    final long value)
+    throws InvalidFormatException
+  {
+    if (value == ABSENT) {
+      throw outOfRange(parser, Long.toString(value), long.class);
+    }
+    return value;
+  }
+
+  private static InvalidFormatException outOfRange(
+    final JsonParser parser,
+    final String text,
+    final Class<?> type)
+  {
+    return InvalidFormatException.from(
+      parser, "Integer value out of range", text, type);
+  }
+
+  private static long requireLong(
+    final long value,
+    final String name)
+  {
+    if (value == ABSENT) {
+      throw new NullPointerException(name);
+    }
+    return value;
+  }
+
+  private static int requireInt(
+    final long value,
+    final String name)
+  {
+    return (int) requireLong(value, name);
+  }
+
+  /**
+   * Read a string that is likely to repeat across many objects, returning
+   * the canonical instance from the string table.
+   */
+
+  private String readCanonicalString(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+      return this.strings.canonicalize(
+        parser.getTextCharacters(),
+        parser.getTextOffset(),
+        parser.getTextLength());
+    }
+    return readString(parser);
+  }
+
+  private static URI readURI(
+    final JsonParser parser)
+    throws IOException
+  {
+    switch (parser.currentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING: {
+        final var text = parser.getText();
+        try {
+          return URI.create(text);
+        } catch (final IllegalArgumentException e) {
+          throw InvalidFormatException.from(
+            parser, "Not a valid URI", text, URI.class);
+        }
+      }
+      default:
+        throw mismatch(parser, URI.class);
+    }
+  }
+
+  private static OffsetDateTime toOffsetDateTime(
+    final String text)
+  {
+    return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+  }
+
+  /**
+   * Report an error for an element that could not be converted.
+   *
+   * @param context The element context
+   * @param e       The exception raised
+   */
+
+  void reportError(
+    final String context,
+    final Exception e)
+  {
+    LOG.error("exception raised during {} parsing: ", context, e);
+    this.errorReceiver.accept(
+      AOV3Error.builder()
+        .setContext(context)
+        .setException(e)
+        .setMessage(Objects.requireNonNullElse(
+          e.getMessage(), e.getClass().getName()))
+        .setSource(this.source)
+        .build());
+  }
+
+  /**
+   * Decode a release. The parser must be positioned on the first token of
+   * the value. On return, the parser is positioned on the last token of the
+   * value.
+   *
+   * @param parser The parser
+   *
+   * @return A release
+   *
+   * @throws IOException On I/O errors, or values of the wrong type
+   */
+
+  // CHECKSTYLE:OFF
+  AOV3Release decodeRelease(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      throw new NullPointerException("release");
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3Release.class);
+
+    final var builder = AOV3Release.builder();
+    List<Exception> binaryErrors = null;
+    boolean binariesPresent = true;
+    long downloadCount = 0L;
+    String id = null;
+    URI releaseLink = null;
+    String releaseName = null;
+    AOV3ReleaseKind releaseType = null;
+    String releaseTypeText = null;
+    AOV3Source releaseSource = null;
+    RuntimeException releaseSourceFailure = null;
+    String timestamp = null;
+    String updatedAt = null;
+    AOV3Vendor vendor = null;
+    String vendorText = null;
+    AOV3VersionData versionData = null;
+    RuntimeException versionDataFailure = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final var name = parser.getCurrentName();
+      parser.nextToken();
+
+      switch (name) {
+        case "binaries": {
+          if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            binariesPresent = false;
+            break;
+          }
+          expect(parser, JsonToken.START_ARRAY, List.class);
+          binariesPresent = true;
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            try {
+              builder.addBinaries(this.decodeBinary(parser));
+            } catch (final RuntimeException e) {
+              if (binaryErrors == null) {
+                binaryErrors = new ArrayList<>();
+              }
+              binaryErrors.add(e);
+            }
+          }
+          break;
+        }
+        case "download_count": {
+          downloadCount = readLong(parser);
+          break;
+        }
+        case "id": {
+          id = readString(parser);
+          break;
+        }
+        case "release_link": {
+          releaseLink = readURI(parser);
+          break;
+        }
+        case "release_name": {
+          releaseName = this.readCanonicalString(parser);
+          break;
+        }
+        case "release_type": {
+          releaseType = RELEASE_KINDS.lookup(parser);
+          releaseTypeText = releaseType == null ? readString(parser) : null;
+          break;
+        }
+        case "source": {
+          try {
+            releaseSource = this.decodeSource(parser);
+            releaseSourceFailure = null;
+          } catch (final RuntimeException e) {
+            releaseSourceFailure = e;
+          }
+          break;
+        }
+        case "timestamp": {
+          timestamp = readString(parser);
+          break;
+        }
+        case "updated_at": {
+          updatedAt = readString(parser);
+          break;
+        }
+        case "vendor": {
+          vendor = VENDORS.lookup(parser);
+          vendorText = vendor == null ? readString(parser) : null;
+          break;
+        }
+        case "version_data": {
+          try {
+            versionData = this.decodeVersionData(parser);
+            versionDataFailure = null;
+          } catch (final RuntimeException e) {
+            versionData = null;
+            versionDataFailure = e;
+          }
+          break;
+        }
+        default: {
+          parser.skipChildren();
+          break;
+        }
+      }
+    }
+    expect(parser, JsonToken.END_OBJECT, AOV3Release.class);
+
+    builder
+      .setDownloadCountAsLong(
+        requireLong(downloadCount, "release.downloadCount"))
+      .setId(
+        Objects.requireNonNull(id, "release.id"))
+      .setReleaseLink(
+        Objects.requireNonNull(releaseLink, "release.releaseLink"))
+      .setReleaseName(
+        Objects.requireNonNull(releaseName, "release.releaseName"))
+      .setReleaseType(
+        RELEASE_KINDS.resolve(
+          releaseType, releaseTypeText, "release.releaseType"))
+      .setTimestamp(
+        toOffsetDateTime(
+          Objects.requireNonNull(timestamp, "release.timestamp")))
+      .setUpdatedAt(
+        toOffsetDateTime(
+          Objects.requireNonNull(updatedAt, "release.updatedAt")))
+      .setVendor(
+        VENDORS.resolve(vendor, vendorText, "release.vendor"));
+
+    if (versionDataFailure != null) {
+      throw versionDataFailure;
+    }
+    builder.setVersionData(
+      Objects.requireNonNull(versionData, "release.versionData"));
+
+    if (releaseSourceFailure != null) {
+      throw releaseSourceFailure;
+    }
+    if (releaseSource != null) {
+      builder.setSource(releaseSource);
+    }
+
+    if (!binariesPresent) {
+      throw new NullPointerException("release.binaries");
+    }
+    if (binaryErrors != null) {
+      for (final var e : binaryErrors) {
+        this.reportError("binary", e);
+      }
+    }
+    return builder.build();
+  }
+  // CHECKSTYLE:ON
+
+  /**
+   * Decode a binary. The parser must be positioned on the first token of
+   * the value. On return, the parser is positioned on the last token of the
+   * value.
+   *
+   * @param parser The parser
+   *
+   * @return A binary
+   *
+   * @throws IOException On I/O errors, or values of the wrong type
+   */
+
+  // CHECKSTYLE:OFF
+  AOV3Binary decodeBinary(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      throw new NullPointerException("binary");
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3Binary.class);
+
+    AOV3Architecture architecture = null;
+    String architectureText = null;
+    long downloadCount = 0L;
+    AOV3HeapSize heapSize = null;
+    String heapSizeText = null;
+    AOV3ImageKind imageType = null;
+    String imageTypeText = null;
+    AOV3Installer installer = null;
+    RuntimeException installerFailure = null;
+    AOV3JVMImplementation jvmImplementation = null;
+    String jvmImplementationText = null;
+    AOV3OperatingSystem operatingSystem = null;
+    String operatingSystemText = null;
+    AOV3Package package_ = null;
+    RuntimeException packageFailure = null;
+    String project = null;
+    String scmReference = null;
+    String updatedAt = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final var name = parser.getCurrentName();
+      parser.nextToken();
+
+      switch (name) {
+        case "architecture": {
+          architecture = ARCHITECTURES.lookup(parser);
+          architectureText = architecture == null ? readString(parser) : null;
+          break;
+        }
+        case "download_count": {
+          downloadCount = readLong(parser);
+          break;
+        }
+        case "heap_size": {
+          heapSize = HEAP_SIZES.lookup(parser);
+          heapSizeText = heapSize == null ? readString(parser) : null;
+          break;
+        }
+        case "image_type": {
+          imageType = IMAGE_KINDS.lookup(parser);
+          imageTypeText = imageType == null ? readString(parser) : null;
+          break;
+        }
+        case "installer": {
+          try {
+            installer = this.decodeInstaller(parser);
+            installerFailure = null;
+          } catch (final RuntimeException e) {
+            installerFailure = e;
+          }
+          break;
+        }
+        case "jvm_impl": {
+          jvmImplementation = JVM_IMPLS.lookup(parser);
+          jvmImplementationText =
+            jvmImplementation == null ? readString(parser) : null;
+          break;
+        }
+        case "os": {
+          operatingSystem = OPERATING_SYSTEMS.lookup(parser);
+          operatingSystemText =
+            operatingSystem == null ? readString(parser) : null;
+          break;
+        }
+        case "package": {
+          try {
+            package_ = this.decodePackage(parser);
+            packageFailure = null;
+          } catch (final RuntimeException e) {
+            package_ = null;
+            packageFailure = e;
+          }
+          break;
+        }
+        case "project": {
+          project = this.readCanonicalString(parser);
+          break;
+        }
+        case "scm_ref": {
+          scmReference = this.readCanonicalString(parser);
+          break;
+        }
+        case "updated_at": {
+          updatedAt = readString(parser);
+          break;
+        }
+        default: {
+          parser.skipChildren();
+          break;
+        }
+      }
+    }
+    expect(parser, JsonToken.END_OBJECT, AOV3Binary.class);
+
+    final var builder =
+      AOV3Binary.builder()
+        .setArchitecture(
+          ARCHITECTURES.resolve(
+            architecture, architectureText, "binary.architecture"))
+        .setDownloadCountAsLong(
+          requireLong(downloadCount, "binary.downloadCount"))
+        .setHeapSize(
+          HEAP_SIZES.resolve(
+            heapSize, heapSizeText, "binary.heapSize"))
+        .setImageType(
+          IMAGE_KINDS.resolve(
+            imageType, imageTypeText, "binary.imageType"))
+        .setJvmImplementation(
+          JVM_IMPLS.resolve(
+            jvmImplementation,
+            jvmImplementationText,
+            "binary.jvmImplementation"))
+        .setOperatingSystem(
+          OPERATING_SYSTEMS.resolve(
+            operatingSystem, operatingSystemText, "binary.operatingSystem"));
+
+    if (installerFailure != null) {
+      throw installerFailure;
+    }
+    if (installer != null) {
+      builder.setInstaller(installer);
+    }
+    if (scmReference != null) {
+      builder.setScmReference(scmReference);
+    }
+    if (packageFailure != null) {
+      throw packageFailure;
+    }
+
+    return builder
+      .setPackage_(Objects.requireNonNull(package_, "binary.package"))
+      .setProject(Objects.requireNonNull(project, "binary.project"))
+      .setUpdatedAt(
+        toOffsetDateTime(
+          Objects.requireNonNull(updatedAt, "binary.updatedAt")))
+      .build();
+  }
+  // CHECKSTYLE:ON
+
+  /**
+   * Decode a binary asset view. The parser must be positioned on the first
+   * token of the value. On return, the parser is positioned on the last
+   * token of the value.
+   *
+   * @param parser The parser
+   *
+   * @return A binary asset view
+   *
+   * @throws IOException On I/O errors, or values of the wrong type
+   */
+
+  AOV3ListBinaryAssetView decodeListBinaryAssetView(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      throw new NullPointerException("view");
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3ListBinaryAssetView.class);
+
+    AOV3Binary binary = null;
+    RuntimeException binaryFailure = null;
+    String releaseName = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final var name = parser.getCurrentName();
+      parser.nextToken();
+
+      switch (name) {
+        case "binary": {
+          try {
+            binary = parser.currentToken() == JsonToken.VALUE_NULL
+              ? null
+              : this.decodeBinary(parser);
+            binaryFailure = null;
+          } catch (final RuntimeException e) {
+            binary = null;
+            binaryFailure = e;
+          }
+          break;
+        }
+        case "release_name": {
+          releaseName = this.readCanonicalString(parser);
+          break;
+        }
+        default: {
+          parser.skipChildren();
+          break;
+        }
+      }
+    }
+    expect(parser, JsonToken.END_OBJECT, AOV3ListBinaryAssetView.class);
+
+    if (binaryFailure != null) {
+      throw binaryFailure;
+    }
+
+    return AOV3ListBinaryAssetView.builder()
+      .setBinary(Objects.requireNonNull(binary, "view.binary"))
+      .setReleaseName(Objects.requireNonNull(releaseName, "view.releaseName"))
+      .build();
+  }
+
+  /**
+   * Decode version data. The parser must be positioned on the first token
+   * of the value. On return, the parser is positioned on the last token of
+   * the value.
+   *
+   * @param parser The parser
+   *
+   * @return Version data
+   *
+   * @throws IOException On I/O errors, or values of the wrong type
+   */
+
+  AOV3VersionData decodeVersionData(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      throw new NullPointerException("version");
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3VersionData.class);
+
+    long adoptBuildNumber = 0L;
+    long build = 0L;
+    long major = 0L;
+    long minor = 0L;
+    String openjdkVersion = "";
+    String optional = "";
+    String pre = "";
+    long security = 0L;
+    String semver = "";
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final var name = parser.getCurrentName();
+      parser.nextToken();
+
+      switch (name) {
+        case "adopt_build_number": {
+          adoptBuildNumber = readInt(parser);
+          break;
+        }
+        case "build": {
+          build = readInt(parser);
+          break;
+        }
+        case "major": {
+          major = readInt(parser);
+          break;
+        }
+        case "minor": {
+          minor = readInt(parser);
+          break;
+        }
+        case "openjdk_version": {
+          openjdkVersion = this.readCanonicalString(parser);
+          break;
+        }
+        case "optional": {
+          optional = this.readCanonicalString(parser);
+          break;
+        }
+        case "pre": {
+          pre = this.readCanonicalString(parser);
+          break;
+        }
+        case "security": {
+          security = readInt(parser);
+          break;
+        }
+        case "semver": {
+          semver = this.readCanonicalString(parser);
+          break;
+        }
+        default: {
+          parser.skipChildren();
+          break;
+        }
+      }
+    }
+    expect(parser, JsonToken.END_OBJECT, AOV3VersionData.class);
+
+    return AOV3VersionData.builder()
+      .setAdoptBuildNumberAsInt(
+        requireInt(adoptBuildNumber, "adoptBuildNumber"))
+      .setBuildAsInt(requireInt(build, "build"))
+      .setMajorAsInt(requireInt(major, "major"))
+      .setMinorAsInt(requireInt(minor, "minor"))
+      .setOpenJDKVersion(openjdkVersion)
+      .setOptional(optional)
+      .setPre(pre)
+      .setSecurityAsInt(requireInt(security, "security"))
+      .setSemanticVersion(semver)
+      .build();
+  }
+
+  private AOV3Installer decodeInstaller(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3Installer.class);
+
+    final var builder = AOV3Installer.builder();
+    final var fields = new AOV3AssetFields();
+    fields.decode(parser);
+
+    if (fields.checksum != null) {
+      builder.setChecksum(fields.checksum);
+    }
+    if (fields.checksumLink != null) {
+      builder.setChecksumLink(fields.checksumLink);
+    }
+    if (fields.signatureLink != null) {
+      builder.setSignatureLink(fields.signatureLink);
+    }
+
+    return builder
+      .setDownloadCountAsLong(
+        requireLong(fields.downloadCount, "installer.downloadCount"))
+      .setLink(
+        Objects.requireNonNull(fields.link, "installer.link"))
+      .setName(
+        Objects.requireNonNull(fields.name, "installer.name"))
+      .setSizeAsLong(
+        requireLong(fields.size, "installer.size"))
+      .build();
+  }
+
+  private AOV3Package decodePackage(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3Package.class);
+
+    final var builder = AOV3Package.builder();
+    final var fields = new AOV3AssetFields();
+    fields.decode(parser);
+
+    if (fields.checksum != null) {
+      builder.setChecksum(fields.checksum);
+    }
+    if (fields.checksumLink != null) {
+      builder.setChecksumLink(fields.checksumLink);
+    }
+    if (fields.signatureLink != null) {
+      builder.setSignatureLink(fields.signatureLink);
+    }
+
+    return builder
+      .setDownloadCountAsLong(
+        requireLong(fields.downloadCount, "package.downloadCount"))
+      .setLink(
+        Objects.requireNonNull(fields.link, "package.link"))
+      .setName(
+        Objects.requireNonNull(fields.name, "package.name"))
+      .setSizeAsLong(
+        requireLong(fields.size, "package.size"))
+      .build();
+  }
+
+  private AOV3Source decodeSource(
+    final JsonParser parser)
+    throws IOException
+  {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(parser, JsonToken.START_OBJECT, AOV3Source.class);
+
+    URI link = null;
+    String name = null;
+    long size = 0L;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final var field = parser.getCurrentName();
+      parser.nextToken();
+
+      switch (field) {
+        case "link": {
+          link = readURI(parser);
+          break;
+        }
+        case "name": {
+          name = readString(parser);
+          break;
+        }
+        case "size": {
+          size = readLong(parser);
+          break;
+        }
+        default: {
+          parser.skipChildren();
+          break;
+        }
+      }
+    }
+    expect(parser, JsonToken.END_OBJECT, AOV3Source.class);
+
+    return AOV3Source.builder()
+      .setLink(link)
+      .setName(name)
+      .setSizeAsLong(requireLong(size, "size"))
+      .build();
+  }
+
+  /**
+   * The fields shared by installers and packages.
+   */
+
+  private static final class AOV3AssetFields
+  {
+    private String checksum;
+    private URI checksumLink;
+    private long downloadCount;
+    private URI link;
+    private String name = "";
+    private URI signatureLink;
+    private long size;
+
+    AOV3AssetFields()
+    {
+
+    }
+
+    void decode(
+      final JsonParser parser)
+      throws IOException
+    {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final var field = parser.getCurrentName();
+        parser.nextToken();
+
+        switch (field) {
+          case "checksum": {
+            this.checksum = readString(parser);
+            break;
+          }
+          case "checksum_link": {
+            this.checksumLink = readURI(parser);
+            break;
+          }
+          case "download_count": {
+            this.downloadCount = readLong(parser);
+            break;
+          }
+          case "link": {
+            this.link = readURI(parser);
+            break;
+          }
+          case "name": {
+            this.name = readString(parser);
+            break;
+          }
+          case "signature_link": {
+            this.signatureLink = readURI(parser);
+            break;
+          }
+          case "size": {
+            this.size = readLong(parser);
+            break;
+          }
+          default: {
+            parser.skipChildren();
+            break;
+          }
+        }
+      }
+      expect(parser, JsonToken.END_OBJECT, AOV3AssetFields.class);
+    }
+  }
+}
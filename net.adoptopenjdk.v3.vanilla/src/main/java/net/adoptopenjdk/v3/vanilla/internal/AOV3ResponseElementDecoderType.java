@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * A function that decodes a single array element from a JSON parser.
+ *
+ * @param <T> The type of decoded values
+ */
+
+@FunctionalInterface
+interface AOV3ResponseElementDecoderType<T>
+{
+  /**
+   * Decode an element. The parser must be positioned on the first token of
+   * the element.
+   *
+   * @param decoder The response decoder
+   * @param parser  The parser
+   *
+   * @return A decoded value
+   *
+   * @throws IOException On I/O errors, or values of the wrong type
+   */
+
+  T decode(
+    AOV3ResponseDecoder decoder,
+    JsonParser parser)
+    throws IOException;
+}
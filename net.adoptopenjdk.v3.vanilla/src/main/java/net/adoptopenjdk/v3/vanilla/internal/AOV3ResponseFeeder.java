@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking parser for a JSON array, built on Jackson's non-blocking
+ * parser.
+ *
+ * The tokens of each element are copied into a token buffer as they become
+ * available. When the last token of an element has been copied, the
+ * element is decoded from the buffer with the same decoder used by the
+ * blocking parser, so that elements are validated and errors are reported
+ * identically. Only the element currently being received is buffered.
+ *
+ * @param <T> The type of parsed elements
+ */
+
+final class AOV3ResponseFeeder<T> implements AOV3ResponseFeederType<T>
+{
+  private final JsonParser parser;
+  private final ByteArrayFeeder input;
+  private final AOV3ResponseDecoder decoder;
+  private final String context;
+  private final AOV3ResponseElementDecoderType<T> elementDecoder;
+  private TokenBuffer element;
+  private int depth;
+  private boolean started;
+  private boolean finished;
+
+  AOV3ResponseFeeder(
+    final JsonParser inParser,
+    final AOV3ResponseDecoder inDecoder,
+    final String inContext,
+    final AOV3ResponseElementDecoderType<T> inElementDecoder)
+  {
+    this.parser =
+      Objects.requireNonNull(inParser, "parser");
+    this.input =
+      (ByteArrayFeeder) inParser.getNonBlockingInputFeeder();
+    this.decoder =
+      Objects.requireNonNull(inDecoder, "decoder");
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.elementDecoder =
+      Objects.requireNonNull(inElementDecoder, "elementDecoder");
+  }
+
+  @Override
+  public void feed(
+    final byte[] data,
+    final int offset,
+    final int length,
+    final Consumer<T> receiver)
+    throws AOV3ExceptionParseFailed
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+    Objects.requireNonNull(receiver, "receiver");
+
+    /*
+     * Any data following the end of the array is ignored, as it is by the
+     * blocking parser.
+     */
+
+    if (this.finished || length == 0) {
+      return;
+    }
+
+    try {
+      this.input.feedInput(data, offset, offset + length);
+      this.parseAvailable(receiver);
+    } catch (final IOException e) {
+      throw new AOV3ExceptionParseFailed(e);
+    }
+  }
+
+  @Override
+  public void finish(
+    final Consumer<T> receiver)
+    throws AOV3ExceptionParseFailed
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    try {
+      if (!this.finished) {
+        this.input.endOfInput();
+        this.parseAvailable(receiver);
+      }
+      if (!this.finished) {
+        throw MismatchedInputException.from(
+          this.parser, List.class, "Unexpected end of input");
+      }
+    } catch (final IOException e) {
+      throw new AOV3ExceptionParseFailed(e);
+    } finally {
+      this.close();
+    }
+  }
+
+  private void close()
+  {
+    try {
+      this.parser.close();
+    } catch (final IOException e) {
+      // Closing a non-blocking parser does not perform I/O
+    }
+  }
+
+  /**
+   * Consume all of the tokens that can be parsed from the data pushed so
+   * far.
+   */
+
+  private void parseAvailable(
+    final Consumer<T> receiver)
+    throws IOException
+  {
+    while (!this.finished) {
+      final var token = this.parser.nextToken();
+      if (token == null || token == JsonToken.NOT_AVAILABLE) {
+        return;
+      }
+
+      if (!this.started) {
+        AOV3ResponseDecoder.expect(
+          this.parser, JsonToken.START_ARRAY, List.class);
+        this.started = true;
+        continue;
+      }
+
+      if (this.element == null) {
+        if (token == JsonToken.END_ARRAY) {
+          this.finished = true;
+          return;
+        }
+        this.element = new TokenBuffer(this.parser);
+      }
+
+      this.element.copyCurrentEvent(this.parser);
+      if (token.isStructStart()) {
+        ++this.depth;
+      } else if (token.isStructEnd()) {
+        --this.depth;
+      }
+
+      if (this.depth == 0) {
+        final var buffer = this.element;
+        this.element = null;
+        this.decode(buffer, receiver);
+      }
+    }
+  }
+
+  private void decode(
+    final TokenBuffer buffer,
+    final Consumer<T> receiver)
+    throws IOException
+  {
+    final T value;
+    try (var elementParser = buffer.asParser()) {
+      elementParser.nextToken();
+      value = this.elementDecoder.decode(this.decoder, elementParser);
+    } catch (final RuntimeException e) {
+      this.decoder.reportError(this.context, e);
+      return;
+    }
+    receiver.accept(value);
+  }
+}
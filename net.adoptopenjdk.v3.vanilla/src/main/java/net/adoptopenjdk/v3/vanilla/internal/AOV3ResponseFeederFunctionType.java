@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Error;
+
+import java.net.URI;
+import java.util.function.Consumer;
+
+/**
+ * A function that creates a non-blocking response parser.
+ *
+ * @param <T> The type of parsed elements
+ */
+
+@FunctionalInterface
+public interface AOV3ResponseFeederFunctionType<T>
+{
+  /**
+   * Create a non-blocking parser.
+   *
+   * @param parsers       The parser provider
+   * @param errorReceiver The error receiver
+   * @param source        The source of the data
+   *
+   * @return A parser
+   */
+
+  AOV3ResponseFeederType<T> create(
+    AOV3ResponseParsersType parsers,
+    Consumer<AOV3Error> errorReceiver,
+    URI source);
+}
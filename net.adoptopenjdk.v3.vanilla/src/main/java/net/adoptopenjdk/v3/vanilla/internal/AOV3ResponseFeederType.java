@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking parser for a JSON array of elements. Data is pushed into
+ * the parser as it arrives, and each element is passed to a receiver as
+ * soon as the last byte of the element has been pushed. The parser never
+ * blocks waiting for more data.
+ *
+ * @param <T> The type of parsed elements
+ */
+
+public interface AOV3ResponseFeederType<T>
+{
+  /**
+   * Push data into the parser. The data is consumed in full before this
+   * method returns, and so the array may be reused by the caller.
+   *
+   * @param data     The data
+   * @param offset   The offset of the first byte in {@code data}
+   * @param length   The number of bytes
+   * @param receiver The receiver of parsed elements
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  void feed(
+    byte[] data,
+    int offset,
+    int length,
+    Consumer<T> receiver)
+    throws AOV3ExceptionParseFailed;
+
+  /**
+   * Indicate that no more data will be pushed into the parser.
+   *
+   * @param receiver The receiver of parsed elements
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors, or if the data ended
+   *                                  before the end of the array
+   */
+
+  void finish(
+    Consumer<T> receiver)
+    throws AOV3ExceptionParseFailed;
+}
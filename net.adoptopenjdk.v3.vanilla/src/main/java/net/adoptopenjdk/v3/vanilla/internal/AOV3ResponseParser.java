@@ -16,66 +16,84 @@
 
 package net.adoptopenjdk.v3.vanilla.internal;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import net.adoptopenjdk.v3.api.AOV3Architecture;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
-import net.adoptopenjdk.v3.api.AOV3Binary;
 import net.adoptopenjdk.v3.api.AOV3Error;
 import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
-import net.adoptopenjdk.v3.api.AOV3HeapSize;
-import net.adoptopenjdk.v3.api.AOV3ImageKind;
-import net.adoptopenjdk.v3.api.AOV3Installer;
-import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
 import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
-import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
-import net.adoptopenjdk.v3.api.AOV3Package;
 import net.adoptopenjdk.v3.api.AOV3Release;
-import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
-import net.adoptopenjdk.v3.api.AOV3Source;
-import net.adoptopenjdk.v3.api.AOV3Vendor;
 import net.adoptopenjdk.v3.api.AOV3VersionData;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3AvailableReleasesJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3BinaryJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3InstallerJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ListBinaryAssetViewJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3PackageJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseNamesJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseVersionJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3ReleaseVersionsJSON;
-import static net.adoptopenjdk.v3.vanilla.internal.AOV3AST.AOV3SourceJSON;
 
 public final class AOV3ResponseParser implements AOV3ResponseParserType
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(AOV3ResponseParser.class);
+  /**
+   * The number of array elements buffered before they are converted in
+   * parallel.
+   */
 
+  private static final int BATCH_SIZE = 64;
+
+  private final Consumer<AOV3Error> errorReceiver;
   private final URI source;
   private final InputStream stream;
-  private final Consumer<AOV3Error> errorReceiver;
   private final ObjectMapper objectMapper;
+  private final AOV3StringTable strings;
+  private final AOV3ResponseDecoder decoder;
+  private final Optional<ForkJoinPool> conversionPool;
+
+  public AOV3ResponseParser(
+    final Consumer<AOV3Error> inErrorReceiver,
+    final ObjectMapper inObjectMapper,
+    final URI inSource,
+    final InputStream inStream,
+    final AOV3StringTable inStrings)
+  {
+    this(
+      inErrorReceiver,
+      inObjectMapper,
+      inSource,
+      inStream,
+      inStrings,
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param inErrorReceiver The error receiver
+   * @param inObjectMapper  The object mapper
+   * @param inSource        The source of the stream
+   * @param inStream        The stream
+   * @param inStrings       The table of canonical strings
+   * @param inPool          The pool used to convert the elements of large
+   *                        arrays in parallel, if any
+   */
 
   public AOV3ResponseParser(
     final Consumer<AOV3Error> inErrorReceiver,
     final ObjectMapper inObjectMapper,
     final URI inSource,
-    final InputStream inStream)
+    final InputStream inStream,
+    final AOV3StringTable inStrings,
+    final Optional<ForkJoinPool> inPool)
   {
     this.errorReceiver =
       Objects.requireNonNull(inErrorReceiver, "errorReceiver");
@@ -85,224 +103,12 @@ public final class AOV3ResponseParser implements AOV3ResponseParserType
       Objects.requireNonNull(inSource, "source");
     this.stream =
       Objects.requireNonNull(inStream, "stream");
-  }
-
-  private static AOV3Binary toBinary(
-    final AOV3BinaryJSON binary)
-  {
-    final var architecture =
-      AOV3Architecture.of(
-        Objects.requireNonNull(
-          binary.architecture, "binary.architecture")
-      );
-
-    final var downloadCount =
-      Objects.requireNonNull(
-        binary.downloadCount, "binary.downloadCount");
-
-    final var heapSize =
-      AOV3HeapSize.of(
-        Objects.requireNonNull(
-          binary.heapSize, "binary.heapSize")
-      );
-
-    final var imageType =
-      AOV3ImageKind.of(
-        Objects.requireNonNull(
-          binary.imageType, "binary.imageType")
-      );
-
-    final var jvmImplementation =
-      AOV3JVMImplementation.of(
-        Objects.requireNonNull(
-          binary.jvmImplementation, "binary.jvmImplementation")
-      );
-
-    final var operatingSystem =
-      AOV3OperatingSystem.of(
-        Objects.requireNonNull(
-          binary.operatingSystem, "binary.operatingSystem")
-      );
-
-    final var installer =
-      Optional.ofNullable(binary.installer)
-        .map(AOV3ResponseParser::toInstaller);
-
-    final var scmReference =
-      Optional.ofNullable(binary.scmReference);
-
-    return AOV3Binary.builder()
-      .setArchitecture(architecture)
-      .setDownloadCount(downloadCount)
-      .setHeapSize(heapSize)
-      .setImageType(imageType)
-      .setInstaller(installer)
-      .setJvmImplementation(jvmImplementation)
-      .setOperatingSystem(operatingSystem)
-      .setPackage_(toPackage(binary.package_))
-      .setProject(binary.project)
-      .setScmReference(scmReference)
-      .setUpdatedAt(toOffsetDateTime(binary.updatedAt))
-      .build();
-  }
-
-  private static AOV3Installer toInstaller(
-    final AOV3InstallerJSON installer)
-  {
-    final var checksum =
-      Optional.ofNullable(installer.checksum);
-    final var checksumLink =
-      Optional.ofNullable(installer.checksumLink);
-    final var downloadCount =
-      Objects.requireNonNull(
-        installer.downloadCount,
-        "installer.downloadCount");
-    final var link =
-      Objects.requireNonNull(installer.link, "installer.link");
-    final var name =
-      Objects.requireNonNull(installer.name, "installer.name");
-    final var signatureLink =
-      Optional.ofNullable(installer.signatureLink);
-    final var size =
-      Objects.requireNonNull(installer.size, "installer.size");
-
-    return AOV3Installer.builder()
-      .setChecksum(checksum)
-      .setChecksumLink(checksumLink)
-      .setDownloadCount(downloadCount)
-      .setLink(link)
-      .setName(name)
-      .setSignatureLink(signatureLink)
-      .setSize(size)
-      .build();
-  }
-
-  private static AOV3Package toPackage(
-    final AOV3PackageJSON package_)
-  {
-    final var checksum =
-      Optional.ofNullable(package_.checksum);
-    final var checksumLink =
-      Optional.ofNullable(package_.checksumLink);
-    final var downloadCount =
-      Objects.requireNonNull(package_.downloadCount, "package_.downloadCount");
-    final var link =
-      Objects.requireNonNull(package_.link, "package_.link");
-    final var name =
-      Objects.requireNonNull(package_.name, "package_.name");
-    final var signatureLink =
-      Optional.ofNullable(package_.signatureLink);
-    final var size =
-      Objects.requireNonNull(package_.size, "package_.size");
-
-    return AOV3Package.builder()
-      .setChecksum(checksum)
-      .setChecksumLink(checksumLink)
-      .setDownloadCount(downloadCount)
-      .setLink(link)
-      .setName(name)
-      .setSignatureLink(signatureLink)
-      .setSize(size)
-      .build();
-  }
-
-  private static AOV3VersionData toVersionData(
-    final AOV3ReleaseVersionJSON versionData)
-  {
-    return AOV3VersionData.builder()
-      .setAdoptBuildNumber(versionData.adoptBuildNumber)
-      .setBuild(versionData.build)
-      .setMajor(versionData.major)
-      .setMinor(versionData.minor)
-      .setOpenJDKVersion(versionData.openjdkVersion)
-      .setOptional(versionData.optional)
-      .setPre(versionData.pre)
-      .setSecurity(versionData.security)
-      .setSemanticVersion(versionData.semver)
-      .build();
-  }
-
-  private static AOV3Vendor toVendor(
-    final String vendor)
-  {
-    return AOV3Vendor.of(Objects.requireNonNull(vendor, "vendor"));
-  }
-
-  private static OffsetDateTime toOffsetDateTime(
-    final String text)
-  {
-    return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-  }
-
-  private static AOV3Source toSource(
-    final AOV3SourceJSON source)
-  {
-    return AOV3Source.builder()
-      .setLink(source.link)
-      .setName(source.name)
-      .setSize(source.size)
-      .build();
-  }
-
-  private AOV3Release toRelease(
-    final AOV3ReleaseJSON release)
-  {
-    final var builder = AOV3Release.builder();
-
-    final var downloadCount =
-      Objects.requireNonNull(release.downloadCount, "release.downloadCount");
-    final var id =
-      Objects.requireNonNull(release.id, "release.id");
-    final var releaseLink =
-      Objects.requireNonNull(release.releaseLink, "release.releaseLink");
-    final var releaseName =
-      Objects.requireNonNull(release.releaseName, "release.releaseName");
-    final var of =
-      AOV3ReleaseKind.of(
-        Objects.requireNonNull(release.releaseType, "release.releaseType"));
-    final var timestamp =
-      toOffsetDateTime(
-        Objects.requireNonNull(release.timestamp, "release.timestamp"));
-    final var updatedAt =
-      toOffsetDateTime(
-        Objects.requireNonNull(release.updatedAt, "release.updatedAt"));
-    final var vendor =
-      toVendor(
-        Objects.requireNonNull(release.vendor, "release.vendor"));
-    final var versionData =
-      toVersionData(
-        Objects.requireNonNull(release.versionData, "release.versionData"));
-    final var releaseSource =
-      Optional.ofNullable(release.source).map(AOV3ResponseParser::toSource);
-
-    builder
-      .setDownloadCount(downloadCount)
-      .setId(id)
-      .setReleaseLink(releaseLink)
-      .setReleaseName(releaseName)
-      .setReleaseType(of)
-      .setSource(releaseSource)
-      .setTimestamp(timestamp)
-      .setUpdatedAt(updatedAt)
-      .setVendor(vendor)
-      .setVersionData(versionData);
-
-    for (final var binary : release.binaries) {
-      try {
-        builder.addBinaries(toBinary(binary));
-      } catch (final Exception e) {
-        LOG.error("exception raised during binary parsing: ", e);
-        this.errorReceiver.accept(
-          AOV3Error.builder()
-            .setContext("binary")
-            .setException(e)
-            .setMessage(e.getMessage())
-            .setSource(this.source)
-            .build());
-      }
-    }
-
-    return builder.build();
+    this.strings =
+      Objects.requireNonNull(inStrings, "strings");
+    this.conversionPool =
+      Objects.requireNonNull(inPool, "pool");
+    this.decoder =
+      new AOV3ResponseDecoder(inErrorReceiver, inSource, inStrings);
   }
 
   @Override
@@ -332,9 +138,29 @@ public final class AOV3ResponseParser implements AOV3ResponseParserType
   {
     final var factory = this.objectMapper.getFactory();
     try (var parser = factory.createParser(this.stream)) {
-      final var ast =
-        this.objectMapper.readValue(parser, AOV3ReleaseNamesJSON.class);
-      return List.copyOf(ast.releases);
+      parser.nextToken();
+      AOV3ResponseDecoder.expect(parser, JsonToken.START_OBJECT, List.class);
+
+      final var names = new ArrayList<String>();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final var field = parser.getCurrentName();
+        parser.nextToken();
+
+        if ("releases".equals(field)) {
+          names.clear();
+          if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            continue;
+          }
+          AOV3ResponseDecoder.expect(parser, JsonToken.START_ARRAY, List.class);
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            names.add(Objects.requireNonNull(
+              AOV3ResponseDecoder.readString(parser), "release name"));
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+      return List.copyOf(names);
     } catch (final IOException e) {
       throw new AOV3ExceptionParseFailed(e);
     }
@@ -346,53 +172,94 @@ public final class AOV3ResponseParser implements AOV3ResponseParserType
   {
     final var factory = this.objectMapper.getFactory();
     try (var parser = factory.createParser(this.stream)) {
-      final AOV3ReleaseVersionsJSON ast =
-        this.objectMapper.readValue(parser, AOV3ReleaseVersionsJSON.class);
-
-      return ast.versions.stream()
-        .flatMap(this::tryToVersionData)
-        .collect(Collectors.toList());
+      parser.nextToken();
+      AOV3ResponseDecoder.expect(parser, JsonToken.START_OBJECT, List.class);
+
+      final var versions = new ArrayList<AOV3VersionData>();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final var field = parser.getCurrentName();
+        parser.nextToken();
+
+        if ("versions".equals(field)) {
+          versions.clear();
+          if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            continue;
+          }
+          AOV3ResponseDecoder.expect(parser, JsonToken.START_ARRAY, List.class);
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            try {
+              versions.add(this.decoder.decodeVersionData(parser));
+            } catch (final RuntimeException e) {
+              this.decoder.reportError("version", e);
+            }
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+      return versions;
     } catch (final IOException e) {
       throw new AOV3ExceptionParseFailed(e);
     }
   }
 
-  private Stream<? extends AOV3VersionData> tryToVersionData(
-    final AOV3ReleaseVersionJSON version)
+  @Override
+  public List<AOV3Release> parseAssetsForRelease()
+    throws AOV3ExceptionParseFailed
   {
-    try {
-      return Stream.of(toVersionData(version));
-    } catch (final Exception e) {
-      LOG.error("{}: error encountered during parsing version data: ",
-                this.source, e);
-      this.errorReceiver.accept(
-        AOV3Error.builder()
-          .setContext("version")
-          .setException(e)
-          .setMessage(e.getMessage())
-          .setSource(this.source)
-          .build());
-      return Stream.empty();
-    }
+    final var releases = new ArrayList<AOV3Release>();
+    this.parseAssetsForReleaseStreaming(releases::add);
+    return releases;
   }
 
   @Override
-  public List<AOV3Release> parseAssetsForRelease()
+  public void parseAssetsForReleaseStreaming(
+    final Consumer<AOV3Release> receiver)
     throws AOV3ExceptionParseFailed
   {
+    Objects.requireNonNull(receiver, "receiver");
+
     final var factory = this.objectMapper.getFactory();
     try (var parser = factory.createParser(this.stream)) {
-      final TypeReference<List<AOV3ReleaseJSON>> typeReference =
-        new TypeReference<>()
-      {
-      };
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw MismatchedInputException.from(
+          parser, List.class, "Expected an array of releases");
+      }
 
-      final List<AOV3ReleaseJSON> ast =
-        this.objectMapper.readValue(parser, typeReference);
+      if (this.conversionPool.isPresent()) {
+        this.convertParallel(
+          parser,
+          "release",
+          AOV3ResponseDecoder::decodeRelease,
+          receiver
+        );
+        return;
+      }
 
-      return ast.stream()
-        .flatMap(this::tryToRelease)
-        .collect(Collectors.toList());
+      /*
+       * Decode each element of the array individually, so that only a
+       * single release is held in memory at any given time.
+       */
+
+      while (true) {
+        final var token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+          break;
+        }
+        if (token == null) {
+          throw MismatchedInputException.from(
+            parser, List.class, "Unexpected end of input");
+        }
+
+        final AOV3Release release;
+        try {
+          release = this.decoder.decodeRelease(parser);
+        } catch (final RuntimeException e) {
+          this.decoder.reportError("release", e);
+          continue;
+        }
+        receiver.accept(release);
+      }
     } catch (final IOException e) {
       throw new AOV3ExceptionParseFailed(e);
     }
@@ -404,68 +271,143 @@ public final class AOV3ResponseParser implements AOV3ResponseParserType
   {
     final var factory = this.objectMapper.getFactory();
     try (var parser = factory.createParser(this.stream)) {
-      final TypeReference<List<AOV3ListBinaryAssetViewJSON>> typeReference =
-        new TypeReference<>()
-      {
-      };
-
-      final List<AOV3ListBinaryAssetViewJSON> ast =
-        this.objectMapper.readValue(parser, typeReference);
+      parser.nextToken();
+      AOV3ResponseDecoder.expect(parser, JsonToken.START_ARRAY, List.class);
+
+      final var views = new ArrayList<AOV3ListBinaryAssetView>();
+      if (this.conversionPool.isPresent()) {
+        this.convertParallel(
+          parser,
+          "release",
+          AOV3ResponseDecoder::decodeListBinaryAssetView,
+          views::add
+        );
+        return views;
+      }
 
-      return ast.stream()
-        .flatMap(this::tryToListBinaryAssetView)
-        .collect(Collectors.toList());
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        try {
+          views.add(this.decoder.decodeListBinaryAssetView(parser));
+        } catch (final RuntimeException e) {
+          this.decoder.reportError("release", e);
+        }
+      }
+      return views;
     } catch (final IOException e) {
       throw new AOV3ExceptionParseFailed(e);
     }
   }
 
-  private Stream<? extends AOV3ListBinaryAssetView> tryToListBinaryAssetView(
-    final AOV3ListBinaryAssetViewJSON view)
+  /**
+   * Convert the remaining elements of an array in parallel. The parser must
+   * be positioned on the start of the array. Elements are read from the
+   * parser on the current thread and buffered in batches; each batch is
+   * converted on the conversion pool, and the converted elements (and any
+   * errors reported whilst converting them) are then delivered on the
+   * current thread in the order in which the elements appeared.
+   */
+
+  private <T> void convertParallel(
+    final JsonParser parser,
+    final String context,
+    final AOV3ResponseElementDecoderType<T> elementDecoder,
+    final Consumer<T> receiver)
+    throws IOException
   {
-    try {
-      return Stream.of(toListBinaryAssetView(view));
-    } catch (final Exception e) {
-      LOG.error("exception raised during release parsing: ", e);
-      this.errorReceiver.accept(
-        AOV3Error.builder()
-          .setContext("release")
-          .setException(e)
-          .setMessage(e.getMessage())
-          .setSource(this.source)
-          .build());
-      return Stream.empty();
+    final var pool = this.conversionPool.orElseThrow();
+    final var batch = new ArrayList<Conversion<T>>(BATCH_SIZE);
+
+    while (true) {
+      final var token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY) {
+        break;
+      }
+      if (token == null) {
+        throw MismatchedInputException.from(
+          parser, List.class, "Unexpected end of input");
+      }
+
+      final var buffer = new TokenBuffer(parser);
+      buffer.copyCurrentStructure(parser);
+      batch.add(new Conversion<>(this, context, elementDecoder, buffer));
+
+      if (batch.size() == BATCH_SIZE) {
+        this.deliver(pool, batch, receiver);
+        batch.clear();
+      }
     }
+    this.deliver(pool, batch, receiver);
   }
 
-  private static AOV3ListBinaryAssetView toListBinaryAssetView(
-    final AOV3ListBinaryAssetViewJSON view)
+  private <T> void deliver(
+    final ForkJoinPool pool,
+    final List<Conversion<T>> batch,
+    final Consumer<T> receiver)
+    throws IOException
   {
-    final var builder = AOV3ListBinaryAssetView.builder();
-
-    builder.setBinary(
-      toBinary(Objects.requireNonNull(view.binary, "view.binary")));
-    builder.setReleaseName(
-      Objects.requireNonNull(view.releaseName, "view.releaseName"));
-
-    return builder.build();
+    for (final var conversion : batch) {
+      pool.execute(conversion);
+    }
+    for (final var conversion : batch) {
+      conversion.join();
+      for (final var error : conversion.errors) {
+        this.errorReceiver.accept(error);
+      }
+      if (conversion.failure != null) {
+        throw conversion.failure;
+      }
+      if (conversion.result != null) {
+        receiver.accept(conversion.result);
+      }
+    }
   }
 
-  private Stream<? extends AOV3Release> tryToRelease(
-    final AOV3ReleaseJSON release)
+  /**
+   * The conversion of a single buffered array element. Each conversion has
+   * its own decoder, and collects the errors reported by it so that they
+   * can be delivered in order once the conversion has completed.
+   */
+
+  private static final class Conversion<T> extends RecursiveAction
   {
-    try {
-      return Stream.of(this.toRelease(release));
-    } catch (final Exception e) {
-      LOG.error("exception raised during release parsing: ", e);
-      this.errorReceiver.accept(
-        AOV3Error.builder()
-          .setContext("release")
-          .setException(e)
-          .setMessage(e.getMessage())
-          .setSource(this.source)
-          .build());
-      return Stream.empty();
+    private final AOV3ResponseParser owner;
+    private final String context;
+    private final AOV3ResponseElementDecoderType<T> elementDecoder;
+    private final TokenBuffer buffer;
+    private final ArrayList<AOV3Error> errors;
+    private T result;
+    private IOException failure;
+
+    Conversion(
+      final AOV3ResponseParser inOwner,
+      final String inContext,
+      final AOV3ResponseElementDecoderType<T> inElementDecoder,
+      final TokenBuffer inBuffer)
+    {
+      this.owner = inOwner;
+      this.context = inContext;
+      this.elementDecoder = inElementDecoder;
+      this.buffer = inBuffer;
+      this.errors = new ArrayList<>();
+    }
+
+    @Override
+    protected void compute()
+    {
+      final var decoder =
+        new AOV3ResponseDecoder(
+          this.errors::add,
+          this.owner.source,
+          this.owner.strings);
+
+      try (var parser = this.buffer.asParser()) {
+        parser.nextToken();
+        this.result = this.elementDecoder.decode(decoder, parser);
+      } catch (final RuntimeException e) {
+        decoder.reportError(this.context, e);
+      } catch (final IOException e) {
+        this.failure = e;
+      }
     }
   }
 }
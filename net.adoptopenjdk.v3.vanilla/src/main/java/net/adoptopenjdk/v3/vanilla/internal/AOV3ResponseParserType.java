@@ -23,6 +23,7 @@ import net.adoptopenjdk.v3.api.AOV3Release;
 import net.adoptopenjdk.v3.api.AOV3VersionData;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A response data parser.
@@ -42,6 +43,20 @@ public interface AOV3ResponseParserType
   List<AOV3Release> parseAssetsForRelease()
     throws AOV3ExceptionParseFailed;
 
+  /**
+   * Parse a list of releases, passing each release to the given receiver as
+   * soon as it has been parsed. The full list of releases is never held in
+   * memory.
+   *
+   * @param receiver The release receiver
+   *
+   * @throws AOV3ExceptionParseFailed On parse errors
+   */
+
+  void parseAssetsForReleaseStreaming(
+    Consumer<AOV3Release> receiver)
+    throws AOV3ExceptionParseFailed;
+
   List<AOV3ListBinaryAssetView> parseAssetsForLatest()
     throws AOV3ExceptionParseFailed;
 }
@@ -18,27 +18,63 @@ package net.adoptopenjdk.v3.vanilla.internal;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3Release;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 public final class AOV3ResponseParsers implements AOV3ResponseParsersType
 {
   private final ObjectMapper objectMapper;
+  private final AOV3StringTable strings;
+  private final Optional<ForkJoinPool> conversionPool;
 
   private AOV3ResponseParsers(
-    final ObjectMapper inObjectMapper)
+    final ObjectMapper inObjectMapper,
+    final AOV3StringTable inStrings,
+    final Optional<ForkJoinPool> inConversionPool)
   {
     this.objectMapper =
       Objects.requireNonNull(inObjectMapper, "objectMapper");
+    this.strings =
+      Objects.requireNonNull(inStrings, "strings");
+    this.conversionPool =
+      Objects.requireNonNull(inConversionPool, "conversionPool");
   }
 
   public static AOV3ResponseParsersType create()
   {
     return new AOV3ResponseParsers(
-      AOV3ObjectMappers.createObjectMapper());
+      AOV3ObjectMappers.createObjectMapper(),
+      AOV3StringTable.create(),
+      Optional.empty());
+  }
+
+  /**
+   * Create a parser provider that converts the elements of large arrays of
+   * releases and assets in parallel on the given pool. Elements are
+   * delivered, and errors are reported, in the same order as they would be
+   * by a sequential parser, and on the thread that is executing the parser.
+   *
+   * @param pool The pool used for conversion
+   *
+   * @return A parser provider
+   */
+
+  public static AOV3ResponseParsersType createParallel(
+    final ForkJoinPool pool)
+  {
+    return new AOV3ResponseParsers(
+      AOV3ObjectMappers.createObjectMapper(),
+      AOV3StringTable.create(),
+      Optional.of(Objects.requireNonNull(pool, "pool")));
   }
 
   @Override
@@ -51,7 +87,53 @@ public final class AOV3ResponseParsers implements AOV3ResponseParsersType
       errorReceiver,
       this.objectMapper,
       source,
-      stream
+      stream,
+      this.strings,
+      this.conversionPool
+    );
+  }
+
+  @Override
+  public AOV3ResponseFeederType<AOV3Release> createReleasesFeeder(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI source)
+  {
+    return this.createFeeder(
+      errorReceiver,
+      source,
+      "release",
+      AOV3ResponseDecoder::decodeRelease
     );
   }
+
+  @Override
+  public AOV3ResponseFeederType<AOV3ListBinaryAssetView> createAssetViewsFeeder(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI source)
+  {
+    return this.createFeeder(
+      errorReceiver,
+      source,
+      "release",
+      AOV3ResponseDecoder::decodeListBinaryAssetView
+    );
+  }
+
+  private <T> AOV3ResponseFeederType<T> createFeeder(
+    final Consumer<AOV3Error> errorReceiver,
+    final URI source,
+    final String context,
+    final AOV3ResponseElementDecoderType<T> elementDecoder)
+  {
+    try {
+      return new AOV3ResponseFeeder<>(
+        this.objectMapper.getFactory().createNonBlockingByteArrayParser(),
+        new AOV3ResponseDecoder(errorReceiver, source, this.strings),
+        context,
+        elementDecoder
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
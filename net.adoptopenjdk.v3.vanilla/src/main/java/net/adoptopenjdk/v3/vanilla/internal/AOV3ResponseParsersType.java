@@ -17,6 +17,8 @@
 package net.adoptopenjdk.v3.vanilla.internal;
 
 import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3Release;
 
 import java.io.InputStream;
 import java.net.URI;
@@ -32,4 +34,30 @@ public interface AOV3ResponseParsersType
     Consumer<AOV3Error> errorReceiver,
     URI source,
     InputStream stream);
+
+  /**
+   * Create a non-blocking parser for an array of releases.
+   *
+   * @param errorReceiver The error receiver
+   * @param source        The source of the data
+   *
+   * @return A parser
+   */
+
+  AOV3ResponseFeederType<AOV3Release> createReleasesFeeder(
+    Consumer<AOV3Error> errorReceiver,
+    URI source);
+
+  /**
+   * Create a non-blocking parser for an array of binary asset views.
+   *
+   * @param errorReceiver The error receiver
+   * @param source        The source of the data
+   *
+   * @return A parser
+   */
+
+  AOV3ResponseFeederType<AOV3ListBinaryAssetView> createAssetViewsFeeder(
+    Consumer<AOV3Error> errorReceiver,
+    URI source);
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Exception;
+
+import java.util.function.Consumer;
+
+/**
+ * A function that parses a sequence of values from a response parser,
+ * delivering each value to a receiver as it is parsed.
+ *
+ * @param <T> The type of parsed values
+ */
+
+@FunctionalInterface
+public interface AOV3ResponseStreamingParserFunctionType<T>
+{
+  /**
+   * Parse values using the given parser.
+   *
+   * @param parser   The parser
+   * @param receiver The receiver of parsed values
+   *
+   * @throws AOV3Exception On errors
+   */
+
+  void parse(
+    AOV3ResponseParserType parser,
+    Consumer<T> receiver)
+    throws AOV3Exception;
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+import net.adoptopenjdk.v3.vanilla.AOV3RequestLimiterType.PermitType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * A response body subscriber that parses a JSON array without blocking, and
+ * publishes the parsed elements to a single downstream subscriber.
+ *
+ * Each buffer received from the HTTP client is decompressed (if necessary)
+ * and pushed into a non-blocking parser as soon as it arrives, so parsing
+ * overlaps with the transfer of the rest of the response. Buffers are
+ * requested from the HTTP client one at a time, and only when every element
+ * parsed so far has been delivered and the downstream subscriber has
+ * requested more; a slow subscriber therefore slows the transfer rather
+ * than causing parsed elements to accumulate in memory.
+ *
+ * Parsing, and all signals to the downstream subscriber, take place in a
+ * serialized drain loop that runs on whichever thread most recently had
+ * work for the subscriber: either an HTTP client thread delivering a
+ * buffer, or a thread requesting more elements.
+ *
+ * @param <T> The type of published elements
+ */
+
+final class AOV3ResponseSubscriber<T>
+  implements HttpResponse.BodySubscriber<Void>, Flow.Subscription
+{
+  private final Flow.Subscriber<? super T> downstream;
+  private final AOV3ResponseFeederType<T> feeder;
+  private final AOV3RequestMeasurement measurement;
+  private final BiConsumer<byte[], Throwable> completion;
+  private final ConcurrentLinkedQueue<List<ByteBuffer>> inbound;
+  private final AtomicReference<Flow.Subscription> upstream;
+  private final AtomicReference<Throwable> failure;
+  private final AtomicReference<PermitType> permit;
+  private final AtomicLong demand;
+  private final AtomicInteger wip;
+  private final ArrayDeque<T> pending;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile boolean terminated;
+  private AOV3GZIPFeeder gzip;
+  private ByteArrayOutputStream retained;
+  private byte[] scratch;
+  private boolean requested;
+  private boolean ended;
+  private int chunkElements;
+  private long parseNanos;
+
+  AOV3ResponseSubscriber(
+    final Flow.Subscriber<? super T> inDownstream,
+    final AOV3ResponseFeederType<T> inFeeder,
+    final AOV3RequestMeasurement inMeasurement,
+    final BiConsumer<byte[], Throwable> inCompletion)
+  {
+    this.downstream =
+      Objects.requireNonNull(inDownstream, "downstream");
+    this.feeder =
+      Objects.requireNonNull(inFeeder, "feeder");
+    this.measurement =
+      Objects.requireNonNull(inMeasurement, "measurement");
+    this.completion =
+      Objects.requireNonNull(inCompletion, "completion");
+
+    this.inbound = new ConcurrentLinkedQueue<>();
+    this.upstream = new AtomicReference<>();
+    this.failure = new AtomicReference<>();
+    this.permit = new AtomicReference<>();
+    this.demand = new AtomicLong();
+    this.wip = new AtomicInteger();
+    this.pending = new ArrayDeque<>();
+    this.scratch = new byte[0];
+  }
+
+  /**
+   * Prepare to receive a response body with the given headers.
+   *
+   * @param headers The response headers
+   * @param retain  {@code true} if the decoded body should be retained and
+   *                passed to the completion callback
+   * @param held    The request limiter permit for the request, released
+   *                when the subscription terminates
+   *
+   * @return This subscriber
+   */
+
+  AOV3ResponseSubscriber<T> attach(
+    final HttpHeaders headers,
+    final boolean retain,
+    final PermitType held)
+  {
+    this.permit.set(Objects.requireNonNull(held, "permit"));
+    if (this.terminated) {
+      this.releasePermit();
+    }
+
+    final var encodings =
+      headers.firstValue("Content-Encoding")
+        .orElse("")
+        .split(",");
+
+    for (final var encoding : encodings) {
+      final var name = encoding.trim().toLowerCase(Locale.ROOT);
+      if (name.isEmpty() || "identity".equals(name)) {
+        continue;
+      }
+      if (("gzip".equals(name) || "x-gzip".equals(name)) && this.gzip == null) {
+        this.gzip = new AOV3GZIPFeeder(AOV3InflaterPool.shared());
+        continue;
+      }
+      this.fail(new IOException(
+        String.format("Unsupported content encoding: %s", encoding)));
+    }
+
+    if (retain) {
+      this.retained = new ByteArrayOutputStream();
+    }
+    return this;
+  }
+
+  /**
+   * Publish the elements of the given previously received (and decoded)
+   * response body.
+   *
+   * @param data The response body
+   */
+
+  void attachCached(
+    final byte[] data)
+  {
+    this.onSubscribe(new Flow.Subscription()
+    {
+      private boolean sent;
+
+      @Override
+      public void request(
+        final long count)
+      {
+        if (!this.sent) {
+          this.sent = true;
+          AOV3ResponseSubscriber.this.onNext(List.of(ByteBuffer.wrap(data)));
+          AOV3ResponseSubscriber.this.onComplete();
+        }
+      }
+
+      @Override
+      public void cancel()
+      {
+        this.sent = true;
+      }
+    });
+  }
+
+  /**
+   * Fail the subscription. The failure is delivered to the downstream
+   * subscriber after any elements that have already been parsed.
+   *
+   * @param exception The failure
+   */
+
+  void fail(
+    final Throwable exception)
+  {
+    this.failure.compareAndSet(null, exception);
+    this.drain();
+  }
+
+  @Override
+  public CompletionStage<Void> getBody()
+  {
+    /*
+     * The body is delivered to the downstream subscriber rather than
+     * returned, so the response is available as soon as the headers have
+     * been received.
+     */
+
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public void onSubscribe(
+    final Flow.Subscription subscription)
+  {
+    Objects.requireNonNull(subscription, "subscription");
+
+    if (this.terminated || !this.upstream.compareAndSet(null, subscription)) {
+      subscription.cancel();
+      return;
+    }
+    this.drain();
+  }
+
+  @Override
+  public void onNext(
+    final List<ByteBuffer> buffers)
+  {
+    this.inbound.add(buffers);
+    this.drain();
+  }
+
+  @Override
+  public void onError(
+    final Throwable exception)
+  {
+    this.upstreamDone = true;
+    this.fail(exception);
+  }
+
+  @Override
+  public void onComplete()
+  {
+    this.upstreamDone = true;
+    this.drain();
+  }
+
+  @Override
+  public void request(
+    final long count)
+  {
+    if (count <= 0L) {
+      this.fail(new IllegalArgumentException(
+        String.format("Requested count %d must be positive", count)));
+      return;
+    }
+    this.demand.getAndAccumulate(
+      count, (x, y) -> x + y < 0L ? Long.MAX_VALUE : x + y);
+    this.drain();
+  }
+
+  @Override
+  public void cancel()
+  {
+    this.cancelled = true;
+    this.drain();
+  }
+
+  /**
+   * Run the drain loop. Only one thread runs the loop at any given time; a
+   * thread that calls this method whilst another thread is running the loop
+   * causes that thread to check for work again before it returns.
+   */
+
+  private void drain()
+  {
+    if (this.wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    var missed = 1;
+    while (true) {
+      this.drainAvailable();
+      missed = this.wip.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private void drainAvailable()
+  {
+    while (!this.terminated) {
+      if (this.cancelled) {
+        this.terminate(new CancellationException());
+        return;
+      }
+
+      if (!this.pending.isEmpty()) {
+        if (this.demand.get() == 0L) {
+          return;
+        }
+        this.demand.decrementAndGet();
+        this.downstream.onNext(this.pending.poll());
+        continue;
+      }
+
+      if (this.completeIfFinished() || !this.advance()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Deliver a failure or completion signal downstream, if all of the
+   * elements have been delivered and either signal is due.
+   *
+   * @return {@code true} if the subscription has terminated
+   */
+
+  private boolean completeIfFinished()
+  {
+    final var exception = this.failure.get();
+    if (exception != null) {
+      this.terminate(exception);
+      this.downstream.onError(exception);
+      return true;
+    }
+
+    if (this.ended) {
+      this.terminate(null);
+      this.downstream.onComplete();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Parse the next available chunk of the body, or request another chunk
+   * from upstream if there is outstanding demand.
+   *
+   * @return {@code true} if any input was parsed
+   */
+
+  private boolean advance()
+  {
+    final var buffers = this.inbound.poll();
+    if (buffers != null) {
+      this.requested = false;
+      this.parse(buffers);
+      return true;
+    }
+
+    if (this.upstreamDone) {
+      this.parseEnd();
+      return true;
+    }
+
+    final var subscription = this.upstream.get();
+    if (subscription == null || this.requested || this.demand.get() == 0L) {
+      return false;
+    }
+    this.requested = true;
+    subscription.request(1L);
+    return false;
+  }
+
+  private void parse(
+    final List<ByteBuffer> buffers)
+  {
+    for (final var buffer : buffers) {
+      final var size = buffer.remaining();
+      if (this.scratch.length < size) {
+        this.scratch = new byte[size];
+      }
+      buffer.get(this.scratch, 0, size);
+
+      final var timeThen = System.nanoTime();
+      this.chunkElements = 0;
+      this.parseNanos = 0L;
+
+      try {
+        if (this.gzip != null) {
+          this.gzip.feed(this.scratch, 0, size, this::parseDecoded);
+        } else {
+          this.parseDecoded(this.scratch, 0, size);
+        }
+      } catch (final AOV3Exception e) {
+        this.failure.compareAndSet(null, e);
+      } catch (final IOException e) {
+        this.failure.compareAndSet(null, new AOV3ExceptionParseFailed(e));
+      }
+
+      final var elapsed = System.nanoTime() - timeThen;
+      this.measurement.chunkParsed(
+        size,
+        Math.max(0L, elapsed - this.parseNanos),
+        this.parseNanos,
+        this.chunkElements);
+
+      if (this.failure.get() != null) {
+        return;
+      }
+    }
+  }
+
+  private void parseDecoded(
+    final byte[] data,
+    final int offset,
+    final int length)
+    throws AOV3ExceptionParseFailed
+  {
+    if (this.retained != null) {
+      this.retained.write(data, offset, length);
+    }
+
+    final var timeThen = System.nanoTime();
+    try {
+      this.feeder.feed(data, offset, length, this::parsed);
+    } finally {
+      this.parseNanos += System.nanoTime() - timeThen;
+    }
+  }
+
+  private void parsed(
+    final T element)
+  {
+    ++this.chunkElements;
+    this.pending.add(element);
+  }
+
+  private void parseEnd()
+  {
+    this.ended = true;
+    this.chunkElements = 0;
+
+    final var timeThen = System.nanoTime();
+    try {
+      if (this.gzip != null) {
+        this.gzip.finish();
+      }
+      this.feeder.finish(this::parsed);
+    } catch (final AOV3Exception e) {
+      this.failure.compareAndSet(null, e);
+    } catch (final IOException e) {
+      this.failure.compareAndSet(null, new AOV3ExceptionParseFailed(e));
+    }
+    this.measurement.chunkParsed(
+      0, 0L, System.nanoTime() - timeThen, this.chunkElements);
+  }
+
+  /**
+   * Release all resources held by the subscriber, and cancel the upstream
+   * subscription if it may still be active.
+   */
+
+  private void terminate(
+    final Throwable exception)
+  {
+    this.terminated = true;
+
+    final var subscription = this.upstream.get();
+    if (subscription != null && !this.upstreamDone) {
+      subscription.cancel();
+    }
+    this.releasePermit();
+    if (this.gzip != null) {
+      this.gzip.close();
+    }
+
+    this.pending.clear();
+    this.inbound.clear();
+
+    final var data =
+      exception == null && this.retained != null
+        ? this.retained.toByteArray()
+        : null;
+    this.retained = null;
+    this.completion.accept(data, exception);
+  }
+
+  private void releasePermit()
+  {
+    final var held = this.permit.getAndSet(null);
+    if (held != null) {
+      held.close();
+    }
+  }
+}
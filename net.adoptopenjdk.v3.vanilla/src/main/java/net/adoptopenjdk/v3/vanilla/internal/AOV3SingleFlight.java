@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Exception;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A table of in-flight calls. A call made while an identical call (one with
+ * the same URI) is in progress does not execute, but instead waits for and
+ * returns the result of the call in progress. A key is removed from the
+ * table as soon as its call completes, so results are never reused by
+ * calls that begin afterwards.
+ *
+ * @param <V> The type of call results
+ */
+
+final class AOV3SingleFlight<V>
+{
+  private final ConcurrentHashMap<URI, CompletableFuture<V>> flights;
+
+  AOV3SingleFlight()
+  {
+    this.flights = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * A call that can be executed on the calling thread.
+   *
+   * @param <V> The type of call results
+   */
+
+  @FunctionalInterface
+  interface CallType<V>
+  {
+    /**
+     * Execute the call.
+     *
+     * @return The call result
+     *
+     * @throws AOV3Exception        On errors
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+
+    V call()
+      throws AOV3Exception, InterruptedException;
+  }
+
+  private static boolean isInterruption(
+    final Throwable exception)
+  {
+    return exception instanceof InterruptedException
+      || exception instanceof CompletionException
+      && exception.getCause() instanceof InterruptedException;
+  }
+
+  /**
+   * Execute the given call on the calling thread, or wait for the result of
+   * an identical call that is already in progress. If the thread executing
+   * an identical call is interrupted, the call is retried rather than
+   * failing the threads that were waiting for it.
+   *
+   * @param key  The call key
+   * @param call The call
+   *
+   * @return The call result
+   *
+   * @throws AOV3Exception        On errors
+   * @throws InterruptedException If the calling thread is interrupted
+   */
+
+  V run(
+    final URI key,
+    final CallType<V> call)
+    throws AOV3Exception, InterruptedException
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(call, "call");
+
+    while (true) {
+      final var flight = new CompletableFuture<V>();
+      final var existing = this.flights.putIfAbsent(key, flight);
+      if (existing == null) {
+        return this.lead(key, flight, call);
+      }
+
+      try {
+        return existing.get();
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (!isInterruption(cause)) {
+          throw rethrow(cause);
+        }
+      }
+    }
+  }
+
+  private V lead(
+    final URI key,
+    final CompletableFuture<V> flight,
+    final CallType<V> call)
+    throws AOV3Exception, InterruptedException
+  {
+    final V result;
+    try {
+      result = call.call();
+    } catch (final Throwable e) {
+      this.flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+
+    this.flights.remove(key, flight);
+    flight.complete(result);
+    return result;
+  }
+
+  private static AOV3Exception rethrow(
+    final Throwable exception)
+  {
+    final var cause =
+      exception instanceof CompletionException && exception.getCause() != null
+        ? exception.getCause()
+        : exception;
+
+    if (cause instanceof AOV3Exception) {
+      return (AOV3Exception) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new CompletionException(cause);
+  }
+
+  /**
+   * Start the given asynchronous call, or share the result of an identical
+   * call that is already in progress. Each caller receives its own future,
+   * so cancelling a returned future does not affect other callers.
+   *
+   * @param key  The call key
+   * @param call The call
+   *
+   * @return The future call result
+   */
+
+  CompletableFuture<V> runAsync(
+    final URI key,
+    final Supplier<CompletableFuture<V>> call)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(call, "call");
+
+    final var flight = new CompletableFuture<V>();
+    final var existing = this.flights.putIfAbsent(key, flight);
+    if (existing != null) {
+      return existing.handle((result, exception) -> {
+        if (exception == null) {
+          return CompletableFuture.completedFuture(result);
+        }
+        if (isInterruption(exception)) {
+          return this.runAsync(key, call);
+        }
+        return CompletableFuture.<V>failedFuture(exception);
+      }).thenCompose(Function.identity());
+    }
+
+    final CompletableFuture<V> started;
+    try {
+      started = Objects.requireNonNull(call.get(), "future");
+    } catch (final RuntimeException e) {
+      this.flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      return flight.copy();
+    }
+
+    started.whenComplete((result, exception) -> {
+      this.flights.remove(key, flight);
+      if (exception != null) {
+        flight.completeExceptionally(exception);
+      } else {
+        flight.complete(result);
+      }
+    });
+    return flight.copy();
+  }
+}
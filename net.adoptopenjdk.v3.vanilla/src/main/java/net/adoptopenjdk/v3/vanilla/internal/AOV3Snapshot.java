@@ -0,0 +1,708 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3AvailableReleases;
+import net.adoptopenjdk.v3.api.AOV3Binary;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3Installer;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3Package;
+import net.adoptopenjdk.v3.api.AOV3Release;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Source;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionData;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_CHECKSUM;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_CHECKSUM_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_SIGNATURE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_ARCHITECTURE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_HAS_INSTALLER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_HEAP_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_IMAGE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_INSTALLER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_JVM_IMPLEMENTATION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_OPERATING_SYSTEM;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_PACKAGE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_PROJECT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_RECORD_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_SCM_REFERENCE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_UPDATED_AT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ENUM_TYPES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_AVAILABLE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_BINARIES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_BINARY_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_ENUMS;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_FILE_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_MAGIC;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_RELEASES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_RELEASE_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_DATA;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_OFFSETS;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.MAGIC;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.NONE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_ADOPT_BUILD;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BINARY_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BINARY_START;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BUILD;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_HAS_SOURCE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_ID;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MAJOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MINOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_OPENJDK_VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_OPTIONAL;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_PRE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_RECORD_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SECURITY;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SEMVER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_TIMESTAMP;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_UPDATED_AT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_VENDOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.constantsOf;
+
+/**
+ * A read-only view of a memory-mapped snapshot file.
+ *
+ * The structure of the file is validated when it is opened. Records are
+ * read directly from the mapped file, and API values are only constructed
+ * for the records that a query selects. Strings are decoded at most once
+ * and then cached.
+ */
+
+final class AOV3Snapshot
+{
+  private static final AOV3Architecture[] ARCHITECTURES =
+    AOV3Architecture.values();
+  private static final AOV3HeapSize[] HEAP_SIZES =
+    AOV3HeapSize.values();
+  private static final AOV3ImageKind[] IMAGE_KINDS =
+    AOV3ImageKind.values();
+  private static final AOV3JVMImplementation[] JVM_IMPLEMENTATIONS =
+    AOV3JVMImplementation.values();
+  private static final AOV3OperatingSystem[] OPERATING_SYSTEMS =
+    AOV3OperatingSystem.values();
+  private static final AOV3ReleaseKind[] RELEASE_KINDS =
+    AOV3ReleaseKind.values();
+  private static final AOV3Vendor[] VENDORS =
+    AOV3Vendor.values();
+
+  private final Path file;
+  private final ByteBuffer data;
+  private final int releaseCount;
+  private final int binaryCount;
+  private final int stringCount;
+  private final int releasesAt;
+  private final int binariesAt;
+  private final int stringOffsetsAt;
+  private final int stringDataAt;
+  private final String[] strings;
+  private final AOV3AvailableReleases available;
+
+  private AOV3Snapshot(
+    final Path inFile,
+    final ByteBuffer inData)
+    throws IOException
+  {
+    this.file =
+      Objects.requireNonNull(inFile, "file");
+    this.data =
+      Objects.requireNonNull(inData, "data");
+
+    if (this.data.capacity() < HEADER_SIZE
+      || this.data.getLong(HEADER_MAGIC) != MAGIC) {
+      throw this.corrupt("Not a snapshot file");
+    }
+    final var version = this.data.getInt(HEADER_VERSION);
+    if (version != VERSION) {
+      throw this.corrupt(String.format(
+        "Unsupported snapshot version %d (expected %d)",
+        Integer.valueOf(version),
+        Integer.valueOf(VERSION)));
+    }
+    if (this.data.getInt(HEADER_FILE_SIZE) != this.data.capacity()) {
+      throw this.corrupt("Snapshot file size does not match its header");
+    }
+
+    this.releaseCount = this.count(HEADER_RELEASE_COUNT);
+    this.binaryCount = this.count(HEADER_BINARY_COUNT);
+    this.stringCount = this.count(HEADER_STRING_COUNT);
+    this.releasesAt =
+      this.section(HEADER_RELEASES, this.releaseCount, RELEASE_RECORD_SIZE);
+    this.binariesAt =
+      this.section(HEADER_BINARIES, this.binaryCount, BINARY_RECORD_SIZE);
+    this.stringOffsetsAt =
+      this.section(HEADER_STRING_OFFSETS, this.stringCount + 1, Integer.BYTES);
+    this.stringDataAt =
+      this.section(HEADER_STRING_DATA, 0, 0);
+    this.strings = new String[this.stringCount];
+
+    this.checkStrings();
+    this.checkEnums();
+    this.available = this.readAvailable();
+  }
+
+  /**
+   * Open and validate a snapshot file.
+   *
+   * @param file The file
+   *
+   * @return A snapshot
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid snapshot
+   */
+
+  static AOV3Snapshot open(
+    final Path file)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(file, READ)) {
+      final var size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(
+          String.format("%s: Snapshot file is too large", file));
+      }
+      return new AOV3Snapshot(
+        file, channel.map(FileChannel.MapMode.READ_ONLY, 0L, size));
+    }
+  }
+
+  private IOException corrupt(
+    final String message)
+  {
+    return new IOException(String.format("%s: %s", this.file, message));
+  }
+
+  private int count(
+    final int header)
+    throws IOException
+  {
+    final var value = this.data.getInt(header);
+    if (value < 0) {
+      throw this.corrupt("Negative record count");
+    }
+    return value;
+  }
+
+  private int section(
+    final int header,
+    final int count,
+    final int recordSize)
+    throws IOException
+  {
+    final var offset = this.data.getInt(header);
+    final var end = (long) offset + (long) count * (long) recordSize;
+    if (offset < HEADER_SIZE || end > this.data.capacity()) {
+      throw this.corrupt("Section lies outside of the file");
+    }
+    return offset;
+  }
+
+  private int intAt(
+    final int position)
+    throws IOException
+  {
+    if (position < HEADER_SIZE
+      || position > this.data.capacity() - Integer.BYTES) {
+      throw this.corrupt("Section lies outside of the file");
+    }
+    return this.data.getInt(position);
+  }
+
+  private void checkStrings()
+    throws IOException
+  {
+    final var limit = this.data.capacity() - this.stringDataAt;
+    int previous = 0;
+    for (int index = 0; index <= this.stringCount; ++index) {
+      final var offset =
+        this.data.getInt(this.stringOffsetsAt + index * Integer.BYTES);
+      if (offset < previous || offset > limit) {
+        throw this.corrupt("Malformed string table");
+      }
+      previous = offset;
+    }
+  }
+
+  private void checkEnums()
+    throws IOException
+  {
+    int position = this.data.getInt(HEADER_ENUMS);
+    for (final var type : ENUM_TYPES) {
+      final var constants = constantsOf(type);
+      if (this.intAt(position) != constants.length) {
+        throw this.incompatibleEnum(type);
+      }
+      position += Integer.BYTES;
+      for (final var constant : constants) {
+        final var name = this.intAt(position);
+        if (!this.stringEquals(name, constant.nameText())) {
+          throw this.incompatibleEnum(type);
+        }
+        position += Integer.BYTES;
+      }
+    }
+  }
+
+  private IOException incompatibleEnum(
+    final Class<?> type)
+  {
+    return this.corrupt(String.format(
+      "The snapshot was written with a different set of %s values",
+      type.getSimpleName()));
+  }
+
+  private AOV3AvailableReleases readAvailable()
+    throws IOException
+  {
+    int position = this.data.getInt(HEADER_AVAILABLE);
+    final var builder = AOV3AvailableReleases.builder();
+    builder.setMostRecentFeatureRelease(
+      BigInteger.valueOf(this.intAt(position)));
+    builder.setMostRecentLTSRelease(
+      BigInteger.valueOf(this.intAt(position + Integer.BYTES)));
+    position += 2 * Integer.BYTES;
+
+    final var releases = this.intAt(position);
+    position += Integer.BYTES;
+    for (int index = 0; index < releases; ++index) {
+      builder.addAvailableReleases(
+        BigInteger.valueOf(this.intAt(position)));
+      position += Integer.BYTES;
+    }
+
+    final var releasesLTS = this.intAt(position);
+    position += Integer.BYTES;
+    for (int index = 0; index < releasesLTS; ++index) {
+      builder.addAvailableLTSReleases(
+        BigInteger.valueOf(this.intAt(position)));
+      position += Integer.BYTES;
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return The file from which the snapshot was read
+   */
+
+  Path file()
+  {
+    return this.file;
+  }
+
+  /**
+   * @return The available releases
+   */
+
+  AOV3AvailableReleases availableReleases()
+  {
+    return this.available;
+  }
+
+  /**
+   * @return The number of releases, which are ordered by ascending version
+   */
+
+  int releaseCount()
+  {
+    return this.releaseCount;
+  }
+
+  private int releaseBase(
+    final int release)
+  {
+    Objects.checkIndex(release, this.releaseCount);
+    return this.releasesAt + release * RELEASE_RECORD_SIZE;
+  }
+
+  private int binaryBase(
+    final int binary)
+  {
+    Objects.checkIndex(binary, this.binaryCount);
+    return this.binariesAt + binary * BINARY_RECORD_SIZE;
+  }
+
+  int releaseInt(
+    final int release,
+    final int field)
+  {
+    return this.data.getInt(this.releaseBase(release) + field);
+  }
+
+  int releaseByte(
+    final int release,
+    final int field)
+  {
+    return this.data.get(this.releaseBase(release) + field);
+  }
+
+  int binaryInt(
+    final int binary,
+    final int field)
+  {
+    return this.data.getInt(this.binaryBase(binary) + field);
+  }
+
+  int binaryByte(
+    final int binary,
+    final int field)
+  {
+    return this.data.get(this.binaryBase(binary) + field);
+  }
+
+  /**
+   * @param release The release index
+   *
+   * @return The index of the first binary of the release
+   */
+
+  int binaryStart(
+    final int release)
+  {
+    final var start = this.releaseInt(release, RELEASE_BINARY_START);
+    final var count = this.releaseInt(release, RELEASE_BINARY_COUNT);
+    Objects.checkFromIndexSize(start, count, this.binaryCount);
+    return start;
+  }
+
+  /**
+   * @param release The release index
+   *
+   * @return The number of binaries in the release
+   */
+
+  int binaryCount(
+    final int release)
+  {
+    return this.releaseInt(release, RELEASE_BINARY_COUNT);
+  }
+
+  /**
+   * Decode the string with the given index.
+   *
+   * @param index The string index
+   *
+   * @return The string
+   */
+
+  String string(
+    final int index)
+  {
+    Objects.checkIndex(index, this.stringCount);
+
+    /*
+     * Races between threads filling the cache are benign: every thread
+     * decodes an equal string.
+     */
+
+    final var cached = this.strings[index];
+    if (cached != null) {
+      return cached;
+    }
+
+    final var encoded = this.data.duplicate();
+    encoded.limit(this.stringDataAt + this.stringEnd(index));
+    encoded.position(this.stringDataAt + this.stringStart(index));
+
+    final var text = UTF_8.decode(encoded).toString();
+    this.strings[index] = text;
+    return text;
+  }
+
+  private int stringStart(
+    final int index)
+  {
+    return this.data.getInt(this.stringOffsetsAt + index * Integer.BYTES);
+  }
+
+  private int stringEnd(
+    final int index)
+  {
+    return this.data.getInt(
+      this.stringOffsetsAt + (index + 1) * Integer.BYTES);
+  }
+
+  /**
+   * Compare the string with the given index to the given UTF-8 encoded
+   * text, without decoding the string.
+   *
+   * @param index The string index
+   * @param utf8  The encoded text
+   *
+   * @return {@code true} if the string is equal to the text
+   */
+
+  boolean stringEquals(
+    final int index,
+    final byte[] utf8)
+  {
+    Objects.checkIndex(index, this.stringCount);
+
+    final var start = this.stringStart(index);
+    if (this.stringEnd(index) - start != utf8.length) {
+      return false;
+    }
+    final var base = this.stringDataAt + start;
+    for (int offset = 0; offset < utf8.length; ++offset) {
+      if (this.data.get(base + offset) != utf8[offset]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean stringEquals(
+    final int index,
+    final String text)
+  {
+    return index >= 0
+      && index < this.stringCount
+      && this.stringEquals(index, text.getBytes(UTF_8));
+  }
+
+  private Optional<String> optionalString(
+    final int index)
+  {
+    if (index == NONE) {
+      return Optional.empty();
+    }
+    return Optional.of(this.string(index));
+  }
+
+  private URI uri(
+    final int index)
+  {
+    return URI.create(this.string(index));
+  }
+
+  private Optional<URI> optionalURI(
+    final int index)
+  {
+    if (index == NONE) {
+      return Optional.empty();
+    }
+    return Optional.of(this.uri(index));
+  }
+
+  private OffsetDateTime time(
+    final int offset)
+  {
+    final var seconds = this.data.getLong(offset);
+    final var nanos = this.data.getInt(offset + 8);
+    final var zone = this.data.getInt(offset + 12);
+    return OffsetDateTime.ofInstant(
+      Instant.ofEpochSecond(seconds, nanos),
+      ZoneOffset.ofTotalSeconds(zone));
+  }
+
+  /**
+   * @param release The release index
+   *
+   * @return The release kind
+   */
+
+  AOV3ReleaseKind releaseKind(
+    final int release)
+  {
+    return RELEASE_KINDS[this.releaseByte(release, RELEASE_KIND)];
+  }
+
+  /**
+   * @param release The release index
+   *
+   * @return The version data of the release
+   */
+
+  AOV3VersionData versionData(
+    final int release)
+  {
+    return AOV3VersionData.builder()
+      .setMajorAsInt(this.releaseInt(release, RELEASE_MAJOR))
+      .setMinorAsInt(this.releaseInt(release, RELEASE_MINOR))
+      .setSecurityAsInt(this.releaseInt(release, RELEASE_SECURITY))
+      .setBuildAsInt(this.releaseInt(release, RELEASE_BUILD))
+      .setAdoptBuildNumberAsInt(this.releaseInt(release, RELEASE_ADOPT_BUILD))
+      .setOpenJDKVersion(
+        this.string(this.releaseInt(release, RELEASE_OPENJDK_VERSION)))
+      .setOptional(
+        this.string(this.releaseInt(release, RELEASE_OPTIONAL)))
+      .setPre(
+        this.string(this.releaseInt(release, RELEASE_PRE)))
+      .setSemanticVersion(
+        this.string(this.releaseInt(release, RELEASE_SEMVER)))
+      .build();
+  }
+
+  /**
+   * Construct a release, including only those binaries accepted by the
+   * given filter.
+   *
+   * @param release The release index
+   * @param filter  The binary filter
+   *
+   * @return The release
+   */
+
+  AOV3Release release(
+    final int release,
+    final IntPredicate filter)
+  {
+    final var base = this.releaseBase(release);
+    final var builder = AOV3Release.builder();
+    builder.setId(this.string(this.data.getInt(base + RELEASE_ID)));
+    builder.setReleaseName(this.string(this.data.getInt(base + RELEASE_NAME)));
+    builder.setReleaseLink(this.uri(this.data.getInt(base + RELEASE_LINK)));
+    builder.setReleaseType(this.releaseKind(release));
+    builder.setVendor(VENDORS[this.data.get(base + RELEASE_VENDOR)]);
+    builder.setTimestamp(this.time(base + RELEASE_TIMESTAMP));
+    builder.setUpdatedAt(this.time(base + RELEASE_UPDATED_AT));
+    builder.setDownloadCountAsLong(
+      this.data.getLong(base + RELEASE_DOWNLOAD_COUNT));
+    builder.setVersionData(this.versionData(release));
+
+    if (this.data.get(base + RELEASE_HAS_SOURCE) != 0) {
+      builder.setSource(
+        AOV3Source.builder()
+          .setLink(this.uri(this.data.getInt(base + RELEASE_SOURCE_LINK)))
+          .setName(this.string(this.data.getInt(base + RELEASE_SOURCE_NAME)))
+          .setSizeAsLong(this.data.getLong(base + RELEASE_SOURCE_SIZE))
+          .build());
+    }
+
+    final var start = this.binaryStart(release);
+    final var end = start + this.binaryCount(release);
+    for (int binary = start; binary < end; ++binary) {
+      if (filter.test(binary)) {
+        builder.addBinaries(this.binary(binary));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @param binary The binary index
+   *
+   * @return The binary
+   */
+
+  AOV3Binary binary(
+    final int binary)
+  {
+    final var base = this.binaryBase(binary);
+    final var builder = AOV3Binary.builder();
+    builder.setArchitecture(
+      ARCHITECTURES[this.data.get(base + BINARY_ARCHITECTURE)]);
+    builder.setHeapSize(
+      HEAP_SIZES[this.data.get(base + BINARY_HEAP_SIZE)]);
+    builder.setImageType(
+      IMAGE_KINDS[this.data.get(base + BINARY_IMAGE_KIND)]);
+    builder.setJvmImplementation(
+      JVM_IMPLEMENTATIONS[this.data.get(base + BINARY_JVM_IMPLEMENTATION)]);
+    builder.setOperatingSystem(
+      OPERATING_SYSTEMS[this.data.get(base + BINARY_OPERATING_SYSTEM)]);
+    builder.setProject(
+      this.string(this.data.getInt(base + BINARY_PROJECT)));
+    builder.setUpdatedAt(
+      this.time(base + BINARY_UPDATED_AT));
+    builder.setDownloadCountAsLong(
+      this.data.getLong(base + BINARY_DOWNLOAD_COUNT));
+    this.optionalString(this.data.getInt(base + BINARY_SCM_REFERENCE))
+      .ifPresent(builder::setScmReference);
+
+    final var pack = base + BINARY_PACKAGE;
+    final var packBuilder = AOV3Package.builder();
+    this.optionalString(this.data.getInt(pack + ASSET_CHECKSUM))
+      .ifPresent(packBuilder::setChecksum);
+    this.optionalURI(this.data.getInt(pack + ASSET_CHECKSUM_LINK))
+      .ifPresent(packBuilder::setChecksumLink);
+    this.optionalURI(this.data.getInt(pack + ASSET_SIGNATURE_LINK))
+      .ifPresent(packBuilder::setSignatureLink);
+    builder.setPackage_(
+      packBuilder
+        .setDownloadCountAsLong(this.data.getLong(pack + ASSET_DOWNLOAD_COUNT))
+        .setLink(this.uri(this.data.getInt(pack + ASSET_LINK)))
+        .setName(this.string(this.data.getInt(pack + ASSET_NAME)))
+        .setSizeAsLong(this.data.getLong(pack + ASSET_SIZE))
+        .build());
+
+    if (this.data.get(base + BINARY_HAS_INSTALLER) != 0) {
+      final var inst = base + BINARY_INSTALLER;
+      final var instBuilder = AOV3Installer.builder();
+      this.optionalString(this.data.getInt(inst + ASSET_CHECKSUM))
+        .ifPresent(instBuilder::setChecksum);
+      this.optionalURI(this.data.getInt(inst + ASSET_CHECKSUM_LINK))
+        .ifPresent(instBuilder::setChecksumLink);
+      this.optionalURI(this.data.getInt(inst + ASSET_SIGNATURE_LINK))
+        .ifPresent(instBuilder::setSignatureLink);
+      builder.setInstaller(
+        instBuilder
+          .setDownloadCountAsLong(
+            this.data.getLong(inst + ASSET_DOWNLOAD_COUNT))
+          .setLink(this.uri(this.data.getInt(inst + ASSET_LINK)))
+          .setName(this.string(this.data.getInt(inst + ASSET_NAME)))
+          .setSizeAsLong(this.data.getLong(inst + ASSET_SIZE))
+          .build());
+    }
+    return builder.build();
+  }
+
+  /**
+   * @param binary The binary index
+   *
+   * @return The link to the package of the binary
+   */
+
+  URI packageLink(
+    final int binary)
+  {
+    return this.uri(this.binaryInt(binary, BINARY_PACKAGE + ASSET_LINK));
+  }
+}
@@ -0,0 +1,624 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3ClientType;
+import net.adoptopenjdk.v3.api.AOV3Error;
+import net.adoptopenjdk.v3.api.AOV3Exception;
+import net.adoptopenjdk.v3.api.AOV3ExceptionHTTPRequestFailed;
+import net.adoptopenjdk.v3.api.AOV3ExceptionParseFailed;
+import net.adoptopenjdk.v3.api.AOV3HasNameTextType;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3ListBinaryAssetView;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestAssetsForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForLatestType;
+import net.adoptopenjdk.v3.api.AOV3RequestBinaryForReleaseType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseNamesType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleaseVersionsType;
+import net.adoptopenjdk.v3.api.AOV3RequestReleasesType;
+import net.adoptopenjdk.v3.api.AOV3SortOrder;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+import net.adoptopenjdk.v3.api.AOV3VersionRange;
+import net.adoptopenjdk.v3.vanilla.internal.AOV3LocalQueries.VersionRangeFilter;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.adoptopenjdk.v3.api.AOV3ReleaseKind.GENERAL_AVAILABILITY;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_ARCHITECTURE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_HEAP_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_IMAGE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_JVM_IMPLEMENTATION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_OPERATING_SYSTEM;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_PROJECT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BUILD;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MAJOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MINOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SECURITY;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SEMVER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_VENDOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ordinalOf;
+
+/**
+ * A client that answers API calls from a snapshot file instead of the
+ * network.
+ *
+ * Queries filter the fixed-size records of the mapped file directly, and
+ * only the records that are actually returned are decoded into API values.
+ */
+
+public final class AOV3SnapshotClient implements AOV3ClientType
+{
+  private static final byte[] DEFAULT_PROJECT =
+    AOV3LocalQueries.DEFAULT_PROJECT.getBytes(UTF_8);
+  private static final int ANY = -1;
+  private static final int[] PLATFORM_FIELDS = {
+    BINARY_HEAP_SIZE,
+    BINARY_IMAGE_KIND,
+    BINARY_ARCHITECTURE,
+    BINARY_OPERATING_SYSTEM,
+  };
+
+  private final AOV3Snapshot snapshot;
+  private final AOV3MessagesType messages;
+  private final URI source;
+
+  private AOV3SnapshotClient(
+    final AOV3Snapshot inSnapshot,
+    final AOV3MessagesType inMessages)
+  {
+    this.snapshot =
+      Objects.requireNonNull(inSnapshot, "snapshot");
+    this.messages =
+      Objects.requireNonNull(inMessages, "messages");
+    this.source =
+      inSnapshot.file().toUri();
+  }
+
+  /**
+   * Open a client backed by the given snapshot file.
+   *
+   * @param file     The snapshot file
+   * @param messages A message provider
+   *
+   * @return A client
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid snapshot
+   */
+
+  public static AOV3SnapshotClient open(
+    final Path file,
+    final AOV3MessagesType messages)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(messages, "messages");
+    return new AOV3SnapshotClient(AOV3Snapshot.open(file), messages);
+  }
+
+  private static int ordinalOrAny(
+    final Optional<? extends AOV3HasNameTextType> value)
+  {
+    if (value.isPresent()) {
+      return ordinalOf(value.get());
+    }
+    return ANY;
+  }
+
+  @Override
+  public void close()
+  {
+    // The mapping is released when the snapshot is garbage collected
+  }
+
+  private <T> T run(
+    final QueryType<T> query)
+    throws AOV3Exception
+  {
+    try {
+      return query.run();
+    } catch (final RuntimeException e) {
+      throw new AOV3ExceptionParseFailed(e);
+    }
+  }
+
+  private AOV3ExceptionHTTPRequestFailed failed(
+    final int statusCode)
+  {
+    return new AOV3ExceptionHTTPRequestFailed(
+      statusCode,
+      this.source,
+      this.messages.requestFailed(statusCode, this.source),
+      Map.of()
+    );
+  }
+
+  private IntPredicate releaseFilter(
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    final var kind = ordinalOrAny(releaseKind);
+    final var vendorOrdinal = ordinalOrAny(vendor);
+    final var range = VersionRangeFilter.of(versionRange);
+
+    return release -> {
+      if (kind != ANY
+        && this.snapshot.releaseByte(release, RELEASE_KIND) != kind) {
+        return false;
+      }
+      final var releaseVendor =
+        this.snapshot.releaseByte(release, RELEASE_VENDOR);
+      if (vendorOrdinal != ANY && releaseVendor != vendorOrdinal) {
+        return false;
+      }
+      return range.matches(
+        this.snapshot.releaseInt(release, RELEASE_MAJOR),
+        this.snapshot.releaseInt(release, RELEASE_MINOR),
+        this.snapshot.releaseInt(release, RELEASE_SECURITY),
+        this.snapshot.releaseInt(release, RELEASE_BUILD)
+      );
+    };
+  }
+
+  private <T> List<T> page(
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3SortOrder> sortOrder,
+    final IntFunction<T> selector)
+    throws AOV3ExceptionHTTPRequestFailed
+  {
+    return AOV3LocalQueries.page(
+      page,
+      pageSize,
+      sortOrder,
+      this.snapshot.releaseCount(),
+      selector,
+      this::failed
+    );
+  }
+
+  private boolean hasMatchingBinary(
+    final int release,
+    final IntPredicate filter)
+  {
+    final var start = this.snapshot.binaryStart(release);
+    final var end = start + this.snapshot.binaryCount(release);
+    for (int binary = start; binary < end; ++binary) {
+      if (filter.test(binary)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int firstMatchingBinary(
+    final int release,
+    final IntPredicate filter)
+  {
+    final var start = this.snapshot.binaryStart(release);
+    final var end = start + this.snapshot.binaryCount(release);
+    for (int binary = start; binary < end; ++binary) {
+      if (filter.test(binary)) {
+        return binary;
+      }
+    }
+    return ANY;
+  }
+
+  @Override
+  public AOV3RequestReleasesType availableReleases(
+    final Consumer<AOV3Error> errorReceiver)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    return this.snapshot::availableReleases;
+  }
+
+  @Override
+  public AOV3RequestReleaseNamesType releaseNames(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+    Objects.requireNonNull(vendor, "vendor");
+    Objects.requireNonNull(versionRange, "versionRange");
+
+    return () -> this.run(() -> {
+      final var filter = this.releaseFilter(releaseKind, vendor, versionRange);
+      return this.page(page, pageSize, sortOrder, release -> {
+        if (!filter.test(release)) {
+          return null;
+        }
+        return this.snapshot.string(
+          this.snapshot.releaseInt(release, RELEASE_NAME));
+      });
+    });
+  }
+
+  @Override
+  public AOV3RequestReleaseVersionsType releaseVersions(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final Optional<AOV3ReleaseKind> releaseKind,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor,
+    final Optional<AOV3VersionRange> versionRange)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+    Objects.requireNonNull(vendor, "vendor");
+    Objects.requireNonNull(versionRange, "versionRange");
+
+    return () -> this.run(() -> {
+      final var filter = this.releaseFilter(releaseKind, vendor, versionRange);
+
+      /*
+       * Strings are pooled in the snapshot, so releases with equal semantic
+       * versions share a string index.
+       */
+
+      final var seen = new HashSet<Integer>();
+      return this.page(page, pageSize, sortOrder, release -> {
+        if (!filter.test(release)) {
+          return null;
+        }
+        final var semver = this.snapshot.releaseInt(release, RELEASE_SEMVER);
+        if (!seen.add(Integer.valueOf(semver))) {
+          return null;
+        }
+        return this.snapshot.versionData(release);
+      });
+    });
+  }
+
+  // CHECKSTYLE:OFF
+  @Override
+  public AOV3RequestAssetsForReleaseType assetsForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger page,
+    final BigInteger pageSize,
+    final BigInteger version,
+    final AOV3ReleaseKind releaseKind,
+    final Optional<AOV3Architecture> architecture,
+    final Optional<AOV3HeapSize> heapSize,
+    final Optional<AOV3ImageKind> imageKind,
+    final Optional<AOV3JVMImplementation> jvmImplementation,
+    final Optional<AOV3OperatingSystem> operatingSystem,
+    final Optional<String> project,
+    final Optional<AOV3SortOrder> sortOrder,
+    final Optional<AOV3Vendor> vendor
+  // CHECKSTYLE:ON
+  )
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(pageSize, "pageSize");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(sortOrder, "sortOrder");
+    Objects.requireNonNull(vendor, "vendor");
+
+    final var binaries = new BinaryFilter(
+      this.snapshot,
+      ordinalOrAny(architecture),
+      ordinalOrAny(heapSize),
+      ordinalOrAny(imageKind),
+      ordinalOrAny(jvmImplementation),
+      ordinalOrAny(operatingSystem),
+      project
+    );
+
+    return () -> this.run(() -> {
+      final var major = AOV3LocalQueries.versionOrNone(version);
+      final var releases =
+        this.releaseFilter(Optional.of(releaseKind), vendor, Optional.empty());
+
+      return this.page(page, pageSize, sortOrder, release -> {
+        if (this.snapshot.releaseInt(release, RELEASE_MAJOR) != major
+          || !releases.test(release)
+          || !this.hasMatchingBinary(release, binaries)) {
+          return null;
+        }
+        return this.snapshot.release(release, binaries);
+      });
+    });
+  }
+
+  @Override
+  public AOV3RequestAssetsForLatestType assetsForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final BigInteger version,
+    final AOV3JVMImplementation jvmImplementation)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(jvmImplementation, "jvmImplementation");
+
+    final var binaries = new BinaryFilter(
+      this.snapshot,
+      ANY,
+      ANY,
+      ANY,
+      ordinalOf(jvmImplementation),
+      ANY,
+      Optional.empty()
+    );
+
+    return () -> this.run(() -> {
+      final var major = AOV3LocalQueries.versionOrNone(version);
+      final var kind = ordinalOf(GENERAL_AVAILABILITY);
+
+      /*
+       * Visit releases from newest to oldest, keeping the first binary seen
+       * for each platform and project.
+       */
+
+      final var seen = new HashSet<Long>();
+      final var results = new ArrayList<AOV3ListBinaryAssetView>();
+      for (int release = this.snapshot.releaseCount() - 1;
+           release >= 0;
+           --release) {
+        if (this.snapshot.releaseInt(release, RELEASE_MAJOR) != major
+          || this.snapshot.releaseByte(release, RELEASE_KIND) != kind) {
+          continue;
+        }
+
+        final var start = this.snapshot.binaryStart(release);
+        final var end = start + this.snapshot.binaryCount(release);
+        for (int binary = start; binary < end; ++binary) {
+          if (binaries.test(binary) && seen.add(this.platformOf(binary))) {
+            results.add(
+              AOV3ListBinaryAssetView.builder()
+                .setBinary(this.snapshot.binary(binary))
+                .setReleaseName(this.snapshot.string(
+                  this.snapshot.releaseInt(release, RELEASE_NAME)))
+                .build());
+          }
+        }
+      }
+      return AOV3LocalQueries.nonEmpty(results, this::failed);
+    });
+  }
+
+  private Long platformOf(
+    final int binary)
+  {
+    /*
+     * Pack the project string index and the platform fields into a single
+     * key, with the operating system in the lowest byte.
+     */
+
+    long platform =
+      this.snapshot.binaryInt(binary, BINARY_PROJECT) & 0xffff_ffffL;
+    for (final var field : PLATFORM_FIELDS) {
+      final var value = this.snapshot.binaryByte(binary, field) & 0xffL;
+      platform = platform << 8 | value;
+    }
+    return Long.valueOf(platform);
+  }
+
+  @Override
+  public AOV3RequestBinaryForLatestType binaryForLatest(
+    final Consumer<AOV3Error> errorReceiver,
+    final AOV3Architecture architecture,
+    final BigInteger version,
+    final AOV3HeapSize heapSize,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3ReleaseKind releaseKind,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(releaseKind, "releaseKind");
+    Objects.requireNonNull(vendor, "vendor");
+
+    final var binaries = new BinaryFilter(
+      this.snapshot,
+      ordinalOf(architecture),
+      ordinalOf(heapSize),
+      ordinalOf(imageKind),
+      ordinalOf(jvmImplementation),
+      ordinalOf(operatingSystem),
+      project
+    );
+
+    return () -> this.run(() -> {
+      final var major = AOV3LocalQueries.versionOrNone(version);
+      final var releases = this.releaseFilter(
+        Optional.of(releaseKind), Optional.of(vendor), Optional.empty());
+
+      for (int release = this.snapshot.releaseCount() - 1;
+           release >= 0;
+           --release) {
+        if (this.snapshot.releaseInt(release, RELEASE_MAJOR) != major
+          || !releases.test(release)) {
+          continue;
+        }
+        final var binary = this.firstMatchingBinary(release, binaries);
+        if (binary != ANY) {
+          return this.snapshot.packageLink(binary);
+        }
+      }
+      throw this.failed(404);
+    });
+  }
+
+  @Override
+  public AOV3RequestBinaryForReleaseType binaryForRelease(
+    final Consumer<AOV3Error> errorReceiver,
+    final String releaseName,
+    final AOV3OperatingSystem operatingSystem,
+    final AOV3Architecture architecture,
+    final AOV3ImageKind imageKind,
+    final AOV3JVMImplementation jvmImplementation,
+    final AOV3HeapSize heapSize,
+    final AOV3Vendor vendor,
+    final Optional<String> project)
+  {
+    Objects.requireNonNull(errorReceiver, "errorReceiver");
+    Objects.requireNonNull(releaseName, "releaseName");
+    Objects.requireNonNull(vendor, "vendor");
+
+    final var binaries = new BinaryFilter(
+      this.snapshot,
+      ordinalOf(architecture),
+      ordinalOf(heapSize),
+      ordinalOf(imageKind),
+      ordinalOf(jvmImplementation),
+      ordinalOf(operatingSystem),
+      project
+    );
+
+    return () -> this.run(() -> {
+      final var name = releaseName.getBytes(UTF_8);
+      final var releases = this.releaseFilter(
+        Optional.empty(), Optional.of(vendor), Optional.empty());
+
+      for (int release = this.snapshot.releaseCount() - 1;
+           release >= 0;
+           --release) {
+        final var nameIndex = this.snapshot.releaseInt(release, RELEASE_NAME);
+        if (!this.snapshot.stringEquals(nameIndex, name)
+          || !releases.test(release)) {
+          continue;
+        }
+        final var binary = this.firstMatchingBinary(release, binaries);
+        if (binary != ANY) {
+          return this.snapshot.packageLink(binary);
+        }
+      }
+      throw this.failed(404);
+    });
+  }
+
+  private interface QueryType<T>
+  {
+    T run()
+      throws AOV3Exception;
+  }
+
+  /**
+   * A filter over the binary records of a snapshot. Fields set to
+   * {@link #ANY} match every value.
+   */
+
+  private static final class BinaryFilter implements IntPredicate
+  {
+    private final AOV3Snapshot snapshot;
+    private final int architecture;
+    private final int heapSize;
+    private final int imageKind;
+    private final int jvmImplementation;
+    private final int operatingSystem;
+    private final byte[] project;
+
+    // CHECKSTYLE:OFF
+    BinaryFilter(
+      final AOV3Snapshot inSnapshot,
+      final int inArchitecture,
+      final int inHeapSize,
+      final int inImageKind,
+      final int inJvmImplementation,
+      final int inOperatingSystem,
+      final Optional<String> inProject)
+    // CHECKSTYLE:ON
+    {
+      this.snapshot =
+        Objects.requireNonNull(inSnapshot, "snapshot");
+      this.architecture = inArchitecture;
+      this.heapSize = inHeapSize;
+      this.imageKind = inImageKind;
+      this.jvmImplementation = inJvmImplementation;
+      this.operatingSystem = inOperatingSystem;
+      this.project =
+        Objects.requireNonNull(inProject, "project")
+          .map(name -> name.getBytes(UTF_8))
+          .orElse(DEFAULT_PROJECT);
+    }
+
+    private boolean matches(
+      final int expected,
+      final int binary,
+      final int field)
+    {
+      return expected == ANY
+        || this.snapshot.binaryByte(binary, field) == expected;
+    }
+
+    private boolean matchesPlatform(
+      final int binary)
+    {
+      final var os = this.operatingSystem;
+      return this.matches(os, binary, BINARY_OPERATING_SYSTEM)
+        && this.matches(this.architecture, binary, BINARY_ARCHITECTURE)
+        && this.matches(this.imageKind, binary, BINARY_IMAGE_KIND);
+    }
+
+    private boolean matchesRuntime(
+      final int binary)
+    {
+      final var jvm = this.jvmImplementation;
+      return this.matches(jvm, binary, BINARY_JVM_IMPLEMENTATION)
+        && this.matches(this.heapSize, binary, BINARY_HEAP_SIZE)
+        && this.snapshot.stringEquals(
+        this.snapshot.binaryInt(binary, BINARY_PROJECT), this.project);
+    }
+
+    @Override
+    public boolean test(
+      final int binary)
+    {
+      return this.matchesPlatform(binary) && this.matchesRuntime(binary);
+    }
+  }
+}
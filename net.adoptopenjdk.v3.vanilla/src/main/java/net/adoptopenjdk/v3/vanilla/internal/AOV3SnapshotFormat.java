@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3Architecture;
+import net.adoptopenjdk.v3.api.AOV3HasNameTextType;
+import net.adoptopenjdk.v3.api.AOV3HeapSize;
+import net.adoptopenjdk.v3.api.AOV3ImageKind;
+import net.adoptopenjdk.v3.api.AOV3JVMImplementation;
+import net.adoptopenjdk.v3.api.AOV3OperatingSystem;
+import net.adoptopenjdk.v3.api.AOV3ReleaseKind;
+import net.adoptopenjdk.v3.api.AOV3Vendor;
+
+import java.util.List;
+
+/**
+ * The layout of snapshot files.
+ *
+ * A snapshot consists of a fixed-size header followed by a number of
+ * sections, each of which is located by an offset in the header. Releases
+ * and binaries are stored as fixed-size records so that they can be
+ * indexed and filtered directly in a memory-mapped file. Strings are
+ * deduplicated into a single pool of UTF-8 data and are referred to from
+ * records by index; a reference of {@link #NONE} denotes an absent value.
+ * Enum values are stored as ordinals, and the names of the constants of
+ * each enum type are recorded in the file so that a reader can reject a
+ * snapshot written against a different set of constants.
+ *
+ * All values are big-endian. Timestamps are stored as a 64-bit epoch
+ * second followed by a 32-bit nanosecond adjustment and a 32-bit zone
+ * offset in seconds.
+ */
+
+final class AOV3SnapshotFormat
+{
+  static final long MAGIC = 0x414f5633534e4150L;
+  static final int VERSION = 1;
+  static final int NONE = -1;
+
+  static final List<Class<? extends AOV3HasNameTextType>> ENUM_TYPES =
+    List.of(
+      AOV3Architecture.class,
+      AOV3HeapSize.class,
+      AOV3ImageKind.class,
+      AOV3JVMImplementation.class,
+      AOV3OperatingSystem.class,
+      AOV3ReleaseKind.class,
+      AOV3Vendor.class
+    );
+
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 8;
+  static final int HEADER_FILE_SIZE = 12;
+  static final int HEADER_RELEASE_COUNT = 16;
+  static final int HEADER_BINARY_COUNT = 20;
+  static final int HEADER_STRING_COUNT = 24;
+  static final int HEADER_ENUMS = 28;
+  static final int HEADER_AVAILABLE = 32;
+  static final int HEADER_RELEASES = 36;
+  static final int HEADER_BINARIES = 40;
+  static final int HEADER_STRING_OFFSETS = 44;
+  static final int HEADER_STRING_DATA = 48;
+  static final int HEADER_SIZE = 52;
+
+  static final int TIME_SIZE = 16;
+
+  static final int ASSET_CHECKSUM = 0;
+  static final int ASSET_CHECKSUM_LINK = 4;
+  static final int ASSET_DOWNLOAD_COUNT = 8;
+  static final int ASSET_LINK = 16;
+  static final int ASSET_NAME = 20;
+  static final int ASSET_SIGNATURE_LINK = 24;
+  static final int ASSET_SIZE = 28;
+  static final int ASSET_RECORD_SIZE = 36;
+
+  static final int RELEASE_ID = 0;
+  static final int RELEASE_NAME = 4;
+  static final int RELEASE_LINK = 8;
+  static final int RELEASE_KIND = 12;
+  static final int RELEASE_VENDOR = 13;
+  static final int RELEASE_HAS_SOURCE = 14;
+  static final int RELEASE_TIMESTAMP = 16;
+  static final int RELEASE_UPDATED_AT = 32;
+  static final int RELEASE_DOWNLOAD_COUNT = 48;
+  static final int RELEASE_MAJOR = 56;
+  static final int RELEASE_MINOR = 60;
+  static final int RELEASE_SECURITY = 64;
+  static final int RELEASE_BUILD = 68;
+  static final int RELEASE_ADOPT_BUILD = 72;
+  static final int RELEASE_OPENJDK_VERSION = 76;
+  static final int RELEASE_OPTIONAL = 80;
+  static final int RELEASE_PRE = 84;
+  static final int RELEASE_SEMVER = 88;
+  static final int RELEASE_SOURCE_LINK = 92;
+  static final int RELEASE_SOURCE_NAME = 96;
+  static final int RELEASE_SOURCE_SIZE = 100;
+  static final int RELEASE_BINARY_START = 108;
+  static final int RELEASE_BINARY_COUNT = 112;
+  static final int RELEASE_RECORD_SIZE = 116;
+
+  static final int BINARY_ARCHITECTURE = 0;
+  static final int BINARY_HEAP_SIZE = 1;
+  static final int BINARY_IMAGE_KIND = 2;
+  static final int BINARY_JVM_IMPLEMENTATION = 3;
+  static final int BINARY_OPERATING_SYSTEM = 4;
+  static final int BINARY_HAS_INSTALLER = 5;
+  static final int BINARY_PROJECT = 8;
+  static final int BINARY_SCM_REFERENCE = 12;
+  static final int BINARY_UPDATED_AT = 16;
+  static final int BINARY_DOWNLOAD_COUNT = 32;
+  static final int BINARY_PACKAGE = 40;
+  static final int BINARY_INSTALLER = BINARY_PACKAGE + ASSET_RECORD_SIZE;
+  static final int BINARY_RECORD_SIZE = BINARY_INSTALLER + ASSET_RECORD_SIZE;
+
+  private AOV3SnapshotFormat()
+  {
+
+  }
+
+  static int ordinalOf(
+    final AOV3HasNameTextType value)
+  {
+    return ((Enum<?>) value).ordinal();
+  }
+
+  static AOV3HasNameTextType[] constantsOf(
+    final Class<? extends AOV3HasNameTextType> type)
+  {
+    return type.getEnumConstants();
+  }
+}
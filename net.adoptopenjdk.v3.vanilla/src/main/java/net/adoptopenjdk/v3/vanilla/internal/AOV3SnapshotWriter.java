@@ -0,0 +1,470 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+import net.adoptopenjdk.v3.api.AOV3AvailableReleasesType;
+import net.adoptopenjdk.v3.api.AOV3BinaryType;
+import net.adoptopenjdk.v3.api.AOV3ReleaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_CHECKSUM;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_CHECKSUM_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_SIGNATURE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ASSET_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_ARCHITECTURE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_HAS_INSTALLER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_HEAP_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_IMAGE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_INSTALLER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_JVM_IMPLEMENTATION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_OPERATING_SYSTEM;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_PACKAGE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_PROJECT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_RECORD_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_SCM_REFERENCE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.BINARY_UPDATED_AT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ENUM_TYPES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_AVAILABLE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_BINARIES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_BINARY_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_ENUMS;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_FILE_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_MAGIC;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_RELEASES;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_RELEASE_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_DATA;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_STRING_OFFSETS;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.HEADER_VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.MAGIC;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.NONE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_ADOPT_BUILD;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BINARY_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BINARY_START;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_BUILD;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_DOWNLOAD_COUNT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_HAS_SOURCE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_ID;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_KIND;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MAJOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_MINOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_OPENJDK_VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_OPTIONAL;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_PRE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_RECORD_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SECURITY;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SEMVER;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_LINK;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_NAME;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_SOURCE_SIZE;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_TIMESTAMP;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_UPDATED_AT;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.RELEASE_VENDOR;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.VERSION;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.constantsOf;
+import static net.adoptopenjdk.v3.vanilla.internal.AOV3SnapshotFormat.ordinalOf;
+
+/**
+ * A writer of snapshot files.
+ *
+ * Releases are written in ascending version order (and then in order of
+ * release time) so that readers can answer sorted queries by scanning the
+ * file forwards or backwards without sorting.
+ */
+
+public final class AOV3SnapshotWriter
+{
+  private final HashMap<String, Integer> stringIndices;
+  private final List<String> strings;
+
+  private AOV3SnapshotWriter()
+  {
+    this.stringIndices = new HashMap<>();
+    this.strings = new ArrayList<>();
+  }
+
+  /**
+   * Write a snapshot file. The file is written to a temporary file in the
+   * same directory and then atomically moved into place, so readers never
+   * observe a partially written snapshot.
+   *
+   * @param file      The output file
+   * @param available The available releases
+   * @param releases  The releases
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void write(
+    final Path file,
+    final AOV3AvailableReleasesType available,
+    final Collection<? extends AOV3ReleaseType> releases)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(available, "available");
+    Objects.requireNonNull(releases, "releases");
+
+    final var data = new AOV3SnapshotWriter().encode(available, releases);
+    final var absolute = file.toAbsolutePath();
+    final var fileTmp =
+      Files.createTempFile(
+        absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+    try {
+      try (var channel = FileChannel.open(fileTmp, WRITE)) {
+        while (data.hasRemaining()) {
+          channel.write(data);
+        }
+        channel.force(true);
+      }
+      Files.move(fileTmp, absolute, ATOMIC_MOVE, REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(fileTmp);
+    }
+  }
+
+  private static int toInt(
+    final BigInteger value)
+  {
+    if (value.bitLength() >= Integer.SIZE) {
+      throw new IllegalArgumentException(
+        String.format("Version %s is out of range", value));
+    }
+    return value.intValue();
+  }
+
+  private static void putTime(
+    final ByteBuffer output,
+    final int offset,
+    final OffsetDateTime time)
+  {
+    output.putLong(offset, time.toEpochSecond());
+    output.putInt(offset + 8, time.getNano());
+    output.putInt(offset + 12, time.getOffset().getTotalSeconds());
+  }
+
+  private int string(
+    final String text)
+  {
+    final var existing = this.stringIndices.get(text);
+    if (existing != null) {
+      return existing.intValue();
+    }
+    final var index = this.strings.size();
+    this.strings.add(text);
+    this.stringIndices.put(text, Integer.valueOf(index));
+    return index;
+  }
+
+  private int string(
+    final URI uri)
+  {
+    return this.string(uri.toString());
+  }
+
+  private int optionalString(
+    final Optional<?> value)
+  {
+    return value.map(x -> Integer.valueOf(this.string(x.toString())))
+      .orElse(Integer.valueOf(NONE))
+      .intValue();
+  }
+
+  private static int binaryCount(
+    final List<AOV3ReleaseType> releases)
+  {
+    int count = 0;
+    for (final var release : releases) {
+      count = Math.addExact(count, release.binaries().size());
+    }
+    return count;
+  }
+
+  private ByteBuffer encode(
+    final AOV3AvailableReleasesType available,
+    final Collection<? extends AOV3ReleaseType> releases)
+    throws IOException
+  {
+    final var sorted = new ArrayList<AOV3ReleaseType>(releases);
+    sorted.sort(AOV3LocalQueries.RELEASE_ORDER);
+
+    final var binaryCount = binaryCount(sorted);
+    final var enumData = this.encodeEnums();
+    final var availableData = encodeAvailable(available);
+    final var releaseData =
+      ByteBuffer.allocate(
+        Math.multiplyExact(sorted.size(), RELEASE_RECORD_SIZE));
+    final var binaryData =
+      ByteBuffer.allocate(
+        Math.multiplyExact(binaryCount, BINARY_RECORD_SIZE));
+
+    int binaryIndex = 0;
+    for (int index = 0; index < sorted.size(); ++index) {
+      final var release = sorted.get(index);
+      this.encodeRelease(releaseData, index, release, binaryIndex);
+      for (final var binary : release.binaries()) {
+        this.encodeBinary(binaryData, binaryIndex, binary);
+        ++binaryIndex;
+      }
+    }
+
+    final var stringCount = this.strings.size();
+    final var stringOffsets =
+      ByteBuffer.allocate((stringCount + 1) * Integer.BYTES);
+    final var stringData = new ByteArrayOutputStream();
+    for (int index = 0; index < stringCount; ++index) {
+      stringOffsets.putInt(index * Integer.BYTES, stringData.size());
+      stringData.writeBytes(this.strings.get(index).getBytes(UTF_8));
+    }
+    stringOffsets.putInt(stringCount * Integer.BYTES, stringData.size());
+
+    final long enumsAt = HEADER_SIZE;
+    final long availableAt = enumsAt + enumData.capacity();
+    final long releasesAt = availableAt + availableData.capacity();
+    final long binariesAt = releasesAt + releaseData.capacity();
+    final long stringOffsetsAt = binariesAt + binaryData.capacity();
+    final long stringDataAt = stringOffsetsAt + stringOffsets.capacity();
+    final long size = stringDataAt + stringData.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException(
+        String.format("Snapshot size %d exceeds the maximum size", size));
+    }
+
+    final var output = ByteBuffer.allocate((int) size);
+    output.putLong(HEADER_MAGIC, MAGIC);
+    output.putInt(HEADER_VERSION, VERSION);
+    output.putInt(HEADER_FILE_SIZE, (int) size);
+    output.putInt(HEADER_RELEASE_COUNT, sorted.size());
+    output.putInt(HEADER_BINARY_COUNT, binaryCount);
+    output.putInt(HEADER_STRING_COUNT, this.strings.size());
+    output.putInt(HEADER_ENUMS, (int) enumsAt);
+    output.putInt(HEADER_AVAILABLE, (int) availableAt);
+    output.putInt(HEADER_RELEASES, (int) releasesAt);
+    output.putInt(HEADER_BINARIES, (int) binariesAt);
+    output.putInt(HEADER_STRING_OFFSETS, (int) stringOffsetsAt);
+    output.putInt(HEADER_STRING_DATA, (int) stringDataAt);
+
+    output.position(HEADER_SIZE);
+    output.put(enumData.rewind());
+    output.put(availableData.rewind());
+    output.put(releaseData.rewind());
+    output.put(binaryData.rewind());
+    output.put(stringOffsets.rewind());
+    output.put(stringData.toByteArray());
+    return output.flip();
+  }
+
+  private ByteBuffer encodeEnums()
+  {
+    int size = 0;
+    for (final var type : ENUM_TYPES) {
+      size += Integer.BYTES * (1 + constantsOf(type).length);
+    }
+
+    final var output = ByteBuffer.allocate(size);
+    for (final var type : ENUM_TYPES) {
+      final var constants = constantsOf(type);
+      output.putInt(constants.length);
+      for (final var constant : constants) {
+        output.putInt(this.string(constant.nameText()));
+      }
+    }
+    return output;
+  }
+
+  private static ByteBuffer encodeAvailable(
+    final AOV3AvailableReleasesType available)
+  {
+    final var releases = available.availableReleases();
+    final var releasesLTS = available.availableLTSReleases();
+    final var output =
+      ByteBuffer.allocate(
+        Integer.BYTES * (4 + releases.size() + releasesLTS.size()));
+
+    output.putInt(toInt(available.mostRecentFeatureRelease()));
+    output.putInt(toInt(available.mostRecentLTSRelease()));
+    output.putInt(releases.size());
+    for (final var version : releases) {
+      output.putInt(toInt(version));
+    }
+    output.putInt(releasesLTS.size());
+    for (final var version : releasesLTS) {
+      output.putInt(toInt(version));
+    }
+    return output;
+  }
+
+  private void encodeRelease(
+    final ByteBuffer output,
+    final int index,
+    final AOV3ReleaseType release,
+    final int binaryStart)
+  {
+    final var base = index * RELEASE_RECORD_SIZE;
+    output.putInt(base + RELEASE_ID, this.string(release.id()));
+    output.putInt(base + RELEASE_NAME, this.string(release.releaseName()));
+    output.putInt(base + RELEASE_LINK, this.string(release.releaseLink()));
+    output.put(base + RELEASE_KIND, (byte) ordinalOf(release.releaseType()));
+    output.put(base + RELEASE_VENDOR, (byte) ordinalOf(release.vendor()));
+    putTime(output, base + RELEASE_TIMESTAMP, release.timestamp());
+    putTime(output, base + RELEASE_UPDATED_AT, release.updatedAt());
+    output.putLong(
+      base + RELEASE_DOWNLOAD_COUNT,
+      release.downloadCountAsLong());
+
+    final var version = release.versionData();
+    output.putInt(base + RELEASE_MAJOR, version.majorAsInt());
+    output.putInt(base + RELEASE_MINOR, version.minorAsInt());
+    output.putInt(base + RELEASE_SECURITY, version.securityAsInt());
+    output.putInt(base + RELEASE_BUILD, version.buildAsInt());
+    output.putInt(base + RELEASE_ADOPT_BUILD, version.adoptBuildNumberAsInt());
+    output.putInt(
+      base + RELEASE_OPENJDK_VERSION, this.string(version.openJDKVersion()));
+    output.putInt(base + RELEASE_OPTIONAL, this.string(version.optional()));
+    output.putInt(base + RELEASE_PRE, this.string(version.pre()));
+    output.putInt(
+      base + RELEASE_SEMVER, this.string(version.semanticVersion()));
+
+    final var sourceOpt = release.source();
+    if (sourceOpt.isPresent()) {
+      final var source = sourceOpt.get();
+      output.put(base + RELEASE_HAS_SOURCE, (byte) 1);
+      output.putInt(base + RELEASE_SOURCE_LINK, this.string(source.link()));
+      output.putInt(base + RELEASE_SOURCE_NAME, this.string(source.name()));
+      output.putLong(base + RELEASE_SOURCE_SIZE, source.sizeAsLong());
+    } else {
+      output.putInt(base + RELEASE_SOURCE_LINK, NONE);
+      output.putInt(base + RELEASE_SOURCE_NAME, NONE);
+    }
+
+    output.putInt(base + RELEASE_BINARY_START, binaryStart);
+    output.putInt(base + RELEASE_BINARY_COUNT, release.binaries().size());
+  }
+
+  private void encodeBinary(
+    final ByteBuffer output,
+    final int index,
+    final AOV3BinaryType binary)
+  {
+    final var base = index * BINARY_RECORD_SIZE;
+    output.put(
+      base + BINARY_ARCHITECTURE,
+      (byte) ordinalOf(binary.architecture()));
+    output.put(
+      base + BINARY_HEAP_SIZE,
+      (byte) ordinalOf(binary.heapSize()));
+    output.put(
+      base + BINARY_IMAGE_KIND,
+      (byte) ordinalOf(binary.imageType()));
+    output.put(
+      base + BINARY_JVM_IMPLEMENTATION,
+      (byte) ordinalOf(binary.jvmImplementation()));
+    output.put(
+      base + BINARY_OPERATING_SYSTEM,
+      (byte) ordinalOf(binary.operatingSystem()));
+    output.putInt(base + BINARY_PROJECT, this.string(binary.project()));
+    output.putInt(
+      base + BINARY_SCM_REFERENCE, this.optionalString(binary.scmReference()));
+    putTime(output, base + BINARY_UPDATED_AT, binary.updatedAt());
+    output.putLong(base + BINARY_DOWNLOAD_COUNT, binary.downloadCountAsLong());
+
+    final var pack = binary.package_();
+    this.encodeAsset(
+      output,
+      base + BINARY_PACKAGE,
+      pack.checksum(),
+      pack.checksumLink(),
+      pack.downloadCountAsLong(),
+      pack.link(),
+      pack.name(),
+      pack.signatureLink(),
+      pack.sizeAsLong());
+
+    final var installerOpt = binary.installer();
+    if (installerOpt.isPresent()) {
+      final var installer = installerOpt.get();
+      output.put(base + BINARY_HAS_INSTALLER, (byte) 1);
+      this.encodeAsset(
+        output,
+        base + BINARY_INSTALLER,
+        installer.checksum(),
+        installer.checksumLink(),
+        installer.downloadCountAsLong(),
+        installer.link(),
+        installer.name(),
+        installer.signatureLink(),
+        installer.sizeAsLong());
+    } else {
+      output.putInt(base + BINARY_INSTALLER + ASSET_CHECKSUM, NONE);
+      output.putInt(base + BINARY_INSTALLER + ASSET_CHECKSUM_LINK, NONE);
+      output.putInt(base + BINARY_INSTALLER + ASSET_LINK, NONE);
+      output.putInt(base + BINARY_INSTALLER + ASSET_NAME, NONE);
+      output.putInt(base + BINARY_INSTALLER + ASSET_SIGNATURE_LINK, NONE);
+    }
+  }
+
+  // CHECKSTYLE:OFF
+  private void encodeAsset(
+    final ByteBuffer output,
+    final int base,
+    final Optional<String> checksum,
+    final Optional<URI> checksumLink,
+    final long downloadCount,
+    final URI link,
+    final String name,
+    final Optional<URI> signatureLink,
+    final long size)
+  // CHECKSTYLE:ON
+  {
+    output.putInt(base + ASSET_CHECKSUM, this.optionalString(checksum));
+    output.putInt(
+      base + ASSET_CHECKSUM_LINK, this.optionalString(checksumLink));
+    output.putLong(base + ASSET_DOWNLOAD_COUNT, downloadCount);
+    output.putInt(base + ASSET_LINK, this.string(link));
+    output.putInt(base + ASSET_NAME, this.string(name));
+    output.putInt(
+      base + ASSET_SIGNATURE_LINK, this.optionalString(signatureLink));
+    output.putLong(base + ASSET_SIZE, size);
+  }
+}
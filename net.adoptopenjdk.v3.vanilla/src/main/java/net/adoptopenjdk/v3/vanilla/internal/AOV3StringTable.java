@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2020 Mark Raynsford <code@io7m.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.adoptopenjdk.v3.vanilla.internal;
+
+/**
+ * A bounded table of canonical strings.
+ *
+ * Values that repeat across responses (project names, source control tags,
+ * release names, and so on) are looked up directly from a parser's
+ * character buffer. A value that has been seen before is returned without
+ * allocating a new string, and every object decoded by the same table
+ * shares a single instance of each value.
+ *
+ * The table is direct-mapped: a value that hashes to an occupied slot
+ * simply replaces the previous occupant. Lookups therefore never lock and
+ * the table never grows, at the cost of occasionally allocating a second
+ * copy of a value whose slot was taken by another. Races between threads
+ * are benign for the same reason; strings are immutable and safely
+ * published, so a reader sees either the old or the new occupant of a
+ * slot, and both are correct answers to a lookup that compares contents.
+ */
+
+public final class AOV3StringTable
+{
+  private static final int DEFAULT_SIZE = 1024;
+
+  private final String[] slots;
+  private final int mask;
+
+  private AOV3StringTable(
+    final int size)
+  {
+    this.slots = new String[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * @return A table with a default size
+   */
+
+  public static AOV3StringTable create()
+  {
+    return create(DEFAULT_SIZE);
+  }
+
+  /**
+   * @param size The number of slots, rounded up to a power of two
+   *
+   * @return A table with the given number of slots
+   */
+
+  public static AOV3StringTable create(
+    final int size)
+  {
+    if (size < 1 || size > 1 << 30) {
+      throw new IllegalArgumentException(
+        String.format("Table size %d must be in the range [1, 2^30]", size));
+    }
+    final var rounded = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    return new AOV3StringTable(rounded);
+  }
+
+  /**
+   * Find or create the canonical string for the given characters.
+   *
+   * @param chars  The character buffer
+   * @param offset The offset of the first character
+   * @param length The number of characters
+   *
+   * @return The canonical string with the given contents
+   */
+
+  public String canonicalize(
+    final char[] chars,
+    final int offset,
+    final int length)
+  {
+    int hash = 0;
+    for (int index = 0; index < length; ++index) {
+      hash = 31 * hash + chars[offset + index];
+    }
+
+    final var slot = (hash ^ (hash >>> 16)) & this.mask;
+    final var existing = this.slots[slot];
+    if (existing != null && contentEquals(existing, chars, offset, length)) {
+      return existing;
+    }
+
+    final var created = String.valueOf(chars, offset, length);
+    this.slots[slot] = created;
+    return created;
+  }
+
+  private static boolean contentEquals(
+    final String existing,
+    final char[] chars,
+    final int offset,
+    final int length)
+  {
+    if (existing.length() != length) {
+      return false;
+    }
+    for (int index = 0; index < length; ++index) {
+      if (existing.charAt(index) != chars[offset + index]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}